@@ -1,5 +1,6 @@
 package com.iota.iri;
 
+import com.iota.iri.controllers.BundleTailViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.crypto.*;
 import com.iota.iri.model.Hash;
@@ -118,7 +119,8 @@ public class BundleValidator {
      * @return A list of transactions of the bundle contained in another list. If the bundle is valid then the tail
      * transaction's {@link TransactionViewModel#getValidity()} will return 1, else {@link
      * TransactionViewModel#getValidity()} will return -1. If the bundle is invalid then an empty list will be
-     * returned.
+     * returned. When a bundle is validated for the first time, its tail gets stored as the {@link
+     * BundleTailViewModel} of all of its transactions.
      * @throws Exception if a persistence error occurred
      * @implNote if {@code tailHash} was already invalidated/validated by a previous call to this method then we don't
      * validate it again.
@@ -153,6 +155,7 @@ public class BundleValidator {
             case VALID:
                 if (bundleTxs.get(0).getValidity() != 1) {
                     bundleTxs.get(0).setValidity(tangle, initialSnapshot, 1);
+                    BundleTailViewModel.store(tangle, bundleTxs);
                 }
                 return bundleTxs;
             case INVALID:
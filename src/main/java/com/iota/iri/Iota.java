@@ -25,7 +25,9 @@ import com.iota.iri.service.transactionpruning.TransactionPruner;
 import com.iota.iri.service.validation.TransactionSolidifier;
 import com.iota.iri.service.validation.TransactionValidator;
 import com.iota.iri.storage.*;
+import com.iota.iri.storage.rocksDB.ColumnFamilyProfile;
 import com.iota.iri.storage.rocksDB.RocksDBPersistenceProvider;
+import com.iota.iri.utils.IotaUtils;
 import com.iota.iri.utils.Pair;
 import com.iota.iri.zmq.ZmqMessageQueueProvider;
 
@@ -71,6 +73,11 @@ public class Iota {
 
     private static final Logger log = LoggerFactory.getLogger(Iota.class);
 
+    /**
+     * The number of transactions that are rescanned before the cursor of the rescan is reopened.
+     */
+    private static final int RESCAN_CURSOR_SIZE = 10000;
+
     //Fields must be public in order to be used by IXI
 
     public final SpentAddressesProvider spentAddressesProvider;
@@ -237,20 +244,43 @@ public class Iota {
         tangle.clearMetadata(com.iota.iri.model.persistables.Transaction.class);
 
         // rescan all tx & refill the columns
-        TransactionViewModel tx = TransactionViewModel.first(tangle);
         int counter = 0;
-        while (tx != null) {
-            if (++counter % 10000 == 0) {
-                log.info("Rescanned {} Transactions", counter);
+        Indexable lastKey = null;
+        boolean done = false;
+        while (!done) {
+            // the cursor pins the snapshot it was opened with while we keep writing, so we reopen it every now and
+            // then to let the database drop the versions that the rescan has replaced since
+            try (PersistenceCursor cursor = tangle.cursor(com.iota.iri.model.persistables.Transaction.class,
+                    com.iota.iri.model.TransactionHash.class, lastKey, false)) {
+                int scanned = 0;
+                while (scanned < RESCAN_CURSOR_SIZE && cursor.hasNext()) {
+                    Pair<Indexable, Persistable> transactionPair = cursor.next();
+                    // the reopened cursor starts at the last transaction of the previous one
+                    if (transactionPair.low.equals(lastKey)) {
+                        continue;
+                    }
+                    rescanTransaction(transactionPair);
+                    lastKey = transactionPair.low;
+                    scanned++;
+                    if (++counter % 10000 == 0) {
+                        log.info("Rescanned {} Transactions", counter);
+                    }
+                }
+                done = !cursor.hasNext();
             }
-            List<Pair<Indexable, Persistable>> saveBatch = tx.getSaveBatch();
-            //don't re-save the tx itself
-            saveBatch.remove(saveBatch.size() - 1);
-            tangle.saveBatch(saveBatch);
-            tx = tx.next(tangle);
         }
     }
 
+    private void rescanTransaction(Pair<Indexable, Persistable> transactionPair) throws Exception {
+        TransactionViewModel tx = new TransactionViewModel(
+                (com.iota.iri.model.persistables.Transaction) transactionPair.hi,
+                (com.iota.iri.model.Hash) transactionPair.low);
+        List<Pair<Indexable, Persistable>> saveBatch = tx.getSaveBatch();
+        //don't re-save the tx itself
+        saveBatch.remove(saveBatch.size() - 1);
+        tangle.saveBatch(saveBatch);
+    }
+
     /**
      * Gracefully shuts down by calling <tt>shutdown()</tt> on all used services. Exceptions during shutdown are not
      * caught.
@@ -273,6 +303,7 @@ public class Iota {
         tipsRequester.shutdown();
         txPipeline.shutdown();
         neighborRouter.shutdown();
+        spentAddressesProvider.shutdown();
         localSnapshotsDb.shutdown();
         tangle.shutdown();
 
@@ -305,7 +336,8 @@ public class Iota {
     }
 
     /**
-     * Creates a new Persistable provider with the supplied settings
+     * Creates a new Persistable provider with the supplied settings. The column families are tuned with their
+     * {@link ColumnFamilyProfile} presets and the overrides of the configuration.
      *
      * @param path The location where the database will be stored
      * @param log The location where the log files will be stored
@@ -318,8 +350,14 @@ public class Iota {
     private PersistenceProvider createRocksDbProvider(String path, String log, String configFile, int cacheSize,
             Map<String, Class<? extends Persistable>> columnFamily,
             Map.Entry<String, Class<? extends Persistable>> metadata) {
+        Map<String, ColumnFamilyProfile> profiles = configuration.isDbPointLookup()
+                ? ColumnFamilyProfile.withPointLookups(ColumnFamilyProfile.TANGLE_PRESETS)
+                : ColumnFamilyProfile.TANGLE_PRESETS;
+        profiles = ColumnFamilyProfile.withOverrides(profiles, configuration.getDbColumnFamilyProfiles());
+
         return new RocksDBPersistenceProvider(
-                path, log, configFile, cacheSize, columnFamily, metadata);
+                path, log, configFile, cacheSize, columnFamily, metadata, profiles,
+                configuration.getDbColdPath(), IotaUtils.parseFileSize(configuration.getDbHotPathMaxSize()));
     }
 
 }
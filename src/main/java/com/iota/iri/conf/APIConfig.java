@@ -72,6 +72,27 @@ public interface APIConfig extends Config {
      */
     String getRemoteAuth();
 
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#API_COMMAND_THREADS}
+     *
+     * @return {@value APIConfig.Descriptions#API_COMMAND_THREADS}
+     */
+    int getApiCommandThreads();
+
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#API_COMMAND_QUEUE_SIZE}
+     *
+     * @return {@value APIConfig.Descriptions#API_COMMAND_QUEUE_SIZE}
+     */
+    int getApiCommandQueueSize();
+
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#API_COMMAND_TIMEOUT_SEC}
+     *
+     * @return {@value APIConfig.Descriptions#API_COMMAND_TIMEOUT_SEC}
+     */
+    int getApiCommandTimeoutSec();
+
     /**
      * These descriptions are used by JCommander when you enter <code>java iri.jar --help</code> at the command line.
      */
@@ -86,5 +107,10 @@ public interface APIConfig extends Config {
         String MAX_GET_TRYTES = "The maximal number of trytes that may be returned by the \"getTrytes\" API call. If the number of transactions found exceeds this number an error will be returned.";
         String MAX_BODY_LENGTH = "The maximal number of characters the body of an API call may hold. If a request body length exceeds this number an error will be returned.";
         String REMOTE = "Open the API interface to any host. Equivalent to \"--api-host 0.0.0.0\"";
+        String API_COMMAND_THREADS = "The maximal number of requests of the same API command which are processed concurrently.";
+        String API_COMMAND_QUEUE_SIZE = "The maximal number of requests of the same API command which may wait for processing. " +
+                "If the queue of a command is full, further requests are rejected with status 503.";
+        String API_COMMAND_TIMEOUT_SEC = "The maximal number of seconds a request may wait for and spend in processing " +
+                "before it is cancelled and rejected with status 503. 0 disables the timeout.";
     }
 }
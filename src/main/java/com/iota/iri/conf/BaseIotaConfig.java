@@ -41,6 +41,9 @@ public abstract class BaseIotaConfig implements IotaConfig {
     protected int maxGetTrytes = Defaults.MAX_GET_TRYTES;
     protected int maxBodyLength = Defaults.MAX_BODY_LENGTH;
     protected String remoteAuth = Defaults.REMOTE_AUTH;
+    protected int apiCommandThreads = Defaults.API_COMMAND_THREADS;
+    protected int apiCommandQueueSize = Defaults.API_COMMAND_QUEUE_SIZE;
+    protected int apiCommandTimeoutSec = Defaults.API_COMMAND_TIMEOUT_SEC;
 
     //We don't have a REMOTE config but we have a remote flag. We must add a field for JCommander
     private boolean remote;
@@ -53,6 +56,9 @@ public abstract class BaseIotaConfig implements IotaConfig {
     protected double pDropCacheEntry = Defaults.P_DROP_CACHE_ENTRY;
     protected int sendLimit = Defaults.SEND_LIMIT;
     protected int maxNeighbors = Defaults.MAX_NEIGHBORS;
+    protected int neighborSendQueueSize = Defaults.NEIGHBOR_SEND_QUEUE_SIZE;
+    protected int neighborSendBudgetBytes = Defaults.NEIGHBOR_SEND_BUDGET_BYTES;
+    protected int neighborIoThreads = Defaults.NEIGHBOR_IO_THREADS;
     protected boolean dnsRefresherEnabled = Defaults.DNS_REFRESHER_ENABLED;
     protected boolean dnsResolutionEnabled = Defaults.DNS_RESOLUTION_ENABLED;
     protected List<String> neighbors = Collections.EMPTY_LIST;
@@ -65,6 +71,10 @@ public abstract class BaseIotaConfig implements IotaConfig {
     protected String dbLogPath = Defaults.DB_LOG_PATH;
     protected String dbConfigFile = Defaults.DB_CONFIG_FILE;
     protected int dbCacheSize = Defaults.DB_CACHE_SIZE; //KB
+    protected List<String> dbColumnFamilyProfiles = Collections.emptyList();
+    protected String dbColdPath = Defaults.DB_COLD_PATH;
+    protected String dbHotPathMaxSize = Defaults.DB_HOT_PATH_MAX_SIZE; //Human readable
+    protected boolean dbPointLookup = Defaults.DB_POINT_LOOKUP;
     protected String mainDb = Defaults.MAIN_DB;
     protected boolean revalidate = Defaults.REVALIDATE;
     protected boolean rescanDb = Defaults.RESCAN_DB;
@@ -84,6 +94,7 @@ public abstract class BaseIotaConfig implements IotaConfig {
     protected String zmqIpc = Defaults.ZMQ_IPC;
     protected int qSizeNode = Defaults.QUEUE_SIZE;
     protected int cacheSizeBytes = Defaults.CACHE_SIZE_BYTES;
+    protected int receivedWriteBatchSize = Defaults.RECEIVED_WRITE_BATCH_SIZE;
     /**
      * @deprecated This field was replaced by {@link #zmqEnableTcp} and {@link #zmqEnableIpc}. It is only needed
      * for backward compatibility to --zmq-enabled parameter with JCommander.
@@ -279,6 +290,39 @@ public abstract class BaseIotaConfig implements IotaConfig {
         this.remoteAuth = remoteAuth;
     }
 
+    @Override
+    public int getApiCommandThreads() {
+        return apiCommandThreads;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--api-command-threads"}, description = APIConfig.Descriptions.API_COMMAND_THREADS)
+    protected void setApiCommandThreads(int apiCommandThreads) {
+        this.apiCommandThreads = apiCommandThreads;
+    }
+
+    @Override
+    public int getApiCommandQueueSize() {
+        return apiCommandQueueSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--api-command-queue-size"}, description = APIConfig.Descriptions.API_COMMAND_QUEUE_SIZE)
+    protected void setApiCommandQueueSize(int apiCommandQueueSize) {
+        this.apiCommandQueueSize = apiCommandQueueSize;
+    }
+
+    @Override
+    public int getApiCommandTimeoutSec() {
+        return apiCommandTimeoutSec;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--api-command-timeout-sec"}, description = APIConfig.Descriptions.API_COMMAND_TIMEOUT_SEC)
+    protected void setApiCommandTimeoutSec(int apiCommandTimeoutSec) {
+        this.apiCommandTimeoutSec = apiCommandTimeoutSec;
+    }
+
     @JsonProperty
     @Parameter(names = {"--neighboring-socket-address"}, description = NetworkConfig.Descriptions.NEIGHBORING_SOCKET_ADDRESS)
     public void setNeighboringSocketAddress(String neighboringSocketAddress) {
@@ -345,6 +389,39 @@ public abstract class BaseIotaConfig implements IotaConfig {
         this.maxNeighbors = maxNeighbors;
     }
 
+    @Override
+    public int getNeighborSendQueueSize() {
+        return neighborSendQueueSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--neighbor-send-queue-size"}, description = NetworkConfig.Descriptions.NEIGHBOR_SEND_QUEUE_SIZE)
+    protected void setNeighborSendQueueSize(int neighborSendQueueSize) {
+        this.neighborSendQueueSize = neighborSendQueueSize;
+    }
+
+    @Override
+    public int getNeighborSendBudgetBytes() {
+        return neighborSendBudgetBytes;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--neighbor-send-budget"}, description = NetworkConfig.Descriptions.NEIGHBOR_SEND_BUDGET_BYTES)
+    protected void setNeighborSendBudgetBytes(int neighborSendBudgetBytes) {
+        this.neighborSendBudgetBytes = neighborSendBudgetBytes;
+    }
+
+    @Override
+    public int getNeighborIoThreads() {
+        return neighborIoThreads;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--neighbor-io-threads"}, description = NetworkConfig.Descriptions.NEIGHBOR_IO_THREADS)
+    protected void setNeighborIoThreads(int neighborIoThreads) {
+        this.neighborIoThreads = neighborIoThreads;
+    }
+
     @Override
     public boolean isDnsRefresherEnabled() {
         return dnsRefresherEnabled;
@@ -433,6 +510,54 @@ public abstract class BaseIotaConfig implements IotaConfig {
         this.dbCacheSize = dbCacheSize;
     }
 
+    @Override
+    public List<String> getDbColumnFamilyProfiles() {
+        return dbColumnFamilyProfiles;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-column-family-profiles"}, description = DbConfig.Descriptions.DB_COLUMN_FAMILY_PROFILES)
+    protected void setDbColumnFamilyProfiles(String dbColumnFamilyProfiles) {
+        this.dbColumnFamilyProfiles = IotaUtils.splitStringToImmutableList(dbColumnFamilyProfiles,
+                SPLIT_STRING_TO_LIST_REGEX);
+    }
+
+    @Override
+    public String getDbColdPath() {
+        return dbColdPath;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-cold-path"}, description = DbConfig.Descriptions.DB_COLD_PATH)
+    protected void setDbColdPath(String dbColdPath) {
+        this.dbColdPath = dbColdPath;
+    }
+
+    @Override
+    public String getDbHotPathMaxSize() {
+        return dbHotPathMaxSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-hot-path-max-size"}, description = DbConfig.Descriptions.DB_HOT_PATH_MAX_SIZE)
+    protected void setDbHotPathMaxSize(String dbHotPathMaxSize) {
+        if (IotaUtils.parseFileSize(dbHotPathMaxSize) <= 0) {
+            throw new ParameterException("Invalid value for --db-hot-path-max-size: " + dbHotPathMaxSize);
+        }
+        this.dbHotPathMaxSize = dbHotPathMaxSize;
+    }
+
+    @Override
+    public boolean isDbPointLookup() {
+        return dbPointLookup;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-point-lookup"}, description = DbConfig.Descriptions.DB_POINT_LOOKUP, arity = 1)
+    protected void setDbPointLookup(boolean dbPointLookup) {
+        this.dbPointLookup = dbPointLookup;
+    }
+
     @Override
     public String getMainDb() {
         return mainDb;
@@ -790,6 +915,22 @@ public abstract class BaseIotaConfig implements IotaConfig {
         this.cacheSizeBytes = cacheSizeBytes;
     }
 
+    @Override
+    public int getReceivedWriteBatchSize() {
+        return receivedWriteBatchSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = "--received-write-batch-size",
+            description = NetworkConfig.Descriptions.RECEIVED_WRITE_BATCH_SIZE)
+    protected void setReceivedWriteBatchSize(int receivedWriteBatchSize) {
+        if (receivedWriteBatchSize < 0) {
+            throw new ParameterException("RECEIVED_WRITE_BATCH_SIZE should not be negative. (found "
+                    + receivedWriteBatchSize + ")");
+        }
+        this.receivedWriteBatchSize = receivedWriteBatchSize;
+    }
+
     @Override
     public Hash getCoordinator() {
         return Defaults.COORDINATOR;
@@ -892,6 +1033,9 @@ public abstract class BaseIotaConfig implements IotaConfig {
         int MAX_GET_TRYTES = 10_000;
         int MAX_BODY_LENGTH = 1_000_000;
         String REMOTE_AUTH = "";
+        int API_COMMAND_THREADS = 4;
+        int API_COMMAND_QUEUE_SIZE = 100;
+        int API_COMMAND_TIMEOUT_SEC = 0;
 
         //Network
         String NEIGHBORING_SOCKET_ADDRESS = "0.0.0.0";
@@ -900,6 +1044,9 @@ public abstract class BaseIotaConfig implements IotaConfig {
         boolean AUTO_TETHERING_ENABLED = false;
         int SEND_LIMIT = -1;
         int MAX_NEIGHBORS = 5;
+        int NEIGHBOR_SEND_QUEUE_SIZE = 100;
+        int NEIGHBOR_SEND_BUDGET_BYTES = 64 * 1024;
+        int NEIGHBOR_IO_THREADS = 0;
         boolean DNS_REFRESHER_ENABLED = true;
         boolean DNS_RESOLUTION_ENABLED = true;
 
@@ -911,6 +1058,9 @@ public abstract class BaseIotaConfig implements IotaConfig {
         String DB_LOG_PATH = "mainnet.log";
         String DB_CONFIG_FILE = "rocksdb-config.properties";
         int DB_CACHE_SIZE = 100_000;
+        String DB_COLD_PATH = "";
+        String DB_HOT_PATH_MAX_SIZE = "50GB";
+        boolean DB_POINT_LOOKUP = false;
         String MAIN_DB = "rocksdb";
         boolean REVALIDATE = false;
         boolean RESCAN_DB = false;
@@ -928,6 +1078,7 @@ public abstract class BaseIotaConfig implements IotaConfig {
         int QUEUE_SIZE = 1_000;
         double P_DROP_CACHE_ENTRY = 0.02d;
         int CACHE_SIZE_BYTES = 150_000;
+        int RECEIVED_WRITE_BATCH_SIZE = 100;
 
 
         //Zmq
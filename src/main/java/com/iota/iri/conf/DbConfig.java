@@ -1,5 +1,7 @@
 package com.iota.iri.conf;
 
+import java.util.List;
+
 /**
  * Configurations for tangle database.
  */
@@ -33,6 +35,34 @@ public interface DbConfig extends Config {
      */
     int getDbCacheSize();
 
+    /**
+     * Default Value: empty
+     *
+     * @return {@value DbConfig.Descriptions#DB_COLUMN_FAMILY_PROFILES}
+     */
+    List<String> getDbColumnFamilyProfiles();
+
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#DB_COLD_PATH}
+     *
+     * @return {@value DbConfig.Descriptions#DB_COLD_PATH}
+     */
+    String getDbColdPath();
+
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#DB_HOT_PATH_MAX_SIZE}
+     *
+     * @return {@value DbConfig.Descriptions#DB_HOT_PATH_MAX_SIZE}
+     */
+    String getDbHotPathMaxSize();
+
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#DB_POINT_LOOKUP}
+     *
+     * @return {@value DbConfig.Descriptions#DB_POINT_LOOKUP}
+     */
+    boolean isDbPointLookup();
+
     /**
      * Default Value: {@value BaseIotaConfig.Defaults#MAIN_DB}
      *
@@ -73,6 +103,18 @@ public interface DbConfig extends Config {
         String DB_PATH = "The folder where the DB saves its data.";
         String DB_LOG_PATH = "The folder where the DB logs info";
         String DB_CACHE_SIZE = "The size of the DB cache in KB";
+        String DB_COLUMN_FAMILY_PROFILES = "Overrides of the tuning presets of single column families in the format "
+                + "family.option=value. Supported options are write_buffer_size (bytes), max_write_buffer_number, "
+                + "compression (none, snappy, lz4 or zstd), block_size (bytes), bloom_bits (0 disables the filter), "
+                + "prefix_length (0 disables the prefix extractor), high_cache_priority (true or false) and "
+                + "point_lookup (true or false).";
+        String DB_POINT_LOOKUP = "Optimizes the tables of the column families that are read by hash for point "
+                + "lookups with a hash index in every data block and partitioned index and filter blocks.";
+        String DB_COLD_PATH = "A folder for the cold data of the DB, e.g. on a cheaper and slower disk. Once the DB "
+                + "folder holds more than the maximum hot size, the oldest compaction levels are moved to this folder. "
+                + "If empty, all data is kept in the DB folder.";
+        String DB_HOT_PATH_MAX_SIZE = "The size of the data that is kept in the DB folder when a cold path is set. "
+                + "Human readable format (GB, GiB, MB, MiB).";
         String MAIN_DB = "The DB engine used to store the transactions. Currently only RocksDB is supported.";
         String REVALIDATE = "Reload from the db data about confirmed transaction (milestones), state of the ledger, " +
                 "and transaction metadata.";
@@ -50,6 +50,27 @@ public interface NetworkConfig extends Config {
      */
     int getMaxNeighbors();
 
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#NEIGHBOR_SEND_QUEUE_SIZE}
+     *
+     * @return {@value NetworkConfig.Descriptions#NEIGHBOR_SEND_QUEUE_SIZE}
+     */
+    int getNeighborSendQueueSize();
+
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#NEIGHBOR_SEND_BUDGET_BYTES}
+     *
+     * @return {@value NetworkConfig.Descriptions#NEIGHBOR_SEND_BUDGET_BYTES}
+     */
+    int getNeighborSendBudgetBytes();
+
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#NEIGHBOR_IO_THREADS}
+     *
+     * @return {@value NetworkConfig.Descriptions#NEIGHBOR_IO_THREADS}
+     */
+    int getNeighborIoThreads();
+
     /**
      * Default Value: {@value BaseIotaConfig.Defaults#DNS_REFRESHER_ENABLED}
      *
@@ -89,6 +110,13 @@ public interface NetworkConfig extends Config {
      */
     int getCacheSizeBytes();
 
+    /**
+     * Default Value: {@value BaseIotaConfig.Defaults#RECEIVED_WRITE_BATCH_SIZE}
+     *
+     * @return {@value NetworkConfig.Descriptions#RECEIVED_WRITE_BATCH_SIZE}
+     */
+    int getReceivedWriteBatchSize();
+
     interface Descriptions {
         String NEIGHBORING_SOCKET_ADDRESS = "The address to bind the TCP server socket to.";
         String NEIGHBORING_SOCKET_PORT = "The TCP Receiver Port.";
@@ -97,6 +125,12 @@ public interface NetworkConfig extends Config {
                 + "Unknown meaning neighbors which are not defined in the config and were not added via addNeighbors.";
         String SEND_LIMIT = "The maximum number of packets that may be sent by this node in a 1 second interval. If this number is below 0 then there is no limit.";
         String MAX_NEIGHBORS = "The maximum number of neighbors allowed to be connected.";
+        String NEIGHBOR_SEND_QUEUE_SIZE = "The maximum number of packets queued for sending per neighbor. "
+                + "If the queue is full, packets with the lowest priority (replies to random tip requests) are dropped first.";
+        String NEIGHBOR_SEND_BUDGET_BYTES = "The maximum number of bytes written to a neighbor's socket in one write operation. "
+                + "Multiple queued packets are gathered into a single write up to this budget.";
+        String NEIGHBOR_IO_THREADS = "The number of threads reading from and writing to the connections of handshaked "
+                + "neighbors. 0 lets the neighbor router thread serve all connections itself.";
         String DNS_REFRESHER_ENABLED = "Reconnect to neighbors that have dynamic IPs.";
         String DNS_RESOLUTION_ENABLED = "Enable using DNS for neighbor peering.";
         String NEIGHBORS = "Urls of neighbor iota nodes.";
@@ -105,5 +139,9 @@ public interface NetworkConfig extends Config {
                 "dropping recently seen transactions out of the network cache. " +
                 "It may relieve cases of spam or transactions that weren't stored properly in the database";
         String CACHE_SIZE_BYTES = "The size of the network cache in bytes";
+        String RECEIVED_WRITE_BATCH_SIZE = "The maximum number of received transactions that are stored with a "
+                + "single database write. Received transactions are then stored in the background, so slow writes "
+                + "don't hold up the processing of new transactions. 0 stores every transaction on its own before it "
+                + "is processed further.";
     }
 }
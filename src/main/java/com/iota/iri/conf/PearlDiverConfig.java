@@ -16,7 +16,8 @@ public interface PearlDiverConfig extends Config {
     * Field descriptions
     */
     interface Descriptions {
-        String POW_THREADS = "Number of threads to use for proof-of-work calculation. " +
+        String POW_THREADS = "Number of threads to use for proof-of-work calculation. They are shared by all " +
+                "concurrent attachToTangle requests. " +
                 "0 means you default to a number that depends on the number of cores your machine has.";
     }
 }
@@ -0,0 +1,73 @@
+package com.iota.iri.controllers;
+
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.persistables.BundleTail;
+import com.iota.iri.storage.Indexable;
+import com.iota.iri.storage.Persistable;
+import com.iota.iri.storage.Tangle;
+import com.iota.iri.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acts as a controller interface for the {@link BundleTail} index, which maps the hash of every transaction of a
+ * validated bundle to the hash of the tail transaction of the bundle.
+ */
+public class BundleTailViewModel {
+    private final BundleTail bundleTail;
+    private final Hash hash;
+
+    /**
+     * Loads the {@link BundleTail} of the transaction with the given {@link Hash} identifier from the database.
+     *
+     * @param tangle The tangle reference for the database
+     * @param hash The {@link Hash} identifier of the transaction
+     * @return The new {@link BundleTailViewModel}
+     * @throws Exception Thrown if there is an error loading the {@link BundleTail} from the database
+     */
+    public static BundleTailViewModel load(Tangle tangle, Hash hash) throws Exception {
+        return new BundleTailViewModel((BundleTail) tangle.load(BundleTail.class, hash), hash);
+    }
+
+    /**
+     * Stores the tail of the given bundle for all of its transactions using a single batch.
+     *
+     * @param tangle The tangle reference for the database
+     * @param bundleTransactions The transactions of the bundle, starting with its tail
+     * @throws Exception Thrown if there is an error storing the {@link BundleTail}s in the database
+     */
+    public static void store(Tangle tangle, List<TransactionViewModel> bundleTransactions) throws Exception {
+        if (bundleTransactions.isEmpty()) {
+            return;
+        }
+
+        BundleTail bundleTail = new BundleTail(bundleTransactions.get(0).getHash());
+        List<Pair<Indexable, Persistable>> batch = new ArrayList<>(bundleTransactions.size());
+        for (TransactionViewModel bundleTransaction : bundleTransactions) {
+            batch.add(new Pair<>(bundleTransaction.getHash(), bundleTail));
+        }
+
+        tangle.saveBatch(batch);
+    }
+
+    private BundleTailViewModel(BundleTail bundleTail, Hash hash) {
+        this.bundleTail = bundleTail == null ? new BundleTail() : bundleTail;
+        this.hash = hash;
+    }
+
+    /**@return True if the tail of the transaction is known, False otherwise*/
+    public boolean exists() {
+        return bundleTail.exists();
+    }
+
+    /**@return The {@link Hash} identifier of the transaction*/
+    public Hash getHash() {
+        return hash;
+    }
+
+    /**@return The {@link Hash} identifier of the tail transaction of its bundle or <tt>null</tt> if it is unknown*/
+    public Hash getTail() {
+        return bundleTail.tail;
+    }
+}
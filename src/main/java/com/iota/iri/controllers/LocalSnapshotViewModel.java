@@ -3,27 +3,78 @@ package com.iota.iri.controllers;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.IntegerIndex;
 import com.iota.iri.model.LocalSnapshot;
+import com.iota.iri.model.LocalSnapshotChunk;
+import com.iota.iri.model.LocalSnapshotChunk.Section;
+import com.iota.iri.model.LocalSnapshotManifest;
+import com.iota.iri.storage.Indexable;
+import com.iota.iri.storage.Persistable;
 import com.iota.iri.storage.PersistenceProvider;
+import com.iota.iri.utils.Pair;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Acts as a controller interface for a {@link LocalSnapshot}.
+ *
+ * The local snapshot is stored as a {@link LocalSnapshotManifest} under the
+ * {@link LocalSnapshotViewModel#MANIFEST_KEY} identifier, which references the {@link LocalSnapshotChunk}s that hold
+ * the solid entry points, seen milestones and ledger state. Chunks which didn't change since the previously stored
+ * local snapshot are not written again. Since the manifest is written after all chunks, it acts as an atomic pointer
+ * to the current local snapshot.
+ *
+ * Local snapshots which were stored as a single {@link LocalSnapshot} under the {@link LocalSnapshotViewModel#LS_KEY}
+ * identifier can still be loaded and are removed once a new local snapshot is stored.
  */
 public class LocalSnapshotViewModel {
 
     private final static IntegerIndex LS_KEY = new IntegerIndex(1);
+    private final static IntegerIndex MANIFEST_KEY = new IntegerIndex(1);
+
+    /**
+     * The amount of chunks which are written or read at once.
+     */
+    private final static int CHUNKS_PER_BATCH = 64;
+
     private LocalSnapshot localSnapshot;
 
     /**
-     * Creates a {@link LocalSnapshot} controller using the {@link LocalSnapshotViewModel#LS_KEY} identifier as a reference point.
+     * Loads the current local snapshot. The chunks are read in parallel. If no chunked local snapshot exists, a
+     * {@link LocalSnapshot} stored under the {@link LocalSnapshotViewModel#LS_KEY} identifier is loaded instead.
      *
      * @param provider      The persistence provider from which to load the {@link LocalSnapshot} from
      * @return The new {@link LocalSnapshotViewModel}
      * @throws Exception Thrown if there is an error loading the {@link LocalSnapshot} from the database
      */
     public static LocalSnapshotViewModel load(PersistenceProvider provider) throws Exception {
-        return new LocalSnapshotViewModel((LocalSnapshot) provider.get(LocalSnapshot.class, LS_KEY));
+        LocalSnapshotManifest manifest = loadManifest(provider);
+        if (manifest == null) {
+            return new LocalSnapshotViewModel(provider.exists(LocalSnapshot.class, LS_KEY)
+                    ? (LocalSnapshot) provider.get(LocalSnapshot.class, LS_KEY) : null);
+        }
+
+        LocalSnapshot localSnapshot = new LocalSnapshot();
+        localSnapshot.milestoneHash = manifest.milestoneHash;
+        localSnapshot.milestoneIndex = manifest.milestoneIndex;
+        localSnapshot.milestoneTimestamp = manifest.milestoneTimestamp;
+        localSnapshot.solidEntryPoints = toIndexes(loadSection(provider, manifest, Section.SOLID_ENTRY_POINTS));
+        localSnapshot.numSolidEntryPoints = localSnapshot.solidEntryPoints.size();
+        localSnapshot.seenMilestones = toIndexes(loadSection(provider, manifest, Section.SEEN_MILESTONES));
+        localSnapshot.numSeenMilestones = localSnapshot.seenMilestones.size();
+        localSnapshot.ledgerState = loadSection(provider, manifest, Section.LEDGER_STATE);
+
+        return new LocalSnapshotViewModel(localSnapshot);
     }
 
     /**
@@ -67,25 +118,258 @@ public class LocalSnapshotViewModel {
         return localSnapshot == null || localSnapshot.ledgerState == null || localSnapshot.ledgerState.size() == 0;
     }
 
+    /** @return The hash of the milestone from which the local snapshot was made */
+    public Hash getMilestoneHash() {
+        return localSnapshot.milestoneHash;
+    }
+
+    /** @return The index of the milestone from which the local snapshot was made */
+    public int getMilestoneIndex() {
+        return localSnapshot.milestoneIndex;
+    }
+
+    /** @return The timestamp of the milestone from which the local snapshot was made */
+    public long getMilestoneTimestamp() {
+        return localSnapshot.milestoneTimestamp;
+    }
+
+    /** @return The solid entry points of the local snapshot */
+    public Map<Hash, Integer> getSolidEntryPoints() {
+        return localSnapshot.solidEntryPoints;
+    }
+
+    /** @return The seen milestones of the local snapshot */
+    public Map<Hash, Integer> getSeenMilestones() {
+        return localSnapshot.seenMilestones;
+    }
+
+    /** @return The ledger state of the local snapshot */
+    public Map<Hash, Long> getLedgerState() {
+        return localSnapshot.ledgerState;
+    }
+
     /**
-     * Saves the {@link LocalSnapshot} under the {@link LocalSnapshotViewModel#LS_KEY} identifier to the database.
+     * Saves the {@link LocalSnapshot} to the database and makes it the current local snapshot.
+     *
+     * Only the chunks whose content differs from the previously stored local snapshot are written, in batches of
+     * {@value #CHUNKS_PER_BATCH}. Afterwards the {@link LocalSnapshotManifest} is replaced and the chunks which are no
+     * longer referenced are deleted.
      *
      * @param provider The persistence provider to use to save the {@link LocalSnapshot}
      * @return True if the {@link LocalSnapshot} was saved correctly, False if not
      * @throws Exception Thrown if there is an error while saving the {@link LocalSnapshot}
      */
     public boolean store(PersistenceProvider provider) throws Exception {
-        return provider.save(localSnapshot, LS_KEY);
+        LocalSnapshotManifest previous = loadManifest(provider);
+
+        LocalSnapshotManifest manifest = new LocalSnapshotManifest();
+        manifest.milestoneHash = localSnapshot.milestoneHash;
+        manifest.milestoneIndex = localSnapshot.milestoneIndex;
+        manifest.milestoneTimestamp = localSnapshot.milestoneTimestamp;
+        manifest.generation = nextGeneration(previous);
+        manifest.chunkGenerations = new int[Section.values().length][];
+        manifest.chunkDigests = new byte[Section.values().length][][];
+
+        storeSection(provider, previous, manifest, Section.SOLID_ENTRY_POINTS, localSnapshot.solidEntryPoints);
+        storeSection(provider, previous, manifest, Section.SEEN_MILESTONES, localSnapshot.seenMilestones);
+        storeSection(provider, previous, manifest, Section.LEDGER_STATE, localSnapshot.ledgerState);
+
+        if (!provider.save(manifest, MANIFEST_KEY)) {
+            return false;
+        }
+
+        provider.deleteBatch(staleChunks(previous, manifest));
+        provider.delete(LocalSnapshot.class, LS_KEY);
+
+        return true;
     }
 
     /**
-     * Deletes the {@link LocalSnapshot} under the {@link LocalSnapshotViewModel#LS_KEY} identifier from the database.
+     * Deletes the current local snapshot from the database, including a {@link LocalSnapshot} stored under the
+     * {@link LocalSnapshotViewModel#LS_KEY} identifier.
      *
      * @param provider The persistence provider to use to delete the {@link LocalSnapshot}
      * @throws Exception Thrown if there is an error while removing the {@link LocalSnapshot}
      */
     public void delete(PersistenceProvider provider) throws Exception {
+        LocalSnapshotManifest manifest = loadManifest(provider);
+        if (manifest != null) {
+            provider.delete(LocalSnapshotManifest.class, MANIFEST_KEY);
+            provider.deleteBatch(staleChunks(manifest, null));
+        }
         provider.delete(LocalSnapshot.class, LS_KEY);
     }
 
+    private static LocalSnapshotManifest loadManifest(PersistenceProvider provider) throws Exception {
+        LocalSnapshotManifest manifest = (LocalSnapshotManifest) provider.get(LocalSnapshotManifest.class,
+                MANIFEST_KEY);
+
+        return manifest != null && manifest.exists() ? manifest : null;
+    }
+
+    /**
+     * Picks the generation following the one of the previous local snapshot. Since generations wrap around, the ones
+     * which are still referenced by the previous local snapshot are skipped, so its chunks are never overwritten.
+     */
+    private static int nextGeneration(LocalSnapshotManifest previous) {
+        if (previous == null) {
+            return 0;
+        }
+
+        Set<Integer> referencedGenerations = new HashSet<>();
+        for (int[] generations : previous.chunkGenerations) {
+            for (int generation : generations) {
+                referencedGenerations.add(generation);
+            }
+        }
+
+        int generation = previous.generation;
+        do {
+            generation = (generation + 1) % LocalSnapshotChunk.GENERATIONS;
+        } while (referencedGenerations.contains(generation));
+
+        return generation;
+    }
+
+    private static void storeSection(PersistenceProvider provider, LocalSnapshotManifest previous,
+            LocalSnapshotManifest manifest, Section section, Map<Hash, ? extends Number> entries) throws Exception {
+
+        List<Map<Hash, Long>> chunks = new ArrayList<>(section.getChunks());
+        for (int chunk = 0; chunk < section.getChunks(); chunk++) {
+            chunks.add(new HashMap<>());
+        }
+        entries.forEach((key, value) -> chunks.get(section.chunkOf(key)).put(key, value.longValue()));
+
+        int[] generations = new int[section.getChunks()];
+        byte[][] digests = new byte[section.getChunks()][];
+        manifest.chunkGenerations[section.ordinal()] = generations;
+        manifest.chunkDigests[section.ordinal()] = digests;
+
+        int[] previousGenerations = previous == null ? null : previous.chunkGenerations[section.ordinal()];
+        byte[][] previousDigests = previous == null ? null : previous.chunkDigests[section.ordinal()];
+        boolean comparable = previousGenerations != null && previousGenerations.length == section.getChunks();
+
+        for (int first = 0; first < section.getChunks(); first += CHUNKS_PER_BATCH) {
+            List<Pair<Indexable, Persistable>> changedChunks = IntStream
+                    .range(first, Math.min(first + CHUNKS_PER_BATCH, section.getChunks()))
+                    .parallel()
+                    .mapToObj(chunk -> {
+                        LocalSnapshotChunk localSnapshotChunk = new LocalSnapshotChunk();
+                        localSnapshotChunk.section = section;
+                        localSnapshotChunk.entries = chunks.set(chunk, null);
+                        if (localSnapshotChunk.entries.isEmpty()) {
+                            generations[chunk] = LocalSnapshotManifest.EMPTY_CHUNK;
+                            digests[chunk] = new byte[LocalSnapshotManifest.DIGEST_SIZE];
+                            return null;
+                        }
+
+                        digests[chunk] = digest(localSnapshotChunk.bytes());
+                        if (comparable && previousGenerations[chunk] != LocalSnapshotManifest.EMPTY_CHUNK
+                                && Arrays.equals(previousDigests[chunk], digests[chunk])) {
+                            generations[chunk] = previousGenerations[chunk];
+                            return null;
+                        }
+
+                        generations[chunk] = manifest.generation;
+                        return new Pair<Indexable, Persistable>(
+                                LocalSnapshotChunk.index(manifest.generation, section, chunk), localSnapshotChunk);
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            if (!changedChunks.isEmpty() && !provider.saveBatch(changedChunks)) {
+                throw new IllegalStateException("failed to store the " + section + " chunks of the local snapshot");
+            }
+        }
+    }
+
+    private static Map<Hash, Long> loadSection(PersistenceProvider provider, LocalSnapshotManifest manifest,
+            Section section) {
+
+        int[] generations = manifest.chunkGenerations[section.ordinal()];
+        List<IntegerIndex> indexes = new ArrayList<>();
+        for (int chunk = 0; chunk < generations.length; chunk++) {
+            if (generations[chunk] != LocalSnapshotManifest.EMPTY_CHUNK) {
+                indexes.add(LocalSnapshotChunk.index(generations[chunk], section, chunk));
+            }
+        }
+
+        List<Map<Hash, Long>> chunks = IntStream.range(0, (indexes.size() + CHUNKS_PER_BATCH - 1) / CHUNKS_PER_BATCH)
+                .parallel()
+                .mapToObj(batch -> indexes.subList(batch * CHUNKS_PER_BATCH,
+                        Math.min((batch + 1) * CHUNKS_PER_BATCH, indexes.size())))
+                .flatMap(batchIndexes -> {
+                    try {
+                        return provider.multiGet(LocalSnapshotChunk.class, batchIndexes, false).stream();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("failed to load the " + section + " chunks of the local snapshot",
+                                e);
+                    }
+                })
+                .map(chunk -> {
+                    if (!chunk.exists()) {
+                        throw new IllegalStateException("a " + section + " chunk of the local snapshot is missing");
+                    }
+                    return ((LocalSnapshotChunk) chunk).entries;
+                })
+                .collect(Collectors.toList());
+
+        int size = chunks.stream().mapToInt(Map::size).sum();
+        Map<Hash, Long> entries = new HashMap<>((int) (size / 0.75f) + 1);
+        chunks.forEach(entries::putAll);
+
+        return entries;
+    }
+
+    private static Map<Hash, Integer> toIndexes(Map<Hash, Long> entries) {
+        Map<Hash, Integer> indexes = new HashMap<>((int) (entries.size() / 0.75f) + 1);
+        entries.forEach((key, value) -> indexes.put(key, value.intValue()));
+
+        return indexes;
+    }
+
+    /**
+     * Collects the chunks of the previous local snapshot which are not referenced by the current one. Chunks with the
+     * generation of the current local snapshot which it doesn't reference are collected as well, since they may have
+     * been left behind by an interrupted attempt to store a local snapshot.
+     *
+     * @param previous the previous local snapshot, may be null
+     * @param current the current local snapshot, null to collect all chunks of the previous one
+     * @return the chunks which can be deleted
+     */
+    private static Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> staleChunks(
+            LocalSnapshotManifest previous, LocalSnapshotManifest current) {
+
+        List<Pair<Indexable, ? extends Class<? extends Persistable>>> staleChunks = new ArrayList<>();
+        for (Section section : Section.values()) {
+            int[] currentGenerations = current == null ? new int[0] : current.chunkGenerations[section.ordinal()];
+            if (previous != null) {
+                int[] previousGenerations = previous.chunkGenerations[section.ordinal()];
+                for (int chunk = 0; chunk < previousGenerations.length; chunk++) {
+                    if (previousGenerations[chunk] != LocalSnapshotManifest.EMPTY_CHUNK
+                            && (chunk >= currentGenerations.length
+                            || currentGenerations[chunk] != previousGenerations[chunk])) {
+                        staleChunks.add(new Pair<>(LocalSnapshotChunk.index(previousGenerations[chunk], section,
+                                chunk), LocalSnapshotChunk.class));
+                    }
+                }
+            }
+            for (int chunk = 0; chunk < currentGenerations.length; chunk++) {
+                if (currentGenerations[chunk] != current.generation) {
+                    staleChunks.add(new Pair<>(LocalSnapshotChunk.index(current.generation, section, chunk),
+                            LocalSnapshotChunk.class));
+                }
+            }
+        }
+
+        return staleChunks;
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -6,6 +6,7 @@ import com.iota.iri.model.IntegerIndex;
 import com.iota.iri.model.persistables.Milestone;
 import com.iota.iri.storage.Indexable;
 import com.iota.iri.storage.Persistable;
+import com.iota.iri.storage.PersistenceCursor;
 import com.iota.iri.storage.Tangle;
 import com.iota.iri.utils.Pair;
 
@@ -98,8 +99,9 @@ public class MilestoneViewModel {
 
     /**
      * Fetches a {@link MilestoneViewModel} for the closest {@link Milestone} object previously indexed in the database.
-     * The method starts at the provided index and works backwards through the database to try and find a
-     * {@link MilestoneViewModel} for the previous indexes until a non null controller is found.
+     * The method first looks up the directly preceding index, which is found in the cache most of the time. If there
+     * is a gap, it seeks backwards from the provided index with a single database cursor instead of looking up every
+     * missing index on its own.
      *
      * @param tangle   The tangle reference for the database
      * @param index    The beginning index the method will work backwards from
@@ -108,14 +110,18 @@ public class MilestoneViewModel {
      * @throws Exception Thrown if there is a failure to fetch a previous {@link MilestoneViewModel}
      */
     public static MilestoneViewModel findClosestPrevMilestone(Tangle tangle, int index, int minIndex) throws Exception {
-        // search for the previous milestone preceding our index
-        MilestoneViewModel previousMilestoneViewModel = null;
-        int currentIndex = index;
-        while (previousMilestoneViewModel == null && --currentIndex >= minIndex) {
-            previousMilestoneViewModel = MilestoneViewModel.get(tangle, currentIndex);
+        if (index - 1 < minIndex) {
+            return null;
         }
 
-        return previousMilestoneViewModel;
+        // the direct predecessor usually exists and is often cached
+        MilestoneViewModel previousMilestoneViewModel = MilestoneViewModel.get(tangle, index - 1);
+        if (previousMilestoneViewModel != null || index - 2 < minIndex) {
+            return previousMilestoneViewModel;
+        }
+
+        // skip the gap with a single seek instead of a lookup per missing index
+        return findClosestMilestone(tangle, index - 2, minIndex, true);
     }
 
     /**
@@ -131,14 +137,49 @@ public class MilestoneViewModel {
      * @throws Exception if anything goes wrong while loading entries from the database
      */
     public static MilestoneViewModel findClosestNextMilestone(Tangle tangle, int index, int maxIndex) throws Exception {
-        // search for the next milestone following our index
-        MilestoneViewModel nextMilestoneViewModel = null;
-        int currentIndex = index;
-        while (nextMilestoneViewModel == null && ++currentIndex <= maxIndex) {
-            nextMilestoneViewModel = MilestoneViewModel.get(tangle, currentIndex);
+        if (index + 1 > maxIndex) {
+            return null;
         }
 
-        return nextMilestoneViewModel;
+        // the direct successor usually exists and is often cached
+        MilestoneViewModel nextMilestoneViewModel = MilestoneViewModel.get(tangle, index + 1);
+        if (nextMilestoneViewModel != null || index + 2 > maxIndex) {
+            return nextMilestoneViewModel;
+        }
+
+        // skip the gap with a single seek instead of a lookup per missing index
+        return findClosestMilestone(tangle, index + 2, maxIndex, false);
+    }
+
+    /**
+     * Finds the stored milestone that is closest to the given index (including the index itself) with a single cursor.
+     *
+     * @param tangle   Tangle object which acts as a database interface
+     * @param index    milestone index where the search starts
+     * @param limit    milestone index where the search stops
+     * @param reverse  <tt>true</tt> to search towards lower indexes, else <tt>false</tt>
+     * @return the closest milestone within the limit or null if none was found
+     * @throws Exception if anything goes wrong while loading entries from the database
+     */
+    private static MilestoneViewModel findClosestMilestone(Tangle tangle, int index, int limit, boolean reverse)
+            throws Exception {
+
+        try (PersistenceCursor cursor = tangle.cursor(Milestone.class, IntegerIndex.class, new IntegerIndex(index),
+                reverse)) {
+            if (!cursor.hasNext()) {
+                return null;
+            }
+
+            Milestone milestone = (Milestone) cursor.next().hi;
+            int milestoneIndex = milestone.index.getValue();
+            if (reverse ? milestoneIndex < limit : milestoneIndex > limit) {
+                return null;
+            }
+
+            MilestoneViewModel milestoneViewModel = new MilestoneViewModel(milestone);
+            cachePut(tangle, milestoneViewModel, milestone.index);
+            return milestoneViewModel;
+        }
     }
 
     /**
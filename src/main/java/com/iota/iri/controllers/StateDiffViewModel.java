@@ -4,7 +4,10 @@ import com.iota.iri.model.Hash;
 import com.iota.iri.model.StateDiff;
 import com.iota.iri.storage.Tangle;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collectors;
 
 /**
  * Acts as a controller interface for a {@link StateDiff}. This controller is used to manipulate a {@link StateDiff}
@@ -64,12 +67,12 @@ public class StateDiffViewModel {
      */
     private StateDiffViewModel(final StateDiff diff, final Hash hash) {
         this.hash = hash;
-        this.stateDiff = diff == null || diff.state == null ? new StateDiff(): diff;
+        this.stateDiff = diff == null ? new StateDiff(): diff;
     }
 
     /**@return True if the {@link StateDiff} is empty, False if there is a variable present*/
     public boolean isEmpty() {
-        return stateDiff == null || stateDiff.state == null || stateDiff.state.size() == 0;
+        return stateDiff == null || stateDiff.size() == 0;
     }
 
     /**@return The {@link Hash} identifier of the {@link StateDiff} controller */
@@ -79,7 +82,30 @@ public class StateDiffViewModel {
 
     /**@return The {@link StateDiff} map of the controller*/
     public Map<Hash, Long> getDiff() {
-        return stateDiff.state;
+        return stateDiff.getState();
+    }
+
+    /**
+     * Passes every address and its balance change to the given consumer. Unlike {@link #getDiff()}, this doesn't
+     * create the map of the {@link StateDiff}.
+     *
+     * @param consumer receives the address and the balance change of every entry
+     */
+    public void forEachChange(ObjLongConsumer<Hash> consumer) {
+        stateDiff.forEach(consumer);
+    }
+
+    /**
+     * Sums up the balance changes of the given {@link StateDiff} controllers in a single pass.
+     *
+     * @see StateDiff#merge(List)
+     * @param stateDiffViewModels the controllers whose {@link StateDiff}s shall be merged
+     * @return the summed up balance changes by address
+     */
+    public static Map<Hash, Long> mergeDiffs(List<StateDiffViewModel> stateDiffViewModels) {
+        return StateDiff.merge(stateDiffViewModels.stream()
+                .map(stateDiffViewModel -> stateDiffViewModel.stateDiff)
+                .collect(Collectors.toList())).getState();
     }
 
     /**
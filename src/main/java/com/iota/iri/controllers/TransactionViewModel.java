@@ -173,6 +173,84 @@ public class TransactionViewModel {
         return transactionViewModel;
     }
 
+    /**
+     * Creates the controllers for the {@link Transaction} sets referenced by the given {@link Hash} identifiers. Works
+     * like {@link #fromHash(Tangle, Hash)}, but all transactions which are not cached are read with a single batched
+     * database lookup.
+     *
+     * @param tangle The tangle reference for the database
+     * @param hashes The {@link Hash} identifiers to search with
+     * @return The {@link TransactionViewModel}s with their Metadata filled in, in the order of {@code hashes}
+     * @throws Exception Thrown if there is an error loading the {@link Transaction} objects from the database
+     */
+    public static List<TransactionViewModel> fromHashes(Tangle tangle, List<Hash> hashes) throws Exception {
+        Cache<Indexable, TransactionViewModel> cache = tangle.getCache(TransactionViewModel.class);
+        TransactionViewModel[] transactionViewModels = new TransactionViewModel[hashes.size()];
+        List<Hash> uncachedHashes = new ArrayList<>();
+        List<Integer> uncachedPositions = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            TransactionViewModel cached = cache == null ? null : cache.get(hashes.get(i));
+            if (cached != null) {
+                fillMetadata(tangle, cached);
+                cachePut(tangle, cached, hashes.get(i));
+                transactionViewModels[i] = cached;
+            } else {
+                uncachedHashes.add(hashes.get(i));
+                uncachedPositions.add(i);
+            }
+        }
+
+        if (!uncachedHashes.isEmpty()) {
+            List<Persistable> transactions = tangle.loadBatch(Transaction.class, uncachedHashes);
+            for (int i = 0; i < transactions.size(); i++) {
+                Hash hash = uncachedHashes.get(i);
+                TransactionViewModel transactionViewModel = new TransactionViewModel(
+                        (Transaction) transactions.get(i), hash);
+                fillMetadata(tangle, transactionViewModel);
+                if (cache != null && transactionViewModel.getType() != PREFILLED_SLOT) {
+                    cachePut(tangle, transactionViewModel, hash);
+                }
+                transactionViewModels[uncachedPositions.get(i)] = transactionViewModel;
+            }
+        }
+        return Arrays.asList(transactionViewModels);
+    }
+
+    /**
+     * Loads the raw bytes of the {@link Transaction} sets referenced by the given {@link Hash} identifiers. Cached
+     * transactions are taken from the cache, all others are read with a single batched database lookup. Unlike
+     * {@link #fromHash(Tangle, Hash)} no metadata is loaded and no controllers are created.
+     *
+     * @param tangle The tangle reference for the database
+     * @param hashes The {@link Hash} identifiers to search with
+     * @return The bytes of the transactions in the order of {@code hashes} (an empty array for unknown transactions)
+     * @throws Exception Thrown if there is an error loading the {@link Transaction} objects from the database
+     */
+    public static List<byte[]> loadBytes(Tangle tangle, List<Hash> hashes) throws Exception {
+        Cache<Indexable, TransactionViewModel> cache = tangle.getCache(TransactionViewModel.class);
+        byte[][] transactionBytes = new byte[hashes.size()][];
+        List<Hash> uncachedHashes = new ArrayList<>();
+        List<Integer> uncachedPositions = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            TransactionViewModel cached = cache == null ? null : cache.get(hashes.get(i));
+            if (cached != null) {
+                transactionBytes[i] = cached.getBytes();
+            } else {
+                uncachedHashes.add(hashes.get(i));
+                uncachedPositions.add(i);
+            }
+        }
+
+        if (!uncachedHashes.isEmpty()) {
+            List<Persistable> transactions = tangle.loadBatch(Transaction.class, uncachedHashes, false);
+            for (int i = 0; i < transactions.size(); i++) {
+                byte[] bytes = ((Transaction) transactions.get(i)).bytes;
+                transactionBytes[uncachedPositions.get(i)] = bytes == null ? new byte[0] : bytes;
+            }
+        }
+        return Arrays.asList(transactionBytes);
+    }
+
     /**
      * Constructor for a {@link Transaction} set controller interface. This controller is used to interact with and
      * manipulate a provided {@link Transaction} set.
@@ -434,9 +512,29 @@ public class TransactionViewModel {
      * @throws Exception Thrown if there is an error fetching the batch or storing in the database.
      */
     public boolean store(Tangle tangle, Snapshot initialSnapshot) throws Exception {
+        List<Pair<Indexable, Persistable>> batch = prepareStore(tangle, initialSnapshot);
+        if (batch == null) {
+            return false;
+        }
+        tangle.saveBatch(batch);
+        return true;
+    }
+
+    /**
+     * Prepares storing the {@link Transaction} as part of a larger write. If the {@link Transaction} is a solid entry
+     * point or is already stored, the method returns null. Otherwise the approvees and the transaction itself are
+     * cached, and the batch which has to be written to the database is returned.
+     *
+     * @param tangle          The tangle reference for the database.
+     * @param initialSnapshot snapshot that acts as genesis
+     * @return The batch to write, or null if the {@link Transaction} must not be stored.
+     * @throws Exception Thrown if there is an error fetching the batch or accessing the database.
+     */
+    public List<Pair<Indexable, Persistable>> prepareStore(Tangle tangle, Snapshot initialSnapshot)
+            throws Exception {
 
         if (initialSnapshot.hasSolidEntryPoint(hash)) {
-            return false;
+            return null;
         }
 
         // We need to save approvees, tags, and other metadata that is used by
@@ -444,14 +542,46 @@ public class TransactionViewModel {
         List<Pair<Indexable, Persistable>> batch = getSaveBatch();
 
         if (tangle.exists(Transaction.class, hash)) {
-            return false;
+            return null;
         }
         cacheApprovees(tangle);
         if (tangle.getCache(TransactionViewModel.class).get(hash) == null) {
             cachePut(tangle, this, hash);
         }
-        tangle.saveBatch(batch);
-        return true;
+        return batch;
+    }
+
+    /**
+     * Stores multiple {@link Transaction}s, including their metadata and index entries, with a single database
+     * write. Transactions which are solid entry points, already stored, or contained more than once are skipped.
+     *
+     * @param tangle                The tangle reference for the database.
+     * @param initialSnapshot       snapshot that acts as genesis
+     * @param transactionViewModels the transactions to store
+     * @return the transactions which were stored by this call
+     * @throws Exception Thrown if there is an error fetching the batches or storing in the database.
+     */
+    public static List<TransactionViewModel> storeBatch(Tangle tangle, Snapshot initialSnapshot,
+            List<TransactionViewModel> transactionViewModels) throws Exception {
+
+        List<Pair<Indexable, Persistable>> batch = new ArrayList<>();
+        List<TransactionViewModel> stored = new ArrayList<>(transactionViewModels.size());
+        Set<Hash> seenHashes = new HashSet<>();
+        for (TransactionViewModel transactionViewModel : transactionViewModels) {
+            if (!seenHashes.add(transactionViewModel.getHash())) {
+                continue;
+            }
+            List<Pair<Indexable, Persistable>> transactionBatch = transactionViewModel.prepareStore(tangle,
+                    initialSnapshot);
+            if (transactionBatch != null) {
+                batch.addAll(transactionBatch);
+                stored.add(transactionViewModel);
+            }
+        }
+        if (!batch.isEmpty()) {
+            tangle.saveBatch(batch);
+        }
+        return stored;
     }
 
     private void cacheApprovees(Tangle tangle) throws Exception {
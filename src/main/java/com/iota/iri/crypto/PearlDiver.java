@@ -24,7 +24,12 @@ public class PearlDiver {
     private static final int TRANSACTION_LENGTH = 8019;
 
     private static final int CURL_HASH_LENGTH = 243;
-    private static final int CURL_STATE_LENGTH = CURL_HASH_LENGTH * 3;
+    static final int CURL_STATE_LENGTH = CURL_HASH_LENGTH * 3;
+
+    /**
+     * The amount of nonces which are tested at once, one per bit of a {@code long}.
+     */
+    static final int NONCES_PER_TRY = 64;
 
     private static final long HIGH_BITS = 0b11111111_11111111_11111111_11111111_11111111_11111111_11111111_11111111L;
     private static final long LOW_BITS = 0b00000000_00000000_00000000_00000000_00000000_00000000_00000000_00000000L;
@@ -92,7 +97,7 @@ public class PearlDiver {
         }
     }
 
-    private static void validateParameters(byte[] transactionTrits, int minWeightMagnitude) {
+    static void validateParameters(byte[] transactionTrits, int minWeightMagnitude) {
         if (transactionTrits.length != TRANSACTION_LENGTH) {
             throw new RuntimeException(
                     "Invalid transaction trits length: " + transactionTrits.length);
@@ -105,10 +110,7 @@ public class PearlDiver {
     private Runnable getRunnable(final int threadIndex, final byte[] transactionTrits, final int minWeightMagnitude,
                                  final long[] midStateCopyLow, final long[] midStateCopyHigh) {
         return () -> {
-            for (int i = 0; i < threadIndex; i++) {
-                increment(midStateCopyLow, midStateCopyHigh, 162 + CURL_HASH_LENGTH / 9,
-                    162 + (CURL_HASH_LENGTH / 9) * 2);
-            }
+            offsetWorker(threadIndex, midStateCopyLow, midStateCopyHigh);
 
             final long[] stateLow = new long[CURL_STATE_LENGTH];
             final long[] stateHigh = new long[CURL_STATE_LENGTH];
@@ -119,43 +121,73 @@ public class PearlDiver {
             final int maskStartIndex = CURL_HASH_LENGTH - minWeightMagnitude;
             long mask = 0;
             while (state == State.RUNNING && mask == 0) {
-
-                increment(midStateCopyLow, midStateCopyHigh, 162 + (CURL_HASH_LENGTH / 9) * 2,
-                    CURL_HASH_LENGTH);
-
-                copy(midStateCopyLow, midStateCopyHigh, stateLow, stateHigh);
-                transform(stateLow, stateHigh, scratchpadLow, scratchpadHigh);
-
-                mask = HIGH_BITS;
-                for (int i = maskStartIndex; i < CURL_HASH_LENGTH && mask != 0; i++) {
-                    mask &= ~(stateLow[i] ^ stateHigh[i]);
-                }
+                mask = tryNextNonces(midStateCopyLow, midStateCopyHigh, stateLow, stateHigh, scratchpadLow,
+                        scratchpadHigh, maskStartIndex);
             }
             if (mask != 0) {
                 synchronized (syncObj) {
                     if (state == State.RUNNING) {
                         state = State.COMPLETED;
-                        long outMask = 1;
-                        while ((outMask & mask) == 0) {
-                            outMask <<= 1;
-                        }
-                        for (int i = 0; i < CURL_HASH_LENGTH; i++) {
-                            transactionTrits[TRANSACTION_LENGTH - CURL_HASH_LENGTH + i] =
-                                (midStateCopyLow[i] & outMask) == 0 ? 1
-                                    : (midStateCopyHigh[i] & outMask) == 0 ? (byte) -1 : (byte) 0;
-                        }
+                        writeNonce(transactionTrits, mask, midStateCopyLow, midStateCopyHigh);
                     }
                 }
             }
         };
     }
 
+    /**
+     * Moves the nonces of a worker to a separate part of the search space, so workers don't test the same nonces.
+     *
+     * @param workerIndex the index of the worker
+     * @param midStateLow the low bits of the mid state of the worker
+     * @param midStateHigh the high bits of the mid state of the worker
+     */
+    static void offsetWorker(int workerIndex, long[] midStateLow, long[] midStateHigh) {
+        for (int i = 0; i < workerIndex; i++) {
+            increment(midStateLow, midStateHigh, 162 + CURL_HASH_LENGTH / 9, 162 + (CURL_HASH_LENGTH / 9) * 2);
+        }
+    }
+
+    /**
+     * Tests the next {@value #NONCES_PER_TRY} nonces of a worker.
+     *
+     * @return a bit mask of the nonces which satisfy the min weight magnitude, 0 if there are none
+     */
+    static long tryNextNonces(long[] midStateLow, long[] midStateHigh, long[] stateLow, long[] stateHigh,
+                              long[] scratchpadLow, long[] scratchpadHigh, int maskStartIndex) {
+        increment(midStateLow, midStateHigh, 162 + (CURL_HASH_LENGTH / 9) * 2, CURL_HASH_LENGTH);
+
+        copy(midStateLow, midStateHigh, stateLow, stateHigh);
+        transform(stateLow, stateHigh, scratchpadLow, scratchpadHigh);
+
+        long mask = HIGH_BITS;
+        for (int i = maskStartIndex; i < CURL_HASH_LENGTH && mask != 0; i++) {
+            mask &= ~(stateLow[i] ^ stateHigh[i]);
+        }
+        return mask;
+    }
+
+    /**
+     * Writes the first nonce of the given mask to the end of the transaction trits.
+     */
+    static void writeNonce(byte[] transactionTrits, long mask, long[] midStateLow, long[] midStateHigh) {
+        long outMask = 1;
+        while ((outMask & mask) == 0) {
+            outMask <<= 1;
+        }
+        for (int i = 0; i < CURL_HASH_LENGTH; i++) {
+            transactionTrits[TRANSACTION_LENGTH - CURL_HASH_LENGTH + i] =
+                (midStateLow[i] & outMask) == 0 ? 1
+                    : (midStateHigh[i] & outMask) == 0 ? (byte) -1 : (byte) 0;
+        }
+    }
+
     private static void copy(long[] srcLow, long[] srcHigh, long[] destLow, long[] destHigh) {
         System.arraycopy(srcLow, 0, destLow, 0, CURL_STATE_LENGTH);
         System.arraycopy(srcHigh, 0, destHigh, 0, CURL_STATE_LENGTH);
     }
 
-    private static void initializeMidCurlStates(byte[] transactionTrits, long[] midStateLow, long[] midStateHigh) {
+    static void initializeMidCurlStates(byte[] transactionTrits, long[] midStateLow, long[] midStateHigh) {
         for (int i = CURL_HASH_LENGTH; i < CURL_STATE_LENGTH; i++) {
             midStateLow[i] = HIGH_BITS;
             midStateHigh[i] = HIGH_BITS;
@@ -0,0 +1,235 @@
+package com.iota.iri.crypto;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proof of Work calculator backed by a long-lived pool of worker threads.
+ * <p>
+ *     Unlike {@link PearlDiver}, which starts new threads for every search and only runs one search at a time, the
+ *     pool accepts any amount of concurrent searches. Every search is split into one partition per worker, and every
+ *     partition tests a bounded amount of nonces before it is put back at the end of the work queue. This way the
+ *     workers are shared fairly between all running searches. The nonces are tested with the
+ *     {@link WidePearlDiverKernel}.
+ * </p>
+ * <p>
+ *     Searches can be cancelled one by one through the {@link Search} handle.
+ * </p>
+ */
+public class PearlDiverPool {
+
+    /**
+     * The amount of {@link WidePearlDiverKernel#tryNextNonces} calls a partition runs before it yields its worker.
+     */
+    private static final int TRIES_PER_SLICE = 64;
+
+    private final int workers;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder hashCount = new LongAdder();
+
+    /**
+     * Creates a new pool.
+     *
+     * @param workers the number of worker threads, 0 or less to use a number that depends on the number of cores
+     */
+    public PearlDiverPool(int workers) {
+        if (workers <= 0) {
+            int available = Runtime.getRuntime().availableProcessors();
+            workers = Math.max(1, Math.floorDiv(available * 8, 10));
+        }
+        this.workers = workers;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pearl-diver-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // PoW is rarely requested on most nodes, so idle workers don't need to be kept around
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts searching for a nonce such that the hash ends with {@code minWeightMagnitude} zeros. Once the search
+     * completes, the nonce is written to the end of {@code transactionTrits}.
+     *
+     * @param transactionTrits trits of transaction
+     * @param minWeightMagnitude target weight for trailing zeros
+     * @return a handle to wait for or cancel the search
+     */
+    public Search search(byte[] transactionTrits, int minWeightMagnitude) {
+        PearlDiver.validateParameters(transactionTrits, minWeightMagnitude);
+
+        Search search = new Search(transactionTrits, Curl.HASH_LENGTH - minWeightMagnitude);
+        for (int i = 0; i < workers; i++) {
+            schedule(new Partition(search, i));
+        }
+        return search;
+    }
+
+    /**
+     * Gets the amount of hashes calculated by this pool so far.
+     *
+     * @return the amount of hashes
+     */
+    public long getHashCount() {
+        return hashCount.sum();
+    }
+
+    /**
+     * Stops all workers. Running searches are cancelled.
+     */
+    public void shutdown() {
+        for (Runnable partition : executor.shutdownNow()) {
+            ((Partition) partition).search.cancel();
+        }
+    }
+
+    private void schedule(Partition partition) {
+        try {
+            executor.execute(partition);
+        } catch (RejectedExecutionException e) {
+            partition.search.cancel();
+        }
+    }
+
+    /**
+     * A running nonce search.
+     */
+    public static class Search {
+
+        private final byte[] transactionTrits;
+
+        private final int maskStartIndex;
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private final LongAdder hashCount = new LongAdder();
+
+        private final long startTime = System.nanoTime();
+
+        private volatile long endTime;
+
+        private volatile PearlDiver.State state = PearlDiver.State.RUNNING;
+
+        private Search(byte[] transactionTrits, int maskStartIndex) {
+            this.transactionTrits = transactionTrits;
+            this.maskStartIndex = maskStartIndex;
+        }
+
+        /**
+         * Waits until the search completed or was cancelled. If the waiting thread is interrupted, the search is
+         * cancelled.
+         *
+         * @return <tt>true</tt> if a nonce was found and written to the transaction trits
+         * @throws InterruptedException if the waiting thread was interrupted
+         */
+        public boolean await() throws InterruptedException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                cancel();
+                throw e;
+            }
+            return state == PearlDiver.State.COMPLETED;
+        }
+
+        /**
+         * Cancels the search. Has no effect if the search is already done.
+         */
+        public void cancel() {
+            finish(PearlDiver.State.CANCELLED);
+        }
+
+        /**
+         * Gets the amount of hashes calculated by this search so far.
+         *
+         * @return the amount of hashes
+         */
+        public long getHashCount() {
+            return hashCount.sum();
+        }
+
+        /**
+         * Gets the amount of hashes per second calculated by this search (until it was done).
+         *
+         * @return the hash rate of the search
+         */
+        public double getHashesPerSecond() {
+            long end = state == PearlDiver.State.RUNNING ? System.nanoTime() : endTime;
+            long elapsedNanos = Math.max(1, end - startTime);
+            return hashCount.sum() * 1_000_000_000d / elapsedNanos;
+        }
+
+        private synchronized boolean finish(PearlDiver.State result) {
+            if (state != PearlDiver.State.RUNNING) {
+                return false;
+            }
+            endTime = System.nanoTime();
+            state = result;
+            done.countDown();
+            return true;
+        }
+
+        private synchronized void complete(int lane, long mask, long[] midStateLow, long[] midStateHigh) {
+            if (state == PearlDiver.State.RUNNING) {
+                WidePearlDiverKernel.writeNonce(transactionTrits, lane, mask, midStateLow, midStateHigh);
+                finish(PearlDiver.State.COMPLETED);
+            }
+        }
+    }
+
+    /**
+     * The part of the search space of a search which is tested by one worker at a time.
+     */
+    private class Partition implements Runnable {
+
+        private final Search search;
+
+        private final long[] midStateLow = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] midStateHigh = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+
+        private final long[] stateLow = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] stateHigh = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+
+        private final long[] scratchpadLow = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] scratchpadHigh = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+
+        private final long[] masks = new long[WidePearlDiverKernel.LANES];
+
+        private Partition(Search search, int index) {
+            this.search = search;
+            WidePearlDiverKernel.initializeMidStates(search.transactionTrits, index * WidePearlDiverKernel.LANES,
+                    midStateLow, midStateHigh);
+        }
+
+        @Override
+        public void run() {
+            int lane = -1;
+            int tries = 0;
+            while (tries < TRIES_PER_SLICE && lane < 0 && search.state == PearlDiver.State.RUNNING) {
+                lane = WidePearlDiverKernel.tryNextNonces(midStateLow, midStateHigh, stateLow, stateHigh,
+                        scratchpadLow, scratchpadHigh, search.maskStartIndex, masks);
+                tries++;
+            }
+
+            long hashes = (long) tries * WidePearlDiverKernel.LANES * PearlDiver.NONCES_PER_TRY;
+            search.hashCount.add(hashes);
+            hashCount.add(hashes);
+
+            if (lane >= 0) {
+                search.complete(lane, masks[lane], midStateLow, midStateHigh);
+            } else if (search.state == PearlDiver.State.RUNNING) {
+                schedule(this);
+            }
+        }
+    }
+}
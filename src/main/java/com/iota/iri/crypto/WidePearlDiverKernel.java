@@ -0,0 +1,168 @@
+package com.iota.iri.crypto;
+
+/**
+ * Nonce search kernel which tests {@value #LANES} times {@value PearlDiver#NONCES_PER_TRY} nonces per transform.
+ * <p>
+ *     The bit-sliced Curl state of {@link PearlDiver} holds 64 nonce candidates in one pair of {@code long}s per trit.
+ *     This kernel keeps {@value #LANES} such pairs next to each other for every trit, so the inner loop of the
+ *     transform works on consecutive array elements which the JIT can unroll and vectorize. Instead of copying the
+ *     state into a scratchpad for every round, the rounds alternate between two buffers, and the first round reads
+ *     directly from the mid state.
+ * </p>
+ */
+final class WidePearlDiverKernel {
+
+    /**
+     * The amount of {@code long} lanes per trit.
+     */
+    static final int LANES = 4;
+
+    static final int WIDE_STATE_LENGTH = PearlDiver.CURL_STATE_LENGTH * LANES;
+
+    private static final int CURL_HASH_LENGTH = Curl.HASH_LENGTH;
+
+    /**
+     * The scratchpad index read by every state index of the transform (and the one after the last), scaled to the
+     * wide layout.
+     */
+    private static final int[] TRANSFORM_INDICES = new int[PearlDiver.CURL_STATE_LENGTH + 1];
+
+    static {
+        int scratchpadIndex = 0;
+        for (int i = 0; i < TRANSFORM_INDICES.length; i++) {
+            TRANSFORM_INDICES[i] = scratchpadIndex * LANES;
+            scratchpadIndex += scratchpadIndex < 365 ? 364 : -365;
+        }
+    }
+
+    private WidePearlDiverKernel() {
+    }
+
+    /**
+     * Initializes the wide mid state of a worker. Lane {@code k} of the worker searches the part of the search space
+     * that a {@link PearlDiver} worker with index {@code firstLane + k} would search.
+     *
+     * @param transactionTrits trits of the transaction
+     * @param firstLane the index of the first lane of the worker among all lanes of the search
+     * @param midStateLow the low bits of the wide mid state to initialize
+     * @param midStateHigh the high bits of the wide mid state to initialize
+     */
+    static void initializeMidStates(byte[] transactionTrits, int firstLane, long[] midStateLow,
+                                    long[] midStateHigh) {
+        long[] narrowLow = new long[PearlDiver.CURL_STATE_LENGTH];
+        long[] narrowHigh = new long[PearlDiver.CURL_STATE_LENGTH];
+        PearlDiver.initializeMidCurlStates(transactionTrits, narrowLow, narrowHigh);
+        PearlDiver.offsetWorker(firstLane, narrowLow, narrowHigh);
+
+        for (int lane = 0; lane < LANES; lane++) {
+            if (lane > 0) {
+                PearlDiver.offsetWorker(1, narrowLow, narrowHigh);
+            }
+            for (int i = 0; i < PearlDiver.CURL_STATE_LENGTH; i++) {
+                midStateLow[i * LANES + lane] = narrowLow[i];
+                midStateHigh[i * LANES + lane] = narrowHigh[i];
+            }
+        }
+    }
+
+    /**
+     * Tests the next nonces of every lane.
+     *
+     * @param midStateLow the low bits of the wide mid state
+     * @param midStateHigh the high bits of the wide mid state
+     * @param bufferLow a buffer of {@link #WIDE_STATE_LENGTH} elements, holds the resulting state afterwards
+     * @param bufferHigh a buffer of {@link #WIDE_STATE_LENGTH} elements, holds the resulting state afterwards
+     * @param scratchpadLow a buffer of {@link #WIDE_STATE_LENGTH} elements
+     * @param scratchpadHigh a buffer of {@link #WIDE_STATE_LENGTH} elements
+     * @param maskStartIndex the index of the first trit which has to be zero
+     * @param masks receives a bit mask per lane of the nonces which satisfy the min weight magnitude
+     * @return the index of the first lane with a valid nonce, -1 if there is none
+     */
+    static int tryNextNonces(long[] midStateLow, long[] midStateHigh, long[] bufferLow, long[] bufferHigh,
+                             long[] scratchpadLow, long[] scratchpadHigh, int maskStartIndex, long[] masks) {
+        increment(midStateLow, midStateHigh);
+        transform(midStateLow, midStateHigh, bufferLow, bufferHigh, scratchpadLow, scratchpadHigh);
+
+        int found = -1;
+        for (int lane = LANES; lane-- > 0; ) {
+            long mask = -1L;
+            for (int i = maskStartIndex; i < CURL_HASH_LENGTH && mask != 0; i++) {
+                mask &= ~(bufferLow[i * LANES + lane] ^ bufferHigh[i * LANES + lane]);
+            }
+            masks[lane] = mask;
+            if (mask != 0) {
+                found = lane;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Writes the first nonce of the given lane and mask to the end of the transaction trits.
+     */
+    static void writeNonce(byte[] transactionTrits, int lane, long mask, long[] midStateLow, long[] midStateHigh) {
+        long[] narrowLow = new long[CURL_HASH_LENGTH];
+        long[] narrowHigh = new long[CURL_HASH_LENGTH];
+        for (int i = 0; i < CURL_HASH_LENGTH; i++) {
+            narrowLow[i] = midStateLow[i * LANES + lane];
+            narrowHigh[i] = midStateHigh[i * LANES + lane];
+        }
+        PearlDiver.writeNonce(transactionTrits, mask, narrowLow, narrowHigh);
+    }
+
+    /**
+     * Runs the Curl rounds on the mid state. The rounds alternate between the two buffers, and as the amount of
+     * rounds is odd, the last one writes to {@code bufferLow} and {@code bufferHigh}.
+     */
+    private static void transform(long[] midStateLow, long[] midStateHigh, long[] bufferLow, long[] bufferHigh,
+                                  long[] scratchpadLow, long[] scratchpadHigh) {
+        round(midStateLow, midStateHigh, bufferLow, bufferHigh);
+        for (int round = 1; round < Curl.NUMBER_OF_ROUNDSP81; round += 2) {
+            round(bufferLow, bufferHigh, scratchpadLow, scratchpadHigh);
+            round(scratchpadLow, scratchpadHigh, bufferLow, bufferHigh);
+        }
+    }
+
+    private static void round(long[] sourceLow, long[] sourceHigh, long[] targetLow, long[] targetHigh) {
+        int target = 0;
+        for (int i = 0; i < PearlDiver.CURL_STATE_LENGTH; i++) {
+            int first = TRANSFORM_INDICES[i];
+            int second = TRANSFORM_INDICES[i + 1];
+            for (int lane = 0; lane < LANES; lane++) {
+                long alpha = sourceLow[first + lane];
+                long beta = sourceHigh[first + lane];
+                long gamma = sourceHigh[second + lane];
+                long delta = alpha & (sourceLow[second + lane] ^ beta);
+                targetLow[target + lane] = ~delta;
+                targetHigh[target + lane] = (alpha ^ gamma) | delta;
+            }
+            target += LANES;
+        }
+    }
+
+    /**
+     * Increments the nonce trits which are shared by all 64 candidates of a lane. All lanes hold the same values in
+     * this part of the nonce, so they are incremented together.
+     */
+    private static void increment(long[] midStateLow, long[] midStateHigh) {
+        for (int i = 162 + (CURL_HASH_LENGTH / 9) * 2; i < CURL_HASH_LENGTH; i++) {
+            int index = i * LANES;
+            if (midStateLow[index] == 0) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    midStateLow[index + lane] = -1L;
+                    midStateHigh[index + lane] = 0;
+                }
+            } else if (midStateHigh[index] == 0) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    midStateHigh[index + lane] = -1L;
+                }
+                break;
+            } else {
+                for (int lane = 0; lane < LANES; lane++) {
+                    midStateLow[index + lane] = 0;
+                }
+                break;
+            }
+        }
+    }
+}
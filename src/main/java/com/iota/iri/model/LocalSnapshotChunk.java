@@ -0,0 +1,152 @@
+package com.iota.iri.model;
+
+import com.iota.iri.storage.Persistable;
+
+import javax.naming.OperationNotSupportedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contains one part of one section of a local snapshot.
+ *
+ * The entries of every section are spread over a fixed amount of chunks by the hash code of their key. A chunk is
+ * stored under an {@link IntegerIndex} which combines the generation of the local snapshot that wrote it, its section
+ * and its position in the section (see {@link #index(int, Section, int)}).
+ */
+public class LocalSnapshotChunk implements Persistable {
+
+    /**
+     * The sections of a local snapshot and the amount of chunks per section.
+     */
+    public enum Section {
+        LEDGER_STATE(HashFactory.ADDRESS, 4096),
+        SOLID_ENTRY_POINTS(HashFactory.TRANSACTION, 256),
+        SEEN_MILESTONES(HashFactory.TRANSACTION, 16);
+
+        private final HashFactory hashFactory;
+
+        private final int chunks;
+
+        Section(HashFactory hashFactory, int chunks) {
+            this.hashFactory = hashFactory;
+            this.chunks = chunks;
+        }
+
+        /**
+         * @return the amount of chunks the entries of this section are spread over
+         */
+        public int getChunks() {
+            return chunks;
+        }
+
+        /**
+         * Gets the position of the chunk which holds the given key.
+         *
+         * @param key the key of the entry
+         * @return the position of the chunk in this section
+         */
+        public int chunkOf(Hash key) {
+            return Math.floorMod(key.hashCode(), chunks);
+        }
+    }
+
+    /**
+     * The amount of generations that fit into a chunk index. Generations wrap around after that.
+     */
+    public static final int GENERATIONS = 1 << 17;
+
+    private static final int ENTRY_SIZE = Hash.SIZE_IN_BYTES + Long.BYTES;
+
+    private static final Comparator<Map.Entry<Hash, Long>> BY_KEY_BYTES = (first, second) -> {
+        byte[] firstBytes = first.getKey().bytes();
+        byte[] secondBytes = second.getKey().bytes();
+        for (int i = 0; i < Hash.SIZE_IN_BYTES; i++) {
+            if (firstBytes[i] != secondBytes[i]) {
+                return Integer.compare(firstBytes[i] & 0xFF, secondBytes[i] & 0xFF);
+            }
+        }
+        return 0;
+    };
+
+    public Section section;
+
+    public Map<Hash, Long> entries;
+
+    /**
+     * Creates the index a chunk is stored under.
+     *
+     * @param generation the generation of the local snapshot which wrote the chunk
+     * @param section the section of the chunk
+     * @param chunk the position of the chunk in its section
+     * @return the index of the chunk
+     */
+    public static IntegerIndex index(int generation, Section section, int chunk) {
+        return new IntegerIndex(Math.floorMod(generation, GENERATIONS) << 14 | section.ordinal() << 12 | chunk);
+    }
+
+    /**
+     * Serializes the chunk. The entries are ordered by the bytes of their keys, so chunks with the same content have
+     * the same bytes.
+     */
+    @Override
+    public byte[] bytes() {
+        List<Map.Entry<Hash, Long>> sortedEntries = new ArrayList<>(entries.entrySet());
+        sortedEntries.sort(BY_KEY_BYTES);
+
+        ByteBuffer buf = ByteBuffer.allocate(1 + sortedEntries.size() * ENTRY_SIZE);
+        buf.put((byte) section.ordinal());
+        for (Map.Entry<Hash, Long> entry : sortedEntries) {
+            buf.put(entry.getKey().bytes());
+            buf.putLong(entry.getValue());
+        }
+
+        return buf.array();
+    }
+
+    @Override
+    public void read(byte[] bytes) {
+        if (bytes == null) {
+            return;
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        section = Section.values()[buf.get()];
+
+        int count = buf.remaining() / ENTRY_SIZE;
+        entries = new HashMap<>((int) (count / 0.75f) + 1);
+        byte[] hashBuf = new byte[Hash.SIZE_IN_BYTES];
+        for (int i = 0; i < count; i++) {
+            buf.get(hashBuf);
+            entries.put(section.hashFactory.create(hashBuf, 0, Hash.SIZE_IN_BYTES), buf.getLong());
+        }
+    }
+
+    @Override
+    public byte[] metadata() {
+        return new byte[0];
+    }
+
+    @Override
+    public void readMetadata(byte[] bytes) {
+        // has no metadata
+    }
+
+    @Override
+    public boolean canMerge() {
+        return false;
+    }
+
+    @Override
+    public Persistable mergeInto(Persistable source) throws OperationNotSupportedException {
+        throw new OperationNotSupportedException("This object is not mergeable");
+    }
+
+    @Override
+    public boolean exists() {
+        return entries != null;
+    }
+}
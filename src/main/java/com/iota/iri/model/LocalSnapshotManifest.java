@@ -0,0 +1,123 @@
+package com.iota.iri.model;
+
+import com.iota.iri.storage.Persistable;
+
+import javax.naming.OperationNotSupportedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Contains the milestone meta data of a local snapshot and references the {@link LocalSnapshotChunk}s which hold its
+ * solid entry points, seen milestones and ledger state.
+ *
+ * For every chunk it holds the generation of the local snapshot which wrote the chunk and a digest of its content.
+ * Chunks which didn't change since the previous local snapshot keep the generation of the snapshot that wrote them,
+ * so they don't have to be written again. Chunks without entries are not stored and have the generation
+ * {@link #EMPTY_CHUNK}.
+ */
+public class LocalSnapshotManifest implements Persistable {
+
+    /**
+     * The generation of chunks which have no entries.
+     */
+    public static final int EMPTY_CHUNK = -1;
+
+    /**
+     * The size of a chunk digest in bytes.
+     */
+    public static final int DIGEST_SIZE = 32;
+
+    public Hash milestoneHash;
+    public int milestoneIndex;
+    public long milestoneTimestamp;
+
+    /**
+     * The generation of this local snapshot.
+     */
+    public int generation;
+
+    /**
+     * The generation of every chunk by section ordinal and position in the section.
+     */
+    public int[][] chunkGenerations;
+
+    /**
+     * The digest of every chunk by section ordinal and position in the section.
+     */
+    public byte[][][] chunkDigests;
+
+    @Override
+    public byte[] bytes() {
+        int size = Hash.SIZE_IN_BYTES + 16;
+        for (int[] generations : chunkGenerations) {
+            size += 4 + generations.length * (4 + DIGEST_SIZE);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.put(milestoneHash.bytes());
+        buf.putInt(milestoneIndex);
+        buf.putLong(milestoneTimestamp);
+        buf.putInt(generation);
+        for (int section = 0; section < chunkGenerations.length; section++) {
+            buf.putInt(chunkGenerations[section].length);
+            for (int chunk = 0; chunk < chunkGenerations[section].length; chunk++) {
+                buf.putInt(chunkGenerations[section][chunk]);
+                buf.put(chunkDigests[section][chunk]);
+            }
+        }
+
+        return buf.array();
+    }
+
+    @Override
+    public void read(byte[] bytes) {
+        if (bytes == null) {
+            return;
+        }
+
+        byte[] hashBuf = new byte[Hash.SIZE_IN_BYTES];
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        buf.get(hashBuf);
+        milestoneHash = HashFactory.TRANSACTION.create(hashBuf, 0, Hash.SIZE_IN_BYTES);
+        milestoneIndex = buf.getInt();
+        milestoneTimestamp = buf.getLong();
+        generation = buf.getInt();
+
+        int sections = LocalSnapshotChunk.Section.values().length;
+        chunkGenerations = new int[sections][];
+        chunkDigests = new byte[sections][][];
+        for (int section = 0; section < sections; section++) {
+            int chunks = buf.getInt();
+            chunkGenerations[section] = new int[chunks];
+            chunkDigests[section] = new byte[chunks][DIGEST_SIZE];
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                chunkGenerations[section][chunk] = buf.getInt();
+                buf.get(chunkDigests[section][chunk]);
+            }
+        }
+    }
+
+    @Override
+    public byte[] metadata() {
+        return new byte[0];
+    }
+
+    @Override
+    public void readMetadata(byte[] bytes) {
+        // has no metadata
+    }
+
+    @Override
+    public boolean canMerge() {
+        return false;
+    }
+
+    @Override
+    public Persistable mergeInto(Persistable source) throws OperationNotSupportedException {
+        throw new OperationNotSupportedException("This object is not mergeable");
+    }
+
+    @Override
+    public boolean exists() {
+        return milestoneHash != null;
+    }
+}
@@ -2,62 +2,226 @@ package com.iota.iri.model;
 
 import com.iota.iri.storage.Persistable;
 import com.iota.iri.utils.Serializer;
-import org.apache.commons.lang3.ArrayUtils;
 
 import javax.naming.OperationNotSupportedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Creates a persistable State object, used to map addresses with values in the DB and snapshots.
+ *
+ * A diff which was read from the DB keeps the stored bytes and decodes its entries from them on demand, so reading a
+ * diff doesn't allocate anything per entry. The entries are written ordered by the bytes of their address, which
+ * allows {@link #merge(List)} to combine many diffs in a single pass.
  */
 public class StateDiff implements Persistable {
 
+    private static final int ENTRY_SIZE = Hash.SIZE_IN_BYTES + Long.BYTES;
+
     /** The map storing the address and balance of the current object */
     public Map<Hash, Long> state;
 
+    /** The stored entries of a diff which was read from the DB */
+    private byte[] encoded;
+
     /**
      * Returns a byte array of the state map contained in the object. If no data is present in the state,
      * a new empty byte array is returned instead.
      */
     @Override
     public byte[] bytes(){
+        if (state == null) {
+            return encoded == null ? new byte[0] : encoded;
+        }
+
         int size = state.size();
         if (size == 0) {
             return new byte[0];
         }
 
-        byte[] temp = new byte[size * (Hash.SIZE_IN_BYTES + Long.BYTES)];
-        int index = 0;
-        for (Entry<Hash,Long> entry : state.entrySet()){
-            byte[] key = entry.getKey().bytes();
-            System.arraycopy(key, 0, temp, index, key.length);
-            index += key.length;
+        List<Entry<Hash, Long>> entries = new ArrayList<>(state.entrySet());
+        entries.sort((first, second) -> compareAddresses(first.getKey().bytes(), 0, second.getKey().bytes(), 0));
 
-            byte[] value = Serializer.serialize(entry.getValue());
-            System.arraycopy(value, 0, temp, index, value.length);
-            index += value.length;
+        ByteBuffer buf = ByteBuffer.allocate(size * ENTRY_SIZE);
+        for (Entry<Hash, Long> entry : entries) {
+            buf.put(entry.getKey().bytes());
+            buf.putLong(entry.getValue());
         }
-        return temp;
+        return buf.array();
     }
 
     /**
-     * Iterates through the given byte array and populates the state map with the contained address
-     * hashes and the associated balance.
+     * Keeps the given bytes as the entries of this diff. The entries are only decoded when they are accessed.
      *
      * @param bytes The source data to be placed in the State
      */
     public void read(byte[] bytes) {
-        int i;
-        state = new HashMap<>();
-        if(bytes != null) {
-            for (i = 0; i < bytes.length; i += Hash.SIZE_IN_BYTES + Long.BYTES) {
-                state.put(HashFactory.ADDRESS.create(bytes, i, Hash.SIZE_IN_BYTES),
-                        Serializer.getLong(Arrays.copyOfRange(bytes, i + Hash.SIZE_IN_BYTES, i + Hash.SIZE_IN_BYTES + Long.BYTES)));
+        state = null;
+        encoded = bytes;
+    }
+
+    /**
+     * @return the number of addresses in this diff
+     */
+    public int size() {
+        if (state != null) {
+            return state.size();
+        }
+        return encoded == null ? 0 : encoded.length / ENTRY_SIZE;
+    }
+
+    /**
+     * Gets the balance changes of this diff as a map. Diffs read from the DB decode the map on the first call.
+     *
+     * @return the balance changes by address
+     */
+    public Map<Hash, Long> getState() {
+        if (state == null) {
+            Map<Hash, Long> decoded = new HashMap<>((int) (size() / 0.75f) + 1);
+            forEach(decoded::put);
+            state = decoded;
+        }
+        return state;
+    }
+
+    /**
+     * Passes every address and its balance change to the given consumer without creating the map of the diff.
+     *
+     * @param consumer receives the address and the balance change of every entry
+     */
+    public void forEach(ObjLongConsumer<Hash> consumer) {
+        if (state != null) {
+            state.forEach(consumer::accept);
+            return;
+        }
+
+        for (int offset = 0; encoded != null && offset + ENTRY_SIZE <= encoded.length; offset += ENTRY_SIZE) {
+            consumer.accept(HashFactory.ADDRESS.create(encoded, offset, Hash.SIZE_IN_BYTES),
+                    Serializer.getLong(encoded, offset + Hash.SIZE_IN_BYTES));
+        }
+    }
+
+    /**
+     * Sums up the balance changes of the given diffs.
+     *
+     * The diffs are merged like sorted lists: the entries of all diffs are visited once in the order of their
+     * addresses, and the changes of an address are summed up as primitives before a single entry is created for it.
+     * Diffs which were stored unordered are ordered first.
+     *
+     * @param diffs the diffs to merge
+     * @return a diff holding the summed up balance changes of every address
+     */
+    public static StateDiff merge(List<StateDiff> diffs) {
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, diffs.size()));
+        int maxEntries = 0;
+        for (StateDiff diff : diffs) {
+            byte[] bytes = diff.bytes();
+            int entries = bytes.length / ENTRY_SIZE;
+            if (entries > 0) {
+                cursors.add(new Cursor(bytes, sortedOffsets(bytes, entries)));
+                maxEntries += entries;
+            }
+        }
+
+        ByteBuffer merged = ByteBuffer.allocate(maxEntries * ENTRY_SIZE);
+        Cursor cursor;
+        while ((cursor = cursors.poll()) != null) {
+            byte[] address = cursor.bytes;
+            int addressOffset = cursor.offset();
+            long sum = 0;
+            while (true) {
+                sum += Serializer.getLong(cursor.bytes, cursor.offset() + Hash.SIZE_IN_BYTES);
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+
+                Cursor next = cursors.peek();
+                if (next == null || compareAddresses(address, addressOffset, next.bytes, next.offset()) != 0) {
+                    break;
+                }
+                cursor = cursors.poll();
+            }
+
+            merged.put(address, addressOffset, Hash.SIZE_IN_BYTES);
+            merged.putLong(sum);
+        }
+
+        StateDiff result = new StateDiff();
+        result.read(Arrays.copyOf(merged.array(), merged.position()));
+        return result;
+    }
+
+    /**
+     * Gets the offsets of the entries in the order of their addresses.
+     */
+    private static int[] sortedOffsets(byte[] bytes, int entries) {
+        int[] offsets = new int[entries];
+        boolean sorted = true;
+        for (int i = 0; i < entries; i++) {
+            offsets[i] = i * ENTRY_SIZE;
+            if (i > 0 && compareAddresses(bytes, offsets[i - 1], bytes, offsets[i]) > 0) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            return offsets;
+        }
+
+        Integer[] boxedOffsets = new Integer[entries];
+        for (int i = 0; i < entries; i++) {
+            boxedOffsets[i] = offsets[i];
+        }
+        Arrays.sort(boxedOffsets, (first, second) -> compareAddresses(bytes, first, bytes, second));
+        for (int i = 0; i < entries; i++) {
+            offsets[i] = boxedOffsets[i];
+        }
+        return offsets;
+    }
+
+    private static int compareAddresses(byte[] first, int firstOffset, byte[] second, int secondOffset) {
+        for (int i = 0; i < Hash.SIZE_IN_BYTES; i++) {
+            if (first[firstOffset + i] != second[secondOffset + i]) {
+                return Integer.compare(first[firstOffset + i] & 0xFF, second[secondOffset + i] & 0xFF);
             }
         }
+        return 0;
+    }
+
+    /**
+     * The position of {@link #merge(List)} in the entries of one diff.
+     */
+    private static class Cursor implements Comparable<Cursor> {
+
+        private final byte[] bytes;
+
+        private final int[] offsets;
+
+        private int position;
+
+        private Cursor(byte[] bytes, int[] offsets) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+        }
+
+        private int offset() {
+            return offsets[position];
+        }
+
+        private boolean advance() {
+            return ++position < offsets.length;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return compareAddresses(bytes, offset(), other.bytes, other.offset());
+        }
     }
 
     @Override
@@ -81,7 +245,7 @@ public class StateDiff implements Persistable {
 
     @Override
     public boolean exists() {
-        return !(this.state == null || this.state.isEmpty());
+        return size() > 0;
     }
 
 }
@@ -0,0 +1,72 @@
+package com.iota.iri.model.persistables;
+
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.HashFactory;
+import com.iota.iri.storage.Persistable;
+
+import javax.naming.OperationNotSupportedException;
+
+/**
+ * Holds the hash of the tail transaction of the bundle that the transaction it is stored for belongs to.
+ *
+ * It is stored for every transaction of a bundle once the bundle was validated, so the tail of a transaction can be
+ * found with a single lookup instead of walking through the bundle.
+ */
+public class BundleTail implements Persistable {
+
+    /**
+     * The hash of the tail transaction of the bundle.
+     */
+    public Hash tail;
+
+    /**
+     * Creates an empty bundle tail reference.
+     */
+    public BundleTail() {
+    }
+
+    /**
+     * Creates a reference to the given tail transaction.
+     *
+     * @param tail the hash of the tail transaction of the bundle
+     */
+    public BundleTail(Hash tail) {
+        this.tail = tail;
+    }
+
+    @Override
+    public byte[] bytes() {
+        return tail == null ? new byte[0] : tail.bytes();
+    }
+
+    @Override
+    public void read(byte[] bytes) {
+        if (bytes != null && bytes.length == Hash.SIZE_IN_BYTES) {
+            tail = HashFactory.TRANSACTION.create(bytes, 0, Hash.SIZE_IN_BYTES);
+        }
+    }
+
+    @Override
+    public byte[] metadata() {
+        return new byte[0];
+    }
+
+    @Override
+    public void readMetadata(byte[] bytes) {
+    }
+
+    @Override
+    public boolean canMerge() {
+        return false;
+    }
+
+    @Override
+    public Persistable mergeInto(Persistable source) throws OperationNotSupportedException {
+        throw new OperationNotSupportedException("This object is not mergeable");
+    }
+
+    @Override
+    public boolean exists() {
+        return tail != null;
+    }
+}
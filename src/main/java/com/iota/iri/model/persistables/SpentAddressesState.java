@@ -0,0 +1,71 @@
+package com.iota.iri.model.persistables;
+
+import com.iota.iri.storage.Persistable;
+
+import javax.naming.OperationNotSupportedException;
+
+/**
+ * Holds auxiliary data of the spent addresses store as an opaque blob, i.e. the image of the in-memory filter in front
+ * of the {@link SpentAddress} lookups. Entries are indexed by an {@link com.iota.iri.model.IntegerIndex}.
+ */
+public class SpentAddressesState implements Persistable {
+    private byte[] data;
+
+    /**
+     * Instantiates an empty <tt>SpentAddressesState</tt> which is populated through {@link #read(byte[])}.
+     */
+    public SpentAddressesState() {
+    }
+
+    /**
+     * Instantiates a <tt>SpentAddressesState</tt> holding the given data.
+     *
+     * @param data the data to store
+     */
+    public SpentAddressesState(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Gets the stored data.
+     *
+     * @return the stored data or null if nothing was stored
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    @Override
+    public byte[] bytes() {
+        return data;
+    }
+
+    @Override
+    public void read(byte[] bytes) {
+        data = bytes;
+    }
+
+    @Override
+    public byte[] metadata() {
+        return new byte[0];
+    }
+
+    @Override
+    public void readMetadata(byte[] bytes) {
+    }
+
+    @Override
+    public boolean canMerge() {
+        return false;
+    }
+
+    @Override
+    public Persistable mergeInto(Persistable source) throws OperationNotSupportedException {
+        throw new OperationNotSupportedException("This object is not mergeable");
+    }
+
+    @Override
+    public boolean exists() {
+        return data != null;
+    }
+}
@@ -0,0 +1,210 @@
+package com.iota.iri.network;
+
+import com.iota.iri.network.neighbor.Neighbor;
+import com.iota.iri.network.neighbor.NeighborState;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link NeighborIoLoop} runs its own {@link Selector} to read from and write to the connections of a shard of
+ * already handshaked neighbors. Accepting connections, handshaking and reconnecting stays within the
+ * {@link NeighborRouterImpl}, which hands neighbors over to an I/O loop once they are ready for messages and gets them
+ * back through the {@link DetachListener} once their connection has to be closed.
+ */
+class NeighborIoLoop implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(NeighborIoLoop.class);
+
+    /**
+     * Defines why a neighbor was detached from an I/O loop.
+     */
+    enum DetachReason {
+        /**
+         * The neighbor was marked for disconnect.
+         */
+        MARKED_FOR_DISCONNECT,
+        /**
+         * The neighbor closed the connection or a message couldn't be processed.
+         */
+        CLOSED,
+        /**
+         * Reading from or writing to the connection failed.
+         */
+        IO_ERROR
+    }
+
+    /**
+     * Gets notified (on the I/O loop's thread) about neighbors which were removed from the I/O loop.
+     */
+    @FunctionalInterface
+    interface DetachListener {
+
+        /**
+         * Called after the neighbor's channel was deregistered from the I/O loop's selector.
+         *
+         * @param channel  the channel of the neighbor
+         * @param neighbor the detached neighbor
+         * @param reason   the {@link DetachReason}
+         */
+        void onDetach(SocketChannel channel, Neighbor neighbor, DetachReason reason);
+    }
+
+    private final String name;
+    private final Selector selector;
+    private final DetachListener detachListener;
+    private final Queue<Runnable> pendingRegistrations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger neighborsCount = new AtomicInteger();
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+
+    /**
+     * Creates a new {@link NeighborIoLoop}.
+     *
+     * @param name           the name of the I/O loop used for logging
+     * @param detachListener the {@link DetachListener} to notify about detached neighbors
+     * @throws IOException thrown when the selector can't be opened
+     */
+    NeighborIoLoop(String name, DetachListener detachListener) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+        this.detachListener = detachListener;
+    }
+
+    /**
+     * Hands the given channel over to this I/O loop. The {@link Neighbor} must be attached to the channel's selection
+     * key of the previous selector, which must have been cancelled already.
+     *
+     * @param channel  the channel of the neighbor
+     * @param neighbor the neighbor which is ready for messages
+     */
+    void register(SocketChannel channel, Neighbor neighbor) {
+        neighborsCount.incrementAndGet();
+        neighbor.setSelector(selector);
+        // channels can only be registered while the selector is not blocked in select(), hence the registration is
+        // done by the I/O loop's thread itself
+        pendingRegistrations.add(() -> registerChannel(channel, neighbor));
+        selector.wakeup();
+    }
+
+    /**
+     * Gets the amount of neighbors currently served by this I/O loop.
+     *
+     * @return the amount of neighbors
+     */
+    int getNeighborsCount() {
+        return neighborsCount.get();
+    }
+
+    /**
+     * Stops the I/O loop and closes all connections it is serving.
+     */
+    void shutdown() {
+        shutdown.set(true);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        log.info("starting neighbor I/O loop {}", name);
+        try {
+            while (!shutdown.get()) {
+                selector.select();
+                if (shutdown.get()) {
+                    break;
+                }
+                registerPendingNeighbors();
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    if (key.isValid()) {
+                        handle(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("error occurred in neighbor I/O loop {}", name, e);
+        } finally {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                log.error("error occurred while trying to gracefully shutdown neighbor I/O loop {}", name, e);
+            }
+            log.info("neighbor I/O loop {} stopped", name);
+        }
+    }
+
+    private void registerPendingNeighbors() {
+        Runnable registration;
+        while ((registration = pendingRegistrations.poll()) != null) {
+            registration.run();
+        }
+    }
+
+    private void registerChannel(SocketChannel channel, Neighbor neighbor) {
+        try {
+            // write interest is always registered as the neighbor might have queued messages during the hand over
+            channel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE, neighbor);
+        } catch (IOException e) {
+            log.warn("unable to register neighbor {} in I/O loop {}. reason: {}", neighbor.getHostAddressAndPort(),
+                    name, e.getMessage());
+            detach(null, channel, neighbor, DetachReason.IO_ERROR);
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Neighbor neighbor = (Neighbor) key.attachment();
+
+        if (neighbor.getState() == NeighborState.MARKED_FOR_DISCONNECT) {
+            detach(key, channel, neighbor, DetachReason.MARKED_FOR_DISCONNECT);
+            return;
+        }
+
+        try {
+            if (key.isWritable()) {
+                switch (neighbor.write()) {
+                    case 0:
+                        // nothing to send anymore, the neighbor re-registers the write interest on new messages
+                        key.interestOps(SelectionKey.OP_READ);
+                        break;
+                    case -1:
+                        detach(key, channel, neighbor, DetachReason.CLOSED);
+                        return;
+                    default:
+                        // bytes were written to the channel
+                }
+            }
+
+            if (key.isReadable() && neighbor.read() == -1) {
+                detach(key, channel, neighbor, DetachReason.CLOSED);
+            }
+        } catch (IOException ex) {
+            log.warn("unable to read/write from/to neighbor {}. reason: {}", neighbor.getHostAddressAndPort(),
+                    ex.getMessage());
+            detach(key, channel, neighbor, DetachReason.IO_ERROR);
+        }
+    }
+
+    private void detach(SelectionKey key, SocketChannel channel, Neighbor neighbor, DetachReason reason) {
+        if (key != null) {
+            key.cancel();
+        }
+        neighborsCount.decrementAndGet();
+        detachListener.onDetach(channel, neighbor, reason);
+    }
+}
@@ -3,6 +3,7 @@ package com.iota.iri.network;
 import com.iota.iri.conf.BaseIotaConfig;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.network.neighbor.Neighbor;
+import com.iota.iri.network.neighbor.SendPriority;
 import com.iota.iri.network.pipeline.TransactionProcessingPipeline;
 import com.iota.iri.network.pipeline.TransactionProcessingPipelineImpl;
 
@@ -96,6 +97,16 @@ public interface NeighborRouter {
     void gossipTransactionTo(Neighbor neighbor, TransactionViewModel tvm, boolean useHashOfTVM)
             throws Exception;
 
+    /**
+     * Gossips the given transaction to the given neighbor using the given send priority.
+     *
+     * @param neighbor The {@link Neighbor} to gossip the transaction to
+     * @param tvm      The transaction to gossip
+     * @param priority The {@link SendPriority} of the gossip packet in the neighbor's send queue
+     * @throws Exception thrown when loading a hash of transaction to request fails
+     */
+    void gossipTransactionTo(Neighbor neighbor, TransactionViewModel tvm, SendPriority priority) throws Exception;
+
     /**
      * Shut downs the {@link NeighborRouter} and all currently open connections.
      */
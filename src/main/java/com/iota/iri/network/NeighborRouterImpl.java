@@ -7,6 +7,7 @@ import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.network.neighbor.Neighbor;
 import com.iota.iri.network.neighbor.NeighborState;
+import com.iota.iri.network.neighbor.SendPriority;
 import com.iota.iri.network.neighbor.impl.NeighborImpl;
 import com.iota.iri.network.pipeline.TransactionProcessingPipeline;
 import com.iota.iri.network.pipeline.TransactionProcessingPipelineImpl;
@@ -52,6 +53,17 @@ public class NeighborRouterImpl implements NeighborRouter {
     private Selector selector;
     private ServerSocketChannel serverSocketChannel;
 
+    /**
+     * I/O loops serving the connections of handshaked neighbors, empty if the router thread serves all connections
+     */
+    private final List<NeighborIoLoop> ioLoops = new ArrayList<>();
+    private ExecutorService ioExecutor;
+
+    /**
+     * tasks submitted by other threads (i.e. the I/O loops) which must be executed by the router thread
+     */
+    private final Queue<Runnable> routerTasks = new ConcurrentLinkedQueue<>();
+
     /**
      * a mapping of host address + port (identity) to fully handshaked/connected neighbor
      */
@@ -155,6 +167,8 @@ public class NeighborRouterImpl implements NeighborRouter {
             serverSocketChannel.socket().bind(tcpBindAddr);
             log.info("bound server TCP socket to {}", tcpBindAddr);
 
+            startIoLoops();
+
             // parse neighbors from configuration
             initNeighbors();
 
@@ -173,6 +187,11 @@ public class NeighborRouterImpl implements NeighborRouter {
                     break;
                 }
 
+                Runnable task;
+                while ((task = routerTasks.poll()) != null) {
+                    task.run();
+                }
+
                 // reinitialize connections to wanted neighbors
                 long now = System.currentTimeMillis();
                 if (forceReconnectAttempt.get() || now - lastReconnectAttempts > reconnectAttemptTimeout) {
@@ -213,7 +232,7 @@ public class NeighborRouterImpl implements NeighborRouter {
                         }
 
                         if (key.isReadable()) {
-                            handleRead(channel, identity, neighbor);
+                            handleRead(channel, key, identity, neighbor);
                         }
 
                     } finally {
@@ -224,6 +243,7 @@ public class NeighborRouterImpl implements NeighborRouter {
         } catch (IOException e) {
             log.error("error occurred in the neighbor router", e);
         } finally {
+            stopIoLoops();
             try {
                 if (selector != null) {
                     // close all connections
@@ -242,6 +262,85 @@ public class NeighborRouterImpl implements NeighborRouter {
         }
     }
 
+    /**
+     * Starts the configured amount of {@link NeighborIoLoop}s to which the connections of handshaked neighbors are
+     * handed over.
+     *
+     * @throws IOException thrown when a selector of an I/O loop can't be opened
+     */
+    private void startIoLoops() throws IOException {
+        int ioThreads = networkConfig.getNeighborIoThreads();
+        if (ioThreads <= 0) {
+            return;
+        }
+        for (int i = 0; i < ioThreads; i++) {
+            ioLoops.add(new NeighborIoLoop("Neighbor IO " + i, this::onNeighborDetached));
+        }
+        ioExecutor = Executors.newFixedThreadPool(ioThreads, new ThreadFactory() {
+            private int threadIndex;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "Neighbor IO " + threadIndex++);
+            }
+        });
+        ioLoops.forEach(ioExecutor::execute);
+        log.info("started {} neighbor I/O loops", ioThreads);
+    }
+
+    private void stopIoLoops() {
+        ioLoops.forEach(NeighborIoLoop::shutdown);
+        if (ioExecutor != null) {
+            ioExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Hands the connection of the given handshaked neighbor over to the I/O loop serving the least neighbors.
+     *
+     * @param channel  the channel of the neighbor
+     * @param key      the selection key of the channel within the router's selector
+     * @param neighbor the neighbor which is ready for messages
+     */
+    private void handOverToIoLoop(SocketChannel channel, SelectionKey key, Neighbor neighbor) {
+        NeighborIoLoop ioLoop = ioLoops.get(0);
+        for (NeighborIoLoop candidate : ioLoops) {
+            if (candidate.getNeighborsCount() < ioLoop.getNeighborsCount()) {
+                ioLoop = candidate;
+            }
+        }
+        key.cancel();
+        ioLoop.register(channel, neighbor);
+    }
+
+    /**
+     * Called by an I/O loop when the connection of a neighbor has to be closed. The connection is closed on the router
+     * thread, as the bookkeeping of connected and wanted neighbors is owned by it.
+     *
+     * @param channel  the channel of the neighbor
+     * @param neighbor the detached neighbor
+     * @param reason   why the neighbor was detached
+     */
+    private void onNeighborDetached(SocketChannel channel, Neighbor neighbor, NeighborIoLoop.DetachReason reason) {
+        String identity = neighbor.getHostAddressAndPort();
+        routerTasks.add(() -> {
+            switch (reason) {
+                case MARKED_FOR_DISCONNECT:
+                    allowedNeighbors.remove(identity);
+                    closeNeighborConnection(channel, identity, selector);
+                    removeFromReconnectPool(neighbor);
+                    break;
+                case IO_ERROR:
+                    closeNeighborConnection(channel, identity, selector);
+                    addToReconnectPool(neighbor);
+                    break;
+                default:
+                    closeNeighborConnection(channel, identity, selector);
+            }
+        });
+        selector.wakeup();
+    }
+
     /**
      * Handles a new incoming connection and if it passes some initial conditions (via
      * {@link NeighborRouterImpl#okToConnect(String, SocketChannel)}), will start the handshaking process by placing a
@@ -264,7 +363,8 @@ public class NeighborRouterImpl implements NeighborRouter {
             }
             configureSocket(newConn);
             Neighbor newNeighbor = new NeighborImpl<>(selector, newConn, remoteAddr.getAddress().getHostAddress(),
-                    Neighbor.UNKNOWN_REMOTE_SERVER_SOCKET_PORT, txPipeline);
+                    Neighbor.UNKNOWN_REMOTE_SERVER_SOCKET_PORT, txPipeline, networkConfig.getNeighborSendQueueSize(),
+                    networkConfig.getNeighborSendBudgetBytes());
             String domain = ipToDomainMapping.get(remoteAddr.getAddress().getHostAddress());
             if (domain != null) {
                 newNeighbor.setDomain(domain);
@@ -273,7 +373,7 @@ public class NeighborRouterImpl implements NeighborRouter {
             }
 
             newNeighbor.send(Handshake.createHandshakePacket((char) networkConfig.getNeighboringSocketPort(),
-                    byteEncodedCooAddress, (byte) protocolConfig.getMwm()));
+                    byteEncodedCooAddress, (byte) protocolConfig.getMwm()), SendPriority.HIGH);
             log.info("new connection from {}, performing handshake...", newNeighbor.getHostAddress());
             newConn.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE, newNeighbor);
             return true;
@@ -320,7 +420,7 @@ public class NeighborRouterImpl implements NeighborRouter {
                 key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
                 // add handshaking packet as the initial packet to send
                 neighbor.send(Handshake.createHandshakePacket((char) networkConfig.getNeighboringSocketPort(),
-                        byteEncodedCooAddress, (byte) protocolConfig.getMwm()));
+                        byteEncodedCooAddress, (byte) protocolConfig.getMwm()), SendPriority.HIGH);
                 return true;
             }
         } catch (IOException ex) {
@@ -390,11 +490,12 @@ public class NeighborRouterImpl implements NeighborRouter {
      * </p>
      *
      * @param channel  the associated channel for the given connection
+     * @param key      the associated selection key associated with the given connection
      * @param identity the identity of the connection/neighbor
      * @param neighbor the neighbor associated with this connection
      * @return whether the read operation was successful or not
      */
-    private boolean handleRead(SocketChannel channel, String identity, Neighbor neighbor) {
+    private boolean handleRead(SocketChannel channel, SelectionKey key, String identity, Neighbor neighbor) {
         try {
             switch (neighbor.getState()) {
                 case READY_FOR_MESSAGES:
@@ -404,13 +505,20 @@ public class NeighborRouterImpl implements NeighborRouter {
                     }
                     break;
                 case HANDSHAKING:
-                    if (finalizeHandshake(identity, neighbor, channel) && availableNeighborSlotsFilled()) {
+                    if (!finalizeHandshake(identity, neighbor, channel)) {
+                        break;
+                    }
+                    if (availableNeighborSlotsFilled()) {
                         // if all known neighbors or max neighbors are connected we are
                         // no longer interested in any incoming connections
                         // (as long as no neighbor dropped the connection)
                         SelectionKey srvKey = serverSocketChannel.keyFor(selector);
                         srvKey.interestOps(0);
                     }
+                    if (!ioLoops.isEmpty()) {
+                        handOverToIoLoop(channel, key, neighbor);
+                    }
+                    break;
                 default:
                     // do nothing
             }
@@ -671,7 +779,7 @@ public class NeighborRouterImpl implements NeighborRouter {
         configureSocket(tcpChannel);
         tcpChannel.connect(addr);
         Neighbor neighbor = new NeighborImpl<>(selector, tcpChannel, addr.getAddress().getHostAddress(), addr.getPort(),
-                txPipeline);
+                txPipeline, networkConfig.getNeighborSendQueueSize(), networkConfig.getNeighborSendBudgetBytes());
         neighbor.setDomain(addr.getHostString());
         tcpChannel.register(selector, SelectionKey.OP_CONNECT, neighbor);
     }
@@ -890,6 +998,17 @@ public class NeighborRouterImpl implements NeighborRouter {
     @Override
     public void gossipTransactionTo(Neighbor neighbor, TransactionViewModel tvm, boolean useHashOfTVM)
             throws Exception {
+        gossipTransactionTo(neighbor, tvm, useHashOfTVM, SendPriority.NORMAL);
+    }
+
+    @Override
+    public void gossipTransactionTo(Neighbor neighbor, TransactionViewModel tvm, SendPriority priority)
+            throws Exception {
+        gossipTransactionTo(neighbor, tvm, false, priority);
+    }
+
+    private void gossipTransactionTo(Neighbor neighbor, TransactionViewModel tvm, boolean useHashOfTVM,
+            SendPriority priority) throws Exception {
         byte[] requestedHash = null;
         if (!useHashOfTVM) {
             Hash hash = txRequester.transactionToRequest();
@@ -903,7 +1022,7 @@ public class NeighborRouterImpl implements NeighborRouter {
         }
 
         ByteBuffer packet = Protocol.createTransactionGossipPacket(tvm, requestedHash);
-        neighbor.send(packet);
+        neighbor.send(packet, priority);
         // tx might actually not be sent, we are merely putting it into the send queue
         // TODO: find a way to increment once we actually sent the txs into the channel
         neighbor.getMetrics().incrSentTransactionsCount();
@@ -0,0 +1,271 @@
+package com.iota.iri.network;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The {@link StripedFIFOCache} is a FIFO cache keyed by primitive {@code long} values (i.e. the digests of
+ * transaction bytes) which removes the oldest entry of a stripe when the stripe's capacity is reached.
+ *
+ * Keys are distributed over independently locked stripes, so that multiple pipeline workers can query and populate
+ * the cache without contending on a single lock. Each stripe stores its entries in a ring buffer of primitive keys
+ * together with an open addressing index, which avoids boxing the keys and allocating entry objects. Lookups are
+ * performed optimistically and only acquire the stripe's read lock if a concurrent write was detected.
+ *
+ * @param <V> the value type
+ */
+public class StripedFIFOCache<V> {
+
+    /**
+     * The amount of stripes used if none is explicitly given.
+     */
+    public static final int DEFAULT_STRIPES = 16;
+
+    private final Stripe<V>[] stripes;
+    private final int stripeMask;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /**
+     * Creates a new {@link StripedFIFOCache} using {@link #DEFAULT_STRIPES} stripes.
+     *
+     * @param capacity the maximum capacity of the cache
+     */
+    public StripedFIFOCache(int capacity) {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a new {@link StripedFIFOCache}.
+     *
+     * The amount of stripes is rounded down to a power of two and never exceeds the capacity. The capacity is spread
+     * evenly over the stripes, so the FIFO order is only maintained within each stripe.
+     *
+     * @param capacity    the maximum capacity of the cache
+     * @param stripeCount the amount of independently locked stripes
+     */
+    public StripedFIFOCache(int capacity, int stripeCount) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("the capacity of the cache must be at least 1");
+        }
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("the cache needs at least one stripe");
+        }
+
+        int count = Integer.highestOneBit(Math.min(stripeCount, capacity));
+        stripes = newStripes(count);
+        stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    // generic arrays can't be created directly
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Stripe<V>[] newStripes(int count) {
+        return new Stripe[count];
+    }
+
+    /**
+     * Gets the entry by the given key.
+     *
+     * @param key the key to use to retrieve the entry
+     * @return the entry or {@code null} if the key is not cached
+     */
+    public V get(long key) {
+        long hash = mix(key);
+        V v = stripes[(int) hash & stripeMask].get(key, hash);
+        if (v == null) {
+            cacheMisses.increment();
+        } else {
+            cacheHits.increment();
+        }
+        return v;
+    }
+
+    /**
+     * Adds the given entry by the given key. If the key is already cached, the cache is left untouched.
+     *
+     * @param key   the key to use for the entry
+     * @param value the value of the entry
+     * @return the given value if the key was already cached, {@code null} otherwise
+     */
+    public V put(long key, V value) {
+        Objects.requireNonNull(value, "the cache does not accept null values");
+        long hash = mix(key);
+        return stripes[(int) hash & stripeMask].put(key, hash, value);
+    }
+
+    /**
+     * Gets the amount of cache hits.
+     *
+     * @return amount of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Gets the amount of cache misses.
+     *
+     * @return amount of cache misses
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Resets the cache hits and misses stats back to 0.
+     */
+    public void resetCacheStats() {
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+
+    /**
+     * Spreads the bits of the given key (finalizer of MurmurHash3), so that the lower bits select the stripe and the
+     * upper bits select the slot within the stripe independently.
+     *
+     * @param key the key to mix
+     * @return the mixed key
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * A single FIFO segment of the cache guarded by its own lock.
+     *
+     * @param <V> the value type
+     */
+    private static final class Stripe<V> {
+
+        private final StampedLock lock = new StampedLock();
+
+        /**
+         * Ring buffer of the keys in insertion order.
+         */
+        private final long[] keys;
+
+        /**
+         * Ring buffer of the values belonging to {@link #keys}.
+         */
+        private final Object[] values;
+
+        /**
+         * Open addressing index with linear probing, holding the ring buffer position + 1 (0 marks a free slot).
+         */
+        private final int[] index;
+
+        private final int indexMask;
+
+        private int head;
+
+        private int size;
+
+        Stripe(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            // at least twice the capacity to keep probe sequences short
+            index = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            indexMask = index.length - 1;
+        }
+
+        V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            V value = find(key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    value = find(key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        V put(long key, long hash, V value) {
+            long stamp = lock.writeLock();
+            try {
+                if (find(key, hash) != null) {
+                    return value;
+                }
+
+                int pos;
+                if (size == keys.length) {
+                    pos = head;
+                    removeFromIndex(pos);
+                    head = (head + 1) % keys.length;
+                } else {
+                    pos = (head + size) % keys.length;
+                    size++;
+                }
+                keys[pos] = key;
+                values[pos] = value;
+
+                int slot = slotOf(hash);
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & indexMask;
+                }
+                index[slot] = pos + 1;
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Looks up the value of the given key. The probe count is bounded, so that an optimistic read racing with a
+         * writer always terminates (its result is discarded by the caller in that case).
+         */
+        @SuppressWarnings("unchecked")
+        private V find(long key, long hash) {
+            int slot = slotOf(hash);
+            for (int probes = 0; probes <= indexMask; probes++) {
+                int pos = index[slot] - 1;
+                if (pos < 0) {
+                    return null;
+                }
+                if (keys[pos] == key) {
+                    return (V) values[pos];
+                }
+                slot = (slot + 1) & indexMask;
+            }
+            return null;
+        }
+
+        /**
+         * Removes the index slot pointing to the given ring buffer position and shifts the following entries of the
+         * probe sequence back, so that no tombstones are needed.
+         */
+        private void removeFromIndex(int pos) {
+            int free = slotOf(mix(keys[pos]));
+            while (index[free] != pos + 1) {
+                free = (free + 1) & indexMask;
+            }
+
+            int next = (free + 1) & indexMask;
+            while (index[next] != 0) {
+                int home = slotOf(mix(keys[index[next] - 1]));
+                if (((next - home) & indexMask) >= ((next - free) & indexMask)) {
+                    index[free] = index[next];
+                    free = next;
+                }
+                next = (next + 1) & indexMask;
+            }
+            index[free] = 0;
+            values[pos] = null;
+        }
+
+        private int slotOf(long hash) {
+            return (int) (hash >>> 32) & indexMask;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.iota.iri.network.protocol.Heartbeat;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Selector;
 
 /**
  * A {@link Neighbor} is a peer to/from which messages are sent/read from.
@@ -48,12 +49,31 @@ public interface Neighbor {
     Heartbeat heartbeat() throws IOException;
 
     /**
-     * Instructs the {@link Neighbor} to send the given {@link ByteBuffer} to its destination channel.
+     * Instructs the {@link Neighbor} to send the given {@link ByteBuffer} to its destination channel using
+     * {@link SendPriority#NORMAL}.
      *
      * @param buf the {@link ByteBuffer} containing the message to send
      */
     void send(ByteBuffer buf);
 
+    /**
+     * Instructs the {@link Neighbor} to send the given {@link ByteBuffer} to its destination channel. If the send queue
+     * is full, a queued packet with a lower priority is dropped in favor of the given one, or the given one is dropped
+     * if no such packet exists.
+     *
+     * @param buf      the {@link ByteBuffer} containing the message to send
+     * @param priority the {@link SendPriority} of the message
+     */
+    void send(ByteBuffer buf, SendPriority priority);
+
+    /**
+     * Hands back a message buffer which this {@link Neighbor} passed on for processing (i.e. a transaction gossip
+     * payload), so that it can be reused for subsequent reads. The buffer must not be used after releasing it.
+     *
+     * @param buf the {@link ByteBuffer} to release
+     */
+    void releaseMessageBuffer(ByteBuffer buf);
+
     /**
      * Gets the host address.
      * 
@@ -131,4 +151,12 @@ public interface Neighbor {
      */
     int getProtocolVersion();
 
+    /**
+     * Sets the {@link Selector} with which the {@link Neighbor}'s channel is registered, so that
+     * write interest is signaled on the selector actually serving the connection.
+     *
+     * @param selector the selector serving the connection
+     */
+    void setSelector(Selector selector);
+
 }
@@ -102,4 +102,34 @@ public interface NeighborMetrics {
      * @return the number of packets dropped from the neighbor's send queue
      */
     long incrDroppedSendPacketsCount();
+
+    /**
+     * Gets the number of bytes dropped from the neighbor's send queue.
+     *
+     * @return the number of bytes dropped from the neighbor's send queue
+     */
+    long getDroppedSendBytesCount();
+
+    /**
+     * Increments the number of bytes dropped from the neighbor's send queue by the given amount.
+     *
+     * @param bytes the amount of dropped bytes
+     * @return the number of bytes dropped from the neighbor's send queue
+     */
+    long incrDroppedSendBytesCount(long bytes);
+
+    /**
+     * Gets the number of bytes currently queued to be sent to the neighbor.
+     *
+     * @return the number of bytes currently queued to be sent to the neighbor
+     */
+    long getQueuedSendBytes();
+
+    /**
+     * Adjusts the number of bytes currently queued to be sent to the neighbor by the given delta.
+     *
+     * @param delta the amount of bytes added to (positive) or removed from (negative) the send queue
+     * @return the number of bytes currently queued to be sent to the neighbor
+     */
+    long addQueuedSendBytes(long delta);
 }
@@ -0,0 +1,20 @@
+package com.iota.iri.network.neighbor;
+
+/**
+ * Defines the priority of a packet in a {@link Neighbor}'s send queue. When the send queue is full, packets with the
+ * lowest priority are dropped first.
+ */
+public enum SendPriority {
+    /**
+     * Packets which are nice to have, i.e. replies to random tip requests.
+     */
+    LOW,
+    /**
+     * Regular gossip, i.e. broadcasts and replies to explicitly requested transactions.
+     */
+    NORMAL,
+    /**
+     * Packets which are essential for the connection itself, i.e. handshakes.
+     */
+    HIGH,
+}
@@ -0,0 +1,74 @@
+package com.iota.iri.network.neighbor.impl;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link MessageBufferPool} hands out direct {@link ByteBuffer}s of a fixed capacity which are read into by a
+ * neighbor and released again by the component consuming the message.
+ *
+ * At most {@code poolSize} direct buffers are ever allocated. If all of them are in use, plain heap buffers are handed
+ * out instead, which are simply left to the garbage collector once released.
+ */
+class MessageBufferPool {
+
+    private final BlockingQueue<ByteBuffer> freeBuffers;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger();
+    private final int poolSize;
+    private final int bufferCapacity;
+
+    /**
+     * Creates a new {@link MessageBufferPool}.
+     *
+     * @param poolSize       the max amount of direct buffers to allocate
+     * @param bufferCapacity the capacity of each buffer
+     */
+    MessageBufferPool(int poolSize, int bufferCapacity) {
+        this.freeBuffers = new ArrayBlockingQueue<>(poolSize);
+        this.poolSize = poolSize;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Gets a cleared buffer whose limit is set to the given length.
+     *
+     * @param length the amount of bytes which are going to be read into the buffer
+     * @return a {@link ByteBuffer} with exactly {@code length} remaining bytes
+     */
+    ByteBuffer acquire(int length) {
+        ByteBuffer buf = freeBuffers.poll();
+        if (buf == null) {
+            if (allocatedBuffers.incrementAndGet() <= poolSize) {
+                buf = ByteBuffer.allocateDirect(bufferCapacity);
+            } else {
+                allocatedBuffers.decrementAndGet();
+                buf = ByteBuffer.allocate(bufferCapacity);
+            }
+        }
+        buf.clear();
+        buf.limit(length);
+        return buf;
+    }
+
+    /**
+     * Hands the given buffer back to the pool. Buffers which were not allocated by the pool are ignored.
+     *
+     * @param buf the buffer to release
+     */
+    void release(ByteBuffer buf) {
+        if (buf.isDirect() && buf.capacity() == bufferCapacity) {
+            freeBuffers.offer(buf);
+        }
+    }
+
+    /**
+     * Gets the amount of buffers which are currently available for reuse.
+     *
+     * @return the amount of free buffers
+     */
+    int available() {
+        return freeBuffers.size();
+    }
+}
@@ -1,8 +1,10 @@
 package com.iota.iri.network.neighbor.impl;
 
+import com.iota.iri.conf.BaseIotaConfig;
 import com.iota.iri.network.neighbor.Neighbor;
 import com.iota.iri.network.neighbor.NeighborMetrics;
 import com.iota.iri.network.neighbor.NeighborState;
+import com.iota.iri.network.neighbor.SendPriority;
 import com.iota.iri.network.pipeline.TransactionProcessingPipeline;
 import com.iota.iri.network.protocol.*;
 import com.iota.iri.network.protocol.message.MessageReader;
@@ -13,8 +15,10 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.*;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * {@link NeighborImpl} is an implementation of {@link Neighbor} using a {@link ByteChannel} as the source and
@@ -26,6 +30,11 @@ public class NeighborImpl<T extends SelectableChannel & ByteChannel> implements
 
     private static final Logger log = LoggerFactory.getLogger(NeighborImpl.class);
 
+    /**
+     * The max amount of pooled direct buffers per neighbor holding transaction gossip payloads.
+     */
+    private static final int GOSSIP_BUFFER_POOL_SIZE = 32;
+
     /**
      * The current state whether the neighbor is parsing a header or reading a message.
      */
@@ -36,9 +45,19 @@ public class NeighborImpl<T extends SelectableChannel & ByteChannel> implements
     // next stage in the processing of incoming data
     private TransactionProcessingPipeline txPipeline;
 
-    // data to be written out to the neighbor
-    private BlockingQueue<ByteBuffer> sendQueue = new ArrayBlockingQueue<>(100);
-    private ByteBuffer currentToWrite;
+    private static final SendPriority[] PRIORITIES = SendPriority.values();
+
+    // data to be written out to the neighbor, separated by priority and bounded by maxQueuedPackets in total
+    private final Object sendQueueLock = new Object();
+    private final Map<SendPriority, Deque<ByteBuffer>> sendQueues = new EnumMap<>(SendPriority.class);
+    private final int maxQueuedPackets;
+    private int queuedPackets;
+
+    // packets taken from the send queues which are gathered into one write, up to sendBudgetBytes
+    private final int sendBudgetBytes;
+    private final ByteBuffer[] writeBatch;
+    private int writeBatchOffset;
+    private int writeBatchLength;
 
     private NeighborState state = NeighborState.HANDSHAKING;
     private ReadState readState = ReadState.PARSE_HEADER;
@@ -52,15 +71,23 @@ public class NeighborImpl<T extends SelectableChannel & ByteChannel> implements
     // we need the reference to the channel in order to register it for
     // write interests once messages to send are available.
     private T channel;
-    private Selector selector;
+    private volatile Selector selector;
 
     private NeighborMetrics metrics = new NeighborMetricsImpl();
     private MessageReader msgReader;
+
+    // headers and control messages are handled synchronously and therefore read into reused buffers, while
+    // transaction gossip payloads are handed over to the pipeline and released by it after pre-processing
+    private ByteBuffer headerBuf = ByteBuffer.allocateDirect(ProtocolMessage.HEADER.getMaxLength());
+    private ByteBuffer controlMsgBuf = ByteBuffer.allocateDirect(
+            Math.max(ProtocolMessage.HANDSHAKE.getMaxLength(), ProtocolMessage.HEARTBEAT.getMaxLength()));
+    private MessageBufferPool gossipBufferPool = new MessageBufferPool(GOSSIP_BUFFER_POOL_SIZE,
+            ProtocolMessage.TRANSACTION_GOSSIP.getMaxLength());
     private Handshake handshake = new Handshake();
     private Heartbeat heartbeat = new Heartbeat();
 
     /**
-     * Creates a new {@link NeighborImpl} using the given channel.
+     * Creates a new {@link NeighborImpl} using the given channel and the default send queue size and send budget.
      * 
      * @param selector               the {@link Selector} which is associated with passed in channel
      * @param channel                the channel to use to read and write bytes from/to.
@@ -70,12 +97,37 @@ public class NeighborImpl<T extends SelectableChannel & ByteChannel> implements
      */
     public NeighborImpl(Selector selector, T channel, String hostAddress, int remoteServerSocketPort,
             TransactionProcessingPipeline txPipeline) {
+        this(selector, channel, hostAddress, remoteServerSocketPort, txPipeline,
+                BaseIotaConfig.Defaults.NEIGHBOR_SEND_QUEUE_SIZE, BaseIotaConfig.Defaults.NEIGHBOR_SEND_BUDGET_BYTES);
+    }
+
+    /**
+     * Creates a new {@link NeighborImpl} using the given channel.
+     *
+     * @param selector               the {@link Selector} which is associated with passed in channel
+     * @param channel                the channel to use to read and write bytes from/to.
+     * @param hostAddress            the host address (IP address) of the neighbor
+     * @param remoteServerSocketPort the server socket port of the neighbor
+     * @param txPipeline             the transaction processing pipeline to submit newly received transactions to
+     * @param sendQueueSize          the max amount of packets queued for sending
+     * @param sendBudgetBytes        the max amount of bytes gathered into one write (at least one packet is always
+     *                               written)
+     */
+    public NeighborImpl(Selector selector, T channel, String hostAddress, int remoteServerSocketPort,
+            TransactionProcessingPipeline txPipeline, int sendQueueSize, int sendBudgetBytes) {
+        for (SendPriority priority : PRIORITIES) {
+            sendQueues.put(priority, new ArrayDeque<>());
+        }
+        this.maxQueuedPackets = Math.max(1, sendQueueSize);
+        this.sendBudgetBytes = sendBudgetBytes;
+        this.writeBatch = new ByteBuffer[maxQueuedPackets];
         this.hostAddress = hostAddress;
         this.remoteServerSocketPort = remoteServerSocketPort;
         this.selector = selector;
         this.channel = channel;
         this.txPipeline = txPipeline;
-        this.msgReader = MessageReaderFactory.create(ProtocolMessage.HEADER, ProtocolMessage.HEADER.getMaxLength());
+        this.msgReader = MessageReaderFactory.create(ProtocolMessage.HEADER,
+                prepare(headerBuf, ProtocolMessage.HEADER.getMaxLength()));
     }
 
     @Override
@@ -146,10 +198,26 @@ public class NeighborImpl<T extends SelectableChannel & ByteChannel> implements
 
         // we got the header, now we want to read/handle the message
         readState = ReadState.HANDLE_MESSAGE;
-        msgReader = MessageReaderFactory.create(protocolHeader.getMessageType(), protocolHeader.getMessageLength());
+        ByteBuffer msgBuf = protocolHeader.getMessageType() == ProtocolMessage.TRANSACTION_GOSSIP
+                ? gossipBufferPool.acquire(protocolHeader.getMessageLength())
+                : prepare(controlMsgBuf, protocolHeader.getMessageLength());
+        msgReader.reset(protocolHeader.getMessageType(), msgBuf);
         return true;
     }
 
+    /**
+     * Clears the given reused buffer and limits it to the given length.
+     *
+     * @param buf    the buffer to prepare
+     * @param length the amount of bytes to read into the buffer
+     * @return the prepared buffer
+     */
+    private static ByteBuffer prepare(ByteBuffer buf, int length) {
+        buf.clear();
+        buf.limit(length);
+        return buf;
+    }
+
     /**
      * Relays the message to the component in charge of handling this message.
      * 
@@ -171,43 +239,132 @@ public class NeighborImpl<T extends SelectableChannel & ByteChannel> implements
         }
         // reset
         readState = ReadState.PARSE_HEADER;
-        msgReader = MessageReaderFactory.create(ProtocolMessage.HEADER, ProtocolMessage.HEADER.getMaxLength());
+        msgReader.reset(ProtocolMessage.HEADER, prepare(headerBuf, ProtocolMessage.HEADER.getMaxLength()));
     }
 
     @Override
     public int write() throws IOException {
-        // previous message wasn't fully sent yet
-        if (currentToWrite != null) {
-            return writeMsg();
+        // only take new packets from the send queues once the previous batch was fully sent
+        if (writeBatchOffset == writeBatchLength && !fillWriteBatch()) {
+            return 0;
         }
 
-        currentToWrite = sendQueue.poll();
-        if (currentToWrite == null) {
-            return 0;
+        long written;
+        if (channel instanceof GatheringByteChannel) {
+            written = ((GatheringByteChannel) channel).write(writeBatch, writeBatchOffset,
+                    writeBatchLength - writeBatchOffset);
+        } else {
+            written = 0;
+            for (int i = writeBatchOffset; i < writeBatchLength; i++) {
+                written += channel.write(writeBatch[i]);
+                if (writeBatch[i].hasRemaining()) {
+                    break;
+                }
+            }
         }
-        return writeMsg();
+
+        while (writeBatchOffset < writeBatchLength && !writeBatch[writeBatchOffset].hasRemaining()) {
+            writeBatch[writeBatchOffset++] = null;
+        }
+        metrics.addQueuedSendBytes(-written);
+        return (int) written;
     }
 
-    private int writeMsg() throws IOException {
-        int written = channel.write(currentToWrite);
-        if (!currentToWrite.hasRemaining()) {
-            currentToWrite = null;
+    /**
+     * Moves packets from the send queues (highest priority first) into the write batch until the send budget is
+     * exhausted. The first packet is always taken regardless of the budget.
+     *
+     * @return whether any packet is available to be written
+     */
+    private boolean fillWriteBatch() {
+        writeBatchOffset = 0;
+        writeBatchLength = 0;
+        long remainingBudget = sendBudgetBytes;
+        synchronized (sendQueueLock) {
+            for (int i = PRIORITIES.length - 1; i >= 0; i--) {
+                Deque<ByteBuffer> queue = sendQueues.get(PRIORITIES[i]);
+                ByteBuffer next;
+                while ((next = queue.peekFirst()) != null) {
+                    if (writeBatchLength > 0 && next.remaining() > remainingBudget) {
+                        return true;
+                    }
+                    queue.pollFirst();
+                    queuedPackets--;
+                    remainingBudget -= next.remaining();
+                    writeBatch[writeBatchLength++] = next;
+                }
+            }
         }
-        return written;
+        return writeBatchLength > 0;
     }
 
     @Override
     public void send(ByteBuffer buf) {
-        // re-register write interest
-        SelectionKey key = channel.keyFor(selector);
+        send(buf, SendPriority.NORMAL);
+    }
+
+    @Override
+    public void send(ByteBuffer buf, SendPriority priority) {
+        ByteBuffer dropped = null;
+        synchronized (sendQueueLock) {
+            if (queuedPackets >= maxQueuedPackets) {
+                dropped = pollLowerPriorityPacket(priority);
+                if (dropped == null) {
+                    // nothing with a lower priority is queued, so the given packet itself is dropped
+                    dropped = buf;
+                } else {
+                    queuedPackets--;
+                }
+            }
+            if (dropped != buf) {
+                sendQueues.get(priority).addLast(buf);
+                queuedPackets++;
+            }
+        }
+
+        if (dropped != buf) {
+            metrics.addQueuedSendBytes(buf.remaining());
+        }
+        if (dropped != null) {
+            metrics.incrDroppedSendPacketsCount();
+            metrics.incrDroppedSendBytesCount(dropped.remaining());
+            if (dropped != buf) {
+                metrics.addQueuedSendBytes(-dropped.remaining());
+            }
+        }
+
+        // re-register write interest on the selector currently serving the connection
+        Selector currentSelector = selector;
+        SelectionKey key = channel.keyFor(currentSelector);
         if (key != null && key.isValid() && (key.interestOps() & SelectionKey.OP_WRITE) == 0) {
             key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
-            selector.wakeup();
+            currentSelector.wakeup();
         }
+    }
 
-        if (!sendQueue.offer(buf)) {
-            metrics.incrDroppedSendPacketsCount();
+    /**
+     * Removes the oldest queued packet with the lowest priority below the given priority. Must be called while
+     * holding the send queue lock.
+     *
+     * @param priority the priority of the packet which wants to be queued
+     * @return the removed packet or null if no packet with a lower priority is queued
+     */
+    private ByteBuffer pollLowerPriorityPacket(SendPriority priority) {
+        for (SendPriority lower : PRIORITIES) {
+            if (lower.compareTo(priority) >= 0) {
+                return null;
+            }
+            ByteBuffer packet = sendQueues.get(lower).pollFirst();
+            if (packet != null) {
+                return packet;
+            }
         }
+        return null;
+    }
+
+    @Override
+    public void releaseMessageBuffer(ByteBuffer buf) {
+        gossipBufferPool.release(buf);
     }
 
     @Override
@@ -271,4 +428,9 @@ public class NeighborImpl<T extends SelectableChannel & ByteChannel> implements
         return protocolVersion;
     }
 
+    @Override
+    public void setSelector(Selector selector) {
+        this.selector = selector;
+    }
+
 }
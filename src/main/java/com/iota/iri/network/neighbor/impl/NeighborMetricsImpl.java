@@ -16,6 +16,8 @@ public class NeighborMetricsImpl implements NeighborMetrics {
     private AtomicLong sentTxsCount = new AtomicLong();
     private AtomicLong newTxsCount = new AtomicLong();
     private AtomicLong droppedSendPacketsCount = new AtomicLong();
+    private AtomicLong droppedSendBytesCount = new AtomicLong();
+    private AtomicLong queuedSendBytes = new AtomicLong();
 
     @Override
     public long getAllTransactionsCount() {
@@ -86,4 +88,24 @@ public class NeighborMetricsImpl implements NeighborMetrics {
     public long incrDroppedSendPacketsCount() {
         return droppedSendPacketsCount.incrementAndGet();
     }
+
+    @Override
+    public long getDroppedSendBytesCount() {
+        return droppedSendBytesCount.get();
+    }
+
+    @Override
+    public long incrDroppedSendBytesCount(long bytes) {
+        return droppedSendBytesCount.addAndGet(bytes);
+    }
+
+    @Override
+    public long getQueuedSendBytes() {
+        return queuedSendBytes.get();
+    }
+
+    @Override
+    public long addQueuedSendBytes(long delta) {
+        return queuedSendBytes.addAndGet(delta);
+    }
 }
@@ -3,7 +3,7 @@ package com.iota.iri.network.pipeline;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
-import com.iota.iri.network.FIFOCache;
+import com.iota.iri.network.StripedFIFOCache;
 import com.iota.iri.network.TransactionCacheDigester;
 import com.iota.iri.network.protocol.Protocol;
 import com.iota.iri.network.protocol.ProtocolMessage;
@@ -21,14 +21,14 @@ import java.nio.ByteBuffer;
 public class PreProcessStage implements Stage {
 
     private static final Logger log = LoggerFactory.getLogger(PreProcessStage.class);
-    private FIFOCache<Long, Hash> recentlySeenBytesCache;
+    private StripedFIFOCache<Hash> recentlySeenBytesCache;
 
     /**
      * Creates a new {@link PreProcessStage}.
      *
      * @param recentlySeenBytesCache The cache to use for checking whether a transaction is known
      */
-    public PreProcessStage(FIFOCache<Long, Hash> recentlySeenBytesCache) {
+    public PreProcessStage(StripedFIFOCache<Hash> recentlySeenBytesCache) {
         this.recentlySeenBytesCache = recentlySeenBytesCache;
     }
 
@@ -45,12 +45,19 @@ public class PreProcessStage implements Stage {
     public ProcessingContext process(ProcessingContext ctx) {
         PreProcessPayload payload = (PreProcessPayload) ctx.getPayload();
         ByteBuffer packetData = payload.getData();
-        byte[] data = packetData.array();
 
-        // expand received tx data
-        byte[] txDataBytes = TransactionTruncator.expandTransaction(data, ProtocolMessage.TRANSACTION_GOSSIP.getMaxLength());
-        // copy requested tx hash
-        byte[] reqHashBytes = Protocol.extractRequestedTxHash(data);
+        byte[] txDataBytes;
+        byte[] reqHashBytes;
+        try {
+            // expand received tx data
+            txDataBytes = TransactionTruncator.expandTransaction(packetData,
+                    ProtocolMessage.TRANSACTION_GOSSIP.getMaxLength());
+            // copy requested tx hash
+            reqHashBytes = Protocol.extractRequestedTxHash(packetData);
+        } finally {
+            // the packet data is not needed anymore, so the neighbor can reuse its buffer
+            payload.getOriginNeighbor().releaseMessageBuffer(packetData);
+        }
 
         // increment all txs count
         payload.getOriginNeighbor().getMetrics().incrAllTransactionsCount();
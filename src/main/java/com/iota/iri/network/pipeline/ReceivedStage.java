@@ -5,13 +5,27 @@ import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.network.TransactionRequester;
 import com.iota.iri.network.neighbor.Neighbor;
 import com.iota.iri.service.snapshot.SnapshotProvider;
+import com.iota.iri.storage.GroupCommitWriter;
+import com.iota.iri.storage.Indexable;
+import com.iota.iri.storage.Persistable;
 import com.iota.iri.storage.Tangle;
+import com.iota.iri.utils.Pair;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The {@link ReceivedStage} stores the given transaction in the database, updates the arrival time and sender and then
- * submits to the {@link BroadcastStage}.
+ * submits to the {@link SolidifyStage}.
+ *
+ * If the stage has a {@link GroupCommitWriter}, the arrival time and sender are set before the transaction is queued
+ * for writing, so they are written with it, and the stage continues with the next transaction right away. Once the
+ * transaction is written, the given executor finishes processing it and hands it to the {@link SolidifyStage} through
+ * the given consumer. The writer thread itself never waits for the following stages.
  */
 public class ReceivedStage implements Stage {
 
@@ -21,9 +35,12 @@ public class ReceivedStage implements Stage {
     private TransactionRequester transactionRequester;
     private TransactionSolidifier txSolidifier;
     private SnapshotProvider snapshotProvider;
+    private GroupCommitWriter groupCommitWriter;
+    private Executor storedExecutor;
+    private Consumer<ProcessingContext> storedConsumer;
 
     /**
-     * Creates a new {@link ReceivedStage}.
+     * Creates a new {@link ReceivedStage} which stores every transaction before it returns.
      *
      * @param tangle           The {@link Tangle} database used to store/update the transaction
      * @param txSolidifier      The {@link TransactionSolidifier} used to store/update the transaction
@@ -31,10 +48,32 @@ public class ReceivedStage implements Stage {
      */
     public ReceivedStage(Tangle tangle, TransactionSolidifier txSolidifier, SnapshotProvider snapshotProvider,
                          TransactionRequester transactionRequester) {
+        this(tangle, txSolidifier, snapshotProvider, transactionRequester, null, null, null);
+    }
+
+    /**
+     * Creates a new {@link ReceivedStage} which stores the transactions with the given {@link GroupCommitWriter}.
+     *
+     * @param tangle            The {@link Tangle} database used to store/update the transaction
+     * @param txSolidifier      The {@link TransactionSolidifier} used to store/update the transaction
+     * @param snapshotProvider  The {@link SnapshotProvider} used to store/update the transaction
+     * @param groupCommitWriter The {@link GroupCommitWriter} used to store the transaction or null to store it
+     *                          synchronously
+     * @param storedExecutor    The {@link Executor} which finishes processing the transactions once they are stored
+     *                          by the {@link GroupCommitWriter}
+     * @param storedConsumer    Receives the solidify stage {@link ProcessingContext} of every transaction which was
+     *                          stored by the {@link GroupCommitWriter}
+     */
+    public ReceivedStage(Tangle tangle, TransactionSolidifier txSolidifier, SnapshotProvider snapshotProvider,
+                         TransactionRequester transactionRequester, GroupCommitWriter groupCommitWriter,
+                         Executor storedExecutor, Consumer<ProcessingContext> storedConsumer) {
         this.txSolidifier = txSolidifier;
         this.tangle = tangle;
         this.snapshotProvider = snapshotProvider;
         this.transactionRequester = transactionRequester;
+        this.groupCommitWriter = groupCommitWriter;
+        this.storedExecutor = storedExecutor;
+        this.storedConsumer = storedConsumer;
     }
 
     /**
@@ -50,6 +89,10 @@ public class ReceivedStage implements Stage {
         Neighbor originNeighbor = payload.getOriginNeighbor();
         TransactionViewModel tvm = payload.getTransactionViewModel();
 
+        if (groupCommitWriter != null) {
+            return processAsync(ctx, originNeighbor, tvm);
+        }
+
         boolean stored;
         try {
             stored = tvm.store(tangle, snapshotProvider.getInitialSnapshot());
@@ -63,36 +106,127 @@ public class ReceivedStage implements Stage {
         }
 
         if (stored) {
+            processStored(originNeighbor, tvm);
+        }else{
+            transactionRequester.removeRecentlyRequestedTransaction(tvm.getHash());
+        }
+
+        // broadcast the newly saved tx to the other neighbors
+        ctx.setNextStage(TransactionProcessingPipeline.Stage.SOLIDIFY);
+        ctx.setPayload(new SolidifyPayload(originNeighbor, tvm));
+        return ctx;
+    }
+
+    /**
+     * Queues the given transaction for writing and finishes its processing once it is written. Transactions which
+     * don't have to be stored are submitted to the {@link SolidifyStage} right away.
+     */
+    private ProcessingContext processAsync(ProcessingContext ctx, Neighbor originNeighbor, TransactionViewModel tvm) {
+        List<Pair<Indexable, Persistable>> batch;
+        try {
+            // set before the transaction is queued, so they are written with it
             tvm.setArrivalTime(System.currentTimeMillis());
-            try {
-                txSolidifier.updateStatus(tvm);
-
-                // free up the recently requested transaction set
-                if(transactionRequester.removeRecentlyRequestedTransaction(tvm.getHash())){
-                    // as the transaction came from the request queue, we can add its branch and trunk to the request
-                    // queue already, as we only have transactions in the request queue which are needed for solidifying
-                    // milestones. this speeds up solidification significantly
-                    transactionRequester.requestTrunkAndBranch(tvm);
-                }
-
-                // neighbor might be null because tx came from a broadcastTransaction command
-                if (originNeighbor != null) {
-                    tvm.updateSender(originNeighbor.getHostAddressAndPort());
-                }
-                tvm.update(tangle, snapshotProvider.getInitialSnapshot(), "arrivalTime|sender");
-            } catch (Exception e) {
-                log.error("error updating newly received tx", e);
+            // neighbor might be null because tx came from a broadcastTransaction command
+            if (originNeighbor != null) {
+                tvm.updateSender(originNeighbor.getHostAddressAndPort());
             }
+
+            // the pending transaction is already visible to the reads of the tangle once it is queued
+            batch = tvm.prepareStore(tangle, snapshotProvider.getInitialSnapshot());
+            if (batch != null) {
+                groupCommitWriter.write(batch).whenCompleteAsync((result, e) -> {
+                    try {
+                        if (e != null) {
+                            log.error("error persisting newly received tx", e);
+                            if (originNeighbor != null) {
+                                originNeighbor.getMetrics().incrInvalidTransactionsCount();
+                            }
+                            return;
+                        }
+
+                        processWritten(originNeighbor, tvm);
+                        ctx.setNextStage(TransactionProcessingPipeline.Stage.SOLIDIFY);
+                        ctx.setPayload(new SolidifyPayload(originNeighbor, tvm));
+                        storedConsumer.accept(ctx);
+                    } catch (RuntimeException ex) {
+                        log.error("error processing newly stored tx", ex);
+                    }
+                }, storedExecutor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ctx.setNextStage(TransactionProcessingPipeline.Stage.ABORT);
+            return ctx;
+        } catch (Exception e) {
+            log.error("error persisting newly received tx", e);
             if (originNeighbor != null) {
-                originNeighbor.getMetrics().incrNewTransactionsCount();
+                originNeighbor.getMetrics().incrInvalidTransactionsCount();
             }
-        }else{
-            transactionRequester.removeRecentlyRequestedTransaction(tvm.getHash());
+            ctx.setNextStage(TransactionProcessingPipeline.Stage.ABORT);
+            return ctx;
         }
 
-        // broadcast the newly saved tx to the other neighbors
+        if (batch != null) {
+            // the writer submits the transaction to the solidify stage once it is written
+            ctx.setNextStage(TransactionProcessingPipeline.Stage.FINISH);
+            return ctx;
+        }
+
+        transactionRequester.removeRecentlyRequestedTransaction(tvm.getHash());
         ctx.setNextStage(TransactionProcessingPipeline.Stage.SOLIDIFY);
         ctx.setPayload(new SolidifyPayload(originNeighbor, tvm));
         return ctx;
     }
-}
\ No newline at end of file
+
+    /**
+     * Updates the status, arrival time and sender of a newly stored transaction.
+     */
+    private void processStored(Neighbor originNeighbor, TransactionViewModel tvm) {
+        tvm.setArrivalTime(System.currentTimeMillis());
+        try {
+            updateStatus(tvm);
+
+            // neighbor might be null because tx came from a broadcastTransaction command
+            if (originNeighbor != null) {
+                tvm.updateSender(originNeighbor.getHostAddressAndPort());
+            }
+            tvm.update(tangle, snapshotProvider.getInitialSnapshot(), "arrivalTime|sender");
+        } catch (Exception e) {
+            log.error("error updating newly received tx", e);
+        }
+        if (originNeighbor != null) {
+            originNeighbor.getMetrics().incrNewTransactionsCount();
+        }
+    }
+
+    /**
+     * Updates the status of a transaction which was written by the {@link GroupCommitWriter} together with its arrival
+     * time and sender.
+     */
+    private void processWritten(Neighbor originNeighbor, TransactionViewModel tvm) {
+        try {
+            updateStatus(tvm);
+
+            // the arrival time and sender were written with the batch, only the subscribers still need to hear about
+            // the transaction
+            tangle.updateMessageQueueProvider(tvm.getTransaction(), tvm.getHash(), "arrivalTime|sender");
+        } catch (Exception e) {
+            log.error("error updating newly received tx", e);
+        }
+        if (originNeighbor != null) {
+            originNeighbor.getMetrics().incrNewTransactionsCount();
+        }
+    }
+
+    private void updateStatus(TransactionViewModel tvm) throws Exception {
+        txSolidifier.updateStatus(tvm);
+
+        // free up the recently requested transaction set
+        if(transactionRequester.removeRecentlyRequestedTransaction(tvm.getHash())){
+            // as the transaction came from the request queue, we can add its branch and trunk to the request
+            // queue already, as we only have transactions in the request queue which are needed for solidifying
+            // milestones. this speeds up solidification significantly
+            transactionRequester.requestTrunkAndBranch(tvm);
+        }
+    }
+}
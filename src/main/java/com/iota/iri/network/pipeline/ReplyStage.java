@@ -5,10 +5,11 @@ import com.iota.iri.controllers.TipsViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
-import com.iota.iri.network.FIFOCache;
 import com.iota.iri.network.NeighborRouter;
+import com.iota.iri.network.StripedFIFOCache;
 import com.iota.iri.network.TransactionCacheDigester;
 import com.iota.iri.network.neighbor.Neighbor;
+import com.iota.iri.network.neighbor.SendPriority;
 import com.iota.iri.network.protocol.Protocol;
 import com.iota.iri.service.milestone.LatestMilestoneTracker;
 import com.iota.iri.service.snapshot.SnapshotProvider;
@@ -35,7 +36,7 @@ public class ReplyStage implements Stage {
     private TipsViewModel tipsViewModel;
     private LatestMilestoneTracker latestMilestoneTracker;
     private SnapshotProvider snapshotProvider;
-    private FIFOCache<Long, Hash> recentlySeenBytesCache;
+    private StripedFIFOCache<Hash> recentlySeenBytesCache;
     private SecureRandom rnd = new SecureRandom();
 
     /**
@@ -47,13 +48,13 @@ public class ReplyStage implements Stage {
      * @param tipsViewModel          the {@link TipsViewModel} to load the random tips from
      * @param latestMilestoneTracker the {@link LatestMilestoneTracker} to load the latest milestone from
      * @param snapshotProvider       the {@link SnapshotProvider} to check the latest solid milestone from
-     * @param recentlySeenBytesCache the {@link FIFOCache} to use to cache the replied transaction
+     * @param recentlySeenBytesCache the {@link StripedFIFOCache} to use to cache the replied transaction
      * @param rnd                    the {@link SecureRandom} used to get random values to randomize chances for not
      *                               replying at all or not requesting a not stored requested transaction from neighbors
      */
     public ReplyStage(NeighborRouter neighborRouter, NodeConfig config, Tangle tangle, TipsViewModel tipsViewModel,
             LatestMilestoneTracker latestMilestoneTracker, SnapshotProvider snapshotProvider,
-            FIFOCache<Long, Hash> recentlySeenBytesCache, SecureRandom rnd) {
+            StripedFIFOCache<Hash> recentlySeenBytesCache, SecureRandom rnd) {
         this.neighborRouter = neighborRouter;
         this.config = config;
         this.tangle = tangle;
@@ -73,11 +74,11 @@ public class ReplyStage implements Stage {
      * @param tipsViewModel          the {@link TipsViewModel} to load the random tips from
      * @param latestMilestoneTracker the {@link LatestMilestoneTracker} to load the latest milestone from
      * @param snapshotProvider       the {@link SnapshotProvider} to check the latest solid milestone from
-     * @param recentlySeenBytesCache the {@link FIFOCache} to use to cache the replied transaction
+     * @param recentlySeenBytesCache the {@link StripedFIFOCache} to use to cache the replied transaction
      */
     public ReplyStage(NeighborRouter neighborRouter, NodeConfig config, Tangle tangle, TipsViewModel tipsViewModel,
             LatestMilestoneTracker latestMilestoneTracker, SnapshotProvider snapshotProvider,
-            FIFOCache<Long, Hash> recentlySeenBytesCache) {
+            StripedFIFOCache<Hash> recentlySeenBytesCache) {
         this.neighborRouter = neighborRouter;
         this.config = config;
         this.tangle = tangle;
@@ -134,8 +135,13 @@ public class ReplyStage implements Stage {
 
         if (tvm != null && tvm.getType() == TransactionViewModel.FILLED_SLOT) {
             try {
-                // send the requested tx data to the requester
-                neighborRouter.gossipTransactionTo(neighbor, tvm);
+                // send the requested tx data to the requester, replies to random tip requests are the first
+                // to be dropped if the neighbor's send queue is full
+                if (hashOfRequestedTx.equals(Hash.NULL_HASH)) {
+                    neighborRouter.gossipTransactionTo(neighbor, tvm, SendPriority.LOW);
+                } else {
+                    neighborRouter.gossipTransactionTo(neighbor, tvm);
+                }
                 // cache the replied with tx
                 long txDigest = TransactionCacheDigester.getDigest(tvm.getBytes());
                 recentlySeenBytesCache.put(txDigest, tvm.getHash());
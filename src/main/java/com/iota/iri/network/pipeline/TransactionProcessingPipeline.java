@@ -1,8 +1,10 @@
 package com.iota.iri.network.pipeline;
 
+import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.network.neighbor.Neighbor;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 /**
@@ -65,6 +67,14 @@ public interface TransactionProcessingPipeline {
      */
     void process(byte[] txTrits);
 
+    /**
+     * Submits the given transactions, which were already validated and stored, into the solidify stage of the
+     * pipeline, from where they get broadcast to the neighbors.
+     *
+     * @param transactions the stored transactions
+     */
+    void processStored(List<TransactionViewModel> transactions);
+
     /**
      * Shut downs the pipeline by shutting down all stages.
      */
@@ -4,18 +4,20 @@ import com.iota.iri.service.validation.TransactionSolidifier;
 import com.iota.iri.service.validation.TransactionValidator;
 import com.iota.iri.conf.NodeConfig;
 import com.iota.iri.controllers.TipsViewModel;
+import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.crypto.batched.BatchedHasher;
 import com.iota.iri.crypto.batched.BatchedHasherFactory;
 import com.iota.iri.crypto.batched.HashRequest;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.persistables.Transaction;
-import com.iota.iri.network.FIFOCache;
 import com.iota.iri.network.NeighborRouter;
+import com.iota.iri.network.StripedFIFOCache;
 import com.iota.iri.network.TransactionRequester;
 import com.iota.iri.network.TransactionCacheDigester;
 import com.iota.iri.network.neighbor.Neighbor;
 import com.iota.iri.service.milestone.LatestMilestoneTracker;
 import com.iota.iri.service.snapshot.SnapshotProvider;
+import com.iota.iri.storage.GroupCommitWriter;
 import com.iota.iri.storage.Tangle;
 import com.iota.iri.utils.Converter;
 
@@ -25,6 +27,8 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.iota.iri.utils.IotaUtils;
 import org.slf4j.Logger;
@@ -46,7 +50,8 @@ import org.slf4j.LoggerFactory;
  * transaction is submitted to the received stage, otherwise it is both submitted to the reply and received stage.</li>
  * <li><strong>Reply</strong>: replies to the given neighbor with the requested transaction or a random tip.</li>
  * <li><strong>Received</strong>: stores the newly received and validated transaction and then submits it to the
- * broadcast stage.</li>
+ * solidify stage. Transactions are stored by a {@link GroupCommitWriter} in the background, unless
+ * {@link NodeConfig#getReceivedWriteBatchSize()} is 0.</li>
  * <li><strong>Broadcast</strong>: broadcasts the given transaction to all connected {@link Neighbor} instances except
  * the neighbor from which the transaction originated from.</li>
  * </ul>
@@ -56,6 +61,15 @@ public class TransactionProcessingPipelineImpl implements TransactionProcessingP
     private static final Logger log = LoggerFactory.getLogger(TransactionProcessingPipelineImpl.class);
     private ExecutorService stagesThreadPool = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
 
+    /**
+     * Finishes processing the transactions which were stored by the {@link GroupCommitWriter}, so the writer doesn't
+     * have to wait for the solidify stage. Once its queue is full the writer finishes them itself, which blocks the
+     * received stage again when the solidify stage falls behind.
+     */
+    private ExecutorService storedThreadPool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100), r -> new Thread(r, "stored-stage"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
     /**
      * List of stages that will be ignored when determining thread count
      */
@@ -71,6 +85,7 @@ public class TransactionProcessingPipelineImpl implements TransactionProcessingP
     private BatchedHasher batchedHasher;
     private HashingStage hashingStage;
     private SolidifyStage solidifyStage;
+    private GroupCommitWriter groupCommitWriter;
 
     private BlockingQueue<ProcessingContext> preProcessStageQueue = new ArrayBlockingQueue<>(100);
     private BlockingQueue<ProcessingContext> validationStageQueue = new ArrayBlockingQueue<>(100);
@@ -95,13 +110,17 @@ public class TransactionProcessingPipelineImpl implements TransactionProcessingP
             TransactionValidator txValidator, Tangle tangle, SnapshotProvider snapshotProvider,
             TipsViewModel tipsViewModel, LatestMilestoneTracker latestMilestoneTracker,
             TransactionRequester transactionRequester, TransactionSolidifier txSolidifier) {
-        FIFOCache<Long, Hash> recentlySeenBytesCache = new FIFOCache<>(config.getCacheSizeBytes());
+        StripedFIFOCache<Hash> recentlySeenBytesCache = new StripedFIFOCache<>(config.getCacheSizeBytes());
         this.preProcessStage = new PreProcessStage(recentlySeenBytesCache);
         this.replyStage = new ReplyStage(neighborRouter, config, tangle, tipsViewModel, latestMilestoneTracker,
                 snapshotProvider, recentlySeenBytesCache);
         this.broadcastStage = new BroadcastStage(neighborRouter, txSolidifier);
         this.validationStage = new ValidationStage(txValidator, recentlySeenBytesCache);
-        this.receivedStage = new ReceivedStage(tangle, txSolidifier, snapshotProvider, transactionRequester);
+        if (config.getReceivedWriteBatchSize() > 0) {
+            this.groupCommitWriter = new GroupCommitWriter(tangle, config.getReceivedWriteBatchSize());
+        }
+        this.receivedStage = new ReceivedStage(tangle, txSolidifier, snapshotProvider, transactionRequester,
+                groupCommitWriter, storedThreadPool, this::submitStored);
         this.batchedHasher = BatchedHasherFactory.create(BatchedHasherFactory.Type.BCTCURL81, 20);
         this.hashingStage = new HashingStage(batchedHasher);
         this.solidifyStage = new SolidifyStage(txSolidifier, tipsViewModel, tangle);
@@ -109,6 +128,9 @@ public class TransactionProcessingPipelineImpl implements TransactionProcessingP
 
     @Override
     public void start() {
+        if (groupCommitWriter != null) {
+            groupCommitWriter.start();
+        }
         stagesThreadPool.submit(batchedHasher);
         addStage("pre-process", preProcessStageQueue, preProcessStage);
         addStage("validation", validationStageQueue, validationStage);
@@ -207,6 +229,18 @@ public class TransactionProcessingPipelineImpl implements TransactionProcessingP
         hashAndValidate(new ProcessingContext(payload));
     }
 
+    @Override
+    public void processStored(List<TransactionViewModel> transactions) {
+        try {
+            for (TransactionViewModel tvm : transactions) {
+                solidifyStageQueue.put(new ProcessingContext(new SolidifyPayload(null, tvm)));
+            }
+        } catch (InterruptedException e) {
+            log.error("unable to put stored transactions into solidify stage. reason: {}", e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Sets up the given hashing stage {@link ProcessingContext} so that up on success, it will submit further to the
      * validation stage.
@@ -230,9 +264,48 @@ public class TransactionProcessingPipelineImpl implements TransactionProcessingP
         hashingStage.process(ctx);
     }
 
+    /**
+     * Submits a transaction which was stored by the {@link GroupCommitWriter} to the solidify stage.
+     *
+     * @param ctx the solidify stage {@link ProcessingContext}
+     */
+    private void submitStored(ProcessingContext ctx) {
+        try {
+            // once the stages are gone there is nobody left to take it
+            while (!stagesThreadPool.isShutdown()) {
+                if (solidifyStageQueue.offer(ctx, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            log.error("unable to put stored transaction into solidify stage. reason: {}", e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void shutdown() {
         stagesThreadPool.shutdownNow();
+        if (groupCommitWriter != null) {
+            try {
+                // write the transactions which were already received before the database is closed
+                groupCommitWriter.shutdown();
+            } catch (InterruptedException e) {
+                log.error("interrupted while writing the remaining received transactions");
+                Thread.currentThread().interrupt();
+            }
+        }
+        // only stopped after the writer, which hands the transactions it wrote during its shutdown to this pool
+        storedThreadPool.shutdown();
+        try {
+            // the stored transactions are updated in the database, which is closed after the pipeline
+            if (!storedThreadPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.error("stored transactions are still being processed after the shutdown");
+            }
+        } catch (InterruptedException e) {
+            log.error("interrupted while processing the remaining stored transactions");
+            Thread.currentThread().interrupt();
+        }
     }
 
     @Override
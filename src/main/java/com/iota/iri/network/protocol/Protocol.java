@@ -158,4 +158,20 @@ public class Protocol {
         return reqHashBytes;
     }
 
+    /**
+     * Copies the requested transaction hash from the end of the remaining bytes of the given buffer. The position of
+     * the buffer is left untouched.
+     *
+     * @param source the buffer containing the transaction gossip packet data
+     * @return the requested transaction hash bytes
+     */
+    public static byte[] extractRequestedTxHash(ByteBuffer source) {
+        byte[] reqHashBytes = new byte[Protocol.GOSSIP_REQUESTED_TX_HASH_BYTES_LENGTH];
+        int offset = source.position();
+        source.position(source.limit() - Protocol.GOSSIP_REQUESTED_TX_HASH_BYTES_LENGTH);
+        source.get(reqHashBytes);
+        source.position(offset);
+        return reqHashBytes;
+    }
+
 }
@@ -41,4 +41,13 @@ public interface MessageReader {
      */
     ProtocolMessage getMessageType();
 
+    /**
+     * Prepares this {@link MessageReader} to read a new message of the given type into the given {@link ByteBuffer}.
+     * The amount of bytes to read is defined by the remaining bytes of the buffer.
+     *
+     * @param protoMsg the message type to expect next
+     * @param buf      the {@link ByteBuffer} to read the message into
+     */
+    void reset(ProtocolMessage protoMsg, ByteBuffer buf);
+
 }
@@ -4,6 +4,8 @@ import com.iota.iri.network.protocol.ProtocolMessage;
 import com.iota.iri.network.protocol.UnknownMessageTypeException;
 import com.iota.iri.network.protocol.message.impl.MessageReaderImpl;
 
+import java.nio.ByteBuffer;
+
 /**
  * {@link MessageReaderFactory} provides methods to easily construct a {@link MessageReader}.
  */
@@ -40,4 +42,15 @@ public class MessageReaderFactory {
         return new MessageReaderImpl(protoMsg, messageLength);
     }
 
+    /**
+     * Creates a new {@link MessageReader} which reads into the given {@link ByteBuffer}.
+     *
+     * @param protoMsg the message type
+     * @param buf      the buffer to read into, its remaining bytes define the message length
+     * @return a {@link MessageReader} for the given message type
+     */
+    public static MessageReader create(ProtocolMessage protoMsg, ByteBuffer buf) {
+        return new MessageReaderImpl(protoMsg, buf);
+    }
+
 }
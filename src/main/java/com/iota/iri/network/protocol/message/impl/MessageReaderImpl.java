@@ -25,6 +25,16 @@ public class MessageReaderImpl implements MessageReader {
         this.msgBuf = ByteBuffer.allocate(msgLength);
     }
 
+    /**
+     * Creates a new {@link MessageReaderImpl} which reads into the given (possibly pooled) {@link ByteBuffer}.
+     * @param protoMsg the message type
+     * @param buf the buffer to read into, its remaining bytes define the message length
+     */
+    public MessageReaderImpl(ProtocolMessage protoMsg, ByteBuffer buf) {
+        this.protoMsg = protoMsg;
+        this.msgBuf = buf;
+    }
+
     @Override
     public boolean ready() {
         return !msgBuf.hasRemaining();
@@ -44,4 +54,10 @@ public class MessageReaderImpl implements MessageReader {
     public ProtocolMessage getMessageType() {
         return protoMsg;
     }
+
+    @Override
+    public void reset(ProtocolMessage protoMsg, ByteBuffer buf) {
+        this.protoMsg = protoMsg;
+        this.msgBuf = buf;
+    }
 }
@@ -1,5 +1,6 @@
 package com.iota.iri.service;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.iota.iri.BundleValidator;
 import com.iota.iri.IRI;
 import com.iota.iri.IXI;
@@ -8,12 +9,13 @@ import com.iota.iri.service.validation.TransactionSolidifier;
 import com.iota.iri.conf.APIConfig;
 import com.iota.iri.conf.IotaConfig;
 import com.iota.iri.controllers.AddressViewModel;
+import com.iota.iri.controllers.BundleTailViewModel;
 import com.iota.iri.controllers.BundleViewModel;
 import com.iota.iri.controllers.MilestoneViewModel;
 import com.iota.iri.controllers.TagViewModel;
 import com.iota.iri.controllers.TipsViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
-import com.iota.iri.crypto.PearlDiver;
+import com.iota.iri.crypto.PearlDiverPool;
 import com.iota.iri.crypto.Sponge;
 import com.iota.iri.crypto.SpongeFactory;
 import com.iota.iri.model.Hash;
@@ -61,14 +63,20 @@ import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -127,6 +135,10 @@ public class API {
     private static final int HASH_SIZE = 81;
     private static final int TRYTES_SIZE = 2673;
 
+    private static final int CONSISTENCY_CACHE_SIZE = 10_000;
+
+    private static final String IXI_COMMANDS = "ixi";
+
     private static final long MAX_TIMESTAMP_VALUE = (long) (Math.pow(3, 27) - 1) / 2; // max positive 27-trits value
 
     //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -163,7 +175,9 @@ public class API {
     //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     private final Gson gson = new GsonBuilder().create();
-    private volatile PearlDiver pearlDiver = new PearlDiver();
+    private final PearlDiverPool pearlDiverPool;
+
+    private final Set<PearlDiverPool.Search> runningSearches = ConcurrentHashMap.newKeySet();
 
     private final AtomicInteger counter = new AtomicInteger(0);
 
@@ -174,7 +188,24 @@ public class API {
 
     private RestConnector connector;
 
-    private final ExecutorService tipSelExecService = Executors.newSingleThreadExecutor(r -> new Thread(r, "tip-selection"));
+    private final ExecutorService tipSelExecService;
+
+    private final ExecutorService ledgerQueryExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), r -> {
+                Thread thread = new Thread(r, "ledger-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final MilestoneScopedCache<Hash, Boolean> bundleValidityCache =
+            new MilestoneScopedCache<>(CONSISTENCY_CACHE_SIZE);
+
+    private final MilestoneScopedCache<Hash, Boolean> ledgerConsistencyCache =
+            new MilestoneScopedCache<>(CONSISTENCY_CACHE_SIZE);
+
+    private final BalanceQueryEngine balanceQueryEngine;
+
+    private final CommandDispatcher commandDispatcher;
 
     /**
      * Starts loading the IOTA API, parameters do not have to be initialized.
@@ -219,6 +250,15 @@ public class API {
         this.transactionValidator = transactionValidator;
         this.transactionSolidifier = transactionSolidifier;
         this.latestMilestoneTracker = latestMilestoneTracker;
+        this.balanceQueryEngine = new BalanceQueryEngine(tangle, snapshotProvider, ledgerService, ledgerQueryExecutor);
+        this.commandDispatcher = new CommandDispatcher(configuration.getApiCommandThreads(),
+                configuration.getApiCommandQueueSize(), configuration.getApiCommandTimeoutSec());
+        this.pearlDiverPool = new PearlDiverPool(configuration.getPowThreads());
+        // one thread per dispatcher thread of getTransactionsToApprove (plus one for the testnet only storeMessage),
+        // so tip selections never wait in the queue and the timeout only counts the time spent selecting tips
+        AtomicInteger tipSelThreadCount = new AtomicInteger();
+        this.tipSelExecService = Executors.newFixedThreadPool(Math.max(1, configuration.getApiCommandThreads()) + 1,
+                r -> new Thread(r, "tip-selection-" + tipSelThreadCount.incrementAndGet()));
         
         maxFindTxs = configuration.getMaxFindTransactions();
         maxRequestList = configuration.getMaxRequestsList();
@@ -320,9 +360,12 @@ public class API {
 
             ApiCommand apiCommand = ApiCommand.findByName(command);
             if (apiCommand != null) {
-                return commandRoute.get(apiCommand).apply(request);
+                return commandDispatcher.dispatch(apiCommand.toString(),
+                        () -> commandRoute.get(apiCommand).apply(request));
             } else {
-                AbstractResponse response = ixi.processCommand(command, request);
+                // all IXI commands share one pool, so unknown command names can't create new pools
+                AbstractResponse response = commandDispatcher.dispatch(IXI_COMMANDS,
+                        () -> ixi.processCommand(command, request));
                 if (response == null) {
                     return ErrorResponse.create("Command [" + command + "] is unknown");
                 } else {
@@ -367,11 +410,18 @@ public class API {
      * Walks back from the hash until a tail transaction has been found or transaction aprovee is not found.
      * A tail transaction is the first transaction in a bundle, thus with <code>index = 0</code>
      *
+     * Transactions of validated bundles are looked up in the {@link BundleTailViewModel} index instead.
+     *
      * @param hash The transaction hash where we start the search from. If this is a tail, its hash is returned.
      * @return The transaction hash of the tail
      * @throws Exception When a model could not be loaded.
      */
     private Hash findTail(Hash hash) throws Exception {
+        BundleTailViewModel bundleTail = BundleTailViewModel.load(tangle, hash);
+        if (bundleTail.exists()) {
+            return bundleTail.getTail();
+        }
+
         TransactionViewModel tx = TransactionViewModel.fromHash(tangle, hash);
         final Hash bundleHash = tx.getBundleHash();
         long index = tx.getCurrentIndex();
@@ -412,60 +462,143 @@ public class API {
      * </ul>
      * <p>
      * If a transaction does not exist, or it is not a tail, an {@link ErrorResponse} is returned.
+     * <p>
+     * The tails are checked in the given order and the first tail that fails a check decides the response. The
+     * bundles of the tails are validated in parallel. Validation results are cached until the latest solid milestone
+     * changes, so repeated checks of the same tails are cheap.
      *
      * @param transactionsList Transactions you want to check the consistency for
      * @return {@link CheckConsistency}
      **/
+    @VisibleForTesting
     @Document(name="checkConsistency")
-    private AbstractResponse checkConsistencyStatement(List<String> transactionsList) throws Exception {
+    AbstractResponse checkConsistencyStatement(List<String> transactionsList) throws Exception {
         final List<Hash> transactions = transactionsList.stream().map(HashFactory.TRANSACTION::create).collect(Collectors.toList());
-        boolean state = true;
-        String info = "";
+        final List<TransactionViewModel> tails = TransactionViewModel.fromHashes(tangle, transactions);
 
-        // Check if the transactions themselves are valid
-        for (Hash transaction : transactions) {
-            TransactionViewModel txVM = TransactionViewModel.fromHash(tangle, transaction);
+        // the cheap checks stop at the first failing tail, only the bundles of the tails before it are validated
+        AbstractResponse tailError = null;
+        int checkedTails = tails.size();
+        for (int i = 0; i < tails.size(); i++) {
+            TransactionViewModel txVM = tails.get(i);
             if (txVM.getType() == TransactionViewModel.PREFILLED_SLOT) {
-                return ErrorResponse.create("Invalid transaction, missing: " + transaction);
+                tailError = ErrorResponse.create("Invalid transaction, missing: " + txVM.getHash());
+            } else if (txVM.getCurrentIndex() != 0) {
+                tailError = ErrorResponse.create("Invalid transaction, not a tail: " + txVM.getHash());
+            } else if (!txVM.isSolid()) {
+                tailError = CheckConsistency.create(false,
+                        "tails are not solid (missing a referenced tx): " + txVM.getHash());
             }
-            if (txVM.getCurrentIndex() != 0) {
-                return ErrorResponse.create("Invalid transaction, not a tail: " + transaction);
+            if (tailError != null) {
+                checkedTails = i;
+                break;
             }
+        }
 
+        // Check if the transactions themselves are valid, an invalid bundle of an earlier tail comes first
+        final int invalidBundle = findInvalidBundle(snapshotProvider.getLatestSnapshot().getIndex(),
+                tails.subList(0, checkedTails));
+        if (invalidBundle < checkedTails) {
+            return CheckConsistency.create(false,
+                    "tails are not consistent (bundle is invalid): " + tails.get(invalidBundle).getHash());
+        }
+        if (tailError != null) {
+            return tailError;
+        }
 
-            if (!txVM.isSolid()) {
-                state = false;
-                info = "tails are not solid (missing a referenced tx): " + transaction;
-                break;
-            } else {
-                if (bundleValidator
-                        .validate(tangle, true, snapshotProvider.getInitialSnapshot(), txVM.getHash())
-                        .isEmpty()) {
-                    state = false;
-                    info = "tails are not consistent (bundle is invalid): " + transaction;
-                    break;
-                }
+        // Transactions are valid, lets check ledger consistency
+        snapshotProvider.getLatestSnapshot().lockRead();
+        try {
+            if (!isLedgerConsistent(snapshotProvider.getLatestSnapshot().getIndex(), transactions)) {
+                return CheckConsistency.create(false,
+                        "tails are not consistent (would lead to inconsistent ledger state or below max depth)");
             }
+        } finally {
+            snapshotProvider.getLatestSnapshot().unlockRead();
         }
 
-        // Transactions are valid, lets check ledger consistency
-        if (state) {
-            snapshotProvider.getLatestSnapshot().lockRead();
-            try {
-                WalkValidatorImpl walkValidator = new WalkValidatorImpl(tangle, snapshotProvider, ledgerService, configuration);
-                for (Hash transaction : transactions) {
-                    if (!walkValidator.isValid(transaction)) {
-                        state = false;
-                        info = "tails are not consistent (would lead to inconsistent ledger state or below max depth)";
-                        break;
-                    }
+        return CheckConsistency.create(true, "");
+    }
+
+    /**
+     * Validates the bundles of the given tails in parallel. Bundle validation results are cached until the next
+     * milestone is solidified. Once a bundle is invalid, the bundles of the following tails are no longer validated,
+     * since they can't change the result anymore.
+     *
+     * @param milestoneIndex the index of the latest solid milestone
+     * @param tails the tails to check
+     * @return the position of the first tail with an invalid bundle or the number of tails if all bundles are valid
+     * @throws Exception if a bundle can't be validated
+     */
+    private int findInvalidBundle(int milestoneIndex, List<TransactionViewModel> tails) throws Exception {
+        final AtomicInteger firstInvalid = new AtomicInteger(tails.size());
+        final List<Callable<Void>> checks = new ArrayList<>(tails.size());
+        for (int i = 0; i < tails.size(); i++) {
+            final int position = i;
+            final TransactionViewModel tail = tails.get(i);
+            checks.add(() -> {
+                if (position < firstInvalid.get() && !isBundleValid(milestoneIndex, tail)) {
+                    firstInvalid.accumulateAndGet(position, Math::min);
                 }
-            } finally {
-                snapshotProvider.getLatestSnapshot().unlockRead();
+                return null;
+            });
+        }
+
+        if (checks.size() == 1) {
+            checks.get(0).call();
+            return firstInvalid.get();
+        }
+        try {
+            for (Future<Void> check : ledgerQueryExecutor.invokeAll(checks)) {
+                check.get();
             }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
         }
+        return firstInvalid.get();
+    }
 
-        return CheckConsistency.create(state, info);
+    private boolean isBundleValid(int milestoneIndex, TransactionViewModel tail) throws Exception {
+        Boolean validBundle = bundleValidityCache.get(milestoneIndex, tail.getHash());
+        if (validBundle == null) {
+            validBundle = !bundleValidator
+                    .validate(tangle, true, snapshotProvider.getInitialSnapshot(), tail.getHash())
+                    .isEmpty();
+            bundleValidityCache.put(milestoneIndex, tail.getHash(), validBundle);
+        }
+        return validBundle;
+    }
+
+    /**
+     * Checks if the ledger stays consistent when the given tails are confirmed together. The result for a single tail
+     * is cached until the next milestone is solidified.
+     *
+     * @param milestoneIndex the index of the latest solid milestone
+     * @param transactions the tails to check
+     * @return <tt>true</tt> if the tails are not below max depth and don't lead to an inconsistent ledger state
+     * @throws Exception if the ledger state can't be computed
+     */
+    private boolean isLedgerConsistent(int milestoneIndex, List<Hash> transactions) throws Exception {
+        if (transactions.size() == 1) {
+            Boolean cached = ledgerConsistencyCache.get(milestoneIndex, transactions.get(0));
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        boolean consistent = true;
+        WalkValidatorImpl walkValidator = new WalkValidatorImpl(tangle, snapshotProvider, ledgerService, configuration);
+        for (Hash transaction : transactions) {
+            if (!walkValidator.isValid(transaction)) {
+                consistent = false;
+                break;
+            }
+        }
+
+        if (transactions.size() == 1) {
+            ledgerConsistencyCache.put(milestoneIndex, transactions.get(0), consistent);
+        }
+        return consistent;
     }
 
     /**
@@ -574,18 +707,19 @@ public class API {
       * @return {@link com.iota.iri.service.dto.GetTrytesResponse}
       **/
     @Document(name="getTrytes")
-    private synchronized AbstractResponse getTrytesStatement(List<String> hashes) throws Exception {
-        final List<String> elements = new LinkedList<>();
+    private AbstractResponse getTrytesStatement(List<String> hashes) throws Exception {
+        if (hashes.size() > maxGetTrytes){
+            return ErrorResponse.create(OVER_MAX_ERROR_MESSAGE);
+        }
+
+        final List<Hash> transactionHashes = new ArrayList<>(hashes.size());
         for (final String hash : hashes) {
-            final TransactionViewModel transactionViewModel = TransactionViewModel.fromHash(tangle, HashFactory.TRANSACTION.create(hash));
-            if (transactionViewModel != null) {
-                elements.add(Converter.trytes(transactionViewModel.trits()));
-            } else {
-                elements.add(null);
-            }
+            transactionHashes.add(HashFactory.TRANSACTION.create(hash));
         }
-        if (elements.size() > maxGetTrytes){
-            return ErrorResponse.create(OVER_MAX_ERROR_MESSAGE);
+
+        final List<String> elements = new ArrayList<>(hashes.size());
+        for (final byte[] bytes : TransactionViewModel.loadBytes(tangle, transactionHashes)) {
+            elements.add(Converter.trytesFromBytes(bytes, TransactionViewModel.TRINARY_SIZE));
         }
         return GetTrytesResponse.create(elements);
     }
@@ -638,7 +772,7 @@ public class API {
       * @return {@link com.iota.iri.service.dto.GetTransactionsToApproveResponse}
       **/
     @Document(name="getTransactionsToApprove")
-    private synchronized AbstractResponse getTransactionsToApproveStatement(int depth, Optional<Hash> reference) {
+    private AbstractResponse getTransactionsToApproveStatement(int depth, Optional<Hash> reference) {
         if (depth < 0 || depth > configuration.getMaxDepth()) {
             return ErrorResponse.create("Invalid depth input");
         }
@@ -678,6 +812,10 @@ public class API {
             tipSelection.cancel(true);
             throw new TipSelectionCancelledException(String.format("tip-selection exceeded timeout of %d seconds",
                     configuration.getTipSelectionTimeoutSec()));
+        } catch (InterruptedException ex) {
+            // the request was cancelled by the dispatcher, free the tip-selection thread for the next request
+            tipSelection.cancel(true);
+            throw ex;
         }
 
         if (log.isDebugEnabled()) {
@@ -695,7 +833,7 @@ public class API {
      * If the {@link #getCounterGetTxToApprove()} is a power of 100, a log is send and counters are reset.
      * </p>
      */
-    private void gatherStatisticsOnTipSelection() {
+    private static synchronized void gatherStatisticsOnTipSelection() {
         API.incCounterGetTxToApprove();
         if ((getCounterGetTxToApprove() % 100) == 0) {
             String sb = "Last 100 getTxToApprove consumed "
@@ -719,27 +857,52 @@ public class API {
       **/
     @Document(name="storeTransactions")
     public AbstractResponse storeTransactionsStatement(List<String> trytes) throws Exception {
-        final List<TransactionViewModel> elements = convertTrytes(trytes);
-        for (final TransactionViewModel transactionViewModel : elements) {
-            //store transactions
-            if(transactionViewModel.store(tangle, snapshotProvider.getInitialSnapshot())) {
-                transactionViewModel.setArrivalTime(System.currentTimeMillis());
-                transactionSolidifier.updateStatus(transactionViewModel);
-                transactionViewModel.updateSender("local");
-                transactionViewModel.update(tangle, snapshotProvider.getInitialSnapshot(), "sender");
-            }
+        List<TransactionViewModel> transactionViewModels = convertTrytes(trytes);
+        for (TransactionViewModel transactionViewModel : transactionViewModels) {
+            // set before storing, so the sender is written together with the transaction
+            transactionViewModel.updateSender("local");
         }
+        storeTransactions(transactionViewModels);
         return AbstractResponse.createEmptyResponse();
     }
 
     /**
-      * Interrupts and completely aborts the <tt>attachToTangle</tt> process.
+     * Stores the given transactions with a single database write and updates the status of the new ones. The new
+     * transactions are passed to the solidifier after all of them were stored, starting with the highest bundle
+     * index, so transactions referencing each other can be solidified right away.
+     *
+     * @param transactionViewModels the validated transactions to store
+     * @return the transactions which were not stored before
+     * @throws Exception When storing or updating a transaction fails.
+     */
+    private List<TransactionViewModel> storeTransactions(List<TransactionViewModel> transactionViewModels)
+            throws Exception {
+        long arrivalTime = System.currentTimeMillis();
+        for (TransactionViewModel transactionViewModel : transactionViewModels) {
+            // set before storing, so the metadata is written together with the transaction
+            transactionViewModel.setArrivalTime(arrivalTime);
+        }
+
+        List<TransactionViewModel> stored = TransactionViewModel.storeBatch(tangle,
+                snapshotProvider.getInitialSnapshot(), transactionViewModels);
+        stored.sort(Comparator.comparingLong(TransactionViewModel::getCurrentIndex).reversed());
+        for (TransactionViewModel transactionViewModel : stored) {
+            transactionSolidifier.updateStatus(transactionViewModel);
+            // the metadata was written with the batch, only the subscribers still need to hear about the transaction
+            tangle.updateMessageQueueProvider(transactionViewModel.getTransaction(), transactionViewModel.getHash(),
+                    "sender");
+        }
+        return stored;
+    }
+
+    /**
+      * Interrupts and completely aborts all running <tt>attachToTangle</tt> processes.
       *
       * @return {@link com.iota.iri.service.dto.AbstractResponse.Emptyness}
       **/
     @Document(name="interruptAttachingToTangle")
     private AbstractResponse interruptAttachingToTangleStatement(){
-        pearlDiver.cancel();
+        runningSearches.forEach(PearlDiverPool.Search::cancel);
         return AbstractResponse.createEmptyResponse();
     }
 
@@ -779,7 +942,14 @@ public class API {
                 transactionRequester.numberOfTransactionsToRequest(),
                 features,
                 configuration.getCoordinator().toString(),
-                tangle.getPersistanceSize());
+                tangle.getPersistanceSize(),
+                getCommandLatencies());
+    }
+
+    private Map<String, Map<String, Long>> getCommandLatencies() {
+        Map<String, Map<String, Long>> latencies = new TreeMap<>();
+        commandDispatcher.getLatencies().forEach((command, histogram) -> latencies.put(command, histogram.toMap()));
+        return latencies;
     }
 
     /**
@@ -812,9 +982,10 @@ public class API {
                 .map(HashFactory.TRANSACTION::create)
                 .collect(Collectors.toList());
 
+        final List<TransactionViewModel> transactionViewModels = TransactionViewModel.fromHashes(tangle, trans);
         boolean[] inclusionStates = new boolean[trans.size()];
         for(int i = 0; i < trans.size(); i++){
-            inclusionStates[i] = TransactionViewModel.fromHash(tangle, trans.get(i)).snapshotIndex() > 0;
+            inclusionStates[i] = transactionViewModels.get(i).snapshotIndex() > 0;
         }
 
         return GetInclusionStatesResponse.create(inclusionStates);
@@ -899,7 +1070,7 @@ public class API {
       *                   or the total transactions to find exceeds {@link APIConfig#getMaxFindTransactions()}.
       **/
     @Document(name="findTransactions")
-    private synchronized AbstractResponse findTransactionsStatement(final Map<String, Object> request) throws Exception {
+    private AbstractResponse findTransactionsStatement(final Map<String, Object> request) throws Exception {
 
         final Set<Hash> foundTransactions = new HashSet<>();
         boolean containsKey = false;
@@ -1042,12 +1213,31 @@ public class API {
       * @return {@link com.iota.iri.service.dto.AbstractResponse.Emptyness}
       **/
     @Document(name="broadcastTransactions")
-    public AbstractResponse broadcastTransactionsStatement(List<String> trytes) {
-        for (final String tryte : trytes) {
-            byte[] txTrits = Converter.allocateTritsForTrytes(TRYTES_SIZE);
-            Converter.trits(tryte, txTrits, 0);
-            txPipeline.process(txTrits);
+    public AbstractResponse broadcastTransactionsStatement(List<String> trytes) throws Exception {
+        // invalid transactions are dropped, like the validation stage of the pipeline does
+        List<TransactionViewModel> transactionViewModels = trytes.parallelStream()
+                .map(trytesPart -> {
+                    try {
+                        return convertTrytes(trytesPart);
+                    } catch (RuntimeException e) {
+                        log.debug("Dropping invalid transaction: {}", e.getMessage());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        Set<Hash> stored = storeTransactions(transactionViewModels).stream()
+                .map(TransactionViewModel::getHash)
+                .collect(Collectors.toSet());
+        for (TransactionViewModel transactionViewModel : transactionViewModels) {
+            // free up the recently requested transaction set, like the received stage does for these transactions
+            if (transactionRequester.removeRecentlyRequestedTransaction(transactionViewModel.getHash())
+                    && stored.contains(transactionViewModel.getHash())) {
+                transactionRequester.requestTrunkAndBranch(transactionViewModel);
+            }
         }
+        txPipeline.processStored(transactionViewModels);
         return AbstractResponse.createEmptyResponse();
     }
 
@@ -1095,18 +1285,25 @@ public class API {
                 balances.put(address, value);
             }
 
-            final Set<Hash> visitedHashes = new HashSet<>();
-            final Map<Hash, Long> diff = new HashMap<>();
-
-            // Calculate the difference created by the non-verified transactions which tips approve.
-            // This difference is put in a map with address -> value changed
+            // the tips are checked in order and a tip is only checked for consistency once it was found, so only the
+            // tips in front of the first missing one take part in the consistency check
+            int foundTips = 0;
             for (Hash tip : hashes) {
                 if (!TransactionViewModel.exists(tangle, tip)) {
-                    return ErrorResponse.create("Tip not found: " + tip.toString());
-                }
-                if (!ledgerService.isBalanceDiffConsistent(visitedHashes, diff, tip)) {
-                    return ErrorResponse.create("Tips are not consistent");
+                    break;
                 }
+                foundTips++;
+            }
+
+            // Calculate the difference created by the non-verified transactions which tips approve.
+            // This difference is put in a map with address -> value changed
+            final Map<Hash, Long> diff = foundTips == 0 ? Collections.emptyMap()
+                    : balanceQueryEngine.getBalanceDiff(hashes.subList(0, foundTips));
+            if (diff == null) {
+                return ErrorResponse.create("Tips are not consistent");
+            }
+            if (foundTips < hashes.size()) {
+                return ErrorResponse.create("Tip not found: " + hashes.get(foundTips).toString());
             }
 
             // Update the found balance according to 'diffs' balance changes
@@ -1161,6 +1358,24 @@ public class API {
         ellapsedTime_PoW += ellapsedTime;
     }
 
+    /**
+     * Handles statistics on proof of work. Logs the consumed processing time every 100 transactions.
+     *
+     * @param ellapsedTime the time spent on the proof of work of one transaction, in nanoseconds
+     */
+    private static synchronized void gatherStatisticsOnPoW(long ellapsedTime) {
+        API.incEllapsedTimePoW(ellapsedTime);
+        API.incCounterPoW();
+        if ((API.getCounterPoW() % 100) == 0) {
+            String sb = "Last 100 PoW consumed "
+                    + API.getEllapsedTimePoW() / 1000000000L
+                    + " seconds processing time.";
+            log.info(sb);
+            counter_PoW = 0;
+            ellapsedTime_PoW = 0L;
+        }
+    }
+
     /**
       * <p>
       * Prepares the specified transactions (trytes) for attachment to the Tangle by doing Proof of Work.
@@ -1194,13 +1409,14 @@ public class API {
       * @return The list of transactions in trytes, ready to be broadcast to the network.
       **/
     @Document(name="attachToTangle", returnParam="trytes")
-    public synchronized List<String> attachToTangleStatement(Hash trunkTransaction, Hash branchTransaction,
-                                                             int minWeightMagnitude, List<String> trytes) {
+    public List<String> attachToTangleStatement(Hash trunkTransaction, Hash branchTransaction,
+                                                int minWeightMagnitude, List<String> trytes) {
 
         final List<TransactionViewModel> transactionViewModels = new LinkedList<>();
 
         Hash prevTransaction = null;
-        pearlDiver = new PearlDiver();
+        long bundleStartTime = System.nanoTime();
+        long hashCount = 0;
 
         byte[] transactionTrits = Converter.allocateTritsForTrytes(TRYTES_SIZE);
         trytes.sort(new TryteIndexComparator().reversed());
@@ -1239,7 +1455,20 @@ public class API {
                         TransactionViewModel.ATTACHMENT_TIMESTAMP_UPPER_BOUND_TRINARY_OFFSET,
                         TransactionViewModel.ATTACHMENT_TIMESTAMP_UPPER_BOUND_TRINARY_SIZE);
 
-                if (!pearlDiver.search(transactionTrits, minWeightMagnitude, configuration.getPowThreads())) {
+                PearlDiverPool.Search search = pearlDiverPool.search(transactionTrits, minWeightMagnitude);
+                runningSearches.add(search);
+                boolean nonceFound;
+                try {
+                    nonceFound = search.await();
+                } catch (InterruptedException e) {
+                    // the request was cancelled, e.g. because it timed out
+                    Thread.currentThread().interrupt();
+                    nonceFound = false;
+                } finally {
+                    runningSearches.remove(search);
+                    hashCount += search.getHashCount();
+                }
+                if (!nonceFound) {
                     transactionViewModels.clear();
                     break;
                 }
@@ -1250,19 +1479,16 @@ public class API {
                 transactionViewModels.add(transactionViewModel);
                 prevTransaction = transactionViewModel.getHash();
             } finally {
-                API.incEllapsedTimePoW(System.nanoTime() - startTime);
-                API.incCounterPoW();
-                if ((API.getCounterPoW() % 100) == 0) {
-                    String sb = "Last 100 PoW consumed "
-                            + API.getEllapsedTimePoW() / 1000000000L
-                            + " seconds processing time.";
-                    log.info(sb);
-                    counter_PoW = 0;
-                    ellapsedTime_PoW = 0L;
-                }
+                gatherStatisticsOnPoW(System.nanoTime() - startTime);
             }
         }
 
+        if (log.isDebugEnabled()) {
+            long elapsedNanos = Math.max(1, System.nanoTime() - bundleStartTime);
+            log.debug("PoW of {} transactions took {} ms at {} hashes/s", transactionViewModels.size(),
+                    elapsedNanos / 1_000_000, (long) (hashCount * 1_000_000_000d / elapsedNanos));
+        }
+
         final List<String> elements = new LinkedList<>();
         for (int i = transactionViewModels.size(); i-- > 0; ) {
             elements.add(Converter.trytes(transactionViewModels.get(i).trits()));
@@ -1391,6 +1617,9 @@ public class API {
      */
     public void shutDown() {
         tipSelExecService.shutdownNow();
+        ledgerQueryExecutor.shutdownNow();
+        commandDispatcher.shutdown();
+        pearlDiverPool.shutdown();
         if (connector != null) {
             connector.stop();
         }
@@ -1501,8 +1730,14 @@ public class API {
 
     private Function<Map<String, Object>, AbstractResponse>  broadcastTransactions() {
         return request -> {
-            final List<String> trytes = getParameterAsList(request,"trytes", TRYTES_SIZE);
-            broadcastTransactionsStatement(trytes);
+            try {
+                final List<String> trytes = getParameterAsList(request,"trytes", TRYTES_SIZE);
+                broadcastTransactionsStatement(trytes);
+            } catch (ValidationException e) {
+                throw e;
+            } catch (Exception e) {
+                return ErrorResponse.create("Error: " + e.getMessage());
+            }
             return AbstractResponse.createEmptyResponse();
         };
     }
@@ -1646,17 +1881,22 @@ public class API {
         };
     }
 
+    /**
+     * Converts and validates the given transaction trytes in parallel.
+     *
+     * @param trytes the transaction trytes
+     * @return the transactions in the order of the trytes
+     */
     private List<TransactionViewModel> convertTrytes(List<String> trytes) {
-        final List<TransactionViewModel> elements = new LinkedList<>();
+        return trytes.parallelStream()
+                .map(this::convertTrytes)
+                .collect(Collectors.toList());
+    }
+
+    private TransactionViewModel convertTrytes(String trytes) {
         byte[] txTrits = Converter.allocateTritsForTrytes(TRYTES_SIZE);
-        for (final String trytesPart : trytes) {
-            //validate all trytes
-            Converter.trits(trytesPart, txTrits, 0);
-            final TransactionViewModel transactionViewModel = transactionValidator.validateTrits(txTrits,
-                    transactionValidator.getMinWeightMagnitude());
-            elements.add(transactionViewModel);
-        }
-        return elements;
+        Converter.trits(trytes, txTrits, 0);
+        return transactionValidator.validateTrits(txTrits, transactionValidator.getMinWeightMagnitude());
     }
 
 }
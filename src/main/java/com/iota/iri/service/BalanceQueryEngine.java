@@ -0,0 +1,184 @@
+package com.iota.iri.service;
+
+import com.iota.iri.controllers.TransactionViewModel;
+import com.iota.iri.model.Hash;
+import com.iota.iri.service.ledger.LedgerService;
+import com.iota.iri.service.snapshot.Snapshot;
+import com.iota.iri.service.snapshot.SnapshotProvider;
+import com.iota.iri.service.snapshot.impl.SnapshotStateDiffImpl;
+import com.iota.iri.storage.Tangle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Calculates the balance changes of the unconfirmed transactions referenced by a set of tips.
+ *
+ * The balance changes of every tip are cached until the next milestone is applied to the ledger, so repeated
+ * balance queries against the same tips don't have to walk the unconfirmed past cone and validate its bundles again.
+ * Tips which are not cached yet are evaluated in parallel.
+ *
+ * The result is the same as applying {@link LedgerService#isBalanceDiffConsistent(Set, Map, Hash)} to all tips one
+ * after the other. If the unconfirmed cones of the tips overlap, the cached changes can't simply be added up and the
+ * tips are evaluated sequentially instead.
+ */
+class BalanceQueryEngine {
+
+    private static final int TIP_DIFF_CACHE_SIZE = 256;
+
+    private final Tangle tangle;
+    private final SnapshotProvider snapshotProvider;
+    private final LedgerService ledgerService;
+    private final ExecutorService executor;
+
+    private final MilestoneScopedCache<Hash, TipDiff> tipDiffs = new MilestoneScopedCache<>(TIP_DIFF_CACHE_SIZE);
+
+    /**
+     * Creates a new engine.
+     *
+     * @param tangle Tangle object which acts as a database interface
+     * @param snapshotProvider gives us access to the latest snapshot
+     * @param ledgerService calculates the balance changes of a tip
+     * @param executor the executor to evaluate multiple tips on
+     */
+    BalanceQueryEngine(Tangle tangle, SnapshotProvider snapshotProvider, LedgerService ledgerService,
+                       ExecutorService executor) {
+        this.tangle = tangle;
+        this.snapshotProvider = snapshotProvider;
+        this.ledgerService = ledgerService;
+        this.executor = executor;
+    }
+
+    /**
+     * Calculates the accumulated balance changes of the unconfirmed transactions referenced by the given tips. Has to
+     * be called while holding the read lock of the latest snapshot.
+     *
+     * @param tips the tips to calculate the balance changes for
+     * @return the balance changes or <tt>null</tt> if the tips are not consistent
+     * @throws Exception if the balance changes can't be calculated
+     */
+    Map<Hash, Long> getBalanceDiff(List<Hash> tips) throws Exception {
+        Snapshot latestSnapshot = snapshotProvider.getLatestSnapshot();
+        int milestoneIndex = latestSnapshot.getIndex();
+
+        List<TipDiff> diffs = loadTipDiffs(milestoneIndex, tips);
+
+        Set<Hash> approvedHashes = new HashSet<>();
+        Map<Hash, Long> diff = new HashMap<>();
+        for (TipDiff tipDiff : diffs) {
+            if (tipDiff == null) {
+                return null;
+            }
+            if (!Collections.disjoint(approvedHashes, tipDiff.unconfirmedTails)) {
+                return getBalanceDiffSequentially(tips);
+            }
+
+            tipDiff.balanceChanges.forEach((address, value) -> diff.merge(address, value, Long::sum));
+            approvedHashes.addAll(tipDiff.unconfirmedTails);
+            if (!latestSnapshot.patchedState(new SnapshotStateDiffImpl(diff)).isConsistent()) {
+                return null;
+            }
+        }
+        return diff;
+    }
+
+    private Map<Hash, Long> getBalanceDiffSequentially(List<Hash> tips) throws Exception {
+        Set<Hash> visitedHashes = new HashSet<>();
+        Map<Hash, Long> diff = new HashMap<>();
+        for (Hash tip : tips) {
+            if (!ledgerService.isBalanceDiffConsistent(visitedHashes, diff, tip)) {
+                return null;
+            }
+        }
+        return diff;
+    }
+
+    private List<TipDiff> loadTipDiffs(int milestoneIndex, List<Hash> tips) throws Exception {
+        List<Callable<TipDiff>> calculations = new ArrayList<>(tips.size());
+        for (Hash tip : tips) {
+            calculations.add(() -> {
+                TipDiff tipDiff = tipDiffs.get(milestoneIndex, tip);
+                if (tipDiff == null) {
+                    tipDiff = calculateTipDiff(milestoneIndex, tip);
+                }
+                return tipDiff;
+            });
+        }
+
+        List<TipDiff> diffs = new ArrayList<>(tips.size());
+        if (calculations.size() == 1) {
+            diffs.add(calculations.get(0).call());
+            return diffs;
+        }
+        try {
+            for (Future<TipDiff> calculation : executor.invokeAll(calculations)) {
+                diffs.add(calculation.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        return diffs;
+    }
+
+    /**
+     * Calculates the balance changes of the unconfirmed past cone of the given tip.
+     *
+     * @param milestoneIndex the index of the latest solid milestone
+     * @param tip the tip to calculate the balance changes for
+     * @return the balance changes or <tt>null</tt> if the tip is not solid or references invalid bundles
+     * @throws Exception if the balance changes can't be calculated
+     */
+    private TipDiff calculateTipDiff(int milestoneIndex, Hash tip) throws Exception {
+        // solidity can change until the next milestone, so unsolid tips are not cached
+        if (!TransactionViewModel.fromHash(tangle, tip).isSolid()) {
+            return null;
+        }
+
+        Set<Hash> visitedHashes = new HashSet<>();
+        Map<Hash, Long> balanceChanges = ledgerService.generateBalanceDiff(visitedHashes, tip, milestoneIndex, true);
+        Set<Hash> unconfirmedTails = new HashSet<>();
+        if (balanceChanges != null) {
+            Set<Hash> solidEntryPoints = snapshotProvider.getInitialSnapshot().getSolidEntryPoints().keySet();
+            for (Hash visitedHash : visitedHashes) {
+                if (!solidEntryPoints.contains(visitedHash) && !isConfirmed(visitedHash, milestoneIndex)) {
+                    unconfirmedTails.add(visitedHash);
+                }
+            }
+        }
+
+        TipDiff tipDiff = balanceChanges == null ? null : new TipDiff(balanceChanges, unconfirmedTails);
+        if (tipDiff != null) {
+            tipDiffs.put(milestoneIndex, tip, tipDiff);
+        }
+        return tipDiff;
+    }
+
+    private boolean isConfirmed(Hash hash, int milestoneIndex) throws Exception {
+        int snapshotIndex = TransactionViewModel.fromHash(tangle, hash).snapshotIndex();
+        return snapshotIndex != 0 && snapshotIndex <= milestoneIndex;
+    }
+
+    /**
+     * The balance changes of the unconfirmed past cone of a tip.
+     */
+    private static class TipDiff {
+
+        private final Map<Hash, Long> balanceChanges;
+
+        private final Set<Hash> unconfirmedTails;
+
+        private TipDiff(Map<Hash, Long> balanceChanges, Set<Hash> unconfirmedTails) {
+            this.balanceChanges = Collections.unmodifiableMap(balanceChanges);
+            this.unconfirmedTails = Collections.unmodifiableSet(unconfirmedTails);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.iota.iri.service;
+
+import com.iota.iri.service.dto.AbstractResponse;
+import com.iota.iri.service.dto.ServiceUnavailableResponse;
+import com.iota.iri.utils.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes API commands on a separate thread pool per command, so slow commands can't block unrelated ones.
+ *
+ * Every pool runs a bounded amount of requests concurrently and queues a bounded amount of further requests. If the
+ * queue of a command is full, new requests are rejected right away with a {@link ServiceUnavailableResponse}. The
+ * same response is returned if a request exceeds the configured timeout.
+ *
+ * The latency of every command (including the time spent in the queue) is recorded in a {@link LatencyHistogram}.
+ */
+class CommandDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandDispatcher.class);
+
+    /**
+     * The amount of executions of a command after which its latency histogram is logged.
+     */
+    private static final int LOG_INTERVAL = 1000;
+
+    private final int threads;
+    private final int queueSize;
+    private final int timeoutSec;
+
+    private final Map<String, ThreadPoolExecutor> pools = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param threads the max amount of concurrently executed requests per command
+     * @param queueSize the max amount of waiting requests per command
+     * @param timeoutSec the max amount of seconds a request may take (including the time in the queue), 0 to disable
+     */
+    CommandDispatcher(int threads, int queueSize, int timeoutSec) {
+        this.threads = Math.max(1, threads);
+        this.queueSize = Math.max(1, queueSize);
+        this.timeoutSec = timeoutSec;
+    }
+
+    /**
+     * Executes the command on its pool and waits for the result. Runtime exceptions of the command are rethrown.
+     *
+     * @param command the name of the command which selects the pool
+     * @param execution the execution of the command
+     * @return the response of the command or a {@link ServiceUnavailableResponse} if the command was rejected or
+     *         timed out
+     */
+    AbstractResponse dispatch(String command, Supplier<AbstractResponse> execution) {
+        if (shutdown) {
+            return ServiceUnavailableResponse.create("API is shutting down");
+        }
+
+        long start = System.currentTimeMillis();
+        Future<AbstractResponse> future;
+        try {
+            future = pools.computeIfAbsent(command, this::createPool).submit(execution::get);
+        } catch (RejectedExecutionException e) {
+            return ServiceUnavailableResponse.create("Too many pending " + command + " requests");
+        }
+
+        try {
+            return timeoutSec > 0 ? future.get(timeoutSec, TimeUnit.SECONDS) : future.get();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return ServiceUnavailableResponse.create(command + " exceeded timeout of " + timeoutSec + " seconds");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return ServiceUnavailableResponse.create(command + " was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            recordLatency(command, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Gets the latency histograms of all commands which were executed so far.
+     *
+     * @return the histograms by command name
+     */
+    Map<String, LatencyHistogram> getLatencies() {
+        return Collections.unmodifiableMap(new HashMap<>(latencies));
+    }
+
+    /**
+     * Stops all pools and interrupts the running commands.
+     */
+    void shutdown() {
+        shutdown = true;
+        pools.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private ThreadPoolExecutor createPool(String command) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "api-" + command + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private void recordLatency(String command, long latencyMs) {
+        LatencyHistogram histogram = latencies.computeIfAbsent(command, c -> new LatencyHistogram());
+        histogram.record(latencyMs);
+        if (log.isDebugEnabled() && histogram.count() % LOG_INTERVAL == 0) {
+            log.debug("Latencies of {}: {}", command, histogram);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.iota.iri.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache for results which stay valid as long as the latest solid milestone doesn't change.
+ *
+ * Every access passes the milestone index the caller is working with. Once a newer index is seen, all cached entries
+ * are dropped. Accesses with an outdated index neither see nor store any entries.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached results
+ */
+class MilestoneScopedCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    private int milestoneIndex = -1;
+
+    /**
+     * Creates a new cache which holds at most {@code maxSize} entries (the oldest entries are evicted first).
+     *
+     * @param maxSize the max amount of cached entries
+     */
+    MilestoneScopedCache(int maxSize) {
+        this.entries = new LinkedHashMap<K, V>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the result cached for the given key.
+     *
+     * @param milestoneIndex the index of the milestone the result is needed for
+     * @param key the key of the result
+     * @return the cached result or <tt>null</tt> if there is none for this milestone
+     */
+    synchronized V get(int milestoneIndex, K key) {
+        return advanceTo(milestoneIndex) ? entries.get(key) : null;
+    }
+
+    /**
+     * Caches the result for the given key.
+     *
+     * @param milestoneIndex the index of the milestone the result was computed for
+     * @param key the key of the result
+     * @param value the result
+     */
+    synchronized void put(int milestoneIndex, K key, V value) {
+        if (advanceTo(milestoneIndex)) {
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Drops all entries if the given milestone index is newer than the one of the cached entries.
+     *
+     * @param milestoneIndex the index of the milestone of the caller
+     * @return <tt>false</tt> if the given milestone index is outdated
+     */
+    private boolean advanceTo(int milestoneIndex) {
+        if (milestoneIndex > this.milestoneIndex) {
+            entries.clear();
+            this.milestoneIndex = milestoneIndex;
+        }
+        return milestoneIndex == this.milestoneIndex;
+    }
+}
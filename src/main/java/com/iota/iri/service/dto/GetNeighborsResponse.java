@@ -98,6 +98,16 @@ public class GetNeighborsResponse extends AbstractResponse {
          */
         private long numberOfDroppedSentPackets;
 
+        /**
+         * Amount of bytes dropped from the neighbor's send queue as it was full.
+         */
+        private long numberOfDroppedSentBytes;
+
+        /**
+         * Amount of bytes currently queued to be sent to the neighbor.
+         */
+        private long numberOfQueuedSendBytes;
+
         /**
          * The transport protocol used to the neighbor.
          */
@@ -127,6 +137,8 @@ public class GetNeighborsResponse extends AbstractResponse {
             ne.numberOfNewTransactions = metrics.getNewTransactionsCount();
             ne.numberOfSentTransactions = metrics.getSentTransactionsCount();
             ne.numberOfDroppedSentPackets = metrics.getDroppedSendPacketsCount();
+            ne.numberOfDroppedSentBytes = metrics.getDroppedSendBytesCount();
+            ne.numberOfQueuedSendBytes = metrics.getQueuedSendBytes();
             ne.numberOfRandomTransactionRequests = metrics.getRandomTransactionRequestsCount();
             ne.connectionType = "tcp";
             ne.connected = neighbor.getState() == NeighborState.READY_FOR_MESSAGES;
@@ -203,6 +215,20 @@ public class GetNeighborsResponse extends AbstractResponse {
             return numberOfDroppedSentPackets;
         }
 
+        /**
+         * {@link #numberOfDroppedSentBytes}
+         */
+        public long getNumberOfDroppedSentBytes() {
+            return numberOfDroppedSentBytes;
+        }
+
+        /**
+         * {@link #numberOfQueuedSendBytes}
+         */
+        public long getNumberOfQueuedSendBytes() {
+            return numberOfQueuedSendBytes;
+        }
+
         /**
          * {@link #connected}
          */
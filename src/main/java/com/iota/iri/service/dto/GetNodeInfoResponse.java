@@ -4,6 +4,8 @@ import com.iota.iri.model.Hash;
 import com.iota.iri.service.API;
 import com.iota.iri.service.Feature;
 
+import java.util.Map;
+
 /**
  * 
  * Contains information about the result of a successful {@code getNodeInfo} API call.
@@ -128,6 +130,12 @@ public class GetNodeInfoResponse extends AbstractResponse {
      */
     private long dbSizeInBytes;
 
+    /**
+     * The latency histograms of the API commands executed since the node started, by command name. Each histogram
+     * maps the upper bound of a bucket (e.g. <tt>"<=5ms"</tt>) to the amount of requests in this bucket.
+     */
+    private Map<String, Map<String, Long>> commandLatencies;
+
     /**
      * Creates a new {@link GetNodeInfoResponse}
      * 
@@ -152,13 +160,15 @@ public class GetNodeInfoResponse extends AbstractResponse {
      * @param features {@link #features}
      * @param coordinatorAddress {@link #coordinatorAddress}
      * @param dbSizeInBytes {@link #dbSizeInBytes}
+     * @param commandLatencies {@link #commandLatencies}
      * @return a {@link GetNodeInfoResponse} filled with all the provided parameters
      */
 	public static AbstractResponse create(String appName, String appVersion, int jreAvailableProcessors, long jreFreeMemory,
 	        String jreVersion, long maxMemory, long totalMemory, Hash latestMilestone, int latestMilestoneIndex,
 	        Hash latestSolidSubtangleMilestone, int latestSolidSubtangleMilestoneIndex, int milestoneStartIndex,
 	        int lastSnapshottedMilestoneIndex, int neighbors, int packetsQueueSize, long currentTimeMillis, int tips, 
-	        int numberOfTransactionsToRequest,  String[] features, String coordinatorAddress, long dbSizeInBytes) {
+	        int numberOfTransactionsToRequest,  String[] features, String coordinatorAddress, long dbSizeInBytes,
+	        Map<String, Map<String, Long>> commandLatencies) {
 		final GetNodeInfoResponse res = new GetNodeInfoResponse();
 		res.appName = appName;
 		res.appVersion = appVersion;
@@ -186,6 +196,7 @@ public class GetNodeInfoResponse extends AbstractResponse {
 		res.features = features;
 		res.coordinatorAddress = coordinatorAddress;
 		res.dbSizeInBytes = dbSizeInBytes;
+		res.commandLatencies = commandLatencies;
 		return res;
 	}
 
@@ -348,4 +359,12 @@ public class GetNodeInfoResponse extends AbstractResponse {
 	public String getCoordinatorAddress() {
 		return coordinatorAddress;
 	}
+
+	/**
+	 *
+	 * @return {@link #commandLatencies}
+	 */
+	public Map<String, Map<String, Long>> getCommandLatencies() {
+		return commandLatencies;
+	}
 }
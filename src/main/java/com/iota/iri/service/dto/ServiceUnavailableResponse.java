@@ -0,0 +1,36 @@
+package com.iota.iri.service.dto;
+
+/**
+ * 
+ * This class represents the API error for a command which can't be processed right now,
+ * because too many requests of the same command are pending or the request timed out.
+ * 
+ */
+public class ServiceUnavailableResponse extends AbstractResponse {
+
+    /**
+     * The error identifies what caused this Response.
+     * It is a readable message identifying the command that is overloaded.
+     */
+    private String error;
+
+    /**
+     * Creates a new {@link ServiceUnavailableResponse}
+     * 
+     * @param error {@link #error}
+     * @return a {@link ServiceUnavailableResponse} filled with the error message
+     */
+    public static AbstractResponse create(String error) {
+        ServiceUnavailableResponse res = new ServiceUnavailableResponse();
+        res.error = error;
+        return res;
+    }
+
+    /**
+     * 
+     * @return {@link #error}
+     */
+    public String getError() {
+        return error;
+    }
+}
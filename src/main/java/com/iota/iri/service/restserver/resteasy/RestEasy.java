@@ -1,7 +1,11 @@
 package com.iota.iri.service.restserver.resteasy;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
@@ -12,20 +16,20 @@ import javax.ws.rs.core.Application;
 import org.jboss.resteasy.plugins.server.undertow.UndertowJaxrsServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xnio.channels.StreamSinkChannel;
 import org.xnio.streams.ChannelInputStream;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.iota.iri.Iota;
 import com.iota.iri.conf.APIConfig;
 import com.iota.iri.service.dto.AbstractResponse;
 import com.iota.iri.service.dto.AccessLimitedResponse;
 import com.iota.iri.service.dto.ErrorResponse;
 import com.iota.iri.service.dto.ExceptionResponse;
+import com.iota.iri.service.dto.ServiceUnavailableResponse;
 import com.iota.iri.service.restserver.ApiProcessor;
 import com.iota.iri.service.restserver.RestConnector;
-import com.iota.iri.utils.IotaIOUtils;
 import com.iota.iri.utils.MapIdentityManager;
 
 import io.undertow.Handlers;
@@ -60,6 +64,11 @@ public class RestEasy extends Application implements RestConnector {
     
     private static final Logger log = LoggerFactory.getLogger(RestEasy.class);
 
+    /**
+     * The amount of characters read from the request body at once.
+     */
+    private static final int BODY_READ_CHUNK_SIZE = 8192;
+
     private final Gson gson = new GsonBuilder().create();
     
     private UndertowJaxrsServer server;
@@ -217,8 +226,12 @@ public class RestEasy extends Application implements RestConnector {
      *     <li>{@link ErrorResponse}: 400</li>
      *     <li>{@link AccessLimitedRprocessRequestesponse}: 401</li>
      *     <li>{@link ExceptionResponse}: 500</li>
+     *     <li>{@link ServiceUnavailableResponse}: 503</li>
      *     <li>Default: 200</li>
      * </ul>
+     * The response is serialized straight into the pooled buffers of the exchange's output stream, so large responses
+     * are never held in memory as a whole. Responses which fit into a single buffer are still sent with a content
+     * length, larger ones are sent chunked.
      *
      * @param exchange Contains information about what the client sent to us
      * @param res The response of the API.
@@ -226,11 +239,9 @@ public class RestEasy extends Application implements RestConnector {
      *            and {@link #process(String, InetSocketAddress)} for the different responses in each case.
      * @param beginningTime The time when we received the request, in milliseconds.
      *                      This will be used to set the response duration in {@link AbstractResponse#setDuration(Integer)}
-     * @throws IOException When connection to client has been lost - Currently being caught.
      */
-    private void sendResponse(HttpServerExchange exchange, AbstractResponse res, long beginningTime) throws IOException {
+    private void sendResponse(HttpServerExchange exchange, AbstractResponse res, long beginningTime) {
         res.setDuration((int) (System.currentTimeMillis() - beginningTime));
-        final String response = gson.toJson(res);
 
         if (res instanceof ErrorResponse) {
             // bad request or invalid parameters
@@ -241,31 +252,21 @@ public class RestEasy extends Application implements RestConnector {
         } else if (res instanceof ExceptionResponse) {
             // internal error
             exchange.setStatusCode(500);
+        } else if (res instanceof ServiceUnavailableResponse) {
+            // too many pending requests of this command
+            exchange.setStatusCode(503);
         }
 
         setupResponseHeaders(exchange);
 
-        ByteBuffer responseBuf = ByteBuffer.wrap(response.getBytes(StandardCharsets.UTF_8));
-        exchange.setResponseContentLength(responseBuf.array().length);
-        StreamSinkChannel sinkChannel = exchange.getResponseChannel();
-        sinkChannel.getWriteSetter().set( channel -> {
-            if (responseBuf.remaining() > 0) {
-                try {
-                    sinkChannel.write(responseBuf);
-                    if (responseBuf.remaining() == 0) {
-                        exchange.endExchange();
-                    }
-                } catch (IOException e) {
-                    log.error("Lost connection to client - cannot send response");
-                    exchange.endExchange();
-                    sinkChannel.getWriteSetter().set(null);
-                }
-            }
-            else {
-                exchange.endExchange();
-            }
-        });
-        sinkChannel.resumeWrites();
+        exchange.startBlocking();
+        try (Writer writer = new OutputStreamWriter(exchange.getOutputStream(), StandardCharsets.UTF_8)) {
+            gson.toJson(res, writer);
+        } catch (IOException | JsonIOException e) {
+            log.error("Lost connection to client - cannot send response");
+        } finally {
+            exchange.endExchange();
+        }
     }
 
     /**
@@ -289,12 +290,12 @@ public class RestEasy extends Application implements RestConnector {
         exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json");
 
         final long beginningTime = System.currentTimeMillis();
-        final String body = IotaIOUtils.toString(cis, StandardCharsets.UTF_8);
+        final String body = readBody(cis, maxBodyLength);
         AbstractResponse response;
 
         if (!exchange.getRequestHeaders().contains("X-IOTA-API-Version")) {
             response = ErrorResponse.create("Invalid API Version");
-        } else if (body.length() > maxBodyLength) {
+        } else if (body == null) {
             response = ErrorResponse.create("Request too long");
         } else {
             response = this.processFunction.processFunction(body, exchange.getSourceAddress().getAddress());
@@ -303,6 +304,29 @@ public class RestEasy extends Application implements RestConnector {
         sendResponse(exchange, response, beginningTime);
     }
     
+    /**
+     * Reads the request body chunk by chunk and stops as soon as it exceeds the max body length, so oversized requests
+     * are rejected without buffering them completely.
+     *
+     * @param in the stream of the request body
+     * @param maxBodyLength the max amount of characters of the body
+     * @return the body or <tt>null</tt> if it is longer than {@code maxBodyLength}
+     * @throws IOException If the body cannot be read
+     */
+    private static String readBody(InputStream in, int maxBodyLength) throws IOException {
+        final Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        final StringBuilder body = new StringBuilder(Math.min(maxBodyLength, BODY_READ_CHUNK_SIZE));
+        final char[] chunk = new char[BODY_READ_CHUNK_SIZE];
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            if (body.length() + read > maxBodyLength) {
+                return null;
+            }
+            body.append(chunk, 0, read);
+        }
+        return body.toString();
+    }
+
     /**
      * Updates the {@link HttpServerExchange} {@link HeaderMap} with the proper response settings.
      * @param exchange Contains information about what the client has send to us
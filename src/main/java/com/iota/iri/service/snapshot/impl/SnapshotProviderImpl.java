@@ -5,33 +5,33 @@ import com.iota.iri.conf.SnapshotConfig;
 import com.iota.iri.controllers.LocalSnapshotViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
-import com.iota.iri.model.IntegerIndex;
-import com.iota.iri.model.LocalSnapshot;
 import com.iota.iri.service.snapshot.Snapshot;
 import com.iota.iri.service.snapshot.SnapshotException;
 import com.iota.iri.service.snapshot.SnapshotMetaData;
 import com.iota.iri.service.snapshot.SnapshotProvider;
 import com.iota.iri.service.snapshot.SnapshotState;
 import com.iota.iri.service.spentaddresses.SpentAddressesException;
-import com.iota.iri.storage.Indexable;
 import com.iota.iri.storage.LocalSnapshotsPersistenceProvider;
-import com.iota.iri.storage.Persistable;
-import com.iota.iri.utils.Pair;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -212,28 +212,28 @@ public class SnapshotProviderImpl implements SnapshotProvider {
             return null;
         }
         try {
-            Pair<Indexable, Persistable> pair = localSnapshotsDb.first(LocalSnapshot.class, IntegerIndex.class);
-            if (pair.hi == null) {
+            LocalSnapshotViewModel ls = LocalSnapshotViewModel.load(localSnapshotsDb);
+            if (ls.isEmpty()) {
                 log.info("No Local snapshot was found. Starting to sync from Global Snapshot. "
                         + "In case you have a local snapshot present it may be in outdated format. "
                         + "See https://dbfiles.iota.org/?prefix=mainnet/iri/");
                 return null;
             }
 
-            LocalSnapshot ls = (LocalSnapshot) pair.hi;
             log.info("loading local snapshot; ms hash/index: {}/{}, solid entry points: {}, seen milestones: {}, " +
-                            "ledger entries: {}", ls.milestoneHash, ls.milestoneIndex,
-                    ls.solidEntryPoints.size(), ls.seenMilestones.size(), ls.ledgerState.size());
+                            "ledger entries: {}", ls.getMilestoneHash(), ls.getMilestoneIndex(),
+                    ls.getSolidEntryPoints().size(), ls.getSeenMilestones().size(), ls.getLedgerState().size());
 
-            SnapshotState snapshotState = new SnapshotStateImpl(ls.ledgerState);
+            SnapshotState snapshotState = new SnapshotStateImpl(ls.getLedgerState());
             if (!snapshotState.hasCorrectSupply()) {
                 throw new SnapshotException("the snapshot state file has an invalid supply");
             }
             if (!snapshotState.isConsistent()) {
                 throw new SnapshotException("the snapshot state file is not consistent");
             }
-            SnapshotMetaData snapshotMetaData = new SnapshotMetaDataImpl(ls.milestoneHash, ls.milestoneIndex,
-                    ls.milestoneTimestamp, ls.solidEntryPoints, ls.seenMilestones);
+            SnapshotMetaData snapshotMetaData = new SnapshotMetaDataImpl(ls.getMilestoneHash(),
+                    ls.getMilestoneIndex(), ls.getMilestoneTimestamp(), ls.getSolidEntryPoints(),
+                    ls.getSeenMilestones());
 
             log.info("resumed from local snapshot #" + snapshotMetaData.getIndex() + " ...");
             return new SnapshotImpl(snapshotState, snapshotMetaData);
@@ -313,8 +313,7 @@ public class SnapshotProviderImpl implements SnapshotProvider {
      * This method reads the balances from the given file on the disk and creates the corresponding SnapshotState.
      * </p>
      * <p>
-     * It creates the corresponding reader and for the file on the given location and passes it on to
-     * {@link #readSnapshotState(BufferedReader)}.
+     * The file is memory mapped and passed on to {@link #readSnapshotState(ByteBuffer)}.
      * </p>
      * 
      * @param snapshotStateFilePath location of the snapshot state file
@@ -322,8 +321,11 @@ public class SnapshotProviderImpl implements SnapshotProvider {
      * @throws SnapshotException if anything goes wrong while reading the state file
      */
     private SnapshotState readSnapshotStatefromFile(String snapshotStateFilePath) throws SnapshotException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new BufferedInputStream(new FileInputStream(snapshotStateFilePath))))) {
-            return readSnapshotState(reader);
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotStateFilePath), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new SnapshotException("the snapshot file at " + snapshotStateFilePath + " is too large");
+            }
+            return readSnapshotState(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
         } catch (IOException e) {
             throw new SnapshotException("failed to read the snapshot file at " + snapshotStateFilePath, e);
         }
@@ -334,8 +336,8 @@ public class SnapshotProviderImpl implements SnapshotProvider {
      * This method reads the balances from the given file in the JAR and creates the corresponding SnapshotState.
      * </p>
      * <p>
-     * It creates the corresponding reader and for the file on the given location in the JAR and passes it on to
-     * {@link #readSnapshotState(BufferedReader)}.
+     * Resources within the JAR can't be memory mapped, so the file is read into memory at once and passed on to
+     * {@link #readSnapshotState(ByteBuffer)}.
      * </p>
      *
      * @param snapshotStateFilePath location of the snapshot state file
@@ -343,8 +345,8 @@ public class SnapshotProviderImpl implements SnapshotProvider {
      * @throws SnapshotException if anything goes wrong while reading the state file
      */
     private SnapshotState readSnapshotStateFromJAR(String snapshotStateFilePath) throws SnapshotException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new BufferedInputStream(SnapshotProviderImpl.class.getResourceAsStream(snapshotStateFilePath))))) {
-            return readSnapshotState(reader);
+        try (InputStream stream = SnapshotProviderImpl.class.getResourceAsStream(snapshotStateFilePath)) {
+            return readSnapshotState(ByteBuffer.wrap(IOUtils.toByteArray(stream)));
         } catch (NullPointerException | IOException e) {
             throw new SnapshotException("failed to read the snapshot file from JAR at " + snapshotStateFilePath, e);
         }
@@ -352,32 +354,19 @@ public class SnapshotProviderImpl implements SnapshotProvider {
 
     /**
      * <p>
-     * This method reads the balances from the given reader.
+     * This method reads the balances from the given buffer.
      * </p>
      * <p>
-     * The format of the input is pairs of "address;balance" separated by newlines. It simply reads the input line by
-     * line, adding the corresponding values to the map.
+     * The input is either made of pairs of "address;balance" separated by newlines or uses the compact binary format
+     * of {@link SnapshotStateFile}. Large text inputs are parsed in chunks on multiple threads.
      * </p>
      * 
-     * @param reader reader allowing us to retrieve the lines of the {@link SnapshotState} file
+     * @param data the content of the {@link SnapshotState} file
      * @return the unserialized version of the snapshot state state file
-     * @throws IOException if something went wrong while trying to access the file
      * @throws SnapshotException if anything goes wrong while reading the state file
      */
-    private SnapshotState readSnapshotState(BufferedReader reader) throws IOException, SnapshotException {
-        Map<Hash, Long> state = new HashMap<>();
-
-        String line;
-        while ((line = reader.readLine()) != null) {
-            String[] parts = line.split(";", 2);
-            if (parts.length == 2) {
-                state.put(HashFactory.ADDRESS.create(parts[0]), Long.valueOf(parts[1]));
-            } else {
-                throw new SnapshotException("malformed snapshot state file");
-            }
-        }
-
-        return new SnapshotStateImpl(state);
+    private SnapshotState readSnapshotState(ByteBuffer data) throws SnapshotException {
+        return new SnapshotStateImpl(SnapshotStateFile.read(data));
     }
 
     /**
@@ -394,15 +383,7 @@ public class SnapshotProviderImpl implements SnapshotProvider {
      */
     private void writeSnapshotStateToDisk(SnapshotState snapshotState, String snapshotPath) throws SnapshotException {
         try {
-            Files.write(
-                    Paths.get(snapshotPath),
-                    () -> snapshotState.getBalances().entrySet()
-                            .stream()
-                            .filter(entry -> entry.getValue() != 0)
-                            .<CharSequence>map(entry -> entry.getKey() + ";" + entry.getValue())
-                            .sorted()
-                            .iterator()
-            );
+            SnapshotStateFile.writeText(snapshotState.getBalances(), Paths.get(snapshotPath));
         } catch (IOException e) {
             throw new SnapshotException("failed to write the snapshot state file at " + snapshotPath, e);
         }
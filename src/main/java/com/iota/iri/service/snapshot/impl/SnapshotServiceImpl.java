@@ -1,11 +1,14 @@
 package com.iota.iri.service.snapshot.impl;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.iota.iri.conf.SnapshotConfig;
 import com.iota.iri.controllers.ApproveeViewModel;
 import com.iota.iri.controllers.MilestoneViewModel;
 import com.iota.iri.controllers.StateDiffViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
+import com.iota.iri.model.IntegerIndex;
+import com.iota.iri.model.persistables.Milestone;
 import com.iota.iri.service.milestone.LatestMilestoneTracker;
 import com.iota.iri.service.snapshot.Snapshot;
 import com.iota.iri.service.snapshot.SnapshotException;
@@ -16,18 +19,25 @@ import com.iota.iri.service.transactionpruning.TransactionPruner;
 import com.iota.iri.service.transactionpruning.TransactionPruningException;
 import com.iota.iri.service.transactionpruning.jobs.MilestonePrunerJob;
 import com.iota.iri.service.transactionpruning.jobs.UnconfirmedSubtanglePrunerJob;
+import com.iota.iri.storage.PersistenceCursor;
 import com.iota.iri.storage.Tangle;
 import com.iota.iri.utils.dag.DAGHelper;
 import com.iota.iri.utils.dag.TraversalException;
 import com.iota.iri.utils.log.ProgressLogger;
 import com.iota.iri.utils.log.interval.IntervalProgressLogger;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -112,10 +122,14 @@ public class SnapshotServiceImpl implements SnapshotService {
      * modify its values without having to create a "copy" of the initial state to possibly roll back the changes if
      * anything unexpected happens (creating a backup of the state requires a lot of memory).
      * </p>
+     * <p>
+     * The state diffs of the milestones are collected first and then summed up in a single pass (see
+     * {@link StateDiffViewModel#mergeDiffs(List)}).
+     * </p>
      */
     @Override
     public void replayMilestones(Snapshot snapshot, int targetMilestoneIndex) throws SnapshotException {
-        Map<Hash, Long> balanceChanges = new HashMap<>();
+        List<StateDiffViewModel> stateDiffs = new ArrayList<>();
         Set<Integer> skippedMilestones = new HashSet<>();
         MilestoneViewModel lastAppliedMilestone = null;
 
@@ -127,9 +141,7 @@ public class SnapshotServiceImpl implements SnapshotService {
                 if (currentMilestone != null) {
                     StateDiffViewModel stateDiffViewModel = StateDiffViewModel.load(tangle, currentMilestone.getHash());
                     if(!stateDiffViewModel.isEmpty()) {
-                        stateDiffViewModel.getDiff().forEach((address, change) -> {
-                            balanceChanges.compute(address, (k, balance) -> (balance == null ? 0 : balance) + change);
-                        });
+                        stateDiffs.add(stateDiffViewModel);
                     }
 
                     lastAppliedMilestone = currentMilestone;
@@ -142,7 +154,7 @@ public class SnapshotServiceImpl implements SnapshotService {
                 try {
                     snapshot.lockWrite();
 
-                    snapshot.applyStateDiff(new SnapshotStateDiffImpl(balanceChanges));
+                    snapshot.applyStateDiff(new SnapshotStateDiffImpl(StateDiffViewModel.mergeDiffs(stateDiffs)));
 
                     snapshot.setIndex(lastAppliedMilestone.index());
                     snapshot.setHash(lastAppliedMilestone.getHash());
@@ -276,11 +288,40 @@ public class SnapshotServiceImpl implements SnapshotService {
      */
     @Override
     public Map<Hash, Integer> generateSolidEntryPoints(MilestoneViewModel targetMilestone) throws SnapshotException {
+        ExecutorService executor = createSolidEntryPointExecutor();
+        try {
+            return generateSolidEntryPoints(targetMilestone, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Works like {@link #generateSolidEntryPoints(MilestoneViewModel)} but analyzes the milestones and old solid entry
+     * points on the given executor.
+     *
+     * @param targetMilestone milestone that is used as a reference point for the snapshot
+     * @param executor        executor that runs the checks, it is not shut down by this method
+     * @return a map of solid entry points associated with their milestone index
+     * @throws SnapshotException if anything goes wrong while generating the solid entry points
+     */
+    @VisibleForTesting
+    Map<Hash, Integer> generateSolidEntryPoints(MilestoneViewModel targetMilestone, ExecutorService executor)
+            throws SnapshotException {
+
         Map<Hash, Integer> solidEntryPoints = new HashMap<>();
         solidEntryPoints.put(Hash.NULL_HASH, targetMilestone.index());
 
-        processOldSolidEntryPoints(tangle, snapshotProvider, targetMilestone, solidEntryPoints);
-        processNewSolidEntryPoints(tangle, snapshotProvider, targetMilestone, solidEntryPoints);
+        OrphanedStatusCache cache;
+        try {
+            cache = new OrphanedStatusCache(targetMilestone,
+                    TransactionViewModel.fromHash(tangle, targetMilestone.getHash()));
+        } catch (Exception e) {
+            throw new SnapshotException("could not load the transaction of " + targetMilestone, e);
+        }
+
+        processOldSolidEntryPoints(tangle, snapshotProvider, cache, executor, solidEntryPoints);
+        processNewSolidEntryPoints(tangle, snapshotProvider, cache, executor, solidEntryPoints);
 
         return solidEntryPoints;
     }
@@ -297,12 +338,17 @@ public class SnapshotServiceImpl implements SnapshotService {
                 .start(config.getLocalSnapshotsDepth());
 
         Map<Hash, Integer> seenMilestones = new HashMap<>();
-        try {
-            MilestoneViewModel seenMilestone = targetMilestone;
-            while ((seenMilestone = MilestoneViewModel.findClosestNextMilestone(tangle, seenMilestone.index(),
-                    latestMilestoneTracker.getLatestMilestoneIndex())) != null) {
+        int latestMilestoneIndex = latestMilestoneTracker.getLatestMilestoneIndex();
+        // the milestones are stored in the order of their index, so a single scan finds all of them
+        try (PersistenceCursor cursor = tangle.cursor(Milestone.class, IntegerIndex.class,
+                new IntegerIndex(targetMilestone.index() + 1), false)) {
+            while (cursor.hasNext()) {
+                Milestone seenMilestone = (Milestone) cursor.next().hi;
+                if (seenMilestone.index.getValue() > latestMilestoneIndex) {
+                    break;
+                }
 
-                seenMilestones.put(seenMilestone.getHash(), seenMilestone.index());
+                seenMilestones.put(seenMilestone.hash, seenMilestone.index.getValue());
 
                 progressLogger.progress();
             }
@@ -341,15 +387,9 @@ public class SnapshotServiceImpl implements SnapshotService {
             // revert the last balance changes
             StateDiffViewModel stateDiffViewModel = StateDiffViewModel.load(tangle, snapshot.getHash());
             if (!stateDiffViewModel.isEmpty()) {
-                SnapshotStateDiffImpl snapshotStateDiff = new SnapshotStateDiffImpl(
-                    stateDiffViewModel.getDiff().entrySet().stream().map(
-                        hashLongEntry -> new HashMap.SimpleEntry<>(
-                            hashLongEntry.getKey(), -1 * hashLongEntry.getValue()
-                        )
-                    ).collect(
-                        Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)
-                    )
-                );
+                Map<Hash, Long> revertedChanges = new HashMap<>();
+                stateDiffViewModel.forEachChange((address, change) -> revertedChanges.put(address, -change));
+                SnapshotStateDiffImpl snapshotStateDiff = new SnapshotStateDiffImpl(revertedChanges);
 
                 if (!snapshotStateDiff.isConsistent()) {
                     throw new SnapshotException("the StateDiff belonging to milestone #" + snapshot.getIndex() +
@@ -537,24 +577,33 @@ public class SnapshotServiceImpl implements SnapshotService {
      * Since we currently use milestones as reference transactions that are sufficiently old, this definition in fact is
      * a relatively safe way to determine if a subtangle "above" a transaction got orphaned.
      * </p>
+     * <p>
+     * Transactions whose direct and indirect approvers all arrived before the reference transaction are remembered in
+     * the {@link OrphanedStatusCache}, so later checks of the same run don't traverse them again.
+     * </p>
      * 
      * @param tangle                Tangle object which acts as a database interface
      * @param transaction           transaction that shall be checked
-     * @param referenceTransaction  transaction that acts as a judge to the other transaction
+     * @param cache                 state of the current solid entry point generation
      * @param processedTransactions transactions that were visited already while trying to determine the orphaned status
      * @return true if the transaction got orphaned and false otherwise
      * @throws SnapshotException if anything goes wrong while determining the orphaned status
      */
-    private boolean isProbablyOrphaned(Tangle tangle, TransactionViewModel transaction,
-            TransactionViewModel referenceTransaction, Set<Hash> processedTransactions) throws SnapshotException {
+    private boolean isProbablyOrphaned(Tangle tangle, TransactionViewModel transaction, OrphanedStatusCache cache,
+            Set<Hash> processedTransactions) throws SnapshotException {
+
+        if (cache.orphanedSubtangles.contains(transaction.getHash())) {
+            return true;
+        }
 
         AtomicBoolean nonOrphanedTransactionFound = new AtomicBoolean(false);
         try {
             DAGHelper.get(tangle).traverseApprovers(
                     transaction.getHash(),
-                    currentTransaction -> !nonOrphanedTransactionFound.get(),
+                    currentTransaction -> !nonOrphanedTransactionFound.get()
+                            && !cache.orphanedSubtangles.contains(currentTransaction.getHash()),
                     currentTransaction -> {
-                        if (currentTransaction.getArrivalTime() / 1000L > referenceTransaction.getTimestamp()) {
+                        if (cache.arrivedAfterReference(currentTransaction)) {
                             nonOrphanedTransactionFound.set(true);
                         }
                     },
@@ -564,7 +613,17 @@ public class SnapshotServiceImpl implements SnapshotService {
             throw new SnapshotException("failed to determine orphaned status of " + transaction, e);
         }
 
-        return !nonOrphanedTransactionFound.get();
+        if (nonOrphanedTransactionFound.get()) {
+            return false;
+        }
+
+        // every transaction visited so far (and its approvers) arrived before the reference transaction
+        cache.orphanedSubtangles.addAll(processedTransactions);
+        if (!cache.arrivedAfterReference(transaction)) {
+            cache.orphanedSubtangles.add(transaction.getHash());
+        }
+
+        return true;
     }
 
     /**
@@ -575,7 +634,7 @@ public class SnapshotServiceImpl implements SnapshotService {
      * <p>
      * To check if the transaction has non-orphaned approvers we first check if any of its approvers got confirmed by a
      * future milestone, since this is very cheap. If none of them got confirmed by another milestone we do the more
-     * expensive check from {@link #isProbablyOrphaned(Tangle, TransactionViewModel, TransactionViewModel, Set)}.
+     * expensive check from {@link #isProbablyOrphaned(Tangle, TransactionViewModel, OrphanedStatusCache, Set)}.
      * </p>
      * <p>
      * Since solid entry points have a limited life time and to prevent potential problems due to temporary errors in
@@ -583,38 +642,55 @@ public class SnapshotServiceImpl implements SnapshotService {
      * status, thus adding solid entry points. This is a storage <=> reliability trade off, since the only bad effect of
      * having too many solid entry points) is a bigger snapshot file.
      * </p>
+     * <p>
+     * The status only depends on the transaction and the target milestone, so it is determined once per run and then
+     * taken from the cache. Statuses which were assumed because of an error are not cached, so later checks of the same
+     * transaction try again.
+     * </p>
      * 
      * @param tangle          Tangle object which acts as a database interface
      * @param transactionHash hash of the transaction that shall be checked
-     * @param targetMilestone milestone that is used as an anchor for our checks
+     * @param cache           state of the current solid entry point generation
      * @return true if the transaction is a solid entry point and false otherwise
      */
-    private boolean isNotOrphaned(Tangle tangle, Hash transactionHash, MilestoneViewModel targetMilestone) {
-        Set<TransactionViewModel> unconfirmedApprovers = new HashSet<>();
+    private boolean isNotOrphaned(Tangle tangle, Hash transactionHash, OrphanedStatusCache cache) {
+        Boolean cachedStatus = cache.notOrphaned.get(transactionHash);
+        if (cachedStatus != null) {
+            return cachedStatus;
+        }
 
+        boolean notOrphaned;
         try {
-            for (Hash approverHash : ApproveeViewModel.load(tangle, transactionHash).getHashes()) {
-                TransactionViewModel approver = TransactionViewModel.fromHash(tangle, approverHash);
-
-                if (approver.snapshotIndex() > targetMilestone.index()) {
-                    return true;
-                } else if (approver.snapshotIndex() == 0) {
-                    unconfirmedApprovers.add(approver);
-                }
-            }
-
-            Set<Hash> processedTransactions = new HashSet<>();
-            TransactionViewModel milestoneTransaction = TransactionViewModel.fromHash(tangle, targetMilestone.getHash());
-            for (TransactionViewModel unconfirmedApprover : unconfirmedApprovers) {
-                if (!isProbablyOrphaned(tangle, unconfirmedApprover, milestoneTransaction, processedTransactions)) {
-                    return true;
-                }
-            }
+            notOrphaned = determineNotOrphaned(tangle, transactionHash, cache);
         } catch (Exception e) {
             log.error("failed to determine the solid entry point status for transaction " + transactionHash, e);
 
             return true;
         }
+        cache.notOrphaned.put(transactionHash, notOrphaned);
+
+        return notOrphaned;
+    }
+
+    private boolean determineNotOrphaned(Tangle tangle, Hash transactionHash, OrphanedStatusCache cache)
+            throws Exception {
+
+        Set<TransactionViewModel> unconfirmedApprovers = new HashSet<>();
+        List<Hash> approverHashes = new ArrayList<>(ApproveeViewModel.load(tangle, transactionHash).getHashes());
+        for (TransactionViewModel approver : TransactionViewModel.fromHashes(tangle, approverHashes)) {
+            if (approver.snapshotIndex() > cache.targetMilestone.index()) {
+                return true;
+            } else if (approver.snapshotIndex() == 0) {
+                unconfirmedApprovers.add(approver);
+            }
+        }
+
+        Set<Hash> processedTransactions = new HashSet<>();
+        for (TransactionViewModel unconfirmedApprover : unconfirmedApprovers) {
+            if (!isProbablyOrphaned(tangle, unconfirmedApprover, cache, processedTransactions)) {
+                return true;
+            }
+        }
 
         return false;
     }
@@ -624,34 +700,54 @@ public class SnapshotServiceImpl implements SnapshotService {
      * This method analyzes the old solid entry points and determines if they are still not orphaned.
      * </p>
      * <p>
-     * It simply iterates through the old solid entry points and checks them one by one. If an old solid entry point is
-     * found to still be relevant it is added to the passed in map.
+     * The old solid entry points are checked concurrently on the given executor. The results are added to the passed
+     * in map in the order of the old solid entry points, so the outcome is the same as when checking them one by one.
      * </p>
      *
      * @see #processNewSolidEntryPoints to understand the definition for solid entry points
      * @param tangle           Tangle object which acts as a database interface
      * @param snapshotProvider data provider for the {@link Snapshot}s that are relevant for the node
-     * @param targetMilestone  milestone that is used to generate the solid entry points
+     * @param cache            state of the current solid entry point generation
+     * @param executor         executor that runs the checks
      * @param solidEntryPoints map that is used to collect the solid entry points
      */
     private void processOldSolidEntryPoints(Tangle tangle, SnapshotProvider snapshotProvider,
-            MilestoneViewModel targetMilestone, Map<Hash, Integer> solidEntryPoints) throws SnapshotException {
+            OrphanedStatusCache cache, ExecutorService executor, Map<Hash, Integer> solidEntryPoints)
+            throws SnapshotException {
 
+        MilestoneViewModel targetMilestone = cache.targetMilestone;
         ProgressLogger progressLogger = new IntervalProgressLogger(
                 "Taking local snapshot [analyzing old solid entry points]", log)
                 .start(snapshotProvider.getInitialSnapshot().getSolidEntryPoints().size());
         try {
             Snapshot initialSnapshot = snapshotProvider.getInitialSnapshot();
             Map<Hash, Integer> orgSolidEntryPoints = initialSnapshot.getSolidEntryPoints();
+            List<Map.Entry<Hash, Integer>> checkedSolidPoints = new ArrayList<>();
+            List<Future<Set<Hash>>> results = new ArrayList<>();
             for (Map.Entry<Hash, Integer> solidPoint : orgSolidEntryPoints.entrySet()) {
                 Hash hash = solidPoint.getKey();
                 int milestoneIndex = solidPoint.getValue();
                 if (!Hash.NULL_HASH.equals(hash)
-                        && targetMilestone.index() - milestoneIndex <= SOLID_ENTRY_POINT_LIFETIME
-                        && isNotOrphaned(tangle, hash, targetMilestone)) {
-                    TransactionViewModel tvm = TransactionViewModel.fromHash(tangle, hash);
-                    addTailsToSolidEntryPoints(milestoneIndex, solidEntryPoints, tvm);
-                    solidEntryPoints.put(hash, milestoneIndex);
+                        && targetMilestone.index() - milestoneIndex <= SOLID_ENTRY_POINT_LIFETIME) {
+                    checkedSolidPoints.add(solidPoint);
+                    results.add(executor.submit(() -> {
+                        Set<Hash> solidPointWithTails = new HashSet<>();
+                        if (isNotOrphaned(tangle, hash, cache)) {
+                            TransactionViewModel tvm = TransactionViewModel.fromHash(tangle, hash);
+                            addTailsToSolidEntryPoints(solidPointWithTails, tvm);
+                            solidPointWithTails.add(hash);
+                        }
+                        return solidPointWithTails;
+                    }));
+                } else {
+                    progressLogger.progress();
+                }
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                int milestoneIndex = checkedSolidPoints.get(i).getValue();
+                for (Hash solidEntryPoint : results.get(i).get()) {
+                    solidEntryPoints.put(solidEntryPoint, milestoneIndex);
                 }
 
                 progressLogger.progress();
@@ -676,18 +772,25 @@ public class SnapshotServiceImpl implements SnapshotService {
      * It iterates over all unprocessed milestones and analyzes their directly and indirectly approved transactions.
      * Every transaction is checked for being not orphaned and the appropriate SEP is added to {@param SolidEntryPoints}
      * </p>
+     * <p>
+     * The milestones are analyzed concurrently on the given executor. All new solid entry points are mapped to the
+     * index of the target milestone, so the order in which the milestones finish doesn't matter.
+     * </p>
      *
      *
      * @param tangle           Tangle object which acts as a database interface
      * @param snapshotProvider data provider for the {@link Snapshot}s that are relevant for the node
-     * @param targetMilestone  milestone that is used to generate the solid entry points
+     * @param cache            state of the current solid entry point generation
+     * @param executor         executor that analyzes the milestones
      * @param solidEntryPoints map that is used to collect the solid entry points
      * @throws SnapshotException if anything goes wrong while determining the solid entry points
-     * @see #isNotOrphaned(Tangle, Hash, MilestoneViewModel)
+     * @see #isNotOrphaned(Tangle, Hash, OrphanedStatusCache)
      */
     private void processNewSolidEntryPoints(Tangle tangle, SnapshotProvider snapshotProvider,
-            MilestoneViewModel targetMilestone, Map<Hash, Integer> solidEntryPoints) throws SnapshotException {
+            OrphanedStatusCache cache, ExecutorService executor, Map<Hash, Integer> solidEntryPoints)
+            throws SnapshotException {
 
+        MilestoneViewModel targetMilestone = cache.targetMilestone;
         ProgressLogger progressLogger = new IntervalProgressLogger(
                 "Taking local snapshot [generating solid entry points]", log);
 
@@ -695,26 +798,39 @@ public class SnapshotServiceImpl implements SnapshotService {
             progressLogger.start(Math.min(targetMilestone.index() - snapshotProvider.getInitialSnapshot().getIndex(),
                     OUTER_SHELL_SIZE));
 
+            List<MilestoneViewModel> milestones = new ArrayList<>();
             MilestoneViewModel nextMilestone = targetMilestone;
             while (nextMilestone != null && nextMilestone.index() > snapshotProvider.getInitialSnapshot().getIndex() &&
-                    progressLogger.getCurrentStep() < progressLogger.getStepCount()) {
-
-                MilestoneViewModel currentMilestone = nextMilestone;
-                DAGHelper.get(tangle).traverseApprovees(
-                        currentMilestone.getHash(),
-                        currentTransaction -> currentTransaction.snapshotIndex() >= currentMilestone.index(),
-                        currentTransaction -> {
-                            if (isNotOrphaned(tangle, currentTransaction.getHash(), targetMilestone)) {
-                                addTailsToSolidEntryPoints(targetMilestone.index(), solidEntryPoints,
-                                        currentTransaction);
+                    milestones.size() < progressLogger.getStepCount()) {
+
+                milestones.add(nextMilestone);
+                nextMilestone = MilestoneViewModel.findClosestPrevMilestone(tangle, nextMilestone.index(),
+                        snapshotProvider.getInitialSnapshot().getIndex());
+            }
+
+            List<Future<Set<Hash>>> results = new ArrayList<>();
+            for (MilestoneViewModel currentMilestone : milestones) {
+                results.add(executor.submit(() -> {
+                    Set<Hash> milestoneSolidEntryPoints = new HashSet<>();
+                    DAGHelper.get(tangle).traverseApprovees(
+                            currentMilestone.getHash(),
+                            currentTransaction -> currentTransaction.snapshotIndex() >= currentMilestone.index(),
+                            currentTransaction -> {
+                                if (isNotOrphaned(tangle, currentTransaction.getHash(), cache)) {
+                                    addTailsToSolidEntryPoints(milestoneSolidEntryPoints, currentTransaction);
+                                }
                             }
-                        }
-                );
+                    );
+                    milestoneSolidEntryPoints.add(currentMilestone.getHash());
 
-                solidEntryPoints.put(currentMilestone.getHash(), targetMilestone.index());
+                    return milestoneSolidEntryPoints;
+                }));
+            }
 
-                nextMilestone = MilestoneViewModel.findClosestPrevMilestone(tangle, currentMilestone.index(),
-                        snapshotProvider.getInitialSnapshot().getIndex());
+            for (Future<Set<Hash>> result : results) {
+                for (Hash solidEntryPoint : result.get()) {
+                    solidEntryPoints.put(solidEntryPoint, targetMilestone.index());
+                }
 
                 progressLogger.progress();
             }
@@ -727,14 +843,61 @@ public class SnapshotServiceImpl implements SnapshotService {
         }
     }
 
-    private void addTailsToSolidEntryPoints(int milestoneIndex, Map<Hash, Integer> solidEntryPoints,
-            TransactionViewModel currentTransaction) throws TraversalException {
+    private void addTailsToSolidEntryPoints(Set<Hash> solidEntryPoints, TransactionViewModel currentTransaction)
+            throws TraversalException {
         // if tail
         if (currentTransaction.getCurrentIndex() == 0) {
-            solidEntryPoints.put(currentTransaction.getHash(), milestoneIndex);
+            solidEntryPoints.add(currentTransaction.getHash());
         } else {
-            Set<? extends Hash> tails = DAGHelper.get(tangle).findTails(currentTransaction);
-            tails.forEach(tail -> solidEntryPoints.put(tail, milestoneIndex));
+            solidEntryPoints.addAll(DAGHelper.get(tangle).findTails(currentTransaction));
+        }
+    }
+
+    /**
+     * Creates the executor that analyzes the milestones and old solid entry points of a solid entry point generation.
+     *
+     * @return a new executor which has to be shut down by the caller
+     */
+    private static ExecutorService createSolidEntryPointExecutor() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "solid-entry-points-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Holds the orphaned status of the transactions which were checked during one solid entry point generation.
+     *
+     * The status of a transaction only depends on the target milestone of the generation, so the results can be
+     * shared by all threads and by the old and new solid entry points.
+     */
+    private static class OrphanedStatusCache {
+
+        private final MilestoneViewModel targetMilestone;
+
+        private final TransactionViewModel milestoneTransaction;
+
+        /**
+         * The result of {@link #isNotOrphaned(Tangle, Hash, OrphanedStatusCache)} by transaction hash.
+         */
+        private final Map<Hash, Boolean> notOrphaned = new ConcurrentHashMap<>();
+
+        /**
+         * Transactions which arrived before the milestone transaction together with all of their direct and indirect
+         * approvers.
+         */
+        private final Set<Hash> orphanedSubtangles = ConcurrentHashMap.newKeySet();
+
+        private OrphanedStatusCache(MilestoneViewModel targetMilestone, TransactionViewModel milestoneTransaction) {
+            this.targetMilestone = targetMilestone;
+            this.milestoneTransaction = milestoneTransaction;
+        }
+
+        private boolean arrivedAfterReference(TransactionViewModel transaction) {
+            return transaction.getArrivalTime() / 1000L > milestoneTransaction.getTimestamp();
         }
     }
 }
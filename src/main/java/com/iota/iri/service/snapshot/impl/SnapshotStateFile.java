@@ -0,0 +1,350 @@
+package com.iota.iri.service.snapshot.impl;
+
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.HashFactory;
+import com.iota.iri.service.snapshot.SnapshotException;
+import com.iota.iri.utils.Converter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Reads and writes the ledger state of a snapshot (the balances of all addresses).
+ * </p>
+ * <p>
+ * Two formats are supported:
+ * <ul>
+ *     <li>
+ *         the text format consisting of "address;balance" lines, which is used by the builtin snapshot file
+ *     </li>
+ *     <li>
+ *         a compact binary format starting with {@link #BINARY_MAGIC}, followed by the amount of entries and the
+ *         byte encoded address plus the balance of each entry, which is only read
+ *     </li>
+ * </ul>
+ * </p>
+ * <p>
+ * Both formats are parsed directly from a {@link ByteBuffer} (i.e. a memory mapped file), without creating
+ * intermediate strings. The text format is split into chunks at line boundaries which are parsed in parallel and
+ * then merged into a pre-sized map in file order, so that later entries for the same address still win.
+ * </p>
+ */
+public final class SnapshotStateFile {
+
+    /**
+     * Marks the start of a binary ledger state file. The leading zero byte can never appear in the text format.
+     */
+    static final byte[] BINARY_MAGIC = {0, 'L', 'S', '1'};
+
+    /**
+     * Size of a single entry within the binary format.
+     */
+    private static final int BINARY_ENTRY_SIZE = Hash.SIZE_IN_BYTES + Long.BYTES;
+
+    /**
+     * Chunks are never smaller than this, so that small files are parsed by a single thread.
+     */
+    private static final int MIN_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * An address (81 trytes) plus separator, a balance of a few digits and the newline; used to pre-size arrays and
+     * maps.
+     */
+    private static final int ESTIMATED_LINE_LENGTH = 96;
+
+    private static final int ADDRESS_TRYTES = Hash.SIZE_IN_TRITS / Converter.NUMBER_OF_TRITS_IN_A_TRYTE;
+
+    /**
+     * Maps an ASCII character to its trits, null for characters which aren't part of the tryte alphabet.
+     */
+    private static final byte[][] TRYTE_TO_TRITS = new byte[128][];
+
+    static {
+        for (char tryte : Converter.TRYTE_ALPHABET.toCharArray()) {
+            TRYTE_TO_TRITS[tryte] = Converter.allocatingTritsFromTrytes(String.valueOf(tryte));
+        }
+    }
+
+    private SnapshotStateFile() {
+    }
+
+    /**
+     * Parses the ledger state from the given buffer using as many threads as processors are available.
+     *
+     * @param data the content of a ledger state file in either format, from its position to its limit
+     * @return the balances of the ledger state
+     * @throws SnapshotException if the content is malformed
+     */
+    public static Map<Hash, Long> read(ByteBuffer data) throws SnapshotException {
+        return read(data, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parses the ledger state from the given buffer.
+     *
+     * @param data    the content of a ledger state file in either format, from its position to its limit
+     * @param threads the maximum amount of threads used to parse the text format
+     * @return the balances of the ledger state
+     * @throws SnapshotException if the content is malformed
+     */
+    public static Map<Hash, Long> read(ByteBuffer data, int threads) throws SnapshotException {
+        if (isBinary(data)) {
+            return readBinary(data);
+        }
+        return readText(data, threads);
+    }
+
+    /**
+     * Checks whether the given buffer starts with {@link #BINARY_MAGIC}.
+     *
+     * @param data the content of a ledger state file
+     * @return true if the content is in the binary format
+     */
+    public static boolean isBinary(ByteBuffer data) {
+        if (data.remaining() < BINARY_MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < BINARY_MAGIC.length; i++) {
+            if (data.get(data.position() + i) != BINARY_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the non zero balances in the text format, sorted by address.
+     *
+     * @param balances the balances to write
+     * @param path     the file to write to
+     * @throws IOException if writing the file fails
+     */
+    public static void writeText(Map<Hash, Long> balances, Path path) throws IOException {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(balances.size());
+        for (Map.Entry<Hash, Long> entry : balances.entrySet()) {
+            if (entry.getValue() != 0) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey().toString(), entry.getValue()));
+            }
+        }
+        entries.sort(Map.Entry.comparingByKey());
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            byte[] newline = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+            for (Map.Entry<String, Long> entry : entries) {
+                out.write(entry.getKey().getBytes(StandardCharsets.US_ASCII));
+                out.write(';');
+                out.write(Long.toString(entry.getValue()).getBytes(StandardCharsets.US_ASCII));
+                out.write(newline);
+            }
+        }
+    }
+
+    private static Map<Hash, Long> readBinary(ByteBuffer data) throws SnapshotException {
+        // the entry count and the balances are big endian
+        ByteBuffer source = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+        source.position(source.position() + BINARY_MAGIC.length);
+        if (source.remaining() < Integer.BYTES) {
+            throw new SnapshotException("malformed binary snapshot state file");
+        }
+        int entries = source.getInt();
+        if (entries < 0 || (long) entries * BINARY_ENTRY_SIZE != source.remaining()) {
+            throw new SnapshotException("malformed binary snapshot state file");
+        }
+
+        Map<Hash, Long> state = new HashMap<>(capacityFor(entries));
+        for (int i = 0; i < entries; i++) {
+            byte[] address = new byte[Hash.SIZE_IN_BYTES];
+            source.get(address);
+            state.put(HashFactory.ADDRESS.create(address, 0, Hash.SIZE_IN_BYTES), source.getLong());
+        }
+        return state;
+    }
+
+    private static Map<Hash, Long> readText(ByteBuffer data, int threads) throws SnapshotException {
+        int[] boundaries = chunkBoundaries(data, threads);
+        int chunks = boundaries.length - 1;
+
+        List<ParsedChunk> parsedChunks = new ArrayList<>(chunks);
+        if (chunks == 1) {
+            parsedChunks.add(parseChunk(data, boundaries[0], boundaries[1]));
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(chunks,
+                    r -> new Thread(r, "Snapshot State Parser"));
+            try {
+                List<Future<ParsedChunk>> futures = new ArrayList<>(chunks);
+                for (int i = 0; i < chunks; i++) {
+                    int start = boundaries[i];
+                    int end = boundaries[i + 1];
+                    futures.add(executor.submit(() -> parseChunk(data, start, end)));
+                }
+                for (Future<ParsedChunk> future : futures) {
+                    parsedChunks.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SnapshotException("interrupted while parsing the snapshot state file", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SnapshotException) {
+                    throw (SnapshotException) e.getCause();
+                }
+                throw new SnapshotException("failed to parse the snapshot state file", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        int entries = 0;
+        for (ParsedChunk chunk : parsedChunks) {
+            entries += chunk.size;
+        }
+        Map<Hash, Long> state = new HashMap<>(capacityFor(entries));
+        for (ParsedChunk chunk : parsedChunks) {
+            for (int i = 0; i < chunk.size; i++) {
+                state.put(chunk.addresses[i], chunk.balances[i]);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Splits the buffer into at most {@code threads} chunks, each of them ending right after a newline (or at the end
+     * of the buffer).
+     */
+    private static int[] chunkBoundaries(ByteBuffer data, int threads) {
+        int start = data.position();
+        int end = data.limit();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (end - start) / Math.max(1, threads) + 1);
+
+        List<Integer> boundaries = new ArrayList<>();
+        boundaries.add(start);
+        int position = start;
+        while (end - position > chunkSize) {
+            position += chunkSize;
+            while (position < end && data.get(position - 1) != '\n') {
+                position++;
+            }
+            if (position < end) {
+                boundaries.add(position);
+            }
+        }
+        boundaries.add(end);
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static ParsedChunk parseChunk(ByteBuffer data, int start, int end) throws SnapshotException {
+        ParsedChunk chunk = new ParsedChunk((end - start) / ESTIMATED_LINE_LENGTH + 1);
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && data.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && data.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            chunk.add(parseAddress(data, lineStart, contentEnd), parseBalance(data, lineStart, contentEnd));
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    private static Hash parseAddress(ByteBuffer data, int lineStart, int lineEnd) throws SnapshotException {
+        byte[] trits = new byte[Hash.SIZE_IN_TRITS];
+        int position = lineStart;
+        while (position < lineEnd && data.get(position) != ';') {
+            int tryteIndex = position - lineStart;
+            byte character = data.get(position);
+            if (tryteIndex >= ADDRESS_TRYTES || character < 0 || TRYTE_TO_TRITS[character] == null) {
+                throw new SnapshotException("malformed snapshot state file");
+            }
+            System.arraycopy(TRYTE_TO_TRITS[character], 0, trits, tryteIndex * Converter.NUMBER_OF_TRITS_IN_A_TRYTE,
+                    Converter.NUMBER_OF_TRITS_IN_A_TRYTE);
+            position++;
+        }
+        if (position == lineEnd) {
+            throw new SnapshotException("malformed snapshot state file");
+        }
+        return HashFactory.ADDRESS.create(trits, 0);
+    }
+
+    /**
+     * Parses the balance following the separator the same way {@link Long#parseLong(String)} would.
+     */
+    private static long parseBalance(ByteBuffer data, int lineStart, int lineEnd) throws SnapshotException {
+        int position = lineStart;
+        while (data.get(position) != ';') {
+            position++;
+        }
+        position++;
+
+        boolean negative = false;
+        if (position < lineEnd && (data.get(position) == '-' || data.get(position) == '+')) {
+            negative = data.get(position) == '-';
+            position++;
+        }
+        if (position == lineEnd) {
+            throw new SnapshotException("malformed snapshot state file");
+        }
+
+        // accumulate negatively to be able to represent Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; position < lineEnd; position++) {
+            int digit = data.get(position) - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10 || result * 10 < limit + digit) {
+                throw new SnapshotException("malformed snapshot state file");
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static int capacityFor(int entries) {
+        return (int) Math.min(Integer.MAX_VALUE, entries * 4L / 3 + 1);
+    }
+
+    /**
+     * The entries of a single chunk in file order.
+     */
+    private static final class ParsedChunk {
+
+        private Hash[] addresses;
+
+        private long[] balances;
+
+        private int size;
+
+        ParsedChunk(int expectedEntries) {
+            addresses = new Hash[expectedEntries];
+            balances = new long[expectedEntries];
+        }
+
+        void add(Hash address, long balance) {
+            if (size == addresses.length) {
+                addresses = Arrays.copyOf(addresses, size * 2);
+                balances = Arrays.copyOf(balances, size * 2);
+            }
+            addresses[size] = address;
+            balances[size] = balance;
+            size++;
+        }
+    }
+}
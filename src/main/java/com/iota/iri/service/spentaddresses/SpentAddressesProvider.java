@@ -52,4 +52,10 @@ public interface SpentAddressesProvider {
      */
     void init(boolean assertSpentAddressesExistence) throws SpentAddressesException;
 
+    /**
+     * Persists the state which allows a fast restart (i.e. the image of the spent addresses filter). Has to be called
+     * before the underlying database is shut down.
+     */
+    void shutdown();
+
 }
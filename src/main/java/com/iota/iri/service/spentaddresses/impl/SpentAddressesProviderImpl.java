@@ -3,9 +3,17 @@ package com.iota.iri.service.spentaddresses.impl;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import com.iota.iri.conf.IotaConfig;
@@ -13,14 +21,18 @@ import com.iota.iri.conf.SnapshotConfig;
 import com.iota.iri.model.AddressHash;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
+import com.iota.iri.model.IntegerIndex;
 import com.iota.iri.model.persistables.SpentAddress;
+import com.iota.iri.model.persistables.SpentAddressesState;
 import com.iota.iri.service.spentaddresses.SpentAddressesException;
 import com.iota.iri.service.spentaddresses.SpentAddressesProvider;
 import com.iota.iri.storage.Tangle;
 import com.iota.iri.storage.Indexable;
 import com.iota.iri.storage.Persistable;
 import com.iota.iri.storage.LocalSnapshotsPersistenceProvider;
+import com.iota.iri.storage.PersistenceCursor;
 import com.iota.iri.utils.Pair;
+import com.iota.iri.utils.datastructure.impl.CuckooFilterImpl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,14 +43,54 @@ import org.slf4j.LoggerFactory;
  * Addresses are saved/found on the {@link Tangle}.
  * The folder location is provided by {@link IotaConfig#getLocalSnapshotsDbPath()}
  *
+ * All spent addresses are additionally kept in an in-memory cuckoo filter, so that lookups of addresses which were
+ * never spent from don't have to access the database. The image of the filter is stored on shutdown and restored on
+ * the next start. It is deleted before any new spent address is written, so a stale image is never restored.
+ *
  */
 public class SpentAddressesProviderImpl implements SpentAddressesProvider {
 
     private static final Logger log = LoggerFactory.getLogger(SpentAddressesProvider.class);
 
+    /**
+     * The key of the persisted image of the spent addresses filter.
+     */
+    private static final IntegerIndex FILTER_IMAGE_KEY = new IntegerIndex(0);
+
+    /**
+     * The key of the marker which lists the previous epochs spent addresses files that were completely imported.
+     */
+    private static final IntegerIndex PREVIOUS_EPOCHS_IMPORT_KEY = new IntegerIndex(1);
+
+    /**
+     * The amount of addresses written in a single batch while importing the previous epochs spent addresses.
+     */
+    private static final int IMPORT_BATCH_SIZE = 10_000;
+
+    /**
+     * The minimum amount of addresses the spent addresses filter is created for.
+     */
+    private static final int MIN_FILTER_CAPACITY = 1 << 20;
+
+    /**
+     * The maximum amount of addresses the spent addresses filter is created for.
+     */
+    private static final long MAX_FILTER_CAPACITY = Integer.MAX_VALUE / 4;
+
+    /**
+     * The load of the spent addresses filter at which it gets rebuilt with twice the capacity.
+     */
+    private static final double MAX_FILTER_LOAD = 0.9;
+
     private final SnapshotConfig config;
     private LocalSnapshotsPersistenceProvider localSnapshotsPersistenceProvider;
 
+    private final ReadWriteLock filterLock = new ReentrantReadWriteLock();
+    private CuckooFilterImpl spentAddressesFilter;
+
+    private final Object filterImageLock = new Object();
+    private volatile boolean filterImageStored;
+
     /**
      * Implements the spent addresses provider interface.
      * @param configuration The snapshot configuration used for file location
@@ -61,6 +113,7 @@ public class SpentAddressesProviderImpl implements SpentAddressesProvider {
                 System.exit(1);
             }
             readPreviousEpochsSpentAddresses();
+            initSpentAddressesFilter();
         } catch (Exception e) {
             throw new SpentAddressesException("There is a problem with accessing stored spent addresses", e);
         }
@@ -71,30 +124,178 @@ public class SpentAddressesProviderImpl implements SpentAddressesProvider {
         return first.hi != null && ((SpentAddress) first.hi).exists();
     }
 
-    private void readPreviousEpochsSpentAddresses() throws SpentAddressesException {
+    /**
+     * Restores the spent addresses filter from its persisted image or, if there is none, builds it from all stored
+     * spent addresses.
+     */
+    private void initSpentAddressesFilter() throws Exception {
+        SpentAddressesState image = (SpentAddressesState) localSnapshotsPersistenceProvider.get(
+                SpentAddressesState.class, FILTER_IMAGE_KEY);
+        if (image != null && image.exists()) {
+            try {
+                spentAddressesFilter = new CuckooFilterImpl(image.getData());
+                filterImageStored = true;
+                log.info("Restored spent addresses filter containing {} addresses", spentAddressesFilter.size());
+                return;
+            } catch (IllegalArgumentException e) {
+                log.warn("Discarding malformed spent addresses filter image", e);
+            }
+        }
+        rebuildSpentAddressesFilter(MIN_FILTER_CAPACITY, Collections.emptyList());
+        if (spentAddressesFilter != null) {
+                log.info("Built spent addresses filter containing {} addresses", spentAddressesFilter.size());
+        }
+    }
+
+    /**
+     * Creates a new spent addresses filter from all stored spent addresses and the given addresses, which are about to
+     * be stored. The stored addresses are read one by one, so they are never held in memory at once. Must be called
+     * while holding the write lock of the filter (or during initialization).
+     *
+     * If even a filter of {@link #MAX_FILTER_CAPACITY} can't hold all addresses, the filter is dropped and all lookups
+     * go to the database.
+     *
+     * @param minCapacity the minimum capacity of the new filter
+     * @param addresses   the addresses which are not stored yet
+     */
+    private void rebuildSpentAddressesFilter(int minCapacity, Collection<Hash> addresses) throws Exception {
+        // the stored count is only an estimate, so the capacity is doubled until all addresses fit
+        long capacity = Math.min(MAX_FILTER_CAPACITY, Math.max(minCapacity,
+                (localSnapshotsPersistenceProvider.count(SpentAddress.class) + addresses.size()) * 2));
+        for (; capacity <= MAX_FILTER_CAPACITY; capacity *= 2) {
+            // 16 bit fingerprints keep the false positive rate (which costs a database lookup) well below 0.1%
+            CuckooFilterImpl filter = new CuckooFilterImpl((int) capacity, 4, 16);
+            if (fillFilter(filter, addresses)) {
+                spentAddressesFilter = filter;
+                return;
+            }
+        }
+        log.warn("Too many spent addresses for the spent addresses filter, all lookups go to the database");
+        spentAddressesFilter = null;
+    }
+
+    private boolean fillFilter(CuckooFilterImpl filter, Collection<Hash> addresses) throws Exception {
+        try (PersistenceCursor cursor = localSnapshotsPersistenceProvider.cursor(SpentAddress.class,
+                AddressHash.class, null, false)) {
+            while (cursor.hasNext()) {
+                if (!addToFilter(filter, cursor.next().low.bytes())) {
+                    return false;
+                }
+            }
+        }
+        for (Hash address : addresses) {
+            if (!addToFilter(filter, address.bytes())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean addToFilter(CuckooFilterImpl filter, byte[] address) {
+        try {
+            return filter.add(address);
+        } catch (IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Imports the bundled spent addresses of the previous epochs unless the stored import marker shows that the
+     * configured files were already imported.
+     *
+     * The files are parsed in parallel and written in large batches. The filter is not maintained during the import
+     * (it is built afterwards), so a possibly existing filter image is deleted upfront.
+     */
+    private void readPreviousEpochsSpentAddresses() throws Exception {
         if (config.isTestnet()) {
             return;
         }
 
-        for (String previousEpochsSpentAddressesFile : config.getPreviousEpochSpentAddressesFiles().split(" ")) {
-                readSpentAddressesFromStream(
-                        SpentAddressesProviderImpl.class.getResourceAsStream(previousEpochsSpentAddressesFile));
+        String previousEpochsSpentAddressesFiles = config.getPreviousEpochSpentAddressesFiles();
+        byte[] expectedMarker = previousEpochsSpentAddressesFiles.getBytes(StandardCharsets.UTF_8);
+        SpentAddressesState marker = (SpentAddressesState) localSnapshotsPersistenceProvider.get(
+                SpentAddressesState.class, PREVIOUS_EPOCHS_IMPORT_KEY);
+        if (marker != null && marker.exists() && Arrays.equals(marker.getData(), expectedMarker)) {
+            log.info("Previous epochs spent addresses were already imported");
+            return;
         }
+
+        localSnapshotsPersistenceProvider.delete(SpentAddressesState.class, FILTER_IMAGE_KEY);
+
+        String[] files = previousEpochsSpentAddressesFiles.split(" ");
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(files.length, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Integer>> imports = new ArrayList<>(files.length);
+            for (String file : files) {
+                imports.add(executor.submit(() -> readSpentAddressesFromStream(
+                        SpentAddressesProviderImpl.class.getResourceAsStream(file))));
+            }
+
+            long importedAddresses = 0;
+            for (Future<Integer> fileImport : imports) {
+                importedAddresses += fileImport.get();
+            }
+            log.info("Imported {} previous epochs spent addresses", importedAddresses);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        localSnapshotsPersistenceProvider.save(new SpentAddressesState(expectedMarker), PREVIOUS_EPOCHS_IMPORT_KEY);
     }
 
-    private void readSpentAddressesFromStream(InputStream in) throws SpentAddressesException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+    /**
+     * Reads the spent addresses from the given stream and writes them in batches of {@link #IMPORT_BATCH_SIZE}.
+     *
+     * @param in the stream containing one address per line
+     * @return the amount of read addresses
+     * @throws SpentAddressesException if the stream can't be read or the addresses can't be stored
+     */
+    private int readSpentAddressesFromStream(InputStream in) throws SpentAddressesException {
+        if (in == null) {
+            throw new SpentAddressesException("Failed to find previous epochs spent addresses file");
+        }
+
+        // Its bytes are always new byte[0], therefore identical in storage
+        SpentAddress spentAddressModel = new SpentAddress();
+        List<Pair<Indexable, Persistable>> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int readAddresses = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                saveAddress(HashFactory.ADDRESS.create(line));
+                batch.add(new Pair<>(HashFactory.ADDRESS.create(line), spentAddressModel));
+                readAddresses++;
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    localSnapshotsPersistenceProvider.saveBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                localSnapshotsPersistenceProvider.saveBatch(batch);
             }
         } catch (Exception e) {
             throw new SpentAddressesException("Failed to read or save spent address", e);
         }
+        return readAddresses;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Addresses which are not contained in the spent addresses filter are reported as not spent without accessing the
+     * database. Possible matches of the filter are verified against the database.
+     */
     @Override
     public boolean containsAddress(Hash addressHash) throws SpentAddressesException {
+        filterLock.readLock().lock();
+        try {
+            if (spentAddressesFilter != null && !spentAddressesFilter.contains(addressHash.bytes())) {
+                return false;
+            }
+        } finally {
+            filterLock.readLock().unlock();
+        }
+
         try {
             return localSnapshotsPersistenceProvider.exists(SpentAddress.class, addressHash);
         } catch (Exception e) {
@@ -105,6 +306,9 @@ public class SpentAddressesProviderImpl implements SpentAddressesProvider {
     @Override
     public void saveAddress(Hash addressHash) throws SpentAddressesException {
         try {
+            invalidateFilterImage();
+            // added before the address is stored, so a concurrent lookup never misses a stored address
+            addToFilter(Collections.singletonList(addressHash));
             localSnapshotsPersistenceProvider.save(new SpentAddress(), addressHash);
         } catch (Exception e) {
             throw new SpentAddressesException(e);
@@ -114,6 +318,9 @@ public class SpentAddressesProviderImpl implements SpentAddressesProvider {
     @Override
     public void saveAddressesBatch(Collection<Hash> addressHash) throws SpentAddressesException {
         try {
+            invalidateFilterImage();
+            // added before the addresses are stored, so a concurrent lookup never misses a stored address
+            addToFilter(addressHash);
             // Its bytes are always new byte[0], therefore identical in storage
             SpentAddress spentAddressModel = new SpentAddress();
             localSnapshotsPersistenceProvider.saveBatch(addressHash
@@ -126,6 +333,66 @@ public class SpentAddressesProviderImpl implements SpentAddressesProvider {
         }
     }
 
+    /**
+     * Adds addresses which are about to be stored to the spent addresses filter. If the filter is getting too full, it
+     * is rebuilt with twice the capacity from the database and the given addresses.
+     *
+     * @param addresses the addresses to add
+     */
+    private void addToFilter(Collection<Hash> addresses) throws Exception {
+        filterLock.writeLock().lock();
+        try {
+            if (spentAddressesFilter == null) {
+                return;
+            }
+            for (Hash address : addresses) {
+                if (spentAddressesFilter.size() >= spentAddressesFilter.getCapacity() * MAX_FILTER_LOAD
+                        || !addToFilter(spentAddressesFilter, address.bytes())) {
+                    // the given addresses are not stored yet, so the rebuilt filter gets all of them
+                    rebuildSpentAddressesFilter(spentAddressesFilter.getCapacity() * 2, addresses);
+                    return;
+                }
+            }
+        } finally {
+            filterLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the persisted filter image before the first new spent address is written, so that an image which
+     * doesn't cover all stored addresses is never restored (i.e. after a crash).
+     */
+    private void invalidateFilterImage() throws Exception {
+        if (filterImageStored) {
+            synchronized (filterImageLock) {
+                if (filterImageStored) {
+                    localSnapshotsPersistenceProvider.delete(SpentAddressesState.class, FILTER_IMAGE_KEY);
+                    filterImageStored = false;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        filterLock.writeLock().lock();
+        try {
+            if (spentAddressesFilter == null || filterImageStored) {
+                return;
+            }
+            synchronized (filterImageLock) {
+                localSnapshotsPersistenceProvider.save(new SpentAddressesState(spentAddressesFilter.toBytes()),
+                        FILTER_IMAGE_KEY);
+                filterImageStored = true;
+            }
+            log.info("Stored spent addresses filter containing {} addresses", spentAddressesFilter.size());
+        } catch (Exception e) {
+            log.warn("Failed to store the spent addresses filter, it will be rebuilt on the next start", e);
+        } finally {
+            filterLock.writeLock().unlock();
+        }
+    }
+
     @Override
     public List<Hash> getAllAddresses() {
         List<Hash> addresses = new ArrayList<>();
@@ -1,5 +1,6 @@
 package com.iota.iri.service.tipselection.impl;
 
+import com.iota.iri.controllers.BundleTailViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.service.tipselection.TailFinder;
@@ -24,14 +25,51 @@ public class TailFinderImpl implements TailFinder {
         this.tangle = tangle;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The tail of transactions of validated bundles is looked up in the {@link BundleTailViewModel} index, so the
+     * transaction itself only has to be loaded if its bundle was not validated yet.
+     */
     @Override
     public Optional<Hash> findTail(Hash hash) throws Exception {
+        BundleTailViewModel bundleTail = BundleTailViewModel.load(tangle, hash);
+        if (bundleTail.exists()) {
+            return Optional.of(bundleTail.getTail());
+        }
+
         TransactionViewModel tx = TransactionViewModel.fromHash(tangle, hash);
-        return findTailFromTx(tx);
+        return walkToTail(tx);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The tail of transactions of validated bundles is looked up in the {@link BundleTailViewModel} index before
+     * walking through the bundle.
+     */
     @Override
     public Optional<Hash> findTailFromTx(TransactionViewModel tx) throws Exception {
+        if (tx.getCurrentIndex() == 0) {
+            return Optional.of(tx.getHash());
+        }
+
+        BundleTailViewModel bundleTail = BundleTailViewModel.load(tangle, tx.getHash());
+        if (bundleTail.exists()) {
+            return Optional.of(bundleTail.getTail());
+        }
+
+        return walkToTail(tx);
+    }
+
+    /**
+     * Walks through the approvers of the given transaction until the tail of its bundle is found.
+     *
+     * @param tx any transaction in the bundle
+     * @return Hash of the tail transaction, or {@code Empty} if the tail is not found
+     * @throws Exception If DB fails to retrieve transactions
+     */
+    private Optional<Hash> walkToTail(TransactionViewModel tx) throws Exception {
         final Hash bundleHash = tx.getBundleHash();
         long index = tx.getCurrentIndex();
         while (index-- > 0 && bundleHash.equals(tx.getBundleHash())) {
@@ -4,6 +4,8 @@ import com.iota.iri.controllers.MilestoneViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.IntegerIndex;
+import com.iota.iri.model.StateDiff;
+import com.iota.iri.model.persistables.BundleTail;
 import com.iota.iri.model.persistables.Milestone;
 import com.iota.iri.model.persistables.Transaction;
 import com.iota.iri.service.transactionpruning.TransactionPrunerJobStatus;
@@ -12,11 +14,13 @@ import com.iota.iri.storage.Indexable;
 import com.iota.iri.storage.Persistable;
 import com.iota.iri.utils.ASCIIProgressBar;
 import com.iota.iri.utils.Pair;
+import com.iota.iri.utils.collections.impl.CompactHashSet;
 import com.iota.iri.utils.dag.DAGHelper;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,8 +31,8 @@ import org.slf4j.LoggerFactory;
  * off of the deleted transactions).
  *
  * It is used by the {@link com.iota.iri.service.snapshot.LocalSnapshotManager} to clean up milestones prior to a
- * snapshot. Even though it defines a range of milestones that shall be deleted, it gets processed one milestone at a
- * time, persisting the progress after each step.
+ * snapshot. The range of milestones that shall be deleted gets processed in passes of up to
+ * {@link #MILESTONES_PER_PASS} milestones, persisting the progress after each pass.
  */
 public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
 
@@ -44,6 +48,11 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
      */
     private static final int LOG_DELAY = 60000;
 
+    /**
+     * The maximum amount of milestones that get pruned together in a single pass.
+     */
+    private static final int MILESTONES_PER_PASS = 50;
+
     /**
      * Holds the milestone index where this job starts cleaning up.
      */
@@ -134,9 +143,9 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
     /**
      * {@inheritDoc}
      *
-     * It iterates from the {@link #currentIndex} to the provided {@link #targetIndex} and processes every milestone
-     * one by one. After each step is finished we persist the progress to be able to continue with the current progress
-     * upon IRI restarts.
+     * It iterates from the {@link #currentIndex} to the provided {@link #targetIndex} and processes the milestones in
+     * passes of up to {@link #MILESTONES_PER_PASS} milestones. After each pass is finished we persist the progress to be
+     * able to continue with the current progress upon IRI restarts.
      */
     @Override
     public void process() throws TransactionPruningException {
@@ -145,9 +154,15 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
 
             try {
                 while (!Thread.currentThread().isInterrupted() && getStatus() != TransactionPrunerJobStatus.DONE) {
-                    cleanupMilestoneTransactions();
+                    int passTargetIndex;
+                    // synchronize this call because the MilestonePrunerJobQueue might extend our target index
+                    synchronized (this) {
+                        passTargetIndex = Math.min(getTargetIndex(), getCurrentIndex() + MILESTONES_PER_PASS - 1);
+                    }
 
-                    setCurrentIndex(getCurrentIndex() + 1);
+                    cleanupMilestoneTransactions(getCurrentIndex(), passTargetIndex);
+
+                    setCurrentIndex(passTargetIndex + 1);
                     logProgress();
 
                     // synchronize this call because the MilestonePrunerJobQueue needs it to check if we can be extended
@@ -248,78 +263,105 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
     }
 
     /**
-     * This method takes care of cleaning up a single milestone and all of its transactions and performs the actual
+     * This method takes care of cleaning up a range of milestones and all of their transactions and performs the actual
      * database operations.
      *
-     * It performs the deletions in an atomic way, which means that either the full processing succeeds or fails.
-     *
      * We first retrieve the elements that shall be deleted and then analyze them before removing them from the
      * database. While processing them, we issue additional {@link UnconfirmedSubtanglePrunerJob}s that remove the
      * orphaned parts of the tangle that branch off the deleted transactions because they would otherwise loose their
      * connection to the rest of the tangle unless they are branching off a solid entry point (in which case we wait
      * with the deletion until the solid entry point expires).
      *
-     * @throws TransactionPruningException if something goes wrong while cleaning up the milestone
+     * The transactions, their bundle tail references and the state diffs of the whole range are deleted in a single
+     * batch that is not synced on its own. The milestones have contiguous keys, so they are removed with a single range
+     * deletion afterwards, which syncs the preceding batch to disk as well. Finally we compact the deleted milestone
+     * range to reclaim its space right away.
+     *
+     * @param fromIndex index of the first milestone that shall be cleaned up
+     * @param toIndex index of the last milestone that shall be cleaned up
+     * @throws TransactionPruningException if something goes wrong while cleaning up the milestones
      */
-    private void cleanupMilestoneTransactions() throws TransactionPruningException {
+    private void cleanupMilestoneTransactions(int fromIndex, int toIndex) throws TransactionPruningException {
         try {
-            List<Pair<Indexable, ? extends Class<? extends Persistable>>> elementsToDelete = getElementsToDelete();
+            List<Pair<Indexable, ? extends Class<? extends Persistable>>> elementsToDelete =
+                    getElementsToDelete(fromIndex, toIndex);
 
-            elementsToDelete.forEach(element -> {
-                if(Transaction.class.equals(element.hi)) {
+            for (Pair<Indexable, ? extends Class<? extends Persistable>> element : elementsToDelete) {
+                if (Transaction.class.equals(element.hi)) {
                     getTipsViewModel().removeTipHash((Hash) element.low);
 
                     if (!getSnapshot().hasSolidEntryPoint((Hash) element.low)) {
-                        try {
-                            getTransactionPruner().addJob(new UnconfirmedSubtanglePrunerJob((Hash) element.low));
-                        } catch (TransactionPruningException e) {
-                            throw new RuntimeException(e);
-                        }
+                        getTransactionPruner().addJob(new UnconfirmedSubtanglePrunerJob((Hash) element.low));
                     }
                     TransactionViewModel.cacheDelete(getTangle(), (Hash) element.low);
-                } else if(Milestone.class.equals(element.hi)) {
-                    MilestoneViewModel.cacheDelete(getTangle(), ((IntegerIndex) element.low));
                 }
-            });
+            }
+            for (int index = fromIndex; index <= toIndex; index++) {
+                MilestoneViewModel.cacheDelete(getTangle(), new IntegerIndex(index));
+            }
 
-            getTangle().deleteBatch(elementsToDelete);
+            getTangle().deleteBatch(elementsToDelete, false);
+            getTangle().deleteRange(Milestone.class, new IntegerIndex(fromIndex), new IntegerIndex(toIndex + 1));
+            getTangle().compactRange(Milestone.class, new IntegerIndex(fromIndex), new IntegerIndex(toIndex));
         } catch(Exception e) {
-            throw new TransactionPruningException("failed to cleanup milestone #" + getCurrentIndex(), e);
+            throw new TransactionPruningException("failed to cleanup milestones #" + fromIndex + " to #" + toIndex,
+                    e);
         }
     }
 
     /**
-     * Collects all database items that belong to the current milestone and that shall be deleted.
+     * Collects all database items that belong to the given range of milestones and that shall be deleted, except for
+     * the {@link Milestone} entries which are deleted as a range.
      *
-     * It does that by iterating through all the transactions that belong to the current milestone (that are directly or
-     * indirectly referenced by the chosen milestone) and collecting them in a List of items to delete.
+     * It does that by iterating through all the transactions that belong to the milestones (that are directly or
+     * indirectly referenced by the chosen milestones and were confirmed within the range) and collecting them in a
+     * List of items to delete. Spends whose address was not recorded yet get their spent address persisted once for
+     * the whole range.
      *
+     * @param fromIndex index of the first milestone that shall be cleaned up
+     * @param toIndex index of the last milestone that shall be cleaned up
      * @return list of elements that shall be deleted from the database
      * @throws TransactionPruningException if anything goes wrong while collecting the elements
      */
-    private List<Pair<Indexable, ? extends Class<? extends Persistable>>> getElementsToDelete() throws
-            TransactionPruningException {
+    private List<Pair<Indexable, ? extends Class<? extends Persistable>>> getElementsToDelete(int fromIndex,
+            int toIndex) throws TransactionPruningException {
 
         try {
             List<Pair<Indexable, ? extends Class<? extends Persistable>>> elementsToDelete = new ArrayList<>();
+            List<TransactionViewModel> unrecordedSpends = new ArrayList<>();
+            Set<Hash> checkedAddresses = new HashSet<>();
+
+            List<Hash> milestoneHashes = new ArrayList<>();
+            for (int index = fromIndex; index <= toIndex; index++) {
+                MilestoneViewModel milestoneViewModel = MilestoneViewModel.get(getTangle(), index);
+                if (milestoneViewModel != null) {
+                    milestoneHashes.add(milestoneViewModel.getHash());
+                    elementsToDelete.add(new Pair<>(milestoneViewModel.getHash(), StateDiff.class));
+                }
+            }
+
+            // the cones of the milestones of the range are traversed together (starting with the milestones
+            // themselves), since every transaction that they confirmed has a snapshot index within the range
+            DAGHelper.get(getTangle()).visitApprovees(milestoneHashes, approvedTransaction -> {
+                if (approvedTransaction.snapshotIndex() < fromIndex) {
+                    return false;
+                }
+
+                if (approvedTransaction.value() < 0 &&
+                        checkedAddresses.add(approvedTransaction.getAddressHash()) &&
+                        !spentAddressesProvider.containsAddress(approvedTransaction.getAddressHash())) {
+                    log.warn("Pruned spend transaction " + approvedTransaction.getHash() +
+                            " did not have its spent address recorded. Persisting it now");
+                    unrecordedSpends.add(approvedTransaction);
+                }
+                elementsToDelete.add(new Pair<>(approvedTransaction.getHash(), Transaction.class));
+                elementsToDelete.add(new Pair<>(approvedTransaction.getHash(), BundleTail.class));
+
+                return true;
+            }, new CompactHashSet());
 
-            MilestoneViewModel milestoneViewModel = MilestoneViewModel.get(getTangle(), getCurrentIndex());
-            if (milestoneViewModel != null) {
-                elementsToDelete.add(new Pair<>(milestoneViewModel.getHash(), Transaction.class));
-                elementsToDelete.add(new Pair<>(new IntegerIndex(milestoneViewModel.index()), Milestone.class));
-
-                DAGHelper.get(getTangle()).traverseApprovees(milestoneViewModel.getHash(),
-                        approvedTransaction -> approvedTransaction.snapshotIndex() >= milestoneViewModel.index(),
-                        approvedTransaction -> {
-                            if (approvedTransaction.value() < 0 &&
-                                    !spentAddressesProvider.containsAddress(approvedTransaction.getAddressHash())) {
-                                log.warn("Pruned spend transaction " + approvedTransaction.getHash() +
-                                                " did not have its spent address recorded. Persisting it now");
-                                spentAddressesService
-                                        .persistSpentAddresses(Collections.singletonList(approvedTransaction));
-                            }
-                                elementsToDelete.add(new Pair<>(approvedTransaction.getHash(), Transaction.class));
-                        });
+            if (!unrecordedSpends.isEmpty()) {
+                spentAddressesService.persistSpentAddresses(unrecordedSpends);
             }
 
             return elementsToDelete;
@@ -3,6 +3,7 @@ package com.iota.iri.service.transactionpruning.jobs;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
+import com.iota.iri.model.persistables.BundleTail;
 import com.iota.iri.model.persistables.Transaction;
 import com.iota.iri.service.transactionpruning.TransactionPrunerJobStatus;
 import com.iota.iri.service.transactionpruning.TransactionPruningException;
@@ -15,6 +16,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Represents a job for the {@link com.iota.iri.service.transactionpruning.TransactionPruner} that cleans up all
@@ -74,7 +76,9 @@ public class UnconfirmedSubtanglePrunerJob extends AbstractTransactionPrunerJob
                 //Only persist to db
                 spentAddressesService.persistSpentAddresses(unconfirmedTxs);
                 List<Pair<Indexable, ? extends Class<? extends Persistable>>> elementsToDelete = unconfirmedTxs.stream()
-                        .map(tx -> new Pair<>((Indexable) tx.getHash(), Transaction.class))
+                        .flatMap(tx -> Stream.of(
+                                new Pair<>((Indexable) tx.getHash(), Transaction.class),
+                                new Pair<>((Indexable) tx.getHash(), BundleTail.class)))
                         .collect(Collectors.toList());
                 List<Indexable> txsToDeleteFromCache = elementsToDelete.stream()
                         .filter(element -> Transaction.class.equals(element.hi)).map(element -> element.low)
@@ -87,7 +91,7 @@ public class UnconfirmedSubtanglePrunerJob extends AbstractTransactionPrunerJob
                 TransactionViewModel.cacheDelete(getTangle(), txsToDeleteFromCache);
 
                 // clean runtime caches
-                elementsToDelete.forEach(element -> getTipsViewModel().removeTipHash((Hash) element.low));
+                txsToDeleteFromCache.forEach(hash -> getTipsViewModel().removeTipHash((Hash) hash));
 
                 setStatus(TransactionPrunerJobStatus.DONE);
             } catch (Exception e) {
@@ -0,0 +1,253 @@
+package com.iota.iri.storage;
+
+import com.iota.iri.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes batches to the {@link Tangle} in the background and combines all batches which queue up while the previous
+ * write is running into a single database write (group commit).
+ *
+ * The caller gets a future which completes once its batch is written, so it doesn't have to wait for the database.
+ * Until then the non-mergeable models of the batch (i.e. the transactions) are kept in memory and returned by the
+ * reads of the {@link Tangle}, so a model is visible right after it was handed to {@link #write(List)}. Mergeable
+ * models like the approvees only become visible once they are written, since their stored value depends on what is
+ * already in the database.
+ *
+ * The reads get copies of the pending models, so nobody can change a model while it is being written. Updates and
+ * saves of a pending key are queued with {@link #writeIfPending(Persistable, Indexable)} behind the pending write, so
+ * the pending write can't overwrite them once it reaches the database.
+ */
+public class GroupCommitWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    /**
+     * The number of groups that may queue up before {@link #write(List)} blocks the caller.
+     */
+    private static final int QUEUED_GROUPS = 4;
+
+    private final Tangle tangle;
+
+    private final int maxGroupSize;
+
+    private final BlockingQueue<PendingWrite> queue;
+
+    private final Map<Class<?>, Map<Indexable, Persistable>> pendingModels = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "Group Commit Writer"));
+
+    private volatile boolean running;
+
+    /**
+     * Creates a writer which is not started yet. Until it is started, all batches are written synchronously.
+     *
+     * @param tangle       the {@link Tangle} to write to
+     * @param maxGroupSize the maximum number of batches that are combined into a single database write
+     */
+    public GroupCommitWriter(Tangle tangle, int maxGroupSize) {
+        this.tangle = tangle;
+        this.maxGroupSize = maxGroupSize;
+        this.queue = new LinkedBlockingQueue<>(maxGroupSize * QUEUED_GROUPS);
+    }
+
+    /**
+     * Starts the background thread which writes the queued batches and makes the pending models visible to the reads
+     * of the {@link Tangle}.
+     */
+    public void start() {
+        running = true;
+        tangle.setGroupCommitWriter(this);
+        executor.submit(this::writeQueuedBatches);
+    }
+
+    /**
+     * Stops the background thread and writes all batches which are still queued.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for the background thread
+     */
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        writeRemainingBatches();
+    }
+
+    /**
+     * Queues the given batch for writing. The call only blocks if the database falls behind so far that the queue is
+     * full.
+     *
+     * @param batch the models to write, in the format of {@link Tangle#saveBatch(List)}
+     * @return a future which completes once the batch is written or completes exceptionally if the write failed
+     * @throws InterruptedException if the thread is interrupted while waiting for space in the queue
+     */
+    public CompletableFuture<Void> write(List<Pair<Indexable, Persistable>> batch) throws InterruptedException {
+        PendingWrite pendingWrite = new PendingWrite(batch);
+        for (Pair<Indexable, Persistable> entry : batch) {
+            if (!entry.hi.canMerge()) {
+                pendingModels.computeIfAbsent(entry.hi.getClass(), model -> new ConcurrentHashMap<>())
+                        .put(entry.low, entry.hi);
+            }
+        }
+
+        queue.put(pendingWrite);
+        // the writer was stopped while we queued the batch, so nobody else is going to write it
+        if (!running) {
+            writeRemainingBatches();
+        }
+        return pendingWrite.future;
+    }
+
+    /**
+     * Returns a copy of a model which was handed to {@link #write(List)} but is not written yet.
+     *
+     * @param model the class of the model
+     * @param index the key of the model
+     * @return a copy of the pending model or <tt>null</tt> if there is no pending model with the given key
+     * @throws Exception if the model can't be copied
+     */
+    public Persistable getPending(Class<?> model, Indexable index) throws Exception {
+        Map<Indexable, Persistable> models = pendingModels.get(model);
+        Persistable pending = models == null ? null : models.get(index);
+        if (pending == null) {
+            return null;
+        }
+
+        Persistable copy = pending.getClass().newInstance();
+        copy.read(pending.bytes());
+        copy.readMetadata(pending.metadata());
+        return copy;
+    }
+
+    /**
+     * Checks if a model with the given key was handed to {@link #write(List)} but is not written yet.
+     *
+     * @param model the class of the model
+     * @param index the key of the model
+     * @return <tt>true</tt> if there is a pending model with the given key, else <tt>false</tt>
+     */
+    public boolean isPending(Class<?> model, Indexable index) {
+        Map<Indexable, Persistable> models = pendingModels.get(model);
+        return models != null && models.containsKey(index);
+    }
+
+    /**
+     * Queues the given model for writing if a model with the same key is still pending. The model is then written
+     * after the pending one and replaces it for the reads of the {@link Tangle} until then.
+     *
+     * @param model the changed model
+     * @param index the key of the model
+     * @return <tt>true</tt> if the model was queued, <tt>false</tt> if there is no pending model with the given key and
+     *         the caller has to write it itself
+     * @throws InterruptedException if the thread is interrupted while waiting for space in the queue
+     */
+    public boolean writeIfPending(Persistable model, Indexable index) throws InterruptedException {
+        if (!isPending(model.getClass(), index)) {
+            return false;
+        }
+
+        write(Collections.singletonList(new Pair<>(index, model))).whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("Failed to write the update of a pending model", e);
+            }
+        });
+        return true;
+    }
+
+    private void writeQueuedBatches() {
+        List<PendingWrite> group = new ArrayList<>(maxGroupSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                group.add(queue.take());
+                queue.drainTo(group, maxGroupSize - 1);
+                writeGroup(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            log.info("Group Commit Writer stopped");
+        }
+    }
+
+    private void writeRemainingBatches() {
+        List<PendingWrite> group = new ArrayList<>(maxGroupSize);
+        while (queue.drainTo(group, maxGroupSize) > 0) {
+            writeGroup(group);
+            group.clear();
+        }
+    }
+
+    private void writeGroup(List<PendingWrite> group) {
+        if (group.size() == 1) {
+            writeBatches(group);
+            return;
+        }
+
+        List<Pair<Indexable, Persistable>> entries = new ArrayList<>();
+        for (PendingWrite pendingWrite : group) {
+            entries.addAll(pendingWrite.batch);
+        }
+        try {
+            tangle.saveBatch(entries);
+            group.forEach(this::complete);
+        } catch (Exception e) {
+            // write the batches one by one, so only the batches which can't be written fail
+            log.warn("Failed to write a group of {} batches, writing them one by one", group.size(), e);
+            writeBatches(group);
+        }
+    }
+
+    private void writeBatches(List<PendingWrite> pendingWrites) {
+        for (PendingWrite pendingWrite : pendingWrites) {
+            try {
+                tangle.saveBatch(pendingWrite.batch);
+                complete(pendingWrite);
+            } catch (Exception e) {
+                removePendingModels(pendingWrite);
+                pendingWrite.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void complete(PendingWrite pendingWrite) {
+        removePendingModels(pendingWrite);
+        pendingWrite.future.complete(null);
+    }
+
+    private void removePendingModels(PendingWrite pendingWrite) {
+        for (Pair<Indexable, Persistable> entry : pendingWrite.batch) {
+            Map<Indexable, Persistable> models = pendingModels.get(entry.hi.getClass());
+            if (models != null) {
+                // only remove our own model, a later write of the same key might still be pending
+                models.remove(entry.low, entry.hi);
+            }
+        }
+    }
+
+    /**
+     * A batch that waits to be written together with the future of its caller.
+     */
+    private static class PendingWrite {
+        private final List<Pair<Indexable, Persistable>> batch;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWrite(List<Pair<Indexable, Persistable>> batch) {
+            this.batch = batch;
+        }
+    }
+}
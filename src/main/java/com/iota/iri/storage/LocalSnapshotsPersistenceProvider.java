@@ -1,7 +1,10 @@
 package com.iota.iri.storage;
 
 import com.iota.iri.model.LocalSnapshot;
+import com.iota.iri.model.LocalSnapshotChunk;
+import com.iota.iri.model.LocalSnapshotManifest;
 import com.iota.iri.model.persistables.SpentAddress;
+import com.iota.iri.model.persistables.SpentAddressesState;
 import com.iota.iri.utils.Pair;
 
 import java.util.*;
@@ -16,6 +19,9 @@ public class LocalSnapshotsPersistenceProvider implements PersistenceProvider {
             new LinkedHashMap<String, Class<? extends Persistable>>() {{
                 put("spent-addresses", SpentAddress.class);
                 put("localsnapshots", LocalSnapshot.class);
+                put("spent-addresses-state", SpentAddressesState.class);
+                put("localsnapshots-manifest", LocalSnapshotManifest.class);
+                put("localsnapshots-chunks", LocalSnapshotChunk.class);
             }};
 
     /**
@@ -123,6 +129,15 @@ public class LocalSnapshotsPersistenceProvider implements PersistenceProvider {
         return provider.get(model, index);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Persistable> multiGet(Class<?> model, List<? extends Indexable> indexes, boolean withMetadata)
+            throws Exception {
+        return provider.multiGet(model, indexes, withMetadata);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -131,6 +146,31 @@ public class LocalSnapshotsPersistenceProvider implements PersistenceProvider {
         provider.deleteBatch(models);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models, boolean sync)
+            throws Exception {
+        provider.deleteBatch(models, sync);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        provider.deleteRange(model, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void compactRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        provider.compactRange(model, from, to);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -161,6 +201,15 @@ public class LocalSnapshotsPersistenceProvider implements PersistenceProvider {
         return provider.previous(model, index);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PersistenceCursor cursor(Class<?> model, Class<? extends Indexable> indexModel, Indexable from,
+                                    boolean reverse) throws Exception {
+        return provider.cursor(model, indexModel, from, reverse);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,58 @@
+package com.iota.iri.storage;
+
+import com.iota.iri.utils.Pair;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Scans the stored objects of a single table/column family in the order of their keys.
+ *
+ * A cursor keeps its position in the database between two calls of {@link #next()}, so a scan reads the entries one
+ * after the other instead of looking up every entry from scratch. All entries are read from a consistent view of the
+ * database which is taken when the cursor is opened, so writes that happen during the scan are not seen by it.
+ *
+ * Cursors hold resources of the database and have to be closed once the scan is done.
+ */
+public interface PersistenceCursor extends AutoCloseable {
+
+    /**
+     * @return <tt>true</tt> if there is another object to read, else <tt>false</tt>
+     */
+    boolean hasNext();
+
+    /**
+     * Reads the object at the current position and moves the cursor to the following one.
+     *
+     * @return a pair (key, value)
+     * @throws NoSuchElementException if there is no object left to read
+     * @throws Exception if we encounter a problem with the DB
+     */
+    Pair<Indexable, Persistable> next() throws Exception;
+
+    /**
+     * Releases the resources of the database that are held by this cursor.
+     */
+    @Override
+    void close();
+
+    /**
+     * @return a cursor without any objects
+     */
+    static PersistenceCursor empty() {
+        return new PersistenceCursor() {
+            @Override
+            public boolean hasNext() {
+                return false;
+            }
+
+            @Override
+            public Pair<Indexable, Persistable> next() {
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -99,6 +99,18 @@ public interface PersistenceProvider {
      */
     Persistable get(Class<?> model, Indexable index) throws Exception;
 
+    /**
+     * Retrieves the {@code model}s indexed with the given keys using a single batched lookup.
+     * @param model the table/column family to look at
+     * @param indexes the keys
+     * @param withMetadata <tt>true</tt> to also read the metadata of the models, <tt>false</tt> to only read their
+     *                     data
+     * @return The stored values in the order of {@code indexes}
+     * @throws Exception if we encounter a problem with the DB
+     */
+    List<Persistable> multiGet(Class<?> model, List<? extends Indexable> indexes, boolean withMetadata)
+            throws Exception;
+
     /**
      * Checks with a degree of certainity whether we have a value indexed at a
      * given key. Unlike {@link #exists} it can return false positives, but it should be much more efficient
@@ -164,6 +176,22 @@ public interface PersistenceProvider {
      */
     Pair<Indexable, Persistable> first(Class<?> model, Class<?> indexModel) throws Exception;
 
+    /**
+     * Opens a cursor that scans the objects of type {@code model} in the order of their keys, starting at {@code from}.
+     * Unlike {@link #next(Class, Indexable)} and {@link #previous(Class, Indexable)} the cursor keeps its position in
+     * the DB, so scanning many objects only costs a single seek.
+     *
+     * @param model the table/column family to scan
+     * @param indexModel the type of the keys
+     * @param from the key to start at or {@code null} to start at the first (or last when scanning backwards) key
+     * @param reverse {@code true} to scan backwards, starting at the last key that is not greater than {@code from}
+     *                instead of the first key that is not smaller
+     * @return a cursor over the found objects, which has to be closed by the caller
+     * @throws Exception if we encounter a problem with the DB
+     */
+    PersistenceCursor cursor(Class<?> model, Class<? extends Indexable> indexModel, Indexable from, boolean reverse)
+            throws Exception;
+
     /**
      * Atomically saves all {@code models}
      *
@@ -181,6 +209,39 @@ public interface PersistenceProvider {
      */
     void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models) throws Exception;
 
+    /**
+     * Atomically delete all {@code models} without necessarily waiting for the deletion to reach the disk.
+     * Deletions that were not synced are persisted together with the next synced write.
+     *
+     * @param models key value pairs that to be expunged from the db.
+     * @param sync <tt>true</tt> if the deletion should be synced to disk before returning
+     * @throws Exception if data could not be expunged from the db.
+     */
+    void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models, boolean sync)
+            throws Exception;
+
+    /**
+     * Atomically deletes all objects of type {@code model} with keys between {@code from} (inclusive) and {@code to}
+     * (exclusive). The deletion is synced to disk.
+     *
+     * @param model the table/column family to delete from
+     * @param from the first key that is deleted
+     * @param to the key after the last key that is deleted
+     * @throws Exception if data could not be expunged from the db.
+     */
+    void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception;
+
+    /**
+     * Compacts the stored objects of type {@code model} with keys between {@code from} and {@code to}, so the space of
+     * deleted objects in this range is reclaimed.
+     *
+     * @param model the table/column family to compact
+     * @param from the first key of the range
+     * @param to the last key of the range
+     * @throws Exception if we encounter a problem with the DB
+     */
+    void compactRange(Class<?> model, Indexable from, Indexable to) throws Exception;
+
     /**
      * Clear all the data (but not metadata) in a column family or a table
      * @param column the table/column family we clear
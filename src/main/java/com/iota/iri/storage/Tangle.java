@@ -10,6 +10,7 @@ import com.iota.iri.model.StateDiff;
 import com.iota.iri.model.persistables.Address;
 import com.iota.iri.model.persistables.Approvee;
 import com.iota.iri.model.persistables.Bundle;
+import com.iota.iri.model.persistables.BundleTail;
 import com.iota.iri.model.persistables.Milestone;
 import com.iota.iri.model.persistables.ObsoleteTag;
 import com.iota.iri.model.persistables.Tag;
@@ -49,6 +50,7 @@ public class Tangle {
                 put("bundle", Bundle.class);
                 put("obsoleteTag", ObsoleteTag.class);
                 put("tag", Tag.class);
+                put("bundleTail", BundleTail.class);
             }};
 
     public static final Map.Entry<String, Class<? extends Persistable>> METADATA_COLUMN_FAMILY =
@@ -57,11 +59,22 @@ public class Tangle {
     private final List<PersistenceProvider> persistenceProviders = new ArrayList<>();
     private final List<MessageQueueProvider> messageQueueProviders = new ArrayList<>();
     private CacheManager cacheManager;
+    private volatile GroupCommitWriter groupCommitWriter;
 
     public void addPersistenceProvider(PersistenceProvider provider) {
         this.persistenceProviders.add(provider);
     }
 
+    /**
+     * Makes the models which are queued in the given writer visible to the reads of the tangle before they are
+     * written.
+     *
+     * @param groupCommitWriter the writer whose pending models should be visible
+     */
+    public void setGroupCommitWriter(GroupCommitWriter groupCommitWriter) {
+        this.groupCommitWriter = groupCommitWriter;
+    }
+
     /**
      * 
      * @see PersistenceProvider#init()
@@ -103,6 +116,11 @@ public class Tangle {
      * @see PersistenceProvider#get(Class, Indexable)
      */
     public Persistable load(Class<?> model, Indexable index) throws Exception {
+        Persistable pending = getPending(model, index);
+        if (pending != null) {
+            return pending;
+        }
+
         LinkedList<Persistable> outlist = new LinkedList<>();
         for (PersistenceProvider provider : this.persistenceProviders) {
             Persistable result = provider.get(model, index);
@@ -118,6 +136,75 @@ public class Tangle {
                 }
             }
         }
+        return merge(model, outlist);
+    }
+
+    /**
+     * Loads the models stored under the given indexes with a single batched lookup per persistence provider. The
+     * results of the different providers are combined the same way as in {@link #load(Class, Indexable)}.
+     *
+     * @see PersistenceProvider#multiGet(Class, List, boolean)
+     */
+    public List<Persistable> loadBatch(Class<?> model, List<? extends Indexable> indexes) throws Exception {
+        return loadBatch(model, indexes, true);
+    }
+
+    /**
+     * Works like {@link #loadBatch(Class, List)}, but allows to skip reading the metadata of the models when only
+     * their data is needed.
+     *
+     * @see PersistenceProvider#multiGet(Class, List, boolean)
+     */
+    public List<Persistable> loadBatch(Class<?> model, List<? extends Indexable> indexes, boolean withMetadata)
+            throws Exception {
+        List<List<Persistable>> providerResults = new ArrayList<>(this.persistenceProviders.size());
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            providerResults.add(provider.multiGet(model, indexes, withMetadata));
+        }
+
+        List<Persistable> models = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            Persistable pending = getPending(model, indexes.get(i));
+            if (pending != null) {
+                models.add(pending);
+                continue;
+            }
+
+            LinkedList<Persistable> outlist = new LinkedList<>();
+            Persistable nonMergeableResult = null;
+            for (List<Persistable> results : providerResults) {
+                Persistable result = results.get(i);
+                if (result != null && result.exists()) {
+                    if (result.canMerge()) {
+                        outlist.add(result);
+                    } else {
+                        nonMergeableResult = result;
+                        break;
+                    }
+                }
+            }
+            models.add(nonMergeableResult != null ? nonMergeableResult : merge(model, outlist));
+        }
+        return models;
+    }
+
+    private Persistable getPending(Class<?> model, Indexable index) throws Exception {
+        GroupCommitWriter writer = groupCommitWriter;
+        return writer == null ? null : writer.getPending(model, index);
+    }
+
+    private boolean isPending(Class<?> model, Indexable index) {
+        GroupCommitWriter writer = groupCommitWriter;
+        return writer != null && writer.isPending(model, index);
+    }
+
+    // the pending write would overwrite the model once it is written, so the model has to be written after it
+    private boolean writeIfPending(Persistable model, Indexable index) throws InterruptedException {
+        GroupCommitWriter writer = groupCommitWriter;
+        return writer != null && writer.writeIfPending(model, index);
+    }
+
+    private Persistable merge(Class<?> model, List<Persistable> outlist) throws Exception {
         Persistable p = outlist.stream().reduce(null, (a, b) -> {
             if (a == null) {
                 return b;
@@ -152,9 +239,15 @@ public class Tangle {
     }
 
     /**
+     * Saves the model in all {@link PersistenceProvider}. If a model with the same key is still pending in the
+     * {@link GroupCommitWriter}, the model is queued behind it instead.
+     *
      * @see PersistenceProvider#save(Persistable, Indexable)
      */
     public Boolean save(Persistable model, Indexable index) throws Exception {
+            if (writeIfPending(model, index)) {
+                return true;
+            }
             boolean exists = false;
             for(PersistenceProvider provider: persistenceProviders) {
                 if(exists) {
@@ -175,6 +268,34 @@ public class Tangle {
         }
     }
 
+    /**
+     * @see PersistenceProvider#deleteBatch(Collection, boolean)
+     */
+    public void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models, boolean sync)
+            throws Exception {
+        for(PersistenceProvider provider: persistenceProviders) {
+            provider.deleteBatch(models, sync);
+        }
+    }
+
+    /**
+     * @see PersistenceProvider#deleteRange(Class, Indexable, Indexable)
+     */
+    public void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        for(PersistenceProvider provider: persistenceProviders) {
+            provider.deleteRange(model, from, to);
+        }
+    }
+
+    /**
+     * @see PersistenceProvider#compactRange(Class, Indexable, Indexable)
+     */
+    public void compactRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        for(PersistenceProvider provider: persistenceProviders) {
+            provider.compactRange(model, from, to);
+        }
+    }
+
     /**
      * @see PersistenceProvider#delete(Class, Indexable)
      */
@@ -200,7 +321,9 @@ public class Tangle {
 
     /**
      * Updates all {@link PersistenceProvider} and publishes message to all
-     * {@link com.iota.iri.zmq.MessageQueueProvider}.
+     * {@link com.iota.iri.zmq.MessageQueueProvider}. If a model with the same key is still pending in the
+     * {@link GroupCommitWriter}, the whole model is queued behind it instead of updating the providers, since the
+     * pending write would overwrite the update.
      *
      * @param model with transaction data
      * @param index {@link Hash} identifier of the {@link Transaction} set
@@ -208,7 +331,9 @@ public class Tangle {
      * @throws Exception when updating the {@link PersistenceProvider} fails
      */
     public void update(Persistable model, Indexable index, String item) throws Exception {
-        updatePersistenceProvider(model, index, item);
+        if (!writeIfPending(model, index)) {
+            updatePersistenceProvider(model, index, item);
+        }
         updateMessageQueueProvider(model, index, item);
     }
 
@@ -287,6 +412,9 @@ public class Tangle {
      * @see PersistenceProvider#exists(Class, Indexable)
      */
     public Boolean exists(Class<?> modelClass, Indexable hash) throws Exception {
+            if (isPending(modelClass, hash)) {
+                return true;
+            }
             for(PersistenceProvider provider: this.persistenceProviders) {
                 if (provider.exists(modelClass, hash)) {
                     return true;
@@ -299,6 +427,9 @@ public class Tangle {
      * @see PersistenceProvider#mayExist(Class, Indexable)
      */
     public Boolean maybeHas(Class<?> model, Indexable index) throws Exception {
+            if (isPending(model, index)) {
+                return true;
+            }
             for(PersistenceProvider provider: this.persistenceProviders) {
                 if (provider.mayExist(model, index)) {
                     return true;
@@ -372,6 +503,23 @@ public class Tangle {
             return latest;
     }
 
+    /**
+     * Opens a cursor of the first provider that holds objects of type {@code model} in the scanned range.
+     *
+     * @see PersistenceProvider#cursor(Class, Class, Indexable, boolean)
+     */
+    public PersistenceCursor cursor(Class<?> model, Class<? extends Indexable> indexModel, Indexable from,
+                                    boolean reverse) throws Exception {
+        for (PersistenceProvider provider : persistenceProviders) {
+            PersistenceCursor cursor = provider.cursor(model, indexModel, from, reverse);
+            if (cursor.hasNext()) {
+                return cursor;
+            }
+            cursor.close();
+        }
+        return PersistenceCursor.empty();
+    }
+
     /**
      * @see PersistenceProvider#clear(Class)
      */
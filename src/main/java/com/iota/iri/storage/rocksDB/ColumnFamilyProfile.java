@@ -0,0 +1,302 @@
+package com.iota.iri.storage.rocksDB;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.rocksdb.CompressionType;
+import org.rocksdb.util.SizeUnit;
+
+/**
+ * Holds the tuning options of a single column family of the {@link RocksDBPersistenceProvider}.
+ *
+ * The column families of the tangle hold very different data: the transaction bodies are large and rarely read twice,
+ * the metadata is tiny and updated often, and the index families only ever get hashes appended to their values. Every
+ * family therefore gets its own profile, so the write buffers, compression and filters can be chosen to match what is
+ * stored in it instead of compacting everything the same way.
+ *
+ * Profiles are immutable. Single options can be overridden with {@link #with(String, String)}, which accepts the option
+ * names that are listed in {@link com.iota.iri.conf.DbConfig#getDbColumnFamilyProfiles()}.
+ */
+public class ColumnFamilyProfile {
+
+    /**
+     * The profile which is used for column families without a preset. It matches the options that were used for every
+     * column family before profiles were introduced.
+     */
+    public static final ColumnFamilyProfile DEFAULT = new ColumnFamilyProfile(2 * SizeUnit.MB, 2,
+            CompressionType.SNAPPY_COMPRESSION, 4 * SizeUnit.KB, 10, 0, false);
+
+    /**
+     * The presets for the column families of the {@link com.iota.iri.storage.Tangle}.
+     */
+    public static final Map<String, ColumnFamilyProfile> TANGLE_PRESETS;
+
+    /**
+     * The column families of the {@link com.iota.iri.storage.Tangle} which are keyed by a hash. They are only ever read
+     * by point lookups, since a hash says nothing about the keys next to it.
+     */
+    public static final Set<String> HASH_KEYED_FAMILIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "transaction", "transaction-metadata", "stateDiff", "address", "approvee", "bundle", "obsoleteTag", "tag",
+            "bundleTail")));
+
+    static {
+        // hashes are random, so the values of the index families can't be compressed
+        ColumnFamilyProfile index = new ColumnFamilyProfile(8 * SizeUnit.MB, 2, CompressionType.NO_COMPRESSION,
+                4 * SizeUnit.KB, 10, 0, false);
+
+        Map<String, ColumnFamilyProfile> presets = new LinkedHashMap<>();
+        presets.put("transaction", new ColumnFamilyProfile(16 * SizeUnit.MB, 3, CompressionType.LZ4_COMPRESSION,
+                16 * SizeUnit.KB, 10, 0, false));
+        presets.put("transaction-metadata", new ColumnFamilyProfile(8 * SizeUnit.MB, 3,
+                CompressionType.NO_COMPRESSION, 4 * SizeUnit.KB, 10, 0, true));
+        // milestones are keyed by their index and mostly read in order, so a filter wouldn't save any reads
+        presets.put("milestone", new ColumnFamilyProfile(2 * SizeUnit.MB, 2, CompressionType.LZ4_COMPRESSION,
+                4 * SizeUnit.KB, 0, 0, false));
+        presets.put("stateDiff", new ColumnFamilyProfile(4 * SizeUnit.MB, 2, CompressionType.LZ4_COMPRESSION,
+                16 * SizeUnit.KB, 10, 0, false));
+        presets.put("address", index);
+        presets.put("approvee", index);
+        presets.put("bundle", index);
+        presets.put("obsoleteTag", index);
+        presets.put("tag", index);
+        presets.put("bundleTail", index);
+        TANGLE_PRESETS = Collections.unmodifiableMap(presets);
+    }
+
+    private final long writeBufferSize;
+    private final int maxWriteBufferNumber;
+    private final CompressionType compressionType;
+    private final long blockSize;
+    private final int bloomBitsPerKey;
+    private final int prefixLength;
+    private final boolean highCachePriority;
+    private final boolean pointLookup;
+
+    /**
+     * Creates a profile with the given options.
+     *
+     * @param writeBufferSize the size of a single memtable in bytes
+     * @param maxWriteBufferNumber the maximum number of memtables that are kept in memory
+     * @param compressionType the compression of the data blocks
+     * @param blockSize the size of the data blocks in bytes
+     * @param bloomBitsPerKey the bits per key of the bloom filter or 0 to disable the filter
+     * @param prefixLength the length of the fixed key prefix that is extracted for filters or 0 to disable it
+     * @param highCachePriority <tt>true</tt> if the index and filter blocks should be cached with high priority
+     */
+    public ColumnFamilyProfile(long writeBufferSize, int maxWriteBufferNumber, CompressionType compressionType,
+                               long blockSize, int bloomBitsPerKey, int prefixLength, boolean highCachePriority) {
+        this(writeBufferSize, maxWriteBufferNumber, compressionType, blockSize, bloomBitsPerKey, prefixLength,
+                highCachePriority, false);
+    }
+
+    private ColumnFamilyProfile(long writeBufferSize, int maxWriteBufferNumber, CompressionType compressionType,
+                                long blockSize, int bloomBitsPerKey, int prefixLength, boolean highCachePriority,
+                                boolean pointLookup) {
+        this.writeBufferSize = writeBufferSize;
+        this.maxWriteBufferNumber = maxWriteBufferNumber;
+        this.compressionType = compressionType;
+        this.blockSize = blockSize;
+        this.bloomBitsPerKey = bloomBitsPerKey;
+        this.prefixLength = prefixLength;
+        this.highCachePriority = highCachePriority;
+        this.pointLookup = pointLookup;
+    }
+
+    /**
+     * Applies the given overrides to the presets.
+     *
+     * Every override has the format <code>family.option=value</code>. Families without a preset start out with the
+     * {@link #DEFAULT} profile.
+     *
+     * @param presets the profiles by column family name
+     * @param overrides the overrides of single options
+     * @return the profiles by column family name with all overrides applied
+     * @throws IllegalArgumentException if an override is malformed or sets an unknown option
+     */
+    public static Map<String, ColumnFamilyProfile> withOverrides(Map<String, ColumnFamilyProfile> presets,
+                                                                 List<String> overrides) {
+        Map<String, ColumnFamilyProfile> profiles = new HashMap<>(presets);
+        for (String override : overrides) {
+            int separator = override.indexOf('.');
+            int assignment = override.indexOf('=', separator + 1);
+            if (separator < 1 || assignment < separator + 2) {
+                throw new IllegalArgumentException("Invalid column family option '" + override
+                        + "', expected the format family.option=value");
+            }
+
+            String family = override.substring(0, separator);
+            profiles.put(family, profiles.getOrDefault(family, DEFAULT)
+                    .with(override.substring(separator + 1, assignment), override.substring(assignment + 1)));
+        }
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Switches the {@link #HASH_KEYED_FAMILIES} to the point lookup table layout. Besides the transactions and the
+     * index families this includes the transaction metadata, since every {@code fromHash} reads it with the same key
+     * right after the transaction. Families that are keyed by an index like the milestones keep their layout, since
+     * they are read in order.
+     *
+     * @param presets the profiles by column family name
+     * @return the profiles by column family name with the point lookup layout where it applies
+     */
+    public static Map<String, ColumnFamilyProfile> withPointLookups(Map<String, ColumnFamilyProfile> presets) {
+        Map<String, ColumnFamilyProfile> profiles = new HashMap<>(presets);
+        Map<ColumnFamilyProfile, ColumnFamilyProfile> converted = new IdentityHashMap<>();
+        profiles.replaceAll((family, profile) -> !HASH_KEYED_FAMILIES.contains(family) ? profile
+                : converted.computeIfAbsent(profile, preset -> preset.with("point_lookup", "true")));
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Creates a copy of this profile with a single option changed.
+     *
+     * @param option the name of the option
+     * @param value the new value of the option
+     * @return the changed profile
+     * @throws IllegalArgumentException if the option is unknown or the value is invalid
+     */
+    public ColumnFamilyProfile with(String option, String value) {
+        long writeBufferSize = this.writeBufferSize;
+        int maxWriteBufferNumber = this.maxWriteBufferNumber;
+        CompressionType compressionType = this.compressionType;
+        long blockSize = this.blockSize;
+        int bloomBitsPerKey = this.bloomBitsPerKey;
+        int prefixLength = this.prefixLength;
+        boolean highCachePriority = this.highCachePriority;
+        boolean pointLookup = this.pointLookup;
+        try {
+            switch (option) {
+                case "write_buffer_size":
+                    writeBufferSize = positive(option, Long.parseLong(value));
+                    break;
+                case "max_write_buffer_number":
+                    maxWriteBufferNumber = (int) positive(option, Integer.parseInt(value));
+                    break;
+                case "compression":
+                    compressionType = parseCompression(value);
+                    break;
+                case "block_size":
+                    blockSize = positive(option, Long.parseLong(value));
+                    break;
+                case "bloom_bits":
+                    bloomBitsPerKey = (int) notNegative(option, Integer.parseInt(value));
+                    break;
+                case "prefix_length":
+                    prefixLength = (int) notNegative(option, Integer.parseInt(value));
+                    break;
+                case "high_cache_priority":
+                    highCachePriority = Boolean.parseBoolean(value);
+                    break;
+                case "point_lookup":
+                    pointLookup = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown column family option '" + option + "'");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for column family option '" + option
+                    + "'", e);
+        }
+        return new ColumnFamilyProfile(writeBufferSize, maxWriteBufferNumber, compressionType, blockSize,
+                bloomBitsPerKey, prefixLength, highCachePriority, pointLookup);
+    }
+
+    private static long positive(String option, long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Column family option '" + option + "' must be positive");
+        }
+        return value;
+    }
+
+    private static long notNegative(String option, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Column family option '" + option + "' must not be negative");
+        }
+        return value;
+    }
+
+    private static CompressionType parseCompression(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "none":
+                return CompressionType.NO_COMPRESSION;
+            case "snappy":
+                return CompressionType.SNAPPY_COMPRESSION;
+            case "lz4":
+                return CompressionType.LZ4_COMPRESSION;
+            case "zstd":
+                return CompressionType.ZSTD_COMPRESSION;
+            default:
+                throw new IllegalArgumentException("Unknown compression '" + value
+                        + "', expected one of none, snappy, lz4 or zstd");
+        }
+    }
+
+    /**
+     * @return the size of a single memtable in bytes
+     */
+    public long getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    /**
+     * @return the maximum number of memtables that are kept in memory
+     */
+    public int getMaxWriteBufferNumber() {
+        return maxWriteBufferNumber;
+    }
+
+    /**
+     * @return the compression of the data blocks
+     */
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    /**
+     * @return the size of the data blocks in bytes
+     */
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return the bits per key of the bloom filter or 0 if the family has no filter
+     */
+    public int getBloomBitsPerKey() {
+        return bloomBitsPerKey;
+    }
+
+    /**
+     * @return the length of the fixed key prefix that is extracted for filters or 0 if no prefix is extracted
+     */
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    /**
+     * @return <tt>true</tt> if the index and filter blocks are cached with high priority
+     */
+    public boolean isHighCachePriority() {
+        return highCachePriority;
+    }
+
+    /**
+     * Tables with the point lookup layout have a hash index in every data block and partitioned index and filter
+     * blocks. A lookup then hashes into the data block instead of searching it, and only the top level of the
+     * partitioned index and filters has to stay cached instead of the full blocks of every table.
+     *
+     * @return <tt>true</tt> if the tables of the family are optimized for point lookups
+     */
+    public boolean isPointLookup() {
+        return pointLookup;
+    }
+}
@@ -5,6 +5,7 @@ import com.iota.iri.conf.TestnetConfig;
 import com.iota.iri.model.HashFactory;
 import com.iota.iri.storage.Indexable;
 import com.iota.iri.storage.Persistable;
+import com.iota.iri.storage.PersistenceCursor;
 import com.iota.iri.storage.PersistenceProvider;
 import com.iota.iri.utils.IotaIOUtils;
 import com.iota.iri.utils.Pair;
@@ -16,6 +17,7 @@ import java.io.InputStream;
 import java.nio.file.Paths;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -23,12 +25,14 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.rocksdb.BackupEngine;
 import org.rocksdb.BackupableDBOptions;
@@ -39,16 +43,21 @@ import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.DataBlockIndexType;
+import org.rocksdb.DbPath;
 import org.rocksdb.Env;
+import org.rocksdb.IndexType;
 import org.rocksdb.LRUCache;
 import org.rocksdb.MergeOperator;
 import org.rocksdb.OptionsUtil;
 import org.rocksdb.Priority;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RestoreOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksEnv;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
 import org.rocksdb.SstFileManager;
 import org.rocksdb.StringAppendOperator;
 import org.rocksdb.WriteBatch;
@@ -60,10 +69,11 @@ import org.slf4j.LoggerFactory;
 public class RocksDBPersistenceProvider implements PersistenceProvider {
 
     private static final Logger log = LoggerFactory.getLogger(RocksDBPersistenceProvider.class);
-    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
 
     private static final Pair<Indexable, Persistable> PAIR_OF_NULLS = new Pair<>(null, null);
 
+    private static final long CURSOR_READAHEAD_SIZE = 2 * SizeUnit.MB;
+
     private final List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
     private final SecureRandom seed = new SecureRandom();
 
@@ -74,6 +84,9 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     private final int cacheSize;
     private final Map<String, Class<? extends Persistable>> columnFamilies;
     private final Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily;
+    private final Map<String, ColumnFamilyProfile> columnFamilyProfiles;
+    private final String coldDataPath;
+    private final long hotDataSize;
 
     private Map<Class<?>, ColumnFamilyHandle> classTreeMap;
     private Map<Class<?>, ColumnFamilyHandle> metadataReference = Collections.emptyMap();
@@ -81,12 +94,16 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     private RocksDB db;
     // DBOptions is only used in initDB(). However, it is closeable - so we keep a reference for shutdown.
     private DBOptions options;
-    private BloomFilter bloomFilter;
     private boolean available;
     
     private SstFileManager sstFileManager;
     private Cache cache, compressedCache;
-    private ColumnFamilyOptions columnFamilyOptions;
+    private MergeOperator mergeOperator;
+    // The options of the column families which are shared between families with the same profile
+    private final Map<ColumnFamilyProfile, ColumnFamilyOptions> columnFamilyOptions = new HashMap<>();
+    private final List<BloomFilter> bloomFilters = new ArrayList<>();
+    // Iterators don't use the prefix extractors of the column families, so they always see all keys in order
+    private ReadOptions iteratorOptions;
     
     /**
      * Creates a new RocksDB provider without reading from a configuration file
@@ -116,13 +133,40 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     public RocksDBPersistenceProvider(String dbPath, String logPath, String configPath, int cacheSize,
                                       Map<String, Class<? extends Persistable>> columnFamilies,
                                       Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily) {
+        this(dbPath, logPath, configPath, cacheSize, columnFamilies, metadataColumnFamily, Collections.emptyMap(),
+                null, 0);
+    }
+
+    /**
+     * Creates a new RocksDB provider which tunes every column family with its own {@link ColumnFamilyProfile} and can
+     * move its cold data to a separate folder.
+     *
+     * @param dbPath The location where the database will be stored
+     * @param logPath The location where the log files will be stored
+     * @param configPath The location where the RocksDB config is read from
+     * @param cacheSize the size of the cache used by the database implementation
+     * @param columnFamilies A map of the names related to their Persistable class
+     * @param metadataColumnFamily Map of metadata used by the Persistable class, can be <code>null</code>
+     * @param columnFamilyProfiles The profiles by column family name, families without a profile use
+     *                             {@link ColumnFamilyProfile#DEFAULT}
+     * @param coldDataPath The location where the data is moved to once the database location holds more than
+     *                     <code>hotDataSize</code> bytes, can be <code>null</code> to keep all data in one location
+     * @param hotDataSize The amount of bytes that are kept in the database location if a cold data path is set
+     */
+    public RocksDBPersistenceProvider(String dbPath, String logPath, String configPath, int cacheSize,
+                                      Map<String, Class<? extends Persistable>> columnFamilies,
+                                      Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily,
+                                      Map<String, ColumnFamilyProfile> columnFamilyProfiles, String coldDataPath,
+                                      long hotDataSize) {
         this.dbPath = dbPath;
         this.logPath = logPath;
         this.cacheSize = cacheSize;
         this.columnFamilies = columnFamilies;
         this.metadataColumnFamily = metadataColumnFamily;
         this.configPath = configPath;
-
+        this.columnFamilyProfiles = columnFamilyProfiles;
+        this.coldDataPath = coldDataPath;
+        this.hotDataSize = hotDataSize;
     }
 
     @Override
@@ -144,7 +188,15 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         for (final ColumnFamilyHandle columnFamilyHandle : columnFamilyHandles) {
             IotaIOUtils.closeQuietly(columnFamilyHandle);
         }
-        IotaIOUtils.closeQuietly(db, options, bloomFilter, cache, compressedCache, columnFamilyOptions);
+        closeResources();
+    }
+
+    private void closeResources() {
+        IotaIOUtils.closeQuietly(db, options, iteratorOptions, cache, compressedCache, mergeOperator);
+        IotaIOUtils.closeQuietly(columnFamilyOptions.values().toArray(new AutoCloseable[0]));
+        IotaIOUtils.closeQuietly(bloomFilters.toArray(new AutoCloseable[0]));
+        columnFamilyOptions.clear();
+        bloomFilters.clear();
     }
 
     @Override
@@ -179,7 +231,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         ColumnFamilyHandle handle = classTreeMap.get(model);
         ColumnFamilyHandle otherHandle = classTreeMap.get(other);
 
-        try (RocksIterator iterator = db.newIterator(handle)) {
+        try (RocksIterator iterator = newIterator(handle)) {
             Set<Indexable> indexables = null;
 
             for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
@@ -204,6 +256,31 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         return object;
     }
 
+    @Override
+    public List<Persistable> multiGet(Class<?> model, List<? extends Indexable> indexes, boolean withMetadata)
+            throws Exception {
+        List<byte[]> keys = new ArrayList<>(indexes.size());
+        for (Indexable index : indexes) {
+            keys.add(index == null ? new byte[0] : index.bytes());
+        }
+
+        List<byte[]> values = db.multiGetAsList(Collections.nCopies(keys.size(), classTreeMap.get(model)), keys);
+        ColumnFamilyHandle referenceHandle = withMetadata ? metadataReference.get(model) : null;
+        List<byte[]> metadata = referenceHandle == null ? null
+                : db.multiGetAsList(Collections.nCopies(keys.size(), referenceHandle), keys);
+
+        List<Persistable> objects = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Persistable object = (Persistable) model.newInstance();
+            object.read(values.get(i));
+            if (metadata != null) {
+                object.readMetadata(metadata.get(i));
+            }
+            objects.add(object);
+        }
+        return objects;
+    }
+
     @Override
     public boolean mayExist(Class<?> model, Indexable index) {
         ColumnFamilyHandle handle = classTreeMap.get(model);
@@ -226,7 +303,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         ColumnFamilyHandle handle = classTreeMap.get(modelClass);
         Set<Indexable> keys = null;
         if (handle != null) {
-            try (RocksIterator iterator = db.newIterator(handle)) {
+            try (RocksIterator iterator = newIterator(handle)) {
                 iterator.seek(HashFactory.GENERIC.create(modelClass, value, 0, value.length).bytes());
 
                 byte[] found;
@@ -291,7 +368,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
 
     @Override
     public Pair<Indexable, Persistable> next(Class<?> model, Indexable index) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seek(index.bytes());
             iterator.next();
             return modelAndIndex(model, index.getClass(), iterator);
@@ -300,7 +377,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
 
     @Override
     public Pair<Indexable, Persistable> previous(Class<?> model, Indexable index) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seek(index.bytes());
             iterator.prev();
             return modelAndIndex(model, index.getClass(), iterator);
@@ -310,7 +387,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     @SuppressWarnings("unchecked")
     @Override
     public Pair<Indexable, Persistable> latest(Class<?> model, Class<?> indexModel) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seekToLast();
             return modelAndIndex(model, (Class<Indexable>) indexModel, iterator);
         }
@@ -319,12 +396,22 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     @SuppressWarnings("unchecked")
     @Override
     public Pair<Indexable, Persistable> first(Class<?> model, Class<?> index) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seekToFirst();
             return modelAndIndex(model, (Class<Indexable>) index, iterator);
         }
     }
 
+    @Override
+    public PersistenceCursor cursor(Class<?> model, Class<? extends Indexable> indexModel, Indexable from,
+                                    boolean reverse) throws Exception {
+        ColumnFamilyHandle handle = classTreeMap.get(model);
+        if (handle == null) {
+            return PersistenceCursor.empty();
+        }
+        return new RocksDBCursor(model, indexModel, handle, from, reverse);
+    }
+
     // 2018 March 28 - Unused code
     public boolean merge(Persistable model, Indexable index) throws Exception {
         boolean exists = mayExist(model.getClass(), index);
@@ -360,15 +447,22 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         }
     }
 
+    @Override
     public void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models)
             throws Exception {
+        deleteBatch(models, true);
+    }
+
+    @Override
+    public void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models, boolean sync)
+            throws Exception {
         if (CollectionUtils.isNotEmpty(models)) {
             try (WriteBatch writeBatch = new WriteBatch(); 
                     WriteOptions writeOptions = new WriteOptions()
                             //We are explicit about what happens if the node reboots before a flush to the db
                             .setDisableWAL(false)
-                            //We want to make sure deleted data was indeed deleted
-                            .setSync(true)) {
+                            //Unsynced deletions are persisted together with the next synced write
+                            .setSync(sync)) {
                 
                 for (Pair<Indexable, ? extends Class<? extends Persistable>> entry : models) {
                     Indexable indexable = entry.low;
@@ -386,6 +480,33 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         }
     }
 
+    @Override
+    public void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        try (WriteBatch writeBatch = new WriteBatch();
+                WriteOptions writeOptions = new WriteOptions()
+                        .setDisableWAL(false)
+                        //We want to make sure deleted data was indeed deleted
+                        .setSync(true)) {
+
+            writeBatch.deleteRange(classTreeMap.get(model), from.bytes(), to.bytes());
+            ColumnFamilyHandle metadataHandle = metadataReference.get(model);
+            if (metadataHandle != null) {
+                writeBatch.deleteRange(metadataHandle, from.bytes(), to.bytes());
+            }
+
+            db.write(writeOptions, writeBatch);
+        }
+    }
+
+    @Override
+    public void compactRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        db.compactRange(classTreeMap.get(model), from.bytes(), to.bytes());
+        ColumnFamilyHandle metadataHandle = metadataReference.get(model);
+        if (metadataHandle != null) {
+            db.compactRange(metadataHandle, from.bytes(), to.bytes());
+        }
+    }
+
     @Override
     public void clear(Class<?> column) throws Exception {
         log.info("Deleting: {} entries", column.getSimpleName());
@@ -403,7 +524,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         List<byte[]> keyBytes = new ArrayList<>();
 
         ColumnFamilyHandle columnFamilyHandle = classTreeMap.get(column);
-        try (RocksIterator iterator = db.newIterator(columnFamilyHandle)) {
+        try (RocksIterator iterator = newIterator(columnFamilyHandle)) {
             for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                 keyBytes.add(iterator.key());
             }
@@ -413,7 +534,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
 
     private void flushHandle(ColumnFamilyHandle handle) throws RocksDBException {
         List<byte[]> itemsToDelete = new ArrayList<>();
-        try (RocksIterator iterator = db.newIterator(handle)) {
+        try (RocksIterator iterator = newIterator(handle)) {
 
             for (iterator.seekToLast(); iterator.isValid(); iterator.prev()) {
                 itemsToDelete.add(iterator.key());
@@ -489,26 +610,12 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
             // Pass columnFamilyDescriptors so that they are loaded from options file, we check modifications later
             options = createOptions(logPath, configFile, columnFamilyDescriptors);
 
-            bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY);
-            cache = new LRUCache(cacheSize * SizeUnit.KB, 2);
+            // the high priority pool of the cache keeps the index and filter blocks of hot families cached
+            cache = new LRUCache(cacheSize * SizeUnit.KB, 2, false, 0.1);
             compressedCache = new LRUCache(32 * SizeUnit.KB, 10);
-            
-            BlockBasedTableConfig blockBasedTableConfig = new BlockBasedTableConfig()
-                .setFilterPolicy(bloomFilter)
-                .setBlockSizeDeviation(10)
-                .setBlockRestartInterval(16)
-                .setBlockCache(cache)
-                .setBlockCacheCompressed(compressedCache);
-
-            MergeOperator mergeOperator = new StringAppendOperator();
-            
-            columnFamilyOptions = new ColumnFamilyOptions()
-                .setMergeOperator(mergeOperator)
-                .setTableFormatConfig(blockBasedTableConfig)
-                .setMaxWriteBufferNumber(2)
-                .setWriteBufferSize(2 * SizeUnit.MB);
-            
-            
+            mergeOperator = new StringAppendOperator();
+            iteratorOptions = new ReadOptions().setTotalOrderSeek(true);
+
             // Column families could get loaded from the config
             loadColumnFamilyDescriptors(columnFamilyDescriptors);
             
@@ -518,10 +625,73 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
             initClassTreeMap(columnFamilyDescriptors);
 
         } catch (Exception e) {
-            IotaIOUtils.closeQuietly(db, options, bloomFilter, columnFamilyOptions, cache, compressedCache);
+            closeResources();
             throw e;
         }
     }
+
+    /**
+     * Gets the options of the column family with the given name. Families with the same profile share their options.
+     *
+     * @param name the name of the column family
+     * @return the options which apply the profile of the column family
+     */
+    private ColumnFamilyOptions columnFamilyOptions(String name) {
+        ColumnFamilyProfile profile = columnFamilyProfiles.getOrDefault(name, ColumnFamilyProfile.DEFAULT);
+        return columnFamilyOptions.computeIfAbsent(profile, this::createColumnFamilyOptions);
+    }
+
+    private ColumnFamilyOptions createColumnFamilyOptions(ColumnFamilyProfile profile) {
+        BlockBasedTableConfig blockBasedTableConfig = new BlockBasedTableConfig()
+            .setBlockSize(profile.getBlockSize())
+            .setBlockSizeDeviation(10)
+            .setBlockRestartInterval(16)
+            .setBlockCache(cache)
+            .setCacheIndexAndFilterBlocks(profile.isHighCachePriority())
+            .setCacheIndexAndFilterBlocksWithHighPriority(profile.isHighCachePriority())
+            .setPinL0FilterAndIndexBlocksInCache(profile.isHighCachePriority());
+
+        if (profile.isPointLookup()) {
+            // the partitions of the index and filters are cached like data blocks, only their top level is pinned
+            blockBasedTableConfig
+                .setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash)
+                .setDataBlockHashTableUtilRatio(0.75)
+                .setIndexType(IndexType.kTwoLevelIndexSearch)
+                .setPartitionFilters(true)
+                .setMetadataBlockSize(profile.getBlockSize())
+                .setCacheIndexAndFilterBlocks(true)
+                .setCacheIndexAndFilterBlocksWithHighPriority(true)
+                .setPinTopLevelIndexAndFilter(true)
+                .setPinL0FilterAndIndexBlocksInCache(true);
+        } else {
+            // point lookups hardly ever read a block twice, so they would only churn the compressed cache
+            blockBasedTableConfig.setBlockCacheCompressed(compressedCache);
+        }
+
+        if (profile.getBloomBitsPerKey() > 0) {
+            // partitioned filters can only be built from full filters
+            BloomFilter bloomFilter = new BloomFilter(profile.getBloomBitsPerKey(), !profile.isPointLookup());
+            bloomFilters.add(bloomFilter);
+            blockBasedTableConfig.setFilterPolicy(bloomFilter);
+        }
+
+        ColumnFamilyOptions options = new ColumnFamilyOptions()
+            .setMergeOperator(mergeOperator)
+            .setTableFormatConfig(blockBasedTableConfig)
+            .setCompressionType(profile.getCompressionType())
+            .setMaxWriteBufferNumber(profile.getMaxWriteBufferNumber())
+            .setWriteBufferSize(profile.getWriteBufferSize());
+
+        if (profile.getPrefixLength() > 0) {
+            options.useFixedLengthPrefixExtractor(profile.getPrefixLength());
+        }
+
+        return options;
+    }
+
+    private RocksIterator newIterator(ColumnFamilyHandle handle) {
+        return db.newIterator(handle, iteratorOptions);
+    }
     
     /**
      * Checks if we have correct column families
@@ -532,14 +702,15 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         columnFamilyDescriptors.clear();
         if (columnFamilyDescriptors.isEmpty()) {
             //Add default column family. Main motivation is to not change legacy code
-            columnFamilyDescriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions));
+            columnFamilyDescriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY,
+                    columnFamilyOptions(new String(RocksDB.DEFAULT_COLUMN_FAMILY))));
             for (String name : columnFamilies.keySet()) {
-                columnFamilyDescriptors.add(new ColumnFamilyDescriptor(name.getBytes(), columnFamilyOptions));
+                columnFamilyDescriptors.add(new ColumnFamilyDescriptor(name.getBytes(), columnFamilyOptions(name)));
             }
             // metadata descriptor is always last
             if (metadataColumnFamily != null) {
-                columnFamilyDescriptors.add(
-                        new ColumnFamilyDescriptor(metadataColumnFamily.getKey().getBytes(), columnFamilyOptions));
+                columnFamilyDescriptors.add(new ColumnFamilyDescriptor(metadataColumnFamily.getKey().getBytes(),
+                        columnFamilyOptions(metadataColumnFamily.getKey())));
                 metadataReference = new HashMap<>();
             }
         }
@@ -631,6 +802,12 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
 
         //Defaults we always need to set
         options.setSstFileManager(sstFileManager);
+
+        if (StringUtils.isNotEmpty(coldDataPath)) {
+            // levels are placed in the first path that can hold them, so the largest and oldest levels end up cold
+            options.setDbPaths(Arrays.asList(new DbPath(Paths.get(dbPath), hotDataSize),
+                    new DbPath(Paths.get(coldDataPath), Long.MAX_VALUE)));
+        }
         
         if (!(BaseIotaConfig.Defaults.DB_LOG_PATH.equals(logPath) || TestnetConfig.Defaults.DB_LOG_PATH.equals(logPath))
                 && logPath != null) {
@@ -649,4 +826,86 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     public long getPersistenceSize() {
         return sstFileManager.getTotalSize();
     }
+
+    /**
+     * Holds a single iterator over a snapshot of the database for the whole scan. The blocks of the scan are read
+     * ahead and are not added to the block cache, so a large scan doesn't evict the blocks of point lookups.
+     */
+    private class RocksDBCursor implements PersistenceCursor {
+
+        private final Class<?> model;
+        private final Class<? extends Indexable> indexModel;
+        private final ColumnFamilyHandle metadataHandle;
+        private final boolean reverse;
+
+        private final Snapshot snapshot;
+        private final ReadOptions readOptions;
+        private final RocksIterator iterator;
+
+        private RocksDBCursor(Class<?> model, Class<? extends Indexable> indexModel, ColumnFamilyHandle handle,
+                              Indexable from, boolean reverse) {
+            this.model = model;
+            this.indexModel = indexModel;
+            this.metadataHandle = metadataReference.get(model);
+            this.reverse = reverse;
+
+            snapshot = db.getSnapshot();
+            readOptions = new ReadOptions()
+                .setSnapshot(snapshot)
+                .setTotalOrderSeek(true)
+                .setReadaheadSize(CURSOR_READAHEAD_SIZE)
+                .setFillCache(false);
+            iterator = db.newIterator(handle, readOptions);
+
+            if (from == null) {
+                if (reverse) {
+                    iterator.seekToLast();
+                } else {
+                    iterator.seekToFirst();
+                }
+            } else {
+                if (reverse) {
+                    iterator.seekForPrev(from.bytes());
+                } else {
+                    iterator.seek(from.bytes());
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.isValid();
+        }
+
+        @Override
+        public Pair<Indexable, Persistable> next() throws Exception {
+            if (!iterator.isValid()) {
+                throw new NoSuchElementException();
+            }
+
+            byte[] key = iterator.key();
+            Indexable indexable = indexModel.newInstance();
+            indexable.read(key);
+
+            Persistable object = (Persistable) model.newInstance();
+            object.read(iterator.value());
+            if (metadataHandle != null) {
+                object.readMetadata(db.get(metadataHandle, readOptions, key));
+            }
+
+            if (reverse) {
+                iterator.prev();
+            } else {
+                iterator.next();
+            }
+            return new Pair<>(indexable, object);
+        }
+
+        @Override
+        public void close() {
+            IotaIOUtils.closeQuietly(iterator);
+            db.releaseSnapshot(snapshot);
+            IotaIOUtils.closeQuietly(readOptions);
+        }
+    }
 }
@@ -199,6 +199,41 @@ public class Converter {
         return trytes(trits, 0, trits.length);
     }
 
+    /**
+     * Converts bytes (as created by {@link #bytes(byte[], byte[])}) straight to a tryte string without allocating the
+     * intermediate trits array.<br>
+     *     missing bytes are treated as zero trits, so {@code bytes} may be shorter than required (or empty).
+     *
+     * @param bytes source bytes array
+     * @param tritsLength amount of trits encoded in {@code bytes}
+     * @return tryte string
+     */
+    public static String trytesFromBytes(final byte[] bytes, final int tritsLength) {
+        final char[] trytes = new char[(tritsLength + NUMBER_OF_TRITS_IN_A_TRYTE - 1) / NUMBER_OF_TRITS_IN_A_TRYTE];
+        int tryteValue = 0;
+        int tritWeight = 1;
+        int tryteIndex = 0;
+        for (int tritIndex = 0; tritIndex < tritsLength; ) {
+            final int byteIndex = tritIndex / NUMBER_OF_TRITS_IN_A_BYTE;
+            final byte[] byteTrits = BYTE_TO_TRITS_MAPPINGS[byteIndex < bytes.length
+                    ? (bytes[byteIndex] < 0 ? (bytes[byteIndex] + BYTE_TO_TRITS_MAPPINGS.length) : bytes[byteIndex])
+                    : 0];
+            for (int i = 0; i < NUMBER_OF_TRITS_IN_A_BYTE && tritIndex < tritsLength; i++, tritIndex++) {
+                tryteValue += byteTrits[i] * tritWeight;
+                tritWeight *= RADIX;
+                if (tritWeight == 27) {
+                    trytes[tryteIndex++] = TRYTE_ALPHABET.charAt(tryteValue < 0 ? tryteValue + 27 : tryteValue);
+                    tryteValue = 0;
+                    tritWeight = 1;
+                }
+            }
+        }
+        if (tryteIndex < trytes.length) {
+            trytes[tryteIndex] = TRYTE_ALPHABET.charAt(tryteValue < 0 ? tryteValue + 27 : tryteValue);
+        }
+        return new String(trytes);
+    }
+
     /**
      * Creates a new trits array with the converted tryte string.<br>
      *     should be used only for testing as it allocates memory.
@@ -0,0 +1,99 @@
+package com.iota.iri.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of latencies with fixed, roughly logarithmic buckets.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The inclusive upper bounds of the buckets in milliseconds. The last bucket holds all larger latencies.
+     */
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = {1, 5, 10, 50, 100, 500, 1_000, 5_000, 10_000, 60_000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MS.length + 1);
+
+    /**
+     * Records a latency.
+     *
+     * @param latencyMs the latency in milliseconds
+     */
+    public void record(long latencyMs) {
+        int bucket = 0;
+        while (bucket < BUCKET_UPPER_BOUNDS_MS.length && latencyMs > BUCKET_UPPER_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+    }
+
+    /**
+     * Gets the amount of recorded latencies.
+     *
+     * @return the amount of recorded latencies
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the amount of recorded latencies of each bucket.
+     *
+     * @return the counts of the buckets in the order of {@link #getBucketUpperBoundsMs()}, followed by the count of
+     *         latencies exceeding the largest bound
+     */
+    public long[] getCounts() {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the inclusive upper bounds of the buckets.
+     *
+     * @return the upper bounds in milliseconds
+     */
+    public static long[] getBucketUpperBoundsMs() {
+        return BUCKET_UPPER_BOUNDS_MS.clone();
+    }
+
+    /**
+     * Gets the amount of recorded latencies of each bucket by the label of the bucket (e.g. <tt>"<=5ms"</tt>).
+     *
+     * @return the counts of the buckets in ascending order of their bounds
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        long[] counts = getCounts();
+        for (int i = 0; i < counts.length; i++) {
+            result.put(bucketLabel(i), counts[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        long[] counts = getCounts();
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(bucketLabel(i)).append(": ").append(counts[i]);
+        }
+        return result.toString();
+    }
+
+    private static String bucketLabel(int bucket) {
+        return bucket < BUCKET_UPPER_BOUNDS_MS.length ? "<=" + BUCKET_UPPER_BOUNDS_MS[bucket] + "ms"
+                : ">" + BUCKET_UPPER_BOUNDS_MS[BUCKET_UPPER_BOUNDS_MS.length - 1] + "ms";
+    }
+}
@@ -2,6 +2,8 @@ package com.iota.iri.utils;
 
 import com.iota.iri.model.persistables.Transaction;
 
+import java.nio.ByteBuffer;
+
 /**
  * Provides utility methods to truncate and expand raw transaction data.
  */
@@ -48,19 +50,32 @@ public class TransactionTruncator {
      * @return an array containing the expanded transaction data
      */
     public static byte[] expandTransaction(byte[] data, int referenceSize) {
+        return expandTransaction(ByteBuffer.wrap(data), referenceSize);
+    }
+
+    /**
+     * Expands the truncated transaction within the remaining bytes of the given buffer using a given reference size
+     * to determine the amount of bytes to pad. The position of the buffer is left untouched, which allows to read
+     * the transaction directly from a (direct) network buffer without copying it into an intermediate array first.
+     *
+     * @param data          the buffer containing the truncated transaction data to be expanded
+     * @param referenceSize the max size to use as a reference to compute the bytes to be added
+     * @return an array containing the expanded transaction data
+     */
+    public static byte[] expandTransaction(ByteBuffer data, int referenceSize) {
         byte[] txDataBytes = new byte[Transaction.SIZE];
-        int numOfBytesOfSigMsgFragToExpand = referenceSize - data.length;
-        byte[] sigMsgFragPadding = new byte[numOfBytesOfSigMsgFragToExpand];
+        int offset = data.position();
         // we deduct the transaction bytes size from the reference to get the correct
         // length of signature message bytes we need to copy from the source data
-        int sigMsgFragBytesToCopy = data.length - (referenceSize - Transaction.SIZE)
+        int sigMsgFragBytesToCopy = data.remaining() - (referenceSize - Transaction.SIZE)
                 - TransactionTruncator.NON_SIG_TX_PART_BYTES_LENGTH;
 
-        // build up transaction payload. empty signature message fragment equals padding with 1312x 0 bytes
-        System.arraycopy(data, 0, txDataBytes, 0, sigMsgFragBytesToCopy);
-        System.arraycopy(sigMsgFragPadding, 0, txDataBytes, sigMsgFragBytesToCopy, sigMsgFragPadding.length);
-        System.arraycopy(data, sigMsgFragBytesToCopy, txDataBytes, TransactionTruncator.SIG_DATA_MAX_BYTES_LENGTH,
+        // build up transaction payload. the bytes between the copied signature message fragment and the rest of the
+        // transaction are already 0, which equals the padding of an empty signature message fragment
+        data.get(txDataBytes, 0, sigMsgFragBytesToCopy);
+        data.get(txDataBytes, TransactionTruncator.SIG_DATA_MAX_BYTES_LENGTH,
                 TransactionTruncator.NON_SIG_TX_PART_BYTES_LENGTH);
+        data.position(offset);
         return txDataBytes;
     }
 
@@ -0,0 +1,194 @@
+package com.iota.iri.utils.collections.impl;
+
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.HashFactory;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of transaction hashes that stores the bytes of its elements in a single open addressing table.
+ *
+ * Unlike a {@link java.util.HashSet} it neither creates an entry object per element nor keeps the added {@link Hash}
+ * objects alive, which makes it a good fit for the large sets of visited transactions of tangle traversals. Elements
+ * are compared by their bytes and are returned as transaction hashes by the iterator. Elements can not be removed.
+ */
+public class CompactHashSet extends AbstractSet<Hash> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Holds the spread hash code of every slot, where 0 marks an empty slot.
+     */
+    private int[] hashCodes;
+
+    /**
+     * Holds the bytes of the element of every slot.
+     */
+    private byte[] elements;
+
+    private int size;
+
+    /**
+     * Creates an empty set.
+     */
+    public CompactHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty set that can hold the given amount of elements without growing.
+     *
+     * @param expectedSize the amount of elements that are expected to be added
+     */
+    public CompactHashSet(int expectedSize) {
+        allocate(tableSizeFor((int) (expectedSize / LOAD_FACTOR) + 1));
+    }
+
+    @Override
+    public boolean add(Hash hash) {
+        if (size + 1 > hashCodes.length * LOAD_FACTOR) {
+            resize();
+        }
+
+        byte[] bytes = hash.bytes();
+        int hashCode = spread(hash.hashCode());
+        int mask = hashCodes.length - 1;
+        for (int slot = hashCode & mask; ; slot = (slot + 1) & mask) {
+            if (hashCodes[slot] == 0) {
+                hashCodes[slot] = hashCode;
+                System.arraycopy(bytes, 0, elements, slot * Hash.SIZE_IN_BYTES, Hash.SIZE_IN_BYTES);
+                size++;
+
+                return true;
+            }
+            if (hashCodes[slot] == hashCode && equalsSlot(slot, bytes)) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof Hash)) {
+            return false;
+        }
+
+        Hash hash = (Hash) object;
+        byte[] bytes = hash.bytes();
+        int hashCode = spread(hash.hashCode());
+        int mask = hashCodes.length - 1;
+        for (int slot = hashCode & mask; hashCodes[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashCodes[slot] == hashCode && equalsSlot(slot, bytes)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public Iterator<Hash> iterator() {
+        return new Iterator<Hash>() {
+            private final int[] iteratedHashCodes = hashCodes;
+            private final byte[] iteratedElements = elements;
+            private int slot = nextSlot(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < iteratedHashCodes.length;
+            }
+
+            @Override
+            public Hash next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Hash hash = HashFactory.TRANSACTION.create(iteratedElements, slot * Hash.SIZE_IN_BYTES,
+                        Hash.SIZE_IN_BYTES);
+                slot = nextSlot(slot + 1);
+
+                return hash;
+            }
+
+            private int nextSlot(int start) {
+                int next = start;
+                while (next < iteratedHashCodes.length && iteratedHashCodes[next] == 0) {
+                    next++;
+                }
+
+                return next;
+            }
+        };
+    }
+
+    private boolean equalsSlot(int slot, byte[] bytes) {
+        int offset = slot * Hash.SIZE_IN_BYTES;
+        for (int i = 0; i < Hash.SIZE_IN_BYTES; i++) {
+            if (elements[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void resize() {
+        int[] oldHashCodes = hashCodes;
+        byte[] oldElements = elements;
+        int oldSize = size;
+        allocate(oldHashCodes.length << 1);
+        size = oldSize;
+
+        int mask = hashCodes.length - 1;
+        for (int oldSlot = 0; oldSlot < oldHashCodes.length; oldSlot++) {
+            int hashCode = oldHashCodes[oldSlot];
+            if (hashCode != 0) {
+                int slot = hashCode & mask;
+                while (hashCodes[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+
+                hashCodes[slot] = hashCode;
+                System.arraycopy(oldElements, oldSlot * Hash.SIZE_IN_BYTES, elements, slot * Hash.SIZE_IN_BYTES,
+                        Hash.SIZE_IN_BYTES);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        hashCodes = new int[capacity];
+        elements = new byte[capacity * Hash.SIZE_IN_BYTES];
+        size = 0;
+    }
+
+    /**
+     * Mixes the bits of the hash code and makes sure that it is never 0, which marks an empty slot.
+     */
+    private static int spread(int hashCode) {
+        int spread = hashCode * 0x9E3779B9;
+        spread ^= spread >>> 16;
+
+        return spread == 0 ? 1 : spread;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, capacity) - 1) << 1;
+
+        return tableSize > 0 ? tableSize : 1 << 30;
+    }
+}
@@ -4,8 +4,14 @@ import com.iota.iri.controllers.ApproveeViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.storage.Tangle;
+import com.iota.iri.utils.collections.impl.CompactHashSet;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -14,8 +20,39 @@ import pl.touk.throwing.ThrowingConsumer;
 /**
  * This class offers generic functions for recurring tasks that are related to the tangle and that otherwise would have
  * to be implemented over and over again in different parts of the code.
+ *
+ * The traversals process the tangle level by level. The transactions and approvers of large levels are loaded in
+ * batches on a shared {@link ForkJoinPool}, while the found transactions are passed to the callbacks on the calling
+ * thread in breadth first order.
  */
 public class DAGHelper {
+    /**
+     * Levels of a traversal with less transactions than this are loaded one by one on the calling thread.
+     */
+    private static final int MIN_PREFETCH_SIZE = 16;
+
+    /**
+     * The amount of transactions of a level that get loaded together by a single task of the {@link #TRAVERSAL_POOL}.
+     */
+    private static final int PREFETCH_BATCH_SIZE = 256;
+
+    /**
+     * The amount of transactions of a level whose approvers get loaded by a single task of the
+     * {@link #TRAVERSAL_POOL}.
+     */
+    private static final int APPROVERS_BATCH_SIZE = 64;
+
+    /**
+     * Thread pool that loads the levels of all traversals in parallel.
+     */
+    private static final ForkJoinPool TRAVERSAL_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("dag-traversal-" + thread.getPoolIndex());
+
+                return thread;
+            }, null, false);
+
     /**
      * Holds references to the singleton DAGHelper instances.
      */
@@ -72,8 +109,8 @@ public class DAGHelper {
      * name).
      *
      * It uses an non-recursive iterative algorithm that is able to handle huge chunks of the tangle without running out
-     * of memory. It creates a queue of transactions that are being examined and processes them one by one. As new
-     * approvers are found, they will be added to the queue and processed accordingly.
+     * of memory. It examines the approvers level by level and loads every level in batches before processing it (see
+     * {@link #visitApprovers(Collection, TraversalVisitor, Set)}).
      *
      * Every found transaction is passed into the provided condition lambda, to determine if it still belongs to the
      * desired set of transactions and only then will be passed on to the currentTransactionConsumer lambda.
@@ -90,28 +127,18 @@ public class DAGHelper {
                                   Predicate<TransactionViewModel> condition,
                                   Consumer<TransactionViewModel> currentTransactionConsumer,
                                   Set<Hash> processedTransactions) throws TraversalException {
-        Queue<Hash> transactionsToExamine = new ArrayDeque<>(Collections.singleton(startingTransactionHash));
         try {
-            Hash currentTransactionHash;
-            while((currentTransactionHash = transactionsToExamine.poll()) != null) {
-                if(currentTransactionHash == startingTransactionHash || processedTransactions.add(currentTransactionHash)) {
-                    TransactionViewModel currentTransaction = TransactionViewModel.fromHash(tangle, currentTransactionHash);
-                    if(
-                        // do not "test" the starting transaction since it is not an "approver"
-                        currentTransactionHash == startingTransactionHash || (
-                            currentTransaction.getType() != TransactionViewModel.PREFILLED_SLOT &&
-                            condition.test(currentTransaction)
-                        )
-                    ) {
-                        // do not consume the starting transaction since it is not an "approver"
-                        if(currentTransactionHash != startingTransactionHash) {
-                            currentTransactionConsumer.accept(currentTransaction);
+            // do not "test" or consume the starting transaction since it is not an "approver"
+            traverse(new ArrayList<>(ApproveeViewModel.load(tangle, startingTransactionHash).getHashes()), true,
+                    currentTransaction -> {
+                        if (!condition.test(currentTransaction)) {
+                            return false;
                         }
 
-                        transactionsToExamine.addAll(ApproveeViewModel.load(tangle, currentTransactionHash).getHashes());
-                    }
-                }
-            }
+                        currentTransactionConsumer.accept(currentTransaction);
+
+                        return true;
+                    }, processedTransactions);
         } catch (Exception e) {
             throw new TraversalException("error while traversing the approvers of transaction " + startingTransactionHash, e);
         }
@@ -132,7 +159,28 @@ public class DAGHelper {
     public void traverseApprovers(Hash startingTransactionHash,
                                   Predicate<TransactionViewModel> condition,
                                   Consumer<TransactionViewModel> currentTransactionConsumer) throws TraversalException {
-        traverseApprovers(startingTransactionHash, condition, currentTransactionConsumer, new HashSet<>());
+        traverseApprovers(startingTransactionHash, condition, currentTransactionConsumer, new CompactHashSet());
+    }
+
+    /**
+     * Visits the given transactions and their direct and indirect approvers in breadth first order.
+     *
+     * Every transaction is only visited once. The traversal continues with the approvers of a transaction if the
+     * visitor returns <tt>true</tt> for it. Missing transactions are neither visited nor expanded.
+     *
+     * @param transactionHashes the transactions that are visited first
+     * @param visitor receives the found transactions on the calling thread
+     * @param processedTransactions a set of hashes that shall be considered as "processed" already and that will
+     *                              consequently be ignored in the traversal (receives the visited hashes)
+     * @throws TraversalException if anything goes wrong while traversing the graph and processing the transactions
+     */
+    public void visitApprovers(Collection<Hash> transactionHashes, TraversalVisitor visitor,
+                               Set<Hash> processedTransactions) throws TraversalException {
+        try {
+            traverse(new ArrayList<>(transactionHashes), true, visitor, processedTransactions);
+        } catch (Exception e) {
+            throw new TraversalException("error while traversing the approvers of transactions " + transactionHashes, e);
+        }
     }
 
     //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -147,8 +195,8 @@ public class DAGHelper {
      * name).
      *
      * It uses an non-recursive iterative algorithm that is able to handle huge chunks of the tangle without running out
-     * of memory. It creates a queue of transactions that are being examined and processes them one by one. As new
-     * approvees are found, they will be added to the queue and processed accordingly.
+     * of memory. It examines the approvees level by level and loads every level in batches before processing it (see
+     * {@link #visitApprovees(Collection, TraversalVisitor, Set)}).
      *
      * Every found transaction is passed into the provided condition lambda, to determine if it still belongs to the
      * desired set of transactions and only then will be passed on to the currentTransactionConsumer lambda.
@@ -165,29 +213,23 @@ public class DAGHelper {
                                   Predicate<TransactionViewModel> condition,
                                   ThrowingConsumer<TransactionViewModel, ? extends Exception> currentTransactionConsumer,
                                   Set<Hash> processedTransactions) throws TraversalException {
-        Queue<Hash> transactionsToExamine = new ArrayDeque<>(Collections.singleton(startingTransactionHash));
         try {
-            Hash currentTransactionHash;
-            while((currentTransactionHash = transactionsToExamine.poll()) != null) {
-                if(currentTransactionHash == startingTransactionHash || processedTransactions.add(currentTransactionHash)) {
-                    TransactionViewModel currentTransaction = TransactionViewModel.fromHash(tangle, currentTransactionHash);
-                    if(
-                        currentTransaction.getType() != TransactionViewModel.PREFILLED_SLOT &&(
-                            // do not "test" the starting transaction since it is not an "approvee"
-                            currentTransactionHash == startingTransactionHash ||
-                            condition.test(currentTransaction)
-                        )
-                    ) {
-                        // do not consume the starting transaction since it is not an "approvee"
-                        if(currentTransactionHash != startingTransactionHash) {
-                            currentTransactionConsumer.accept(currentTransaction);
+            // do not "test" or consume the starting transaction since it is not an "approvee"
+            TransactionViewModel startingTransaction = TransactionViewModel.fromHash(tangle, startingTransactionHash);
+            if (startingTransaction.getType() == TransactionViewModel.PREFILLED_SLOT) {
+                return;
+            }
+
+            traverse(Arrays.asList(startingTransaction.getBranchTransactionHash(),
+                    startingTransaction.getTrunkTransactionHash()), false, currentTransaction -> {
+                        if (!condition.test(currentTransaction)) {
+                            return false;
                         }
 
-                        transactionsToExamine.add(currentTransaction.getBranchTransactionHash());
-                        transactionsToExamine.add(currentTransaction.getTrunkTransactionHash());
-                    }
-                }
-            }
+                        currentTransactionConsumer.accept(currentTransaction);
+
+                        return true;
+                    }, processedTransactions);
         } catch (Exception e) {
             throw new TraversalException("error while traversing the approvees of transaction " + startingTransactionHash, e);
         }
@@ -209,7 +251,28 @@ public class DAGHelper {
                                   Predicate<TransactionViewModel> condition,
                                   ThrowingConsumer<TransactionViewModel, ? extends Exception> currentTransactionConsumer)
             throws TraversalException {
-        traverseApprovees(startingTransactionHash, condition, currentTransactionConsumer, new HashSet<>());
+        traverseApprovees(startingTransactionHash, condition, currentTransactionConsumer, new CompactHashSet());
+    }
+
+    /**
+     * Visits the given transactions and their direct and indirect approvees in breadth first order.
+     *
+     * Every transaction is only visited once. The traversal continues with the trunk and branch of a transaction if the
+     * visitor returns <tt>true</tt> for it. Missing transactions are neither visited nor expanded.
+     *
+     * @param transactionHashes the transactions that are visited first
+     * @param visitor receives the found transactions on the calling thread
+     * @param processedTransactions a set of hashes that shall be considered as "processed" already and that will
+     *                              consequently be ignored in the traversal (receives the visited hashes)
+     * @throws TraversalException if anything goes wrong while traversing the graph and processing the transactions
+     */
+    public void visitApprovees(Collection<Hash> transactionHashes, TraversalVisitor visitor,
+                               Set<Hash> processedTransactions) throws TraversalException {
+        try {
+            traverse(new ArrayList<>(transactionHashes), false, visitor, processedTransactions);
+        } catch (Exception e) {
+            throw new TraversalException("error while traversing the approvees of transactions " + transactionHashes, e);
+        }
     }
 
     /**
@@ -222,23 +285,18 @@ public class DAGHelper {
      */
     public Set<? extends Hash> findTails(TransactionViewModel startingTransaction) throws TraversalException {
         Set<Hash> tailTxs = new HashSet<>();
-        Queue<Hash> transactionsToExamine = new ArrayDeque<>();
-        transactionsToExamine.offer(startingTransaction.getTrunkTransactionHash());
-        transactionsToExamine.offer(startingTransaction.getBranchTransactionHash());
         try {
-            Hash currentTransactionHash;
-            while ((currentTransactionHash = transactionsToExamine.poll()) != null) {
-                TransactionViewModel currentTransaction = TransactionViewModel.fromHash(tangle, currentTransactionHash);
-                if (currentTransaction.getType() != TransactionViewModel.PREFILLED_SLOT) {
-                    // if tail
-                    if (currentTransaction.getCurrentIndex() == 0) {
-                        tailTxs.add(currentTransaction.getHash());
-                    } else {
-                        transactionsToExamine.add(currentTransaction.getBranchTransactionHash());
-                        transactionsToExamine.add(currentTransaction.getTrunkTransactionHash());
-                    }
-                }
-            }
+            traverse(Arrays.asList(startingTransaction.getTrunkTransactionHash(),
+                    startingTransaction.getBranchTransactionHash()), false, currentTransaction -> {
+                        // if tail
+                        if (currentTransaction.getCurrentIndex() == 0) {
+                            tailTxs.add(currentTransaction.getHash());
+
+                            return false;
+                        }
+
+                        return true;
+                    }, new CompactHashSet());
         } catch (Exception e) {
             throw new TraversalException(
                     "error while traversing the approvees of transaction " + startingTransaction.getHash(), e);
@@ -247,4 +305,149 @@ public class DAGHelper {
     }
 
     //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    //region TRAVERSAL ENGINE //////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Traverses the tangle level by level, starting at the given transactions.
+     *
+     * Every level is first reduced to the transactions that were not processed yet and loaded in batches. The loaded
+     * transactions are then passed to the visitor on the calling thread. The neighbours of the transactions that the
+     * visitor expanded form the next level, where the approvers of a level get loaded in batches as well.
+     *
+     * @param level the transactions of the first level
+     * @param approvers <tt>true</tt> to continue with the approvers or <tt>false</tt> to continue with the approvees
+     * @param visitor receives the found transactions
+     * @param processedTransactions hashes of the transactions that were processed already
+     * @throws Exception if anything goes wrong while loading or visiting the transactions
+     */
+    private void traverse(List<Hash> level, boolean approvers, TraversalVisitor visitor,
+                          Set<Hash> processedTransactions) throws Exception {
+        while (!level.isEmpty()) {
+            List<Hash> unprocessedTransactions = new ArrayList<>(level.size());
+            for (Hash transactionHash : level) {
+                if (processedTransactions.add(transactionHash)) {
+                    unprocessedTransactions.add(transactionHash);
+                }
+            }
+
+            List<TransactionViewModel> expandedTransactions = new ArrayList<>(unprocessedTransactions.size());
+            for (TransactionViewModel transaction : loadTransactions(unprocessedTransactions)) {
+                if (transaction.getType() != TransactionViewModel.PREFILLED_SLOT && visitor.visit(transaction)) {
+                    expandedTransactions.add(transaction);
+                }
+            }
+
+            if (approvers) {
+                level = loadApprovers(expandedTransactions);
+            } else {
+                level = new ArrayList<>(expandedTransactions.size() * 2);
+                for (TransactionViewModel transaction : expandedTransactions) {
+                    level.add(transaction.getBranchTransactionHash());
+                    level.add(transaction.getTrunkTransactionHash());
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the transactions of a level. Small levels are loaded one by one on the calling thread.
+     *
+     * @param transactionHashes the hashes of the transactions
+     * @return the loaded transactions in the order of the given hashes
+     * @throws Exception if anything goes wrong while loading the transactions
+     */
+    private List<TransactionViewModel> loadTransactions(List<Hash> transactionHashes) throws Exception {
+        if (transactionHashes.size() < MIN_PREFETCH_SIZE) {
+            List<TransactionViewModel> transactions = new ArrayList<>(transactionHashes.size());
+            for (Hash transactionHash : transactionHashes) {
+                transactions.add(TransactionViewModel.fromHash(tangle, transactionHash));
+            }
+
+            return transactions;
+        }
+
+        return processInBatches(transactionHashes, PREFETCH_BATCH_SIZE,
+                batch -> TransactionViewModel.fromHashes(tangle, batch));
+    }
+
+    /**
+     * Loads the approvers of the transactions of a level.
+     *
+     * @param transactions the transactions whose approvers shall be loaded
+     * @return the hashes of the approvers of all transactions in the order of the given transactions
+     * @throws Exception if anything goes wrong while loading the approvers
+     */
+    private List<Hash> loadApprovers(List<TransactionViewModel> transactions) throws Exception {
+        BatchProcessor<TransactionViewModel, Hash> approversLoader = batch -> {
+            List<Hash> approverHashes = new ArrayList<>();
+            for (TransactionViewModel transaction : batch) {
+                approverHashes.addAll(ApproveeViewModel.load(tangle, transaction.getHash()).getHashes());
+            }
+
+            return approverHashes;
+        };
+
+        if (transactions.size() < MIN_PREFETCH_SIZE) {
+            return approversLoader.process(transactions);
+        }
+
+        return processInBatches(transactions, APPROVERS_BATCH_SIZE, approversLoader);
+    }
+
+    /**
+     * Splits the elements into batches, processes them on the {@link #TRAVERSAL_POOL} and concatenates the results.
+     *
+     * @param elements the elements that shall be processed
+     * @param batchSize the maximum amount of elements that are processed by a single task
+     * @param batchProcessor the function that processes a batch of elements
+     * @param <T> type of the elements
+     * @param <R> type of the results
+     * @return the concatenated results in the order of the batches
+     * @throws Exception if anything goes wrong while processing one of the batches
+     */
+    private static <T, R> List<R> processInBatches(List<T> elements, int batchSize,
+            BatchProcessor<T, R> batchProcessor) throws Exception {
+
+        if (elements.size() <= batchSize) {
+            return batchProcessor.process(elements);
+        }
+
+        List<Callable<List<R>>> tasks = new ArrayList<>();
+        for (int start = 0; start < elements.size(); start += batchSize) {
+            List<T> batch = elements.subList(start, Math.min(start + batchSize, elements.size()));
+            tasks.add(() -> batchProcessor.process(batch));
+        }
+
+        List<R> results = new ArrayList<>(elements.size());
+        try {
+            for (Future<List<R>> batchResult : TRAVERSAL_POOL.invokeAll(tasks)) {
+                results.addAll(batchResult.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+
+        return results;
+    }
+
+    /**
+     * Functional interface for the lambda functions that process a batch of elements of a level.
+     *
+     * @param <T> type of the elements
+     * @param <R> type of the results
+     */
+    @FunctionalInterface
+    private interface BatchProcessor<T, R> {
+        /**
+         * Processes a batch of elements.
+         *
+         * @param batch the elements that shall be processed
+         * @return the results of the batch
+         * @throws Exception if anything goes wrong while processing the batch
+         */
+        List<R> process(List<T> batch) throws Exception;
+    }
+
+    //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
 }
@@ -0,0 +1,22 @@
+package com.iota.iri.utils.dag;
+
+import com.iota.iri.controllers.TransactionViewModel;
+
+/**
+ * Receives the transactions that are found by a traversal of the {@link DAGHelper}.
+ *
+ * The visitor is always called by the thread that started the traversal and in breadth first order, so it does not
+ * have to be thread safe, even though the transactions of the traversal are loaded in parallel.
+ */
+@FunctionalInterface
+public interface TraversalVisitor {
+    /**
+     * Processes a transaction that was found by the traversal.
+     *
+     * @param transaction the transaction that was found
+     * @return <tt>true</tt> if the traversal should continue with the neighbours of the transaction, else
+     *         <tt>false</tt>
+     * @throws Exception if anything goes wrong while processing the transaction
+     */
+    boolean visit(TransactionViewModel transaction) throws Exception;
+}
@@ -3,6 +3,7 @@ package com.iota.iri.utils.datastructure.impl;
 import com.iota.iri.utils.BitSetUtils;
 import com.iota.iri.utils.datastructure.CuckooFilter;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.BitSet;
@@ -23,8 +24,11 @@ public class CuckooFilterImpl implements CuckooFilter {
 
     /**
      * The hash function that is used to generate finger prints and indexes (defaults to SHA1).
+     *
+     * Every thread uses its own instance, so that concurrent lookups don't corrupt each others digests.
      */
-    private MessageDigest hashFunction;
+    private final ThreadLocal<MessageDigest> hashFunction =
+            ThreadLocal.withInitial(CuckooFilterImpl::createHashFunction);
 
     /**
      * the amount of buckets in our table (get's calculated from the itemCount that we want to store)
@@ -96,11 +100,8 @@ public class CuckooFilterImpl implements CuckooFilter {
     public CuckooFilterImpl(int itemCount, int bucketSize, int fingerPrintSize) throws IllegalArgumentException,
             InternalError {
 
-        try {
-            hashFunction = MessageDigest.getInstance("SHA1");
-        } catch(NoSuchAlgorithmException e) {
-            throw new InternalError("missing SHA1 support - please check your JAVA installation");
-        }
+        // fail early if SHA1 is not supported
+        createHashFunction();
 
         if(fingerPrintSize <= 0 || fingerPrintSize > 128) {
             throw new IllegalArgumentException("invalid finger print size \"" + fingerPrintSize +
@@ -118,6 +119,82 @@ public class CuckooFilterImpl implements CuckooFilter {
         cuckooFilterTable = new CuckooFilterTable(tableSize, bucketSize, fingerPrintSize);
     }
 
+    /**
+     * Restores a filter from an image that was created by {@link #toBytes()}.
+     *
+     * @param image the serialized filter
+     * @throws IllegalArgumentException if the image is malformed
+     * @throws InternalError if the SHA1 hashing function can not be found with this java version [should never happen]
+     */
+    public CuckooFilterImpl(byte[] image) throws IllegalArgumentException, InternalError {
+        // fail early if SHA1 is not supported
+        createHashFunction();
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(image);
+            tableSize = buffer.getInt();
+            bucketSize = buffer.getInt();
+            fingerPrintSize = buffer.getInt();
+            storedItems = buffer.getInt();
+            capacity = tableSize * bucketSize + 1;
+            if(tableSize <= 0 || Integer.bitCount(tableSize) != 1 || bucketSize <= 0 || fingerPrintSize <= 0 ||
+                    fingerPrintSize > 128 || storedItems < 0) {
+                throw new IllegalArgumentException("invalid cuckoo filter image");
+            }
+
+            cuckooFilterTable = new CuckooFilterTable(tableSize, bucketSize, fingerPrintSize);
+
+            if(buffer.get() != 0) {
+                int victimIndex = buffer.getInt();
+                byte[] victimFingerPrint = new byte[buffer.getInt()];
+                buffer.get(victimFingerPrint);
+                lastVictim = new CuckooFilterItem(BitSet.valueOf(victimFingerPrint), victimIndex);
+            }
+
+            byte[] tableData = new byte[buffer.getInt()];
+            buffer.get(tableData);
+            cuckooFilterTable.data = BitSet.valueOf(tableData);
+
+            if(buffer.hasRemaining()) {
+                throw new IllegalArgumentException("invalid cuckoo filter image");
+            }
+        } catch(RuntimeException e) {
+            if(e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("invalid cuckoo filter image", e);
+        }
+    }
+
+    /**
+     * Serializes the filter, so it can be restored through {@link #CuckooFilterImpl(byte[])} without having to add all
+     * elements again.
+     *
+     * @return the image of the filter
+     */
+    public byte[] toBytes() {
+        byte[] victimFingerPrint = lastVictim == null ? new byte[0] : lastVictim.fingerPrint.toByteArray();
+        byte[] tableData = cuckooFilterTable.data.toByteArray();
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 * Integer.BYTES + 1 +
+                (lastVictim == null ? 0 : 2 * Integer.BYTES + victimFingerPrint.length) +
+                Integer.BYTES + tableData.length);
+        buffer.putInt(tableSize);
+        buffer.putInt(bucketSize);
+        buffer.putInt(fingerPrintSize);
+        buffer.putInt(storedItems);
+        buffer.put((byte) (lastVictim == null ? 0 : 1));
+        if(lastVictim != null) {
+            buffer.putInt(lastVictim.index);
+            buffer.putInt(victimFingerPrint.length);
+            buffer.put(victimFingerPrint);
+        }
+        buffer.putInt(tableData.length);
+        buffer.put(tableData);
+
+        return buffer.array();
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -135,7 +212,7 @@ public class CuckooFilterImpl implements CuckooFilter {
      */
     @Override
     public boolean add(byte[] item) throws IndexOutOfBoundsException {
-        return add(new CuckooFilterItem(hashFunction.digest(item)));
+        return add(new CuckooFilterItem(hashFunction.get().digest(item)));
     }
 
     /**
@@ -157,7 +234,7 @@ public class CuckooFilterImpl implements CuckooFilter {
      */
     @Override
     public boolean contains(byte[] item) {
-        return contains(new CuckooFilterItem(hashFunction.digest(item)));
+        return contains(new CuckooFilterItem(hashFunction.get().digest(item)));
     }
 
     /**
@@ -177,7 +254,7 @@ public class CuckooFilterImpl implements CuckooFilter {
      */
     @Override
     public boolean delete(byte[] item) {
-        return delete(new CuckooFilterItem(hashFunction.digest(item)));
+        return delete(new CuckooFilterItem(hashFunction.get().digest(item)));
     }
 
     /**
@@ -345,6 +422,20 @@ public class CuckooFilterImpl implements CuckooFilter {
         return false;
     }
 
+    /**
+     * Creates the hash function that is used to generate finger prints and indexes.
+     *
+     * @return a new SHA1 message digest
+     * @throws InternalError if the SHA1 hashing function can not be found with this java version [should never happen]
+     */
+    private static MessageDigest createHashFunction() throws InternalError {
+        try {
+            return MessageDigest.getInstance("SHA1");
+        } catch(NoSuchAlgorithmException e) {
+            throw new InternalError("missing SHA1 support - please check your JAVA installation");
+        }
+    }
+
     /**
      * This method derives the index of an element by the full hash of the item.
      *
@@ -395,7 +486,7 @@ public class CuckooFilterImpl implements CuckooFilter {
      */
     private int getIndex(BitSet fingerPrint, long oldIndex) {
         // calculate the hash of the finger print (partial-key cuckoo hashing)
-        byte[] fingerPrintHash = hashFunction.digest(BitSetUtils.convertBitSetToByteArray(fingerPrint));
+        byte[] fingerPrintHash = hashFunction.get().digest(BitSetUtils.convertBitSetToByteArray(fingerPrint));
 
         // initialize the new address with an empty bit sequence
         long index = 0;
@@ -450,7 +541,7 @@ public class CuckooFilterImpl implements CuckooFilter {
         private int altIndex;
 
         public CuckooFilterItem(String item) {
-            this(hashFunction.digest(item.getBytes()));
+            this(hashFunction.get().digest(item.getBytes()));
         }
 
         public CuckooFilterItem(byte[] hash) {
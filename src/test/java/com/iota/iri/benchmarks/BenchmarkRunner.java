@@ -1,5 +1,6 @@
 package com.iota.iri.benchmarks;
 
+import com.iota.iri.benchmarks.dbbenchmark.PointLookupBenchmark;
 import com.iota.iri.benchmarks.dbbenchmark.RocksDbBenchmark;
 import org.junit.Test;
 import org.openjdk.jmh.annotations.Mode;
@@ -32,6 +33,22 @@ public class BenchmarkRunner {
         new Runner(opts).run();
     }
 
+    @Test
+    public void launchPointLookupBenchmarks() throws RunnerException {
+        Options opts = new OptionsBuilder()
+                .include(PointLookupBenchmark.class.getName() + ".*")
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .warmupIterations(getWarmUpIterations(5))
+                .forks(getForks(1))
+                .threads(getThreads())
+                .measurementIterations(getMeasurementIterations(10))
+                .shouldFailOnError(true)
+                .shouldDoGC(false)
+                .build();
+        new Runner(opts).run();
+    }
+
     @Test
     public void launchCryptoBenchmark() throws RunnerException {
         Options opts = new OptionsBuilder()
@@ -48,6 +65,22 @@ public class BenchmarkRunner {
         new Runner(opts).run();
     }
 
+    @Test
+    public void launchNetworkBenchmark() throws RunnerException {
+        Options opts = new OptionsBuilder()
+                .include(this.getClass().getPackage().getName() + ".network")
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .warmupIterations(getWarmUpIterations(5))
+                .forks(getForks(1))
+                .threads(getThreads())
+                .measurementIterations(getMeasurementIterations(10))
+                .shouldFailOnError(true)
+                .shouldDoGC(false)
+                .build();
+        new Runner(opts).run();
+    }
+
     private int getThreads() {
         return getProperty("threads", Integer.toString(Runtime.getRuntime().availableProcessors()));
     }
@@ -0,0 +1,28 @@
+package com.iota.iri.benchmarks.dbbenchmark;
+
+import com.iota.iri.benchmarks.dbbenchmark.states.PointLookupState;
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.persistables.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares random transaction reads of the preset table layout with the point lookup layout. The transactions are
+ * loaded from the tangle directly, so the reads aren't served by the transaction cache.
+ */
+public class PointLookupBenchmark {
+
+    @Benchmark
+    public void fetchRandom(PointLookupState state, Blackhole blackhole) throws Exception {
+        for (Hash hash : state.getStoredHashes()) {
+            blackhole.consume(state.getTangle().load(Transaction.class, hash));
+        }
+    }
+
+    @Benchmark
+    public void fetchMissing(PointLookupState state, Blackhole blackhole) throws Exception {
+        for (Hash hash : state.getMissingHashes()) {
+            blackhole.consume(state.getTangle().load(Transaction.class, hash));
+        }
+    }
+}
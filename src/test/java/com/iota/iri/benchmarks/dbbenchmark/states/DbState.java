@@ -19,6 +19,7 @@ import com.iota.iri.service.snapshot.SnapshotProvider;
 import com.iota.iri.service.snapshot.impl.SnapshotProviderImpl;
 import com.iota.iri.storage.PersistenceProvider;
 import com.iota.iri.storage.Tangle;
+import com.iota.iri.storage.rocksDB.ColumnFamilyProfile;
 import com.iota.iri.storage.rocksDB.RocksDBPersistenceProvider;
 
 @State(Scope.Benchmark)
@@ -46,7 +47,8 @@ public abstract class DbState {
         }
         logFolder.mkdirs();
         PersistenceProvider dbProvider = new RocksDBPersistenceProvider(
-                dbFolder.getAbsolutePath(), logFolder.getAbsolutePath(), null, BaseIotaConfig.Defaults.DB_CACHE_SIZE, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY);
+                dbFolder.getAbsolutePath(), logFolder.getAbsolutePath(), null, BaseIotaConfig.Defaults.DB_CACHE_SIZE, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY,
+                getColumnFamilyProfiles(), null, 0);
         dbProvider.init();
 
         PersistenceProvider lsDbProvider = new RocksDBPersistenceProvider(
@@ -90,6 +92,13 @@ public abstract class DbState {
         tangle.clearMetadata(Transaction.class);
     }
 
+    /**
+     * @return the profiles of the column families of the tangle, by default the options of the provider without profiles
+     */
+    protected Map<String, ColumnFamilyProfile> getColumnFamilyProfiles() {
+        return Collections.emptyMap();
+    }
+
     public Tangle getTangle() {
         return tangle;
     }
@@ -0,0 +1,84 @@
+package com.iota.iri.benchmarks.dbbenchmark.states;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.controllers.TransactionViewModel;
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.HashFactory;
+import com.iota.iri.model.persistables.Transaction;
+import com.iota.iri.storage.rocksDB.ColumnFamilyProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the transactions once and flushes them to the tables, so the lookups of the benchmarks read from the tables
+ * of the given layout instead of the memtables.
+ */
+@State(Scope.Benchmark)
+public class PointLookupState extends DbState {
+
+    @Param({"presets", "pointLookup"})
+    private String tableLayout;
+
+    private List<Hash> storedHashes;
+    private List<Hash> missingHashes;
+
+    @Override
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        super.setup();
+        for (TransactionViewModel tvm : getTransactions()) {
+            tvm.store(getTangle(), getSnapshotProvider().getInitialSnapshot());
+        }
+
+        byte[] lastKey = new byte[Hash.SIZE_IN_BYTES];
+        Arrays.fill(lastKey, (byte) 0xFF);
+        getTangle().compactRange(Transaction.class, HashFactory.TRANSACTION.create(new byte[Hash.SIZE_IN_BYTES]),
+                HashFactory.TRANSACTION.create(lastKey));
+
+        List<Hash> hashes = getTransactions().stream()
+                .map(TransactionViewModel::getHash)
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(hashes, new Random(0));
+        storedHashes = Collections.unmodifiableList(hashes);
+
+        List<Hash> missing = new ArrayList<>(hashes.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            missing.add(TransactionTestUtils.getTransactionHash());
+        }
+        missingHashes = Collections.unmodifiableList(missing);
+    }
+
+    @Override
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        super.teardown();
+    }
+
+    @Override
+    protected Map<String, ColumnFamilyProfile> getColumnFamilyProfiles() {
+        return "pointLookup".equals(tableLayout)
+                ? ColumnFamilyProfile.withPointLookups(ColumnFamilyProfile.TANGLE_PRESETS)
+                : ColumnFamilyProfile.TANGLE_PRESETS;
+    }
+
+    /**
+     * @return the hashes of the stored transactions in random order
+     */
+    public List<Hash> getStoredHashes() {
+        return storedHashes;
+    }
+
+    /**
+     * @return hashes of transactions that were never stored
+     */
+    public List<Hash> getMissingHashes() {
+        return missingHashes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.iota.iri.benchmarks.network;
+
+import com.iota.iri.network.StripedFIFOCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures the throughput of the recently seen bytes cache under multi-threaded contention. The thread count is
+ * controlled via the {@code threads} system property of the benchmark runner.
+ */
+public class StripedFIFOCacheBenchmark {
+
+    private static final int CACHE_SIZE = 15_000;
+
+    @State(Scope.Benchmark)
+    public static class CacheState {
+
+        @Param({"1", "16"})
+        private int stripes;
+
+        private StripedFIFOCache<Long> cache;
+
+        @Setup
+        public void setup() {
+            cache = new StripedFIFOCache<>(CACHE_SIZE, stripes);
+            for (long key = 0; key < CACHE_SIZE; key++) {
+                cache.put(key, key);
+            }
+        }
+    }
+
+    /**
+     * Mostly lookups of known digests with occasional inserts, resembling the pre-process and validation stages.
+     */
+    @Benchmark
+    public Long getMostly(CacheState state) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long key = rnd.nextLong(CACHE_SIZE * 2);
+        if (rnd.nextInt(10) == 0) {
+            return state.cache.put(key, key);
+        }
+        return state.cache.get(key);
+    }
+
+    /**
+     * Only inserts of new digests, forcing an eviction on every call.
+     */
+    @Benchmark
+    public Long putOnly(CacheState state) {
+        long key = ThreadLocalRandom.current().nextLong();
+        return state.cache.put(key, key);
+    }
+}
@@ -0,0 +1,134 @@
+package com.iota.iri.controllers;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.HashFactory;
+import com.iota.iri.model.IntegerIndex;
+import com.iota.iri.model.LocalSnapshot;
+import com.iota.iri.model.LocalSnapshotChunk;
+import com.iota.iri.model.LocalSnapshotManifest;
+import com.iota.iri.storage.LocalSnapshotsPersistenceProvider;
+import com.iota.iri.storage.rocksDB.RocksDBPersistenceProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocalSnapshotViewModelTest {
+
+    private static final Hash MILESTONE_HASH = HashFactory.TRANSACTION.create("MILESTONE");
+
+    private final TemporaryFolder dbFolder = new TemporaryFolder();
+    private final TemporaryFolder logFolder = new TemporaryFolder();
+
+    private LocalSnapshotsPersistenceProvider provider;
+
+    private final Map<Hash, Integer> solidEntryPoints = new HashMap<>();
+    private final Map<Hash, Integer> seenMilestones = new HashMap<>();
+    private final Map<Hash, Long> ledgerState = new HashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        dbFolder.create();
+        logFolder.create();
+        provider = new LocalSnapshotsPersistenceProvider(
+                new RocksDBPersistenceProvider(
+                        dbFolder.getRoot().getAbsolutePath(),
+                        logFolder.getRoot().getAbsolutePath(),
+                        1000,
+                        LocalSnapshotsPersistenceProvider.COLUMN_FAMILIES,
+                        null));
+        provider.init();
+
+        for (int i = 0; i < 1000; i++) {
+            ledgerState.put(HashFactory.ADDRESS.create(TransactionTestUtils.getTransactionHash().trits()), (long) i);
+        }
+        for (int i = 0; i < 100; i++) {
+            solidEntryPoints.put(TransactionTestUtils.getTransactionHash(), i);
+            seenMilestones.put(TransactionTestUtils.getTransactionHash(), i);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        provider.shutdown();
+        dbFolder.delete();
+        logFolder.delete();
+    }
+
+    @Test
+    public void storedLocalSnapshotIsLoaded() throws Exception {
+        assertTrue(new LocalSnapshotViewModel(MILESTONE_HASH, 10, 100, solidEntryPoints, seenMilestones, ledgerState)
+                .store(provider));
+
+        LocalSnapshotViewModel loaded = LocalSnapshotViewModel.load(provider);
+        assertEquals(MILESTONE_HASH, loaded.getMilestoneHash());
+        assertEquals(10, loaded.getMilestoneIndex());
+        assertEquals(100, loaded.getMilestoneTimestamp());
+        assertEquals(solidEntryPoints, loaded.getSolidEntryPoints());
+        assertEquals(seenMilestones, loaded.getSeenMilestones());
+        assertEquals(ledgerState, loaded.getLedgerState());
+    }
+
+    @Test
+    public void onlyChangedChunksAreRewritten() throws Exception {
+        new LocalSnapshotViewModel(MILESTONE_HASH, 10, 100, solidEntryPoints, seenMilestones, ledgerState)
+                .store(provider);
+        int[] firstGenerations = loadManifest().chunkGenerations[LocalSnapshotChunk.Section.LEDGER_STATE.ordinal()];
+
+        Hash changedAddress = ledgerState.keySet().iterator().next();
+        ledgerState.put(changedAddress, -1L);
+        new LocalSnapshotViewModel(MILESTONE_HASH, 11, 110, solidEntryPoints, seenMilestones, ledgerState)
+                .store(provider);
+        LocalSnapshotManifest manifest = loadManifest();
+        int[] secondGenerations = manifest.chunkGenerations[LocalSnapshotChunk.Section.LEDGER_STATE.ordinal()];
+
+        int changedChunk = LocalSnapshotChunk.Section.LEDGER_STATE.chunkOf(changedAddress);
+        for (int chunk = 0; chunk < secondGenerations.length; chunk++) {
+            if (chunk == changedChunk) {
+                assertEquals("changed chunk should be rewritten", manifest.generation, secondGenerations[chunk]);
+            } else {
+                assertEquals("unchanged chunk should be kept", firstGenerations[chunk], secondGenerations[chunk]);
+            }
+        }
+        assertFalse("replaced chunk should be deleted", provider.exists(LocalSnapshotChunk.class, LocalSnapshotChunk
+                .index(firstGenerations[changedChunk], LocalSnapshotChunk.Section.LEDGER_STATE, changedChunk)));
+        assertEquals(ledgerState, LocalSnapshotViewModel.load(provider).getLedgerState());
+    }
+
+    @Test
+    public void legacyLocalSnapshotIsLoadedAndReplaced() throws Exception {
+        LocalSnapshot legacy = new LocalSnapshot();
+        legacy.milestoneHash = MILESTONE_HASH;
+        legacy.milestoneIndex = 10;
+        legacy.milestoneTimestamp = 100;
+        legacy.solidEntryPoints = solidEntryPoints;
+        legacy.numSolidEntryPoints = solidEntryPoints.size();
+        legacy.seenMilestones = seenMilestones;
+        legacy.numSeenMilestones = seenMilestones.size();
+        legacy.ledgerState = ledgerState;
+        provider.save(legacy, new IntegerIndex(1));
+
+        LocalSnapshotViewModel loaded = LocalSnapshotViewModel.load(provider);
+        assertEquals(ledgerState, loaded.getLedgerState());
+        assertEquals(solidEntryPoints, loaded.getSolidEntryPoints());
+
+        new LocalSnapshotViewModel(MILESTONE_HASH, 11, 110, solidEntryPoints, seenMilestones, ledgerState)
+                .store(provider);
+        assertFalse("legacy local snapshot should be removed",
+                provider.exists(LocalSnapshot.class, new IntegerIndex(1)));
+        assertEquals(11, LocalSnapshotViewModel.load(provider).getMilestoneIndex());
+    }
+
+    private LocalSnapshotManifest loadManifest() throws Exception {
+        return (LocalSnapshotManifest) provider.get(LocalSnapshotManifest.class, new IntegerIndex(1));
+    }
+}
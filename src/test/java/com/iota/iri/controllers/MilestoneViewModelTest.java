@@ -1,5 +1,6 @@
 package com.iota.iri.controllers;
 
+import com.iota.iri.TransactionTestUtils;
 import com.iota.iri.conf.MainnetConfig;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
@@ -12,6 +13,7 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class MilestoneViewModelTest {
@@ -183,4 +185,44 @@ public class MilestoneViewModelTest {
         new MilestoneViewModel(first, HashFactory.TRANSACTION.create("GBCDEFGHIJKLMNODQRSTUVWXYZ9ABCDEFGHIJKLMNOPQRSTUVWXYZ9ABCDEFGHIJKLMNOPQRSTUV99999")).store(tangle);
         assertEquals(first, MilestoneViewModel.findClosestPrevMilestone(tangle, next, first).index().intValue());
     }
+
+    @Test
+    public void findClosestPrevMilestoneAcrossGap() throws Exception {
+        storeMilestones(2000, 2001, 2005);
+
+        assertEquals("should find the direct predecessor", 2000,
+                MilestoneViewModel.findClosestPrevMilestone(tangle, 2001, 2000).index().intValue());
+        assertEquals("should skip the gap", 2001,
+                MilestoneViewModel.findClosestPrevMilestone(tangle, 2005, 2000).index().intValue());
+        assertEquals("should find the milestone at the min index", 2001,
+                MilestoneViewModel.findClosestPrevMilestone(tangle, 2004, 2001).index().intValue());
+        assertNull("should not search below the min index", MilestoneViewModel.findClosestPrevMilestone(tangle,
+                2005, 2002));
+        assertNull("should not search below the min index", MilestoneViewModel.findClosestPrevMilestone(tangle,
+                2000, 2000));
+    }
+
+    @Test
+    public void findClosestNextMilestoneAcrossGap() throws Exception {
+        storeMilestones(3000, 3001, 3005);
+
+        assertEquals("should find the direct successor", 3001,
+                MilestoneViewModel.findClosestNextMilestone(tangle, 3000, 3005).index().intValue());
+        assertEquals("should skip the gap", 3005,
+                MilestoneViewModel.findClosestNextMilestone(tangle, 3001, 3010).index().intValue());
+        assertEquals("should find the milestone at the max index", 3005,
+                MilestoneViewModel.findClosestNextMilestone(tangle, 3002, 3005).index().intValue());
+        assertNull("should not search above the max index", MilestoneViewModel.findClosestNextMilestone(tangle,
+                3001, 3004));
+        assertNull("should not search above the max index", MilestoneViewModel.findClosestNextMilestone(tangle,
+                3005, 3005));
+        assertNull("should not find milestones after the latest one", MilestoneViewModel.findClosestNextMilestone(
+                tangle, 3005, 3010));
+    }
+
+    private static void storeMilestones(int... indexes) throws Exception {
+        for (int milestoneIndex : indexes) {
+            new MilestoneViewModel(milestoneIndex, TransactionTestUtils.getTransactionHash()).store(tangle);
+        }
+    }
 }
@@ -358,6 +358,23 @@ public class TransactionViewModelTest {
                 Arrays.copyOf(hash.bytes(), new MainnetConfig().getRequestHashSize())).getBytes(), transactionViewModel.getBytes()));
     }
 
+    @Test
+    public void storeBatchShouldStoreNewTransactionsOnce() throws Exception {
+        byte[] trits = getTransactionTrits();
+        TransactionViewModel storedBefore = new TransactionViewModel(trits, TransactionHash.calculate(SpongeFactory.Mode.CURLP81, trits));
+        storedBefore.store(tangle, snapshot);
+        trits = getTransactionTrits();
+        TransactionViewModel newTransaction = new TransactionViewModel(trits, TransactionHash.calculate(SpongeFactory.Mode.CURLP81, trits));
+
+        List<TransactionViewModel> stored = TransactionViewModel.storeBatch(tangle, snapshot,
+                Arrays.asList(storedBefore, newTransaction, newTransaction));
+
+        assertEquals("only the new transaction should be stored", Collections.singletonList(newTransaction), stored);
+        Assert.assertTrue("new transaction should exist", tangle.exists(Transaction.class, newTransaction.getHash()));
+        Assert.assertTrue("new transaction should be indexed by address", AddressViewModel.load(tangle,
+                newTransaction.getAddressHash()).getHashes().contains(newTransaction.getHash()));
+    }
+
     //@Test
     public void testManyTXInDB() throws Exception {
         int i, j;
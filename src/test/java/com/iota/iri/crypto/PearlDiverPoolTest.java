@@ -0,0 +1,84 @@
+package com.iota.iri.crypto;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.TransactionHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PearlDiverPoolTest {
+
+    private static final int MIN_WEIGHT_MAGNITUDE = 9;
+
+    private PearlDiverPool pearlDiverPool;
+
+    @Before
+    public void setUp() {
+        pearlDiverPool = new PearlDiverPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        pearlDiverPool.shutdown();
+    }
+
+    @Test
+    public void concurrentSearchesFindValidNonces() throws Exception {
+        List<byte[]> transactions = new ArrayList<>();
+        List<PearlDiverPool.Search> searches = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            byte[] trits = TransactionTestUtils.getTransactionTrits();
+            transactions.add(trits);
+            searches.add(pearlDiverPool.search(trits, MIN_WEIGHT_MAGNITUDE));
+        }
+
+        for (int i = 0; i < searches.size(); i++) {
+            assertTrue("search should complete", searches.get(i).await());
+            assertTrue("search should report its hashes", searches.get(i).getHashCount() > 0);
+            Hash hash = TransactionHash.calculate(SpongeFactory.Mode.CURLP81, transactions.get(i));
+            for (int j = Hash.SIZE_IN_TRITS - 1; j >= Hash.SIZE_IN_TRITS - MIN_WEIGHT_MAGNITUDE; j--) {
+                assertEquals("hash should end with zeros", 0, hash.trits()[j]);
+            }
+        }
+    }
+
+    @Test
+    public void cancelledSearchDoesNotAffectOthers() throws Exception {
+        byte[] cancelledTrits = TransactionTestUtils.getTransactionTrits();
+        byte[] expectedTrits = cancelledTrits.clone();
+        PearlDiverPool.Search cancelled = pearlDiverPool.search(cancelledTrits, Curl.HASH_LENGTH);
+        PearlDiverPool.Search other = pearlDiverPool.search(TransactionTestUtils.getTransactionTrits(),
+                MIN_WEIGHT_MAGNITUDE);
+
+        cancelled.cancel();
+
+        assertFalse("cancelled search should not complete", cancelled.await());
+        assertTrue("other search should complete", other.await());
+        assertTrue("cancelled search should not write a nonce", Arrays.equals(expectedTrits, cancelledTrits));
+    }
+
+    @Test
+    public void shutdownCancelsRunningSearches() throws Exception {
+        PearlDiverPool.Search search = pearlDiverPool.search(TransactionTestUtils.getTransactionTrits(),
+                Curl.HASH_LENGTH);
+
+        pearlDiverPool.shutdown();
+
+        assertFalse("search should be cancelled", search.await());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidMagnitude() {
+        pearlDiverPool.search(new byte[8019], -1);
+    }
+}
@@ -0,0 +1,147 @@
+package com.iota.iri.crypto;
+
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.TransactionHash;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WidePearlDiverKernelTest {
+
+    private static final int TRANSACTION_LENGTH = 8019;
+
+    private static final int MIN_WEIGHT_MAGNITUDE = 7;
+
+    private static final int MAX_TRIES = 10_000;
+
+    @Test
+    public void lanesProduceTheStatesOfTheNarrowKernel() {
+        byte[] transactionTrits = fixedTransactionTrits(1);
+        int firstLane = 2;
+        int maskStartIndex = Curl.HASH_LENGTH - MIN_WEIGHT_MAGNITUDE;
+        WideWorker wide = new WideWorker(transactionTrits, firstLane);
+        NarrowWorker[] narrow = narrowWorkers(transactionTrits, firstLane);
+
+        for (int tryIndex = 0; tryIndex < 16; tryIndex++) {
+            wide.tryNextNonces(maskStartIndex);
+            for (int lane = 0; lane < WidePearlDiverKernel.LANES; lane++) {
+                long mask = narrow[lane].tryNextNonces(maskStartIndex);
+                assertEquals("lane " + lane + " should find the same nonces", mask, wide.masks[lane]);
+                assertArrayEquals("lane " + lane + " should hold the same low bits",
+                        narrow[lane].stateLow, wide.lane(wide.stateLow, lane));
+                assertArrayEquals("lane " + lane + " should hold the same high bits",
+                        narrow[lane].stateHigh, wide.lane(wide.stateHigh, lane));
+            }
+        }
+    }
+
+    @Test
+    public void nonceOfTheWideKernelEqualsTheNonceOfTheNarrowKernel() {
+        for (long seed = 1; seed <= 3; seed++) {
+            byte[] wideTrits = fixedTransactionTrits(seed);
+            byte[] narrowTrits = wideTrits.clone();
+            int maskStartIndex = Curl.HASH_LENGTH - MIN_WEIGHT_MAGNITUDE;
+            WideWorker wide = new WideWorker(wideTrits, 0);
+            NarrowWorker[] narrow = narrowWorkers(narrowTrits, 0);
+
+            int lane = -1;
+            long narrowMask = 0;
+            for (int tries = 0; lane < 0 && tries < MAX_TRIES; tries++) {
+                lane = wide.tryNextNonces(maskStartIndex);
+                for (int i = 0; i < narrow.length; i++) {
+                    long mask = narrow[i].tryNextNonces(maskStartIndex);
+                    if (i == lane) {
+                        narrowMask = mask;
+                    }
+                }
+            }
+            assertTrue("a nonce should be found", lane >= 0);
+            assertEquals("the narrow kernel should find the nonce in the same try", wide.masks[lane], narrowMask);
+
+            WidePearlDiverKernel.writeNonce(wideTrits, lane, wide.masks[lane], wide.midStateLow, wide.midStateHigh);
+            PearlDiver.writeNonce(narrowTrits, narrowMask, narrow[lane].midStateLow, narrow[lane].midStateHigh);
+            assertArrayEquals("the nonces should be equal", narrowTrits, wideTrits);
+
+            Hash wideHash = TransactionHash.calculate(SpongeFactory.Mode.CURLP81, wideTrits);
+            assertEquals("the hashes should be equal",
+                    TransactionHash.calculate(SpongeFactory.Mode.CURLP81, narrowTrits), wideHash);
+            for (int j = Hash.SIZE_IN_TRITS - 1; j >= Hash.SIZE_IN_TRITS - MIN_WEIGHT_MAGNITUDE; j--) {
+                assertEquals("hash should end with zeros", 0, wideHash.trits()[j]);
+            }
+        }
+    }
+
+    private static byte[] fixedTransactionTrits(long seed) {
+        Random random = new Random(seed);
+        byte[] trits = new byte[TRANSACTION_LENGTH];
+        for (int i = 0; i < trits.length; i++) {
+            trits[i] = (byte) (random.nextInt(3) - 1);
+        }
+        return trits;
+    }
+
+    private static NarrowWorker[] narrowWorkers(byte[] transactionTrits, int firstLane) {
+        NarrowWorker[] workers = new NarrowWorker[WidePearlDiverKernel.LANES];
+        for (int lane = 0; lane < workers.length; lane++) {
+            workers[lane] = new NarrowWorker(transactionTrits, firstLane + lane);
+        }
+        return workers;
+    }
+
+    /**
+     * The state of a worker of the classic {@link PearlDiver} kernel.
+     */
+    private static class NarrowWorker {
+        private final long[] midStateLow = new long[PearlDiver.CURL_STATE_LENGTH];
+        private final long[] midStateHigh = new long[PearlDiver.CURL_STATE_LENGTH];
+        private final long[] stateLow = new long[PearlDiver.CURL_STATE_LENGTH];
+        private final long[] stateHigh = new long[PearlDiver.CURL_STATE_LENGTH];
+        private final long[] scratchpadLow = new long[PearlDiver.CURL_STATE_LENGTH];
+        private final long[] scratchpadHigh = new long[PearlDiver.CURL_STATE_LENGTH];
+
+        private NarrowWorker(byte[] transactionTrits, int workerIndex) {
+            PearlDiver.initializeMidCurlStates(transactionTrits, midStateLow, midStateHigh);
+            PearlDiver.offsetWorker(workerIndex, midStateLow, midStateHigh);
+        }
+
+        private long tryNextNonces(int maskStartIndex) {
+            return PearlDiver.tryNextNonces(midStateLow, midStateHigh, stateLow, stateHigh, scratchpadLow,
+                    scratchpadHigh, maskStartIndex);
+        }
+    }
+
+    /**
+     * The state of a worker of the {@link WidePearlDiverKernel}.
+     */
+    private static class WideWorker {
+        private final long[] midStateLow = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] midStateHigh = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] stateLow = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] stateHigh = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] scratchpadLow = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] scratchpadHigh = new long[WidePearlDiverKernel.WIDE_STATE_LENGTH];
+        private final long[] masks = new long[WidePearlDiverKernel.LANES];
+
+        private WideWorker(byte[] transactionTrits, int firstLane) {
+            WidePearlDiverKernel.initializeMidStates(transactionTrits, firstLane, midStateLow, midStateHigh);
+        }
+
+        private int tryNextNonces(int maskStartIndex) {
+            return WidePearlDiverKernel.tryNextNonces(midStateLow, midStateHigh, stateLow, stateHigh, scratchpadLow,
+                    scratchpadHigh, maskStartIndex, masks);
+        }
+
+        private long[] lane(long[] wideState, int lane) {
+            long[] narrowState = new long[PearlDiver.CURL_STATE_LENGTH];
+            for (int i = 0; i < narrowState.length; i++) {
+                narrowState[i] = wideState[i * WidePearlDiverKernel.LANES + lane];
+            }
+            return narrowState;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.iota.iri.model;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.utils.Serializer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StateDiffTest {
+
+    private static final Hash ADDRESS_1 = address();
+    private static final Hash ADDRESS_2 = address();
+    private static final Hash ADDRESS_3 = address();
+
+    @Test
+    public void readDiffDecodesStoredEntries() {
+        Map<Hash, Long> changes = new HashMap<>();
+        changes.put(ADDRESS_1, 10L);
+        changes.put(ADDRESS_2, -10L);
+
+        StateDiff stateDiff = read(stateDiff(changes).bytes());
+
+        Assert.assertEquals(2, stateDiff.size());
+        Assert.assertEquals(changes, stateDiff.getState());
+    }
+
+    @Test
+    public void mergeSumsUpChangesOfAllDiffs() {
+        Map<Hash, Long> first = new HashMap<>();
+        first.put(ADDRESS_1, 10L);
+        first.put(ADDRESS_2, -10L);
+        Map<Hash, Long> second = new HashMap<>();
+        second.put(ADDRESS_2, 5L);
+        second.put(ADDRESS_3, -5L);
+
+        Map<Hash, Long> merged = StateDiff.merge(Arrays.asList(read(stateDiff(first).bytes()), stateDiff(second)))
+                .getState();
+
+        Map<Hash, Long> expected = new HashMap<>();
+        expected.put(ADDRESS_1, 10L);
+        expected.put(ADDRESS_2, -5L);
+        expected.put(ADDRESS_3, -5L);
+        Assert.assertEquals(expected, merged);
+    }
+
+    @Test
+    public void mergeSupportsUnorderedDiffs() {
+        Map<Hash, Long> changes = new LinkedHashMap<>();
+        changes.put(ADDRESS_1, 1L);
+        changes.put(ADDRESS_2, 2L);
+        changes.put(ADDRESS_3, 3L);
+
+        // encode the entries in insertion order like diffs that were stored by older versions
+        byte[] bytes = new byte[changes.size() * (Hash.SIZE_IN_BYTES + Long.BYTES)];
+        int offset = 0;
+        for (Map.Entry<Hash, Long> entry : changes.entrySet()) {
+            System.arraycopy(entry.getKey().bytes(), 0, bytes, offset, Hash.SIZE_IN_BYTES);
+            System.arraycopy(Serializer.serialize(entry.getValue()), 0, bytes, offset + Hash.SIZE_IN_BYTES,
+                    Long.BYTES);
+            offset += Hash.SIZE_IN_BYTES + Long.BYTES;
+        }
+
+        Map<Hash, Long> merged = StateDiff.merge(Arrays.asList(read(bytes), read(stateDiff(changes).bytes())))
+                .getState();
+
+        Map<Hash, Long> expected = new HashMap<>();
+        changes.forEach((address, change) -> expected.put(address, 2 * change));
+        Assert.assertEquals(expected, merged);
+    }
+
+    private static StateDiff stateDiff(Map<Hash, Long> changes) {
+        StateDiff stateDiff = new StateDiff();
+        stateDiff.state = changes;
+        return stateDiff;
+    }
+
+    private static StateDiff read(byte[] bytes) {
+        StateDiff stateDiff = new StateDiff();
+        stateDiff.read(bytes);
+        return stateDiff;
+    }
+
+    private static Hash address() {
+        return HashFactory.ADDRESS.create(TransactionTestUtils.getTransactionHash().trits());
+    }
+}
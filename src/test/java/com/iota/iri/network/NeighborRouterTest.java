@@ -65,32 +65,43 @@ public class NeighborRouterTest {
 
     @Test
     public void addAndRemoveNeighborsAddsAndRemovesConnectionsAccordingly() throws Exception {
-        URI neighborAURI = URI.create("tcp://127.0.0.1:19000");
+        addAndRemoveNeighbors(19000, 20000, 0);
+    }
+
+    @Test
+    public void addAndRemoveNeighborsWithIoThreadsAddsAndRemovesConnectionsAccordingly() throws Exception {
+        addAndRemoveNeighbors(21000, 22000, 2);
+    }
+
+    private void addAndRemoveNeighbors(int portA, int portB, int ioThreads) throws Exception {
+        URI neighborAURI = URI.create("tcp://127.0.0.1:" + portA);
         String neighborAIdentity = String.format("%s:%d", neighborAURI.getHost(), neighborAURI.getPort());
-        URI neighborBURI = URI.create("tcp://127.0.0.1:20000");
+        URI neighborBURI = URI.create("tcp://127.0.0.1:" + portB);
 
         List<String> configNeighborsA = new ArrayList<>();
         Mockito.when(nodeConfigA.isTestnet()).thenReturn(true);
         Mockito.when(nodeConfigA.getNeighbors()).thenReturn(configNeighborsA);
         Mockito.when(nodeConfigA.getNeighboringSocketAddress()).thenReturn("127.0.0.1");
-        Mockito.when(nodeConfigA.getNeighboringSocketPort()).thenReturn(19000);
+        Mockito.when(nodeConfigA.getNeighboringSocketPort()).thenReturn(portA);
         Mockito.when(nodeConfigA.getMaxNeighbors()).thenReturn(1);
         Mockito.when(nodeConfigA.getCoordinator()).thenReturn(Hash.NULL_HASH);
         Mockito.when(nodeConfigA.getReconnectAttemptIntervalSeconds()).thenReturn(30);
         Mockito.when(nodeConfigA.isAutoTetheringEnabled()).thenReturn(true);
         Mockito.when(nodeConfigA.getMwm()).thenReturn(1);
+        Mockito.when(nodeConfigA.getNeighborIoThreads()).thenReturn(ioThreads);
         NeighborRouter neighborRouterA = new NeighborRouterImpl(nodeConfigA, nodeConfigA, transactionRequester, txPipeline);
 
         List<String> configNeighborsB = new ArrayList<>();
         Mockito.when(nodeConfigB.isTestnet()).thenReturn(true);
         Mockito.when(nodeConfigB.getNeighbors()).thenReturn(configNeighborsB);
         Mockito.when(nodeConfigB.getNeighboringSocketAddress()).thenReturn("127.0.0.1");
-        Mockito.when(nodeConfigB.getNeighboringSocketPort()).thenReturn(20000);
+        Mockito.when(nodeConfigB.getNeighboringSocketPort()).thenReturn(portB);
         Mockito.when(nodeConfigB.getMaxNeighbors()).thenReturn(1);
         Mockito.when(nodeConfigB.getCoordinator()).thenReturn(Hash.NULL_HASH);
         Mockito.when(nodeConfigB.getReconnectAttemptIntervalSeconds()).thenReturn(30);
         Mockito.when(nodeConfigB.isAutoTetheringEnabled()).thenReturn(true);
         Mockito.when(nodeConfigB.getMwm()).thenReturn(1);
+        Mockito.when(nodeConfigB.getNeighborIoThreads()).thenReturn(ioThreads);
         NeighborRouter neighborRouterB = new NeighborRouterImpl(nodeConfigB, nodeConfigB, transactionRequester, txPipeline);
 
         Thread neighborRouterAThread = new Thread(neighborRouterA::route, "A");
@@ -120,7 +131,7 @@ public class NeighborRouterTest {
         // send something to A in order to let A remove the connection to B
         Neighbor neighborA = neighborRouterB.getConnectedNeighbors().get(neighborAIdentity);
         neighborA.send(
-                Handshake.createHandshakePacket((char) 19000, Hash.NULL_HASH.bytes(), (byte) nodeConfigA.getMwm()));
+                Handshake.createHandshakePacket((char) portA, Hash.NULL_HASH.bytes(), (byte) nodeConfigA.getMwm()));
 
         Thread.sleep(2000);
 
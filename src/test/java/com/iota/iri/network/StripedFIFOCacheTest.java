@@ -0,0 +1,96 @@
+package com.iota.iri.network;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class StripedFIFOCacheTest {
+
+    @Test
+    public void returnsPutEntries() {
+        StripedFIFOCache<String> cache = new StripedFIFOCache<>(10, 1);
+        assertNull("should return null for a new entry", cache.put(1L, "a"));
+        assertEquals("should return the given value for a known key", "b", cache.put(1L, "b"));
+        assertEquals("should keep the first value", "a", cache.get(1L));
+        assertNull("should not know an entry which was never put", cache.get(2L));
+    }
+
+    @Test
+    public void evictsOldestEntryWhenFull() {
+        StripedFIFOCache<Long> cache = new StripedFIFOCache<>(3, 1);
+        cache.put(1L, 1L);
+        cache.put(2L, 2L);
+        cache.put(3L, 3L);
+        cache.put(4L, 4L);
+
+        assertNull("oldest entry should have been evicted", cache.get(1L));
+        for (long key = 2; key <= 4; key++) {
+            assertEquals("newer entries should still be cached", Long.valueOf(key), cache.get(key));
+        }
+    }
+
+    @Test
+    public void keepsAllEntriesWithinCapacityAfterManyEvictions() {
+        int capacity = 1000;
+        StripedFIFOCache<Long> cache = new StripedFIFOCache<>(capacity, 1);
+        for (long key = 0; key < capacity * 10; key++) {
+            cache.put(key, key);
+        }
+
+        for (long key = capacity * 9; key < capacity * 10; key++) {
+            assertEquals("last inserted entries should be cached", Long.valueOf(key), cache.get(key));
+        }
+        assertNull("evicted entry should not be found", cache.get(capacity * 9 - 1));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        StripedFIFOCache<String> cache = new StripedFIFOCache<>(10);
+        cache.put(1L, "a");
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        assertEquals("should count hits", 2, cache.getCacheHits());
+        assertEquals("should count misses", 1, cache.getCacheMisses());
+
+        cache.resetCacheStats();
+        assertEquals("hits should be reset", 0, cache.getCacheHits());
+        assertEquals("misses should be reset", 0, cache.getCacheMisses());
+    }
+
+    @Test
+    public void supportsConcurrentAccess() throws Exception {
+        int threads = 4;
+        int keysPerThread = 10_000;
+        StripedFIFOCache<Long> cache = new StripedFIFOCache<>(threads * keysPerThread);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long offset = (long) t * keysPerThread;
+                futures.add(executor.submit(() -> {
+                    for (long key = offset; key < offset + keysPerThread; key++) {
+                        cache.put(key, key);
+                        assertEquals(Long.valueOf(key), cache.get(key));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("every lookup should have been a hit", threads * keysPerThread, cache.getCacheHits());
+    }
+}
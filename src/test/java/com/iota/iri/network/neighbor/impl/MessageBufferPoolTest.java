@@ -0,0 +1,48 @@
+package com.iota.iri.network.neighbor.impl;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MessageBufferPoolTest {
+
+    @Test
+    public void acquiredBufferIsLimitedToTheGivenLength() {
+        MessageBufferPool pool = new MessageBufferPool(1, 100);
+        ByteBuffer buf = pool.acquire(42);
+        assertTrue("should hand out direct buffers", buf.isDirect());
+        assertEquals("should start at the beginning of the buffer", 0, buf.position());
+        assertEquals("should only allow reading the given length", 42, buf.remaining());
+    }
+
+    @Test
+    public void releasedBufferIsReused() {
+        MessageBufferPool pool = new MessageBufferPool(1, 100);
+        ByteBuffer buf = pool.acquire(100);
+        buf.put((byte) 1);
+        pool.release(buf);
+        assertEquals("released buffer should be available", 1, pool.available());
+
+        ByteBuffer reused = pool.acquire(10);
+        assertSame("should reuse the released buffer", buf, reused);
+        assertEquals("reused buffer should be cleared", 0, reused.position());
+        assertEquals("reused buffer should be limited to the new length", 10, reused.limit());
+    }
+
+    @Test
+    public void fallsBackToHeapBuffersWhenExhausted() {
+        MessageBufferPool pool = new MessageBufferPool(1, 100);
+        ByteBuffer pooled = pool.acquire(100);
+        ByteBuffer overflow = pool.acquire(100);
+        assertTrue("first buffer should be pooled", pooled.isDirect());
+        assertFalse("buffers exceeding the pool size should be heap buffers", overflow.isDirect());
+
+        pool.release(overflow);
+        assertEquals("heap buffers should not be pooled", 0, pool.available());
+    }
+}
@@ -5,6 +5,7 @@ import com.iota.iri.network.FakeChannel;
 import com.iota.iri.network.FakeSelectionKey;
 import com.iota.iri.network.neighbor.Neighbor;
 import com.iota.iri.network.neighbor.NeighborState;
+import com.iota.iri.network.neighbor.SendPriority;
 import com.iota.iri.network.pipeline.TransactionProcessingPipeline;
 import com.iota.iri.network.protocol.Handshake;
 
@@ -202,6 +203,61 @@ public class NeighborImplTest {
                 fakeSelectionKey.interestOps());
     }
 
+    @Test
+    public void queuedPacketsAreGatheredIntoOneWriteUpToTheSendBudget() {
+        int packetSize = createEmptyTxPacket().remaining();
+        Neighbor neighbor = new NeighborImpl<>(selector, new DrainingChannel(), localAddr, serverSocketPort, pipeline,
+                10, packetSize * 2);
+
+        for (int i = 0; i < 3; i++) {
+            neighbor.send(createEmptyTxPacket());
+        }
+
+        try {
+            assertEquals("should write as many packets as the budget allows", packetSize * 2, neighbor.write());
+            assertEquals("should write the remaining packet", packetSize, neighbor.write());
+            assertEquals("should have nothing left to write", 0, neighbor.write());
+        } catch (IOException e) {
+            fail("didn't expect an exception");
+        }
+        assertEquals("no bytes should be queued anymore", 0, neighbor.getMetrics().getQueuedSendBytes());
+    }
+
+    @Test
+    public void aFullSendQueueDropsLowerPriorityPacketsFirst() {
+        ByteBuffer lowPriorityPacket = createEmptyTxPacket();
+        ByteBuffer normalPriorityPacket = Protocol.createHeartbeatPacket(new Heartbeat());
+        Neighbor neighbor = new NeighborImpl<>(selector, new DrainingChannel(), localAddr, serverSocketPort, pipeline,
+                1, txMessageMaxSize);
+
+        neighbor.send(lowPriorityPacket, SendPriority.LOW);
+        neighbor.send(normalPriorityPacket, SendPriority.NORMAL);
+
+        assertEquals("should have dropped one packet", 1, neighbor.getMetrics().getDroppedSendPacketsCount());
+        assertEquals("should have dropped the low priority packet", lowPriorityPacket.remaining(),
+                neighbor.getMetrics().getDroppedSendBytesCount());
+        try {
+            assertEquals("should write the normal priority packet", normalPriorityPacket.remaining(),
+                    neighbor.write());
+        } catch (IOException e) {
+            fail("didn't expect an exception");
+        }
+    }
+
+    @Test
+    public void aFullSendQueueDropsTheNewPacketIfNothingHasALowerPriority() {
+        ByteBuffer normalPriorityPacket = Protocol.createHeartbeatPacket(new Heartbeat());
+        Neighbor neighbor = new NeighborImpl<>(selector, new DrainingChannel(), localAddr, serverSocketPort, pipeline,
+                1, txMessageMaxSize);
+
+        neighbor.send(normalPriorityPacket, SendPriority.NORMAL);
+        neighbor.send(createEmptyTxPacket(), SendPriority.LOW);
+
+        assertEquals("should have dropped one packet", 1, neighbor.getMetrics().getDroppedSendPacketsCount());
+        assertEquals("only the remaining packet should be queued", normalPriorityPacket.remaining(),
+                neighbor.getMetrics().getQueuedSendBytes());
+    }
+
     @Test
     public void markingTheNeighborForDisconnectWillNeverMakeItReadyForMessagesAgain() {
         Neighbor neighbor = new NeighborImpl<>(selector, null, localAddr, serverSocketPort, pipeline);
@@ -267,4 +323,17 @@ public class NeighborImplTest {
             fail("didnt expect an exception: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A channel which accepts all bytes written to it.
+     */
+    private static class DrainingChannel extends FakeChannel {
+
+        @Override
+        public int write(ByteBuffer buf) {
+            int bytesWritten = buf.remaining();
+            buf.position(buf.limit());
+            return bytesWritten;
+        }
+    }
+}
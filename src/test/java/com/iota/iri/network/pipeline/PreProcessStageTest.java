@@ -1,8 +1,8 @@
 package com.iota.iri.network.pipeline;
 
 import com.iota.iri.model.Hash;
-import com.iota.iri.network.FIFOCache;
 import com.iota.iri.network.SampleTransaction;
+import com.iota.iri.network.StripedFIFOCache;
 import com.iota.iri.network.neighbor.impl.NeighborImpl;
 import com.iota.iri.network.neighbor.impl.NeighborMetricsImpl;
 import com.iota.iri.network.protocol.Protocol;
@@ -25,7 +25,7 @@ public class PreProcessStageTest {
     public MockitoRule mockitoRule = MockitoJUnit.rule();
 
     @Mock
-    private FIFOCache<Long, Hash> recentlySeenBytesCache;
+    private StripedFIFOCache<Hash> recentlySeenBytesCache;
 
     @Mock
     private NeighborImpl neighbor;
@@ -6,16 +6,24 @@ import com.iota.iri.network.TransactionRequester;
 import com.iota.iri.network.neighbor.Neighbor;
 import com.iota.iri.network.neighbor.impl.NeighborMetricsImpl;
 import com.iota.iri.service.snapshot.SnapshotProvider;
+import com.iota.iri.storage.GroupCommitWriter;
 import com.iota.iri.storage.Tangle;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class ReceivedStageTest {
 
@@ -43,6 +51,9 @@ public class ReceivedStageTest {
     @Mock
     private NeighborMetricsImpl neighborMetrics;
 
+    @Mock
+    private GroupCommitWriter groupCommitWriter;
+
     @Test
     public void newlyStoredTransactionUpdatesAlsoArrivalTimeAndSender() throws Exception {
         Mockito.when(tvm.store(tangle, snapshotProvider.getInitialSnapshot())).thenReturn(true);
@@ -86,4 +97,65 @@ public class ReceivedStageTest {
         assertEquals("tvm should still be the same", tvm, solidifyPayload.getTransaction());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void queuedTransactionIsSubmittedOnceWritten() throws Exception {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        Mockito.when(tvm.prepareStore(tangle, snapshotProvider.getInitialSnapshot()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(groupCommitWriter.write(Mockito.any())).thenReturn(written);
+        Mockito.when(neighbor.getMetrics()).thenReturn(neighborMetrics);
+        Mockito.when(neighbor.getHostAddressAndPort()).thenReturn("localhost:15600");
+
+        List<Runnable> storedTasks = new ArrayList<>();
+        List<ProcessingContext> storedContexts = new ArrayList<>();
+        ReceivedStage stage = new ReceivedStage(tangle, transactionSolidifier, snapshotProvider, transactionRequester,
+                groupCommitWriter, storedTasks::add, storedContexts::add);
+        ReceivedPayload receivedPayload = new ReceivedPayload(neighbor, tvm);
+        ProcessingContext ctx = new ProcessingContext(null, receivedPayload);
+        stage.process(ctx);
+
+        assertEquals("should not submit to another stage before the tx is written",
+                TransactionProcessingPipeline.Stage.FINISH, ctx.getNextStage());
+        InOrder inOrder = Mockito.inOrder(tvm);
+        inOrder.verify(tvm).setArrivalTime(Mockito.anyLong());
+        inOrder.verify(tvm).updateSender("localhost:15600");
+        inOrder.verify(tvm).prepareStore(Mockito.any(), Mockito.any());
+
+        written.complete(null);
+        assertTrue("the writer should not process the written tx itself", storedContexts.isEmpty());
+        Mockito.verify(transactionSolidifier, Mockito.never()).updateStatus(Mockito.any());
+
+        assertEquals("should hand the written tx to the executor", 1, storedTasks.size());
+        storedTasks.get(0).run();
+
+        Mockito.verify(transactionSolidifier).updateStatus(tvm);
+        Mockito.verify(tangle).updateMessageQueueProvider(Mockito.any(), Mockito.any(),
+                Mockito.eq("arrivalTime|sender"));
+        Mockito.verify(tvm, Mockito.never()).update(Mockito.any(), Mockito.any(), Mockito.any());
+        assertEquals("should submit the written tx", 1, storedContexts.size());
+        assertEquals("should submit to solidify stage next", TransactionProcessingPipeline.Stage.SOLIDIFY,
+                storedContexts.get(0).getNextStage());
+        SolidifyPayload solidifyPayload = (SolidifyPayload) storedContexts.get(0).getPayload();
+        assertEquals("tvm should still be the same", tvm, solidifyPayload.getTransaction());
+    }
+
+    @Test
+    public void writtenTransactionIsSubmittedIfStatusUpdateFails() throws Exception {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        Mockito.when(tvm.prepareStore(tangle, snapshotProvider.getInitialSnapshot()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(groupCommitWriter.write(Mockito.any())).thenReturn(written);
+        Mockito.when(neighbor.getMetrics()).thenReturn(neighborMetrics);
+        Mockito.doThrow(new IllegalStateException("status update failed")).when(transactionSolidifier)
+                .updateStatus(tvm);
+
+        List<ProcessingContext> storedContexts = new ArrayList<>();
+        ReceivedStage stage = new ReceivedStage(tangle, transactionSolidifier, snapshotProvider, transactionRequester,
+                groupCommitWriter, Runnable::run, storedContexts::add);
+        stage.process(new ProcessingContext(null, new ReceivedPayload(neighbor, tvm)));
+        written.complete(null);
+
+        assertEquals("should still submit the written tx", 1, storedContexts.size());
+        Mockito.verify(neighborMetrics).incrNewTransactionsCount();
+    }
+}
@@ -4,10 +4,11 @@ import com.iota.iri.TangleMockUtils;
 import com.iota.iri.conf.NodeConfig;
 import com.iota.iri.controllers.TipsViewModel;
 import com.iota.iri.model.Hash;
-import com.iota.iri.network.FIFOCache;
 import com.iota.iri.network.NeighborRouter;
 import com.iota.iri.network.SampleTransaction;
+import com.iota.iri.network.StripedFIFOCache;
 import com.iota.iri.network.TransactionRequester;
+import com.iota.iri.network.neighbor.SendPriority;
 import com.iota.iri.network.neighbor.impl.NeighborImpl;
 import com.iota.iri.network.neighbor.impl.NeighborMetricsImpl;
 import com.iota.iri.service.milestone.LatestMilestoneTracker;
@@ -53,7 +54,7 @@ public class ReplyStageTest {
     private Snapshot snapshot;
 
     @Mock
-    private FIFOCache<Long, Hash> recentlySeenBytesCache;
+    private StripedFIFOCache<Hash> recentlySeenBytesCache;
 
     @Mock
     private TransactionRequester transactionRequester;
@@ -87,7 +88,8 @@ public class ReplyStageTest {
         stage.process(ctx);
 
         try {
-            Mockito.verify(neighborRouter).gossipTransactionTo(Mockito.any(), Mockito.any());
+            Mockito.verify(neighborRouter).gossipTransactionTo(Mockito.any(), Mockito.any(),
+                    Mockito.eq(SendPriority.LOW));
             Mockito.verify(recentlySeenBytesCache).put(SampleTransaction.BYTES_DIGEST_OF_SAMPLE_TX,
                     SampleTransaction.CURL_HASH_OF_SAMPLE_TX);
         } catch (Exception e) {
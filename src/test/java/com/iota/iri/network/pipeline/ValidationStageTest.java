@@ -3,8 +3,8 @@ package com.iota.iri.network.pipeline;
 import com.iota.iri.service.validation.TransactionValidator;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
-import com.iota.iri.network.FIFOCache;
 import com.iota.iri.network.SampleTransaction;
+import com.iota.iri.network.StripedFIFOCache;
 import com.iota.iri.network.neighbor.Neighbor;
 import com.iota.iri.network.neighbor.impl.NeighborMetricsImpl;
 
@@ -26,7 +26,7 @@ public class ValidationStageTest {
     private TransactionValidator transactionValidator;
 
     @Mock
-    private FIFOCache<Long, Hash> recentlySeenBytesCache;
+    private StripedFIFOCache<Hash> recentlySeenBytesCache;
 
     @Mock
     private Neighbor neighbor;
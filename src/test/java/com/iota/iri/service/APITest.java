@@ -1,10 +1,25 @@
 package com.iota.iri.service;
 
+import com.iota.iri.BundleValidator;
 import com.iota.iri.service.validation.TransactionSolidifier;
 import com.iota.iri.service.validation.TransactionValidator;
 import com.iota.iri.conf.IotaConfig;
 import com.iota.iri.controllers.TransactionViewModel;
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.HashFactory;
+import com.iota.iri.model.persistables.Transaction;
+import com.iota.iri.network.TransactionRequester;
+import com.iota.iri.network.pipeline.TransactionProcessingPipeline;
+import com.iota.iri.service.dto.AbstractResponse;
+import com.iota.iri.service.dto.CheckConsistency;
+import com.iota.iri.service.dto.ErrorResponse;
+import com.iota.iri.service.snapshot.Snapshot;
 import com.iota.iri.service.snapshot.SnapshotProvider;
+import com.iota.iri.storage.Indexable;
+import com.iota.iri.storage.Persistable;
+import com.iota.iri.storage.Tangle;
+import com.iota.iri.utils.Pair;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Answers;
@@ -12,12 +27,20 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,14 +61,33 @@ public class APITest {
     @Mock
     private IotaConfig config;
 
+    @Mock
+    private Tangle tangle;
+
+    @Mock
+    private TransactionRequester transactionRequester;
+
+    @Mock
+    private TransactionProcessingPipeline txPipeline;
+
+    @Mock
+    private BundleValidator bundleValidator;
+
+    @Mock
+    private Snapshot snapshot;
+
+    private static final String TAIL_A = StringUtils.repeat('A', 81);
+    private static final String TAIL_B = StringUtils.repeat('B', 81);
+    private static final String TAIL_C = StringUtils.repeat('C', 81);
+
     @Test
     public void whenStoreTransactionsStatementThenSetArrivalTimeToCurrentMillis() throws Exception {
         TransactionViewModel transaction = mock(TransactionViewModel.class);
         when(transactionValidator.validateTrits(any(), anyInt())).thenReturn(transaction);
-        when(transaction.store(any(), any())).thenReturn(true);
+        when(transaction.prepareStore(any(), any())).thenReturn(Collections.emptyList());
 
         API api = new API(config, null, null, null,
-                null, null,
+                tangle, null,
                 snapshotProvider, null, null, null, null,
                 transactionValidator, null, null, transactionSolidifier);
 
@@ -55,9 +97,145 @@ public class APITest {
 
     }
 
+    @Test
+    public void storedTransactionsArePublishedWithoutSeparateUpdate() throws Exception {
+        TransactionViewModel transaction = mock(TransactionViewModel.class);
+        when(transactionValidator.validateTrits(any(), anyInt())).thenReturn(transaction);
+        when(transaction.prepareStore(any(), any())).thenReturn(Collections.singletonList(
+                new Pair<Indexable, Persistable>(hash(TAIL_A), new Transaction())));
+        when(transaction.getHash()).thenReturn(hash(TAIL_A));
+
+        API api = new API(config, null, null, null,
+                tangle, null,
+                snapshotProvider, null, null, null, null,
+                transactionValidator, null, null, transactionSolidifier);
+
+        api.storeTransactionsStatement(Collections.singletonList("FOO"));
+
+        verify(transaction).updateSender("local");
+        verify(tangle).saveBatch(any());
+        verify(transactionSolidifier).updateStatus(transaction);
+        verify(tangle).updateMessageQueueProvider(any(), eq(hash(TAIL_A)), eq("sender"));
+        verify(transaction, never()).update(any(), any(), any());
+    }
+
+    @Test
+    public void broadcastTransactionsRequestTrunkAndBranchOfRequestedTransactions() throws Exception {
+        TransactionViewModel transaction = mock(TransactionViewModel.class);
+        when(transactionValidator.validateTrits(any(), anyInt())).thenReturn(transaction);
+        when(transaction.prepareStore(any(), any())).thenReturn(Collections.singletonList(
+                new Pair<Indexable, Persistable>(hash(TAIL_A), new Transaction())));
+        when(transaction.getHash()).thenReturn(hash(TAIL_A));
+        when(transactionRequester.removeRecentlyRequestedTransaction(hash(TAIL_A))).thenReturn(true);
+
+        API api = new API(config, null, transactionRequester, null,
+                tangle, null,
+                snapshotProvider, null, null, null, null,
+                transactionValidator, null, txPipeline, transactionSolidifier);
+
+        api.broadcastTransactionsStatement(Collections.singletonList("FOO"));
+
+        verify(tangle).saveBatch(any());
+        verify(transactionRequester).requestTrunkAndBranch(transaction);
+        verify(txPipeline).processStored(Collections.singletonList(transaction));
+        verify(transaction, never()).updateSender(any());
+    }
+
     private boolean isCloseToCurrentMillis(Long arrival) {
         long now = System.currentTimeMillis();
         return arrival > now - 1000 && arrival <= now;
     }
 
-}
\ No newline at end of file
+    @Test
+    public void unsolidTailBeforeMissingTailIsInconsistent() throws Exception {
+        API api = mockTails(tail(true, 0, false), null);
+
+        AbstractResponse response = api.checkConsistencyStatement(Arrays.asList(TAIL_A, TAIL_B));
+
+        assertInconsistent(response, "tails are not solid (missing a referenced tx): " + hash(TAIL_A));
+    }
+
+    @Test
+    public void missingTailAfterValidTailIsAnError() throws Exception {
+        API api = mockTails(tail(true, 0, true), null);
+        mockValidBundle(TAIL_A, true);
+
+        AbstractResponse response = api.checkConsistencyStatement(Arrays.asList(TAIL_A, TAIL_B));
+
+        assertTrue("should be an error response", response instanceof ErrorResponse);
+        assertEquals("should name the missing tx", "Invalid transaction, missing: " + hash(TAIL_B),
+                ((ErrorResponse) response).getError());
+    }
+
+    @Test
+    public void invalidBundleBeforeNonTailIsInconsistent() throws Exception {
+        API api = mockTails(tail(true, 0, true), tail(true, 1, true));
+        mockValidBundle(TAIL_A, false);
+
+        AbstractResponse response = api.checkConsistencyStatement(Arrays.asList(TAIL_A, TAIL_B));
+
+        assertInconsistent(response, "tails are not consistent (bundle is invalid): " + hash(TAIL_A));
+    }
+
+    @Test
+    public void firstFailingTailDecidesAndLaterBundlesAreNotValidated() throws Exception {
+        API api = mockTails(tail(true, 0, true), tail(true, 0, false), tail(true, 0, true));
+        mockValidBundle(TAIL_A, true);
+        mockValidBundle(TAIL_C, false);
+
+        AbstractResponse response = api.checkConsistencyStatement(Arrays.asList(TAIL_A, TAIL_B, TAIL_C));
+
+        assertInconsistent(response, "tails are not solid (missing a referenced tx): " + hash(TAIL_B));
+        verify(bundleValidator, never()).validate(any(), anyBoolean(), any(), eq(hash(TAIL_C)));
+    }
+
+    @Test
+    public void firstInvalidBundleDecides() throws Exception {
+        API api = mockTails(tail(true, 0, true), tail(true, 0, true), tail(true, 0, true));
+        mockValidBundle(TAIL_A, true);
+        mockValidBundle(TAIL_B, false);
+        mockValidBundle(TAIL_C, false);
+
+        AbstractResponse response = api.checkConsistencyStatement(Arrays.asList(TAIL_A, TAIL_B, TAIL_C));
+
+        assertInconsistent(response, "tails are not consistent (bundle is invalid): " + hash(TAIL_B));
+    }
+
+    private API mockTails(Transaction... tails) throws Exception {
+        when(snapshotProvider.getLatestSnapshot()).thenReturn(snapshot);
+        List<Persistable> transactions = Arrays.asList(tails);
+        when(tangle.loadBatch(eq(Transaction.class), any())).thenReturn(transactions);
+
+        return new API(config, null, null, null,
+                tangle, bundleValidator,
+                snapshotProvider, null, null, null, null,
+                transactionValidator, null, null, transactionSolidifier);
+    }
+
+    private void mockValidBundle(String tail, boolean valid) throws Exception {
+        when(bundleValidator.validate(any(), anyBoolean(), any(), eq(hash(tail)))).thenReturn(valid
+                ? Collections.singletonList(mock(TransactionViewModel.class))
+                : Collections.emptyList());
+    }
+
+    private static Transaction tail(boolean exists, long currentIndex, boolean solid) {
+        Transaction transaction = new Transaction();
+        if (exists) {
+            transaction.read(new byte[Transaction.SIZE]);
+        }
+        transaction.currentIndex = currentIndex;
+        transaction.solid.set(solid);
+        transaction.parsed.set(true);
+        return transaction;
+    }
+
+    private static Hash hash(String trytes) {
+        return HashFactory.TRANSACTION.create(trytes);
+    }
+
+    private static void assertInconsistent(AbstractResponse response, String info) {
+        assertTrue("should be a consistency response", response instanceof CheckConsistency);
+        assertFalse("tails should not be consistent", ((CheckConsistency) response).getState());
+        assertEquals("should name the first failing tail", info, ((CheckConsistency) response).getInfo());
+    }
+}
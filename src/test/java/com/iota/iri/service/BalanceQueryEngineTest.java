@@ -0,0 +1,171 @@
+package com.iota.iri.service;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.controllers.TransactionViewModel;
+import com.iota.iri.model.Hash;
+import com.iota.iri.service.ledger.LedgerService;
+import com.iota.iri.service.snapshot.SnapshotProvider;
+import com.iota.iri.service.snapshot.impl.SnapshotMockUtils;
+import com.iota.iri.storage.Tangle;
+import com.iota.iri.storage.rocksDB.RocksDBPersistenceProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BalanceQueryEngineTest {
+
+    private static final Hash ADDRESS = TransactionTestUtils.getTransactionHash();
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    private static final TemporaryFolder dbFolder = new TemporaryFolder();
+    private static final TemporaryFolder logFolder = new TemporaryFolder();
+    private static Tangle tangle;
+
+    @Mock
+    private SnapshotProvider snapshotProvider;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    private ExecutorService executor;
+
+    private BalanceQueryEngine engine;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        tangle = new Tangle();
+        dbFolder.create();
+        logFolder.create();
+        tangle.addPersistenceProvider(new RocksDBPersistenceProvider(
+                dbFolder.getRoot().getAbsolutePath(), logFolder.getRoot().getAbsolutePath(), 1000,
+                Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY));
+        tangle.init();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        tangle.shutdown();
+        dbFolder.delete();
+        logFolder.delete();
+    }
+
+    @Before
+    public void setUpEach() {
+        when(snapshotProvider.getLatestSnapshot()).thenReturn(SnapshotMockUtils.createSnapshot());
+        when(snapshotProvider.getInitialSnapshot()).thenReturn(SnapshotMockUtils.createSnapshot());
+        executor = Executors.newFixedThreadPool(2);
+        engine = new BalanceQueryEngine(tangle, snapshotProvider, ledgerService, executor);
+    }
+
+    @After
+    public void tearDownEach() {
+        executor.shutdownNow();
+        tangle.getCache(TransactionViewModel.class).clear();
+    }
+
+    @Test
+    public void repeatedQueriesAreAnsweredFromCache() throws Exception {
+        Hash tip = storeSolidTip();
+        stubBalanceDiff(tip, Collections.singletonMap(Hash.NULL_HASH, 0L));
+
+        engine.getBalanceDiff(Collections.singletonList(tip));
+        engine.getBalanceDiff(Collections.singletonList(tip));
+
+        verify(ledgerService, times(1)).generateBalanceDiff(anySet(), eq(tip), anyInt(), eq(true));
+    }
+
+    @Test
+    public void cacheIsDroppedOnNewMilestone() throws Exception {
+        Hash tip = storeSolidTip();
+        stubBalanceDiff(tip, Collections.singletonMap(Hash.NULL_HASH, 0L));
+
+        engine.getBalanceDiff(Collections.singletonList(tip));
+        snapshotProvider.getLatestSnapshot().setIndex(snapshotProvider.getLatestSnapshot().getIndex() + 1);
+        engine.getBalanceDiff(Collections.singletonList(tip));
+
+        verify(ledgerService, times(2)).generateBalanceDiff(anySet(), eq(tip), anyInt(), eq(true));
+    }
+
+    @Test
+    public void diffsOfMultipleTipsAreAccumulated() throws Exception {
+        Hash tipA = storeSolidTip();
+        Hash tipB = storeSolidTip();
+        Map<Hash, Long> diffA = new HashMap<>();
+        diffA.put(Hash.NULL_HASH, -3L);
+        diffA.put(ADDRESS, 3L);
+        Map<Hash, Long> diffB = new HashMap<>();
+        diffB.put(Hash.NULL_HASH, -2L);
+        diffB.put(ADDRESS, 2L);
+        stubBalanceDiff(tipA, diffA);
+        stubBalanceDiff(tipB, diffB);
+
+        Map<Hash, Long> diff = engine.getBalanceDiff(Arrays.asList(tipA, tipB));
+
+        Assert.assertEquals("balance changes of both tips should be added up", Long.valueOf(5), diff.get(ADDRESS));
+        Assert.assertEquals("balance changes of both tips should be added up", Long.valueOf(-5),
+                diff.get(Hash.NULL_HASH));
+    }
+
+    @Test
+    public void inconsistentTipsAreRejected() throws Exception {
+        Hash tip = storeSolidTip();
+        stubBalanceDiff(tip, Collections.singletonMap(ADDRESS, -1L));
+
+        Assert.assertNull("negative balances should be rejected", engine.getBalanceDiff(Collections.singletonList(tip)));
+    }
+
+    @Test
+    public void overlappingConesAreEvaluatedSequentially() throws Exception {
+        Hash tipA = storeSolidTip();
+        Hash tipB = storeSolidTip();
+        stubBalanceDiff(tipA, Collections.emptyMap(), tipA);
+        stubBalanceDiff(tipB, Collections.emptyMap(), tipA, tipB);
+        when(ledgerService.isBalanceDiffConsistent(anySet(), anyMap(), any(Hash.class))).thenReturn(true);
+
+        Assert.assertNotNull("tips should be consistent", engine.getBalanceDiff(Arrays.asList(tipA, tipB)));
+        verify(ledgerService, times(2)).isBalanceDiffConsistent(anySet(), anyMap(), any(Hash.class));
+    }
+
+    private static Hash storeSolidTip() throws Exception {
+        TransactionViewModel tx = TransactionTestUtils.createBundleHead(0);
+        tx.updateSolid(true);
+        tx.store(tangle, SnapshotMockUtils.createSnapshot());
+        return tx.getHash();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBalanceDiff(Hash tip, Map<Hash, Long> diff, Hash... cone) throws Exception {
+        when(ledgerService.generateBalanceDiff(anySet(), eq(tip), anyInt(), eq(true))).thenAnswer(invocation -> {
+            ((Set<Hash>) invocation.getArgument(0)).addAll(Arrays.asList(cone));
+            return new HashMap<>(diff);
+        });
+    }
+}
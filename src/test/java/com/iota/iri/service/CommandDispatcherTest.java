@@ -0,0 +1,118 @@
+package com.iota.iri.service;
+
+import com.iota.iri.service.dto.AbstractResponse;
+import com.iota.iri.service.dto.ServiceUnavailableResponse;
+import com.iota.iri.utils.LatencyHistogram;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommandDispatcherTest {
+
+    private static final AbstractResponse RESPONSE = new AbstractResponse() {};
+
+    private CommandDispatcher dispatcher;
+
+    private final ExecutorService clients = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        clients.shutdownNow();
+    }
+
+    @Test
+    public void responseOfCommandIsReturned() {
+        dispatcher = new CommandDispatcher(1, 1, 0);
+
+        Assert.assertSame("response of the command should be returned", RESPONSE,
+                dispatcher.dispatch("getNodeInfo", () -> RESPONSE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void runtimeExceptionsAreRethrown() {
+        dispatcher = new CommandDispatcher(1, 1, 0);
+
+        dispatcher.dispatch("getNodeInfo", () -> {
+            throw new IllegalArgumentException("invalid request");
+        });
+    }
+
+    @Test
+    public void requestsAreRejectedIfQueueIsFull() throws Exception {
+        dispatcher = new CommandDispatcher(1, 1, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<AbstractResponse> running = clients.submit(() -> dispatcher.dispatch("findTransactions", () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return RESPONSE;
+        }));
+        Assert.assertTrue("command should have started", started.await(5, TimeUnit.SECONDS));
+        // one of the two requests is queued behind the running one, the other one is rejected and returns right away
+        BlockingQueue<AbstractResponse> responses = new LinkedBlockingQueue<>();
+        for (int i = 0; i < 2; i++) {
+            clients.submit(() -> responses.add(dispatcher.dispatch("findTransactions", () -> RESPONSE)));
+        }
+
+        Assert.assertTrue("request should be rejected",
+                responses.poll(5, TimeUnit.SECONDS) instanceof ServiceUnavailableResponse);
+        Assert.assertSame("other commands should not be affected", RESPONSE,
+                dispatcher.dispatch("getNodeInfo", () -> RESPONSE));
+
+        release.countDown();
+        Assert.assertSame("running request should finish", RESPONSE, running.get(5, TimeUnit.SECONDS));
+        Assert.assertSame("queued request should finish", RESPONSE, responses.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void requestsExceedingTimeoutAreCancelled() {
+        dispatcher = new CommandDispatcher(1, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        AbstractResponse response = dispatcher.dispatch("getBalances", () -> {
+            awaitQuietly(release);
+            return RESPONSE;
+        });
+
+        Assert.assertTrue("request should time out", response instanceof ServiceUnavailableResponse);
+    }
+
+    @Test
+    public void latenciesAreRecordedPerCommand() {
+        dispatcher = new CommandDispatcher(2, 10, 0);
+
+        dispatcher.dispatch("getNodeInfo", () -> RESPONSE);
+        dispatcher.dispatch("getNodeInfo", () -> RESPONSE);
+        dispatcher.dispatch("getTips", () -> RESPONSE);
+
+        LatencyHistogram nodeInfoLatencies = dispatcher.getLatencies().get("getNodeInfo");
+        Assert.assertEquals("every execution should be recorded", 2, nodeInfoLatencies.count());
+        Assert.assertEquals("every execution should be recorded", 1,
+                dispatcher.getLatencies().get("getTips").count());
+        Assert.assertEquals("every execution should be in a bucket", 2,
+                nodeInfoLatencies.toMap().values().stream().mapToLong(Long::longValue).sum());
+        Assert.assertEquals("every bucket should be listed", LatencyHistogram.getBucketUpperBoundsMs().length + 1,
+                nodeInfoLatencies.toMap().size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
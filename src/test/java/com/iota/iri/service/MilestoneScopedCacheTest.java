@@ -0,0 +1,47 @@
+package com.iota.iri.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MilestoneScopedCacheTest {
+
+    @Test
+    public void returnsEntriesOfTheSameMilestone() {
+        MilestoneScopedCache<String, Boolean> cache = new MilestoneScopedCache<>(10);
+        cache.put(5, "A", true);
+
+        assertEquals("entry should be cached", Boolean.TRUE, cache.get(5, "A"));
+    }
+
+    @Test
+    public void dropsEntriesOnNewerMilestone() {
+        MilestoneScopedCache<String, Boolean> cache = new MilestoneScopedCache<>(10);
+        cache.put(5, "A", true);
+
+        assertNull("entry should be dropped for a newer milestone", cache.get(6, "A"));
+        assertNull("entry should not come back for the older milestone", cache.get(5, "A"));
+    }
+
+    @Test
+    public void ignoresOutdatedResults() {
+        MilestoneScopedCache<String, Boolean> cache = new MilestoneScopedCache<>(10);
+        cache.put(6, "A", true);
+        cache.put(5, "B", true);
+
+        assertNull("outdated result should not be cached", cache.get(6, "B"));
+        assertEquals("newer entry should be kept", Boolean.TRUE, cache.get(6, "A"));
+    }
+
+    @Test
+    public void evictsOldestEntries() {
+        MilestoneScopedCache<Integer, Boolean> cache = new MilestoneScopedCache<>(2);
+        cache.put(1, 1, true);
+        cache.put(1, 2, true);
+        cache.put(1, 3, true);
+
+        assertNull("oldest entry should be evicted", cache.get(1, 1));
+        assertEquals("newest entry should be kept", Boolean.TRUE, cache.get(1, 3));
+    }
+}
@@ -2,9 +2,8 @@ package com.iota.iri.service.snapshot.impl;
 
 import static org.junit.Assert.*;
 
+import com.iota.iri.controllers.LocalSnapshotViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
-import com.iota.iri.model.IntegerIndex;
-import com.iota.iri.model.LocalSnapshot;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
 import com.iota.iri.service.snapshot.Snapshot;
@@ -115,15 +114,15 @@ public class SnapshotProviderImplTest {
         provider.persistSnapshot(snapshot);
 
         // Fetch snapshot
-        LocalSnapshot loadedSnapshot = (LocalSnapshot) localSnapshotDb.get(LocalSnapshot.class, new IntegerIndex(1));
+        LocalSnapshotViewModel loadedSnapshot = LocalSnapshotViewModel.load(localSnapshotDb);
 
         assertEquals("Expected loaded snapshot hash to match stored snapshot hash",
-                snapshot.getHash().toString(), loadedSnapshot.milestoneHash.toString());
+                snapshot.getHash().toString(), loadedSnapshot.getMilestoneHash().toString());
 
         assertEquals("Expected loaded snapshot index to match stored snapshot index",
-                snapshot.getIndex(), loadedSnapshot.milestoneIndex);
+                snapshot.getIndex(), loadedSnapshot.getMilestoneIndex());
 
         assertEquals("Expected loaded snapshot ledger state to match stored snapshot ledger state",
-                snapshot.getBalances(), loadedSnapshot.ledgerState);
+                snapshot.getBalances(), loadedSnapshot.getLedgerState());
     }
 }
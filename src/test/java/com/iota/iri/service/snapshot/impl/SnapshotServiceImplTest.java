@@ -1,6 +1,8 @@
 package com.iota.iri.service.snapshot.impl;
 
 import com.iota.iri.TangleMockUtils;
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.controllers.MilestoneViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.HashFactory;
@@ -9,11 +11,16 @@ import com.iota.iri.service.snapshot.Snapshot;
 import com.iota.iri.service.snapshot.SnapshotException;
 import com.iota.iri.service.snapshot.SnapshotProvider;
 import com.iota.iri.storage.Tangle;
+import com.iota.iri.storage.rocksDB.RocksDBPersistenceProvider;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.*;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runners.MethodSorters;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -26,6 +33,12 @@ public class SnapshotServiceImplTest {
 
     @Rule 
     public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public TemporaryFolder dbFolder = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder logFolder = new TemporaryFolder();
     
     private enum MockedMilestone {
         A("ARWY9LWHXEWNL9DTN9IGMIMIVSBQUIEIDSFRYTCSXQARRTVEUFSBWFZRQOJUQNAGQLWHTFNVECELCOFYB", 70001, 1542146728L),
@@ -253,8 +266,108 @@ public class SnapshotServiceImplTest {
 
     //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    //region [TEST: generateSolidEntryPoints] /////////////////////////////////////////////////////////////////////////
+
+    @Test
+    public void generateSolidEntryPointsInParallelMatchesSequentialGeneration() throws Exception {
+        Tangle database = new Tangle();
+        database.addPersistenceProvider(new RocksDBPersistenceProvider(
+                dbFolder.getRoot().getAbsolutePath(), logFolder.getRoot().getAbsolutePath(), 1000,
+                Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY));
+        database.init();
+
+        try {
+            Snapshot initialSnapshot = snapshotProvider.getInitialSnapshot();
+            int oldIndex = initialSnapshot.getIndex();
+            int targetIndex = oldIndex + 1;
+
+            // the milestone has a timestamp of 0, so every transaction with an arrival time arrived after it
+            Hash milestoneHash = TransactionTestUtils.getTransactionHash();
+            new TransactionViewModel(new byte[TransactionViewModel.TRINARY_SIZE], milestoneHash)
+                    .store(database, initialSnapshot);
+
+            // approved by a transaction which got approved after the milestone
+            TransactionViewModel recentlyApproved1 = storeTail(database, initialSnapshot);
+            TransactionViewModel recentlyApproved2 = storeTail(database, initialSnapshot);
+            TransactionViewModel oldApprover = storeApprover(database, initialSnapshot, recentlyApproved1,
+                    recentlyApproved2, 0);
+            storeApprover(database, initialSnapshot, oldApprover, oldApprover, System.currentTimeMillis());
+
+            // approved by a transaction which got confirmed by a later milestone
+            TransactionViewModel confirmedApproved = storeTail(database, initialSnapshot);
+            storeApprover(database, initialSnapshot, confirmedApproved, confirmedApproved, 0)
+                    .setSnapshot(database, initialSnapshot, targetIndex + 1);
+
+            // only approved by transactions which arrived before the milestone
+            TransactionViewModel orphaned1 = storeTail(database, initialSnapshot);
+            TransactionViewModel orphaned2 = storeTail(database, initialSnapshot);
+            TransactionViewModel orphanedApprover = storeApprover(database, initialSnapshot, orphaned1, orphaned2, 0);
+            storeApprover(database, initialSnapshot, orphanedApprover, orphanedApprover, 0);
+
+            TransactionViewModel unapproved = storeTail(database, initialSnapshot);
+
+            Map<Hash, Integer> oldSolidEntryPoints = new HashMap<>(initialSnapshot.getSolidEntryPoints());
+            for (TransactionViewModel tail : Arrays.asList(recentlyApproved1, recentlyApproved2, confirmedApproved,
+                    orphaned1, orphaned2, unapproved)) {
+                oldSolidEntryPoints.put(tail.getHash(), oldIndex);
+            }
+            initialSnapshot.setSolidEntryPoints(oldSolidEntryPoints);
+
+            SnapshotServiceImpl service = new SnapshotServiceImpl(database, snapshotProvider, null);
+            MilestoneViewModel targetMilestone = new MilestoneViewModel(targetIndex, milestoneHash);
+            Map<Hash, Integer> sequentialResult = generateSolidEntryPoints(service, targetMilestone, 1);
+            Map<Hash, Integer> parallelResult = generateSolidEntryPoints(service, targetMilestone, 4);
+
+            Map<Hash, Integer> expectedResult = new HashMap<>();
+            expectedResult.put(Hash.NULL_HASH, targetIndex);
+            expectedResult.put(milestoneHash, targetIndex);
+            expectedResult.put(recentlyApproved1.getHash(), oldIndex);
+            expectedResult.put(recentlyApproved2.getHash(), oldIndex);
+            expectedResult.put(confirmedApproved.getHash(), oldIndex);
+
+            Assert.assertEquals("only the old solid entry points which are not orphaned should be kept",
+                    expectedResult, sequentialResult);
+            Assert.assertEquals("the parallel generation should find the same solid entry points",
+                    sequentialResult, parallelResult);
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
+
     //region [UTILITY METHODS] /////////////////////////////////////////////////////////////////////////////////////////
 
+    private static Map<Hash, Integer> generateSolidEntryPoints(SnapshotServiceImpl service,
+            MilestoneViewModel targetMilestone, int threads) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return service.generateSolidEntryPoints(targetMilestone, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TransactionViewModel storeTail(Tangle database, Snapshot initialSnapshot) throws Exception {
+        TransactionViewModel tail = TransactionTestUtils.createBundleHead(0);
+        tail.store(database, initialSnapshot);
+
+        return tail;
+    }
+
+    private static TransactionViewModel storeApprover(Tangle database, Snapshot initialSnapshot,
+            TransactionViewModel trunk, TransactionViewModel branch, long arrivalTime) throws Exception {
+
+        TransactionViewModel approver = new TransactionViewModel(TransactionTestUtils
+                .getTransactionTritsWithTrunkAndBranch(trunk.getHash(), branch.getHash()),
+                TransactionTestUtils.getTransactionHash());
+        approver.setArrivalTime(arrivalTime);
+        approver.store(database, initialSnapshot);
+
+        return approver;
+    }
+
     private static <KEY, VALUE> Map<KEY, VALUE> createBalanceMap(Object... mapEntries) {
         Map<KEY, VALUE> result = new HashMap<>();
 
@@ -0,0 +1,101 @@
+package com.iota.iri.service.snapshot.impl;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.HashFactory;
+import com.iota.iri.service.snapshot.SnapshotException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SnapshotStateFileTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsTextFormatInMultipleChunks() throws Exception {
+        Map<Hash, Long> balances = randomBalances(30_000);
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<Hash, Long> entry : balances.entrySet()) {
+            content.append(entry.getKey()).append(';').append(entry.getValue()).append("\r\n");
+        }
+
+        Map<Hash, Long> parsed = SnapshotStateFile.read(toBuffer(content.toString()), 4);
+        assertEquals("should parse all entries of all chunks", balances, parsed);
+    }
+
+    @Test
+    public void laterEntriesOfTheSameAddressWin() throws Exception {
+        Map<Hash, Long> parsed = SnapshotStateFile.read(toBuffer("ABC;1\nABC;-2\n"));
+        assertEquals("should contain the last balance", Long.valueOf(-2), parsed.get(HashFactory.ADDRESS.create("ABC")));
+        assertEquals("should contain a single entry", 1, parsed.size());
+    }
+
+    @Test
+    public void rejectsMalformedLines() {
+        String[] malformed = {"ABC", "ABC;", "ABC;1x", "ABC;99999999999999999999", "\nABC;1", "AB1;3"};
+        for (String content : malformed) {
+            try {
+                SnapshotStateFile.read(toBuffer(content));
+                fail("should reject " + content);
+            } catch (SnapshotException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void writtenTextFormatCanBeReadAgain() throws Exception {
+        Map<Hash, Long> balances = randomBalances(100);
+        balances.put(TransactionTestUtils.getTransactionHash(), 0L);
+        Path file = folder.newFile().toPath();
+
+        SnapshotStateFile.writeText(balances, file);
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+
+        assertFalse("should use the text format", SnapshotStateFile.isBinary(content));
+        balances.values().removeIf(balance -> balance == 0);
+        assertEquals("should read the non zero balances", balances, SnapshotStateFile.read(content));
+    }
+
+    @Test
+    public void readsBinaryFormat() throws Exception {
+        Map<Hash, Long> balances = randomBalances(100);
+        ByteBuffer content = ByteBuffer.allocate(SnapshotStateFile.BINARY_MAGIC.length + Integer.BYTES
+                + balances.size() * (Hash.SIZE_IN_BYTES + Long.BYTES));
+        content.put(SnapshotStateFile.BINARY_MAGIC).putInt(balances.size());
+        for (Map.Entry<Hash, Long> entry : balances.entrySet()) {
+            content.put(entry.getKey().bytes(), 0, Hash.SIZE_IN_BYTES).putLong(entry.getValue());
+        }
+        content.flip();
+
+        assertTrue("should use the binary format", SnapshotStateFile.isBinary(content));
+        assertEquals("should read all balances", balances, SnapshotStateFile.read(content));
+    }
+
+    private static Map<Hash, Long> randomBalances(int amount) {
+        Map<Hash, Long> balances = new HashMap<>();
+        for (long i = 1; i <= amount; i++) {
+            balances.put(HashFactory.ADDRESS.create(TransactionTestUtils.getTransactionHash().toString()),
+                    i % 2 == 0 ? i : -i);
+        }
+        return balances;
+    }
+
+    private static ByteBuffer toBuffer(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII));
+    }
+}
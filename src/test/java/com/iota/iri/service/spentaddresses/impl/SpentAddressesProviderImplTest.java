@@ -4,13 +4,21 @@ import com.iota.iri.TransactionTestUtils;
 import com.iota.iri.conf.SnapshotConfig;
 import com.iota.iri.model.AddressHash;
 import com.iota.iri.model.Hash;
+import com.iota.iri.model.IntegerIndex;
 import com.iota.iri.model.persistables.SpentAddress;
+import com.iota.iri.model.persistables.SpentAddressesState;
 import com.iota.iri.service.spentaddresses.SpentAddressesException;
 import com.iota.iri.storage.Indexable;
 import com.iota.iri.storage.LocalSnapshotsPersistenceProvider;
+import com.iota.iri.storage.PersistenceCursor;
 import com.iota.iri.storage.Persistable;
 import com.iota.iri.utils.Pair;
+import com.iota.iri.utils.datastructure.impl.CuckooFilterImpl;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -27,9 +35,11 @@ import org.mockito.exceptions.base.MockitoAssertionError;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -57,6 +67,8 @@ public class SpentAddressesProviderImplTest {
     public void setUp() throws Exception {
         when(config.isTestnet()).thenReturn(true);
         localSnapshotsPersistenceProvider.init();
+        when(localSnapshotsPersistenceProvider.cursor(SpentAddress.class, AddressHash.class, null, false))
+                .thenAnswer(invocation -> cursorOf(A));
 
         provider = new SpentAddressesProviderImpl(config, localSnapshotsPersistenceProvider);
         provider.init(false);
@@ -114,6 +126,70 @@ public class SpentAddressesProviderImplTest {
         }
     }
 
+    @Test
+    public void testSavedAddressIsContained() throws Exception {
+        when(localSnapshotsPersistenceProvider.exists(SpentAddress.class, B)).thenReturn(true);
+
+        provider.saveAddress(B);
+
+        assertTrue("Provider should have B as spent after saving it", provider.containsAddress(B));
+    }
+
+    @Test
+    public void testAddressIsContainedBeforeItIsStored() throws Exception {
+        when(localSnapshotsPersistenceProvider.exists(SpentAddress.class, B)).thenReturn(true);
+        List<Boolean> containedWhileStoring = new LinkedList<>();
+        when(localSnapshotsPersistenceProvider.save(any(SpentAddress.class), Mockito.eq(B))).thenAnswer(invocation -> {
+            containedWhileStoring.add(provider.containsAddress(B));
+            return true;
+        });
+
+        provider.saveAddress(B);
+
+        assertEquals("a lookup during the write should find the address", Collections.singletonList(true),
+                containedWhileStoring);
+    }
+
+    @Test
+    public void testShutdownStoresFilterImage() throws Exception {
+        provider.shutdown();
+
+        verify(localSnapshotsPersistenceProvider, times(1)).save(any(SpentAddressesState.class),
+                any(IntegerIndex.class));
+    }
+
+    @Test
+    public void testInitRestoresFilterImage() throws Exception {
+        CuckooFilterImpl filter = new CuckooFilterImpl(1000, 4, 16);
+        filter.add(B.bytes());
+        when(localSnapshotsPersistenceProvider.get(Mockito.eq(SpentAddressesState.class), any(IntegerIndex.class)))
+                .thenReturn(new SpentAddressesState(filter.toBytes()));
+        when(localSnapshotsPersistenceProvider.exists(SpentAddress.class, A)).thenReturn(true);
+        when(localSnapshotsPersistenceProvider.exists(SpentAddress.class, B)).thenReturn(true);
+
+        SpentAddressesProviderImpl restoredProvider = new SpentAddressesProviderImpl(config,
+                localSnapshotsPersistenceProvider);
+        restoredProvider.init(false);
+
+        assertTrue("Provider should have B from the filter image as spent", restoredProvider.containsAddress(B));
+        assertFalse("Provider should not look up A which is missing in the filter image",
+                restoredProvider.containsAddress(A));
+        verify(localSnapshotsPersistenceProvider, never()).exists(SpentAddress.class, A);
+    }
+
+    @Test
+    public void testSkipsImportOfAlreadyImportedPreviousEpochs() throws Exception {
+        String files = "/previousEpochsSpentAddresses1.txt";
+        when(config.isTestnet()).thenReturn(false);
+        when(config.getPreviousEpochSpentAddressesFiles()).thenReturn(files);
+        when(localSnapshotsPersistenceProvider.get(SpentAddressesState.class, new IntegerIndex(1)))
+                .thenReturn(new SpentAddressesState(files.getBytes(StandardCharsets.UTF_8)));
+
+        new SpentAddressesProviderImpl(config, localSnapshotsPersistenceProvider).init(false);
+
+        verify(localSnapshotsPersistenceProvider, never()).saveBatch(any());
+    }
+
     //The ExpectedSystemExit rule works by issuing a SecurityException.
     //Since we don't have a specific Exception for db errors yet we catch a general exception in the
     //SpentAddressProvider and rethrow it as SpentAddressesException. So unfortunately for the test it also
@@ -125,4 +201,23 @@ public class SpentAddressesProviderImplTest {
                 .thenReturn(new Pair<>(null,null));
         provider.init(true);
     }
-}
\ No newline at end of file
+
+    private static PersistenceCursor cursorOf(Hash... addresses) {
+        Iterator<Hash> iterator = Arrays.asList(addresses).iterator();
+        return new PersistenceCursor() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Pair<Indexable, Persistable> next() {
+                return new Pair<>(iterator.next(), new SpentAddress());
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -6,6 +6,7 @@ import static com.iota.iri.TransactionTestUtils.createTransactionWithTrunkBundle
 import static com.iota.iri.TransactionTestUtils.getTransactionHash;
 import static com.iota.iri.TransactionTestUtils.getTransactionTritsWithTrunkAndBranch;
 
+import com.iota.iri.controllers.BundleTailViewModel;
 import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.service.snapshot.SnapshotProvider;
@@ -24,6 +25,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 public class TailFinderImplTest {
@@ -111,4 +113,22 @@ public class TailFinderImplTest {
         Optional<Hash> tail = tailFinder.findTail(tx2.getHash());
         Assert.assertFalse("tail was found, but should me missing", tail.isPresent());
     }
+
+    @Test
+    public void findIndexedTailTest() throws Exception {
+        TransactionViewModel txa = new TransactionViewModel(getTransactionTrits(), getTransactionHash());
+        txa.store(tangle, snapshotProvider.getInitialSnapshot());
+
+        TransactionViewModel tx1 = createBundleHead(1);
+        tx1.store(tangle, snapshotProvider.getInitialSnapshot());
+
+        // the tail itself is not stored, so it can only be found through the index
+        TransactionViewModel tx0 = createTransactionWithTrunkBundleHash(tx1, txa.getHash());
+        BundleTailViewModel.store(tangle, Arrays.asList(tx0, tx1));
+
+        Optional<Hash> tail = tailFinder.findTail(tx1.getHash());
+        Assert.assertTrue("no tail was found", tail.isPresent());
+        Assert.assertEquals("Expected tail not found", tx0.getHash(), tail.get());
+        Assert.assertEquals("Expected tail not found", Optional.of(tx0.getHash()), tailFinder.findTailFromTx(tx1));
+    }
 }
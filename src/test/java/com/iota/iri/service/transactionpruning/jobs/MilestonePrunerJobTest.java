@@ -0,0 +1,150 @@
+package com.iota.iri.service.transactionpruning.jobs;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.controllers.BundleTailViewModel;
+import com.iota.iri.controllers.MilestoneViewModel;
+import com.iota.iri.controllers.StateDiffViewModel;
+import com.iota.iri.controllers.TipsViewModel;
+import com.iota.iri.controllers.TransactionViewModel;
+import com.iota.iri.model.Hash;
+import com.iota.iri.model.IntegerIndex;
+import com.iota.iri.model.StateDiff;
+import com.iota.iri.model.persistables.BundleTail;
+import com.iota.iri.model.persistables.Milestone;
+import com.iota.iri.model.persistables.Transaction;
+import com.iota.iri.service.snapshot.Snapshot;
+import com.iota.iri.service.spentaddresses.SpentAddressesProvider;
+import com.iota.iri.service.spentaddresses.SpentAddressesService;
+import com.iota.iri.service.transactionpruning.TransactionPrunerJobStatus;
+import com.iota.iri.service.transactionpruning.TransactionPruner;
+import com.iota.iri.storage.Tangle;
+import com.iota.iri.storage.rocksDB.RocksDBPersistenceProvider;
+import com.iota.iri.utils.Converter;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+public class MilestonePrunerJobTest {
+
+    /**
+     * Three passes of the job, the last one shorter than the others.
+     */
+    private static final int TARGET_INDEX = 110;
+
+    private static final int LATEST_INDEX = 120;
+
+    private static final int SPEND_INDEX = 60;
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public TemporaryFolder dbFolder = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder logFolder = new TemporaryFolder();
+
+    @Mock
+    private Snapshot snapshot;
+
+    @Mock
+    private TransactionPruner transactionPruner;
+
+    @Mock
+    private SpentAddressesProvider spentAddressesProvider;
+
+    @Mock
+    private SpentAddressesService spentAddressesService;
+
+    private final Tangle tangle = new Tangle();
+
+    private final Hash[] milestones = new Hash[LATEST_INDEX + 1];
+
+    private final Hash[] confirmedTransactions = new Hash[LATEST_INDEX + 1];
+
+    @Before
+    public void setUp() throws Exception {
+        tangle.addPersistenceProvider(new RocksDBPersistenceProvider(dbFolder.getRoot().getAbsolutePath(),
+                logFolder.getRoot().getAbsolutePath(), 1000, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY));
+        tangle.init();
+
+        // every milestone approves the previous milestone and a transaction that it confirmed
+        Hash previousMilestone = Hash.NULL_HASH;
+        for (int index = 1; index <= LATEST_INDEX; index++) {
+            TransactionViewModel confirmed = storeTransaction(Hash.NULL_HASH, Hash.NULL_HASH,
+                    index == SPEND_INDEX ? -10 : 0, index);
+            BundleTailViewModel.store(tangle, Collections.singletonList(confirmed));
+            confirmedTransactions[index] = confirmed.getHash();
+
+            TransactionViewModel milestone = storeTransaction(previousMilestone, confirmed.getHash(), 0, index);
+            new MilestoneViewModel(index, milestone.getHash()).store(tangle);
+            new StateDiffViewModel(Collections.singletonMap(confirmed.getHash(), 1L), milestone.getHash())
+                    .store(tangle);
+            milestones[index] = milestone.getHash();
+            previousMilestone = milestone.getHash();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tangle.shutdown();
+    }
+
+    @Test
+    public void milestonesOfAllPassesArePruned() throws Exception {
+        MilestonePrunerJob job = new MilestonePrunerJob(1, TARGET_INDEX);
+        job.setTangle(tangle);
+        job.setSnapshot(snapshot);
+        job.setTipsViewModel(new TipsViewModel());
+        job.setTransactionPruner(transactionPruner);
+        job.setSpentAddressesProvider(spentAddressesProvider);
+        job.setSpentAddressesService(spentAddressesService);
+
+        job.process();
+
+        assertEquals("job should be done", TransactionPrunerJobStatus.DONE, job.getStatus());
+        assertEquals("job should have progressed past the target", TARGET_INDEX + 1, job.getCurrentIndex());
+        for (int index = 1; index <= LATEST_INDEX; index++) {
+            boolean kept = index > TARGET_INDEX;
+            assertEquals("milestone " + index, kept, tangle.exists(Milestone.class, new IntegerIndex(index)));
+            assertEquals("state diff " + index, kept, tangle.exists(StateDiff.class, milestones[index]));
+            assertEquals("milestone transaction " + index, kept,
+                    tangle.exists(Transaction.class, milestones[index]));
+            assertEquals("confirmed transaction " + index, kept,
+                    tangle.exists(Transaction.class, confirmedTransactions[index]));
+            assertEquals("bundle tail " + index, kept,
+                    tangle.exists(BundleTail.class, confirmedTransactions[index]));
+        }
+        assertNull("pruned milestone should not be cached", MilestoneViewModel.get(tangle, TARGET_INDEX));
+        assertNotNull("kept milestone should be found", MilestoneViewModel.get(tangle, TARGET_INDEX + 1));
+        assertEquals("pruned transaction should not be cached", TransactionViewModel.PREFILLED_SLOT,
+                TransactionViewModel.fromHash(tangle, confirmedTransactions[SPEND_INDEX]).getType());
+        verify(spentAddressesService).persistSpentAddresses(argThat(spends -> spends.size() == 1 &&
+                spends.iterator().next().getHash().equals(confirmedTransactions[SPEND_INDEX])));
+    }
+
+    private TransactionViewModel storeTransaction(Hash trunk, Hash branch, long value, int snapshotIndex)
+            throws Exception {
+        byte[] trits = TransactionTestUtils.getTransactionTritsWithTrunkAndBranch(trunk, branch);
+        Converter.copyTrits(value, trits, TransactionViewModel.VALUE_TRINARY_OFFSET,
+                TransactionViewModel.VALUE_USABLE_TRINARY_SIZE);
+        TransactionViewModel transaction = TransactionTestUtils.createTransactionFromTrits(trits);
+        transaction.store(tangle, snapshot);
+        transaction.setSnapshot(tangle, snapshot, snapshotIndex);
+        return transaction;
+    }
+}
@@ -0,0 +1,159 @@
+package com.iota.iri.storage;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.model.IntegerIndex;
+import com.iota.iri.model.persistables.Approvee;
+import com.iota.iri.model.persistables.Transaction;
+import com.iota.iri.utils.Pair;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class GroupCommitWriterTest {
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private PersistenceProvider persistenceProvider;
+
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+
+    private Tangle tangle;
+
+    private GroupCommitWriter groupCommitWriter;
+
+    @Before
+    public void setUp() throws Exception {
+        // the first write blocks, so the following batches queue up behind it
+        Mockito.when(persistenceProvider.saveBatch(Mockito.any())).thenAnswer(invocation -> {
+            writeStarted.countDown();
+            releaseWrite.await();
+            return true;
+        });
+
+        tangle = new Tangle();
+        tangle.addPersistenceProvider(persistenceProvider);
+        groupCommitWriter = new GroupCommitWriter(tangle, 10);
+        groupCommitWriter.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        releaseWrite.countDown();
+        groupCommitWriter.shutdown();
+    }
+
+    @Test
+    public void pendingTransactionsAreVisibleUntilWritten() throws Exception {
+        Transaction transaction = TransactionTestUtils.getTransaction();
+        IntegerIndex index = new IntegerIndex(1);
+        CompletableFuture<Void> future = groupCommitWriter.write(Arrays.asList(
+                new Pair<Indexable, Persistable>(index, new Approvee()),
+                new Pair<Indexable, Persistable>(index, transaction)));
+        Assert.assertTrue("write should start", writeStarted.await(5, TimeUnit.SECONDS));
+
+        Assert.assertTrue("pending transaction should exist", tangle.exists(Transaction.class, index));
+        Persistable pending = tangle.load(Transaction.class, index);
+        Assert.assertNotSame("reads should get a copy of the pending transaction", transaction, pending);
+        Assert.assertArrayEquals("copy should have the same bytes", transaction.bytes(), pending.bytes());
+        Assert.assertArrayEquals("copy should have the same metadata", transaction.metadata(), pending.metadata());
+        Assert.assertNull("mergeable models should not be kept", groupCommitWriter.getPending(Approvee.class, index));
+        Assert.assertFalse("write should still be running", future.isDone());
+
+        releaseWrite.countDown();
+        future.get(5, TimeUnit.SECONDS);
+        Assert.assertNull("written transaction should not be pending anymore",
+                groupCommitWriter.getPending(Transaction.class, index));
+    }
+
+    @Test
+    public void updateOfPendingTransactionIsWrittenAfterIt() throws Exception {
+        Transaction transaction = TransactionTestUtils.getTransaction();
+        IntegerIndex index = new IntegerIndex(1);
+        CompletableFuture<Void> future = groupCommitWriter.write(Collections.singletonList(
+                new Pair<Indexable, Persistable>(index, transaction)));
+        Assert.assertTrue("write should start", writeStarted.await(5, TimeUnit.SECONDS));
+
+        Transaction updated = (Transaction) tangle.load(Transaction.class, index);
+        updated.sender.set("localhost:15600");
+        tangle.update(updated, index, "sender");
+
+        Assert.assertEquals("reads should see the update", "localhost:15600",
+                ((Transaction) tangle.load(Transaction.class, index)).sender.get());
+        Mockito.verify(persistenceProvider, Mockito.never()).update(Mockito.any(), Mockito.any(), Mockito.any());
+
+        releaseWrite.countDown();
+        future.get(5, TimeUnit.SECONDS);
+        ArgumentCaptor<List<Pair<Indexable, Persistable>>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(persistenceProvider, Mockito.timeout(5000).times(2)).saveBatch(captor.capture());
+        Assert.assertSame("the update should be written after the pending transaction", updated,
+                captor.getAllValues().get(1).get(0).hi);
+    }
+
+    @Test
+    public void updateOfWrittenTransactionGoesToTheProviders() throws Exception {
+        IntegerIndex index = new IntegerIndex(1);
+        Transaction transaction = TransactionTestUtils.getTransaction();
+
+        tangle.update(transaction, index, "sender");
+
+        Mockito.verify(persistenceProvider).update(transaction, index, "sender");
+        Mockito.verify(persistenceProvider, Mockito.never()).saveBatch(Mockito.any());
+    }
+
+    @Test
+    public void queuedBatchesAreWrittenTogether() throws Exception {
+        CompletableFuture<Void> first = groupCommitWriter.write(batch(0));
+        Assert.assertTrue("write should start", writeStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = groupCommitWriter.write(batch(1));
+        CompletableFuture<Void> third = groupCommitWriter.write(batch(2));
+
+        releaseWrite.countDown();
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<List<Pair<Indexable, Persistable>>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(persistenceProvider, Mockito.times(2)).saveBatch(captor.capture());
+        Assert.assertEquals("queued batches should be written with a single write", 2,
+                captor.getAllValues().get(1).size());
+    }
+
+    @Test
+    public void failedWriteCompletesExceptionally() throws Exception {
+        Exception failure = new Exception("write failed");
+        Mockito.doThrow(failure).when(persistenceProvider).saveBatch(Mockito.any());
+        IntegerIndex index = new IntegerIndex(1);
+
+        CompletableFuture<Void> future = groupCommitWriter.write(batch(1));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("write should fail");
+        } catch (ExecutionException e) {
+            Assert.assertSame("should pass on the failure", failure, e.getCause());
+        }
+        Assert.assertNull("failed transaction should not be pending anymore",
+                groupCommitWriter.getPending(Transaction.class, index));
+    }
+
+    private static List<Pair<Indexable, Persistable>> batch(int index) {
+        return Collections.singletonList(new Pair<Indexable, Persistable>(new IntegerIndex(index), new Transaction()));
+    }
+}
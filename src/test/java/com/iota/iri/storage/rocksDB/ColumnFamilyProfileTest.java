@@ -0,0 +1,77 @@
+package com.iota.iri.storage.rocksDB;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.rocksdb.CompressionType;
+
+public class ColumnFamilyProfileTest {
+
+    @Test
+    public void overridesChangeOnlyTheGivenOptions() {
+        Map<String, ColumnFamilyProfile> profiles = ColumnFamilyProfile.withOverrides(
+                ColumnFamilyProfile.TANGLE_PRESETS,
+                Arrays.asList("transaction.compression=zstd", "transaction.write_buffer_size=67108864"));
+
+        ColumnFamilyProfile preset = ColumnFamilyProfile.TANGLE_PRESETS.get("transaction");
+        ColumnFamilyProfile profile = profiles.get("transaction");
+        Assert.assertEquals(CompressionType.ZSTD_COMPRESSION, profile.getCompressionType());
+        Assert.assertEquals(67108864, profile.getWriteBufferSize());
+        Assert.assertEquals(preset.getBlockSize(), profile.getBlockSize());
+        Assert.assertEquals(preset.getBloomBitsPerKey(), profile.getBloomBitsPerKey());
+        Assert.assertSame("other families should keep their preset",
+                ColumnFamilyProfile.TANGLE_PRESETS.get("address"), profiles.get("address"));
+    }
+
+    @Test
+    public void familiesWithoutPresetStartWithDefault() {
+        Map<String, ColumnFamilyProfile> profiles = ColumnFamilyProfile.withOverrides(Collections.emptyMap(),
+                Collections.singletonList("transaction-metadata.bloom_bits=0"));
+
+        ColumnFamilyProfile profile = profiles.get("transaction-metadata");
+        Assert.assertEquals(0, profile.getBloomBitsPerKey());
+        Assert.assertEquals(ColumnFamilyProfile.DEFAULT.getWriteBufferSize(), profile.getWriteBufferSize());
+        Assert.assertEquals(ColumnFamilyProfile.DEFAULT.getCompressionType(), profile.getCompressionType());
+    }
+
+    @Test
+    public void pointLookupsApplyToHashKeyedFamilies() {
+        Map<String, ColumnFamilyProfile> presets = new HashMap<>(ColumnFamilyProfile.TANGLE_PRESETS);
+        presets.put("spent-addresses", ColumnFamilyProfile.DEFAULT);
+        Map<String, ColumnFamilyProfile> profiles = ColumnFamilyProfile.withPointLookups(presets);
+
+        Assert.assertTrue(profiles.get("transaction").isPointLookup());
+        Assert.assertTrue(profiles.get("transaction-metadata").isPointLookup());
+        Assert.assertTrue(profiles.get("address").isPointLookup());
+        Assert.assertTrue(profiles.get("stateDiff").isPointLookup());
+        Assert.assertFalse("milestones are read in order", profiles.get("milestone").isPointLookup());
+        Assert.assertFalse("only the families of the tangle should change",
+                profiles.get("spent-addresses").isPointLookup());
+        Assert.assertFalse("presets should not change", ColumnFamilyProfile.TANGLE_PRESETS.get("transaction")
+                .isPointLookup());
+        Assert.assertEquals(ColumnFamilyProfile.TANGLE_PRESETS.get("transaction").getBlockSize(),
+                profiles.get("transaction").getBlockSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownOptionIsRejected() {
+        ColumnFamilyProfile.withOverrides(ColumnFamilyProfile.TANGLE_PRESETS,
+                Collections.singletonList("transaction.unknown=1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidValueIsRejected() {
+        ColumnFamilyProfile.withOverrides(ColumnFamilyProfile.TANGLE_PRESETS,
+                Collections.singletonList("transaction.block_size=-1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedOverrideIsRejected() {
+        ColumnFamilyProfile.withOverrides(ColumnFamilyProfile.TANGLE_PRESETS,
+                Collections.singletonList("transaction=lz4"));
+    }
+}
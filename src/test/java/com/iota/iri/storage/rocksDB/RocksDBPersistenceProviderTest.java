@@ -4,6 +4,7 @@ import com.iota.iri.model.IntegerIndex;
 import com.iota.iri.model.persistables.Transaction;
 import com.iota.iri.storage.Indexable;
 import com.iota.iri.storage.Persistable;
+import com.iota.iri.storage.PersistenceCursor;
 import com.iota.iri.storage.Tangle;
 import com.iota.iri.utils.Pair;
 import org.apache.commons.io.FileUtils;
@@ -11,6 +12,7 @@ import org.junit.*;
 import org.junit.runners.MethodSorters;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -76,4 +78,122 @@ public class RocksDBPersistenceProviderTest {
                     rocksDBPersistenceProvider.get(Transaction.class, index).bytes());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDeleteRange() throws Exception {
+        Persistable tx = new Transaction();
+        byte[] bytes = new byte[Transaction.SIZE];
+        Arrays.fill(bytes, (byte) 1);
+        tx.read(bytes);
+        tx.readMetadata(bytes);
+        rocksDBPersistenceProvider.saveBatch(IntStream.range(1, 1000)
+                .mapToObj(i -> new Pair<>((Indexable) new IntegerIndex(i), tx))
+                .collect(Collectors.toList()));
+
+        rocksDBPersistenceProvider.deleteRange(Transaction.class, new IntegerIndex(100), new IntegerIndex(900));
+        rocksDBPersistenceProvider.compactRange(Transaction.class, new IntegerIndex(100), new IntegerIndex(900));
+
+        for (int i = 1; i < 1000; i++) {
+            if (i >= 100 && i < 900) {
+                Assert.assertNull("value at index " + i + " should be deleted",
+                        rocksDBPersistenceProvider.get(Transaction.class, new IntegerIndex(i)).bytes());
+            } else {
+                Assert.assertArrayEquals("saved bytes are not as expected in index " + i, tx.bytes(),
+                        rocksDBPersistenceProvider.get(Transaction.class, new IntegerIndex(i)).bytes());
+            }
+        }
+    }
+
+    @Test
+    public void testMultiGet() throws Exception {
+        Persistable tx = new Transaction();
+        byte[] bytes = new byte[Transaction.SIZE];
+        Arrays.fill(bytes, (byte) 1);
+        tx.read(bytes);
+        tx.readMetadata(bytes);
+        rocksDBPersistenceProvider.saveBatch(IntStream.range(0, 10)
+                .mapToObj(i -> new Pair<>((Indexable) new IntegerIndex(i * 2), tx))
+                .collect(Collectors.toList()));
+
+        List<IntegerIndex> indexes = IntStream.range(0, 20)
+                .mapToObj(IntegerIndex::new)
+                .collect(Collectors.toList());
+        List<Persistable> models = rocksDBPersistenceProvider.multiGet(Transaction.class, indexes, true);
+
+        Assert.assertEquals("should return a model for every index", indexes.size(), models.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            if (i % 2 == 0) {
+                Assert.assertArrayEquals("saved bytes are not as expected in index " + i, tx.bytes(),
+                        models.get(i).bytes());
+                Assert.assertArrayEquals("saved metadata is not as expected in index " + i, tx.metadata(),
+                        models.get(i).metadata());
+            } else {
+                Assert.assertFalse("value at index " + i + " should not exist", models.get(i).exists());
+            }
+        }
+    }
+
+    @Test
+    public void testMultiGetWithoutMetadata() throws Exception {
+        Transaction tx = new Transaction();
+        byte[] bytes = new byte[Transaction.SIZE];
+        Arrays.fill(bytes, (byte) 1);
+        tx.read(bytes);
+        tx.readMetadata(bytes);
+        rocksDBPersistenceProvider.saveBatch(IntStream.range(0, 10)
+                .mapToObj(i -> new Pair<>((Indexable) new IntegerIndex(i), (Persistable) tx))
+                .collect(Collectors.toList()));
+
+        List<IntegerIndex> indexes = IntStream.range(0, 10)
+                .mapToObj(IntegerIndex::new)
+                .collect(Collectors.toList());
+        List<Persistable> models = rocksDBPersistenceProvider.multiGet(Transaction.class, indexes, false);
+
+        for (int i = 0; i < indexes.size(); i++) {
+            Assert.assertArrayEquals("saved bytes are not as expected in index " + i, tx.bytes(),
+                    models.get(i).bytes());
+            Assert.assertFalse("metadata should not be read in index " + i,
+                    ((Transaction) models.get(i)).parsed.get());
+        }
+    }
+
+    @Test
+    public void testCursor() throws Exception {
+        Persistable tx = new Transaction();
+        byte[] bytes = new byte[Transaction.SIZE];
+        Arrays.fill(bytes, (byte) 1);
+        tx.read(bytes);
+        tx.readMetadata(bytes);
+        rocksDBPersistenceProvider.saveBatch(IntStream.range(0, 10)
+                .mapToObj(i -> new Pair<>((Indexable) new IntegerIndex(i * 2), tx))
+                .collect(Collectors.toList()));
+
+        Assert.assertEquals("should scan all keys in order", IntStream.range(0, 10).map(i -> i * 2).boxed()
+                .collect(Collectors.toList()), scan(null, false));
+        Assert.assertEquals("should start at the first key after the missing key", Arrays.asList(14, 16, 18),
+                scan(new IntegerIndex(13), false));
+        Assert.assertEquals("should start at the last key before the missing key", Arrays.asList(12, 10, 8, 6, 4, 2,
+                0), scan(new IntegerIndex(13), true));
+        Assert.assertEquals("should not find keys after the last key", new ArrayList<>(),
+                scan(new IntegerIndex(19), false));
+
+        try (PersistenceCursor cursor = rocksDBPersistenceProvider.cursor(Transaction.class, IntegerIndex.class,
+                new IntegerIndex(18), false)) {
+            Pair<Indexable, Persistable> entry = cursor.next();
+            Assert.assertArrayEquals("saved bytes are not as expected", tx.bytes(), entry.hi.bytes());
+            Assert.assertArrayEquals("saved metadata is not as expected", tx.metadata(), entry.hi.metadata());
+            Assert.assertFalse("cursor should be exhausted", cursor.hasNext());
+        }
+    }
+
+    private List<Integer> scan(Indexable from, boolean reverse) throws Exception {
+        List<Integer> keys = new ArrayList<>();
+        try (PersistenceCursor cursor = rocksDBPersistenceProvider.cursor(Transaction.class, IntegerIndex.class, from,
+                reverse)) {
+            while (cursor.hasNext()) {
+                keys.add(((IntegerIndex) cursor.next().low).getValue());
+            }
+        }
+        return keys;
+    }
+}
@@ -13,4 +13,15 @@ public class ConverterTest {
         Assert.assertEquals(Converter.trytesToAscii(trytes), "HELLO\0\0\0\0\0");
     }
 
+    @Test
+    public void testTrytesFromBytes() {
+        String trytes = "RBOBVBVBYB999999999ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        byte[] trits = Converter.allocatingTritsFromTrytes(trytes);
+        byte[] bytes = Converter.allocateBytesForTrits(trits.length);
+        Converter.bytes(trits, bytes);
+
+        Assert.assertEquals(trytes, Converter.trytesFromBytes(bytes, trits.length));
+        Assert.assertEquals("999", Converter.trytesFromBytes(new byte[0], 9));
+    }
+
 }
\ No newline at end of file
@@ -4,6 +4,9 @@ import com.iota.iri.TransactionTestUtils;
 import com.iota.iri.model.persistables.Transaction;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 public class TransactionTruncatorTest {
@@ -54,4 +57,24 @@ public class TransactionTruncatorTest {
             assertEquals("origin sig frag should be intact", 3, expandedTxData[i]);
         }
     }
+
+    @Test
+    public void expandTruncatedTransactionFromBufferLeavesPositionUntouched() {
+        int truncatedSize = 1000;
+        int prefix = 7;
+        ByteBuffer buf = ByteBuffer.allocateDirect(prefix + truncatedSize);
+        buf.position(prefix);
+        for (int i = 0; i < truncatedSize; i++) {
+            buf.put((byte) 3);
+        }
+        buf.position(prefix);
+
+        byte[] truncatedTxData = new byte[truncatedSize];
+        Arrays.fill(truncatedTxData, (byte) 3);
+
+        assertArrayEquals("should expand the same as the array based variant",
+                TransactionTruncator.expandTransaction(truncatedTxData),
+                TransactionTruncator.expandTransaction(buf, Transaction.SIZE));
+        assertEquals("position of the buffer should be untouched", prefix, buf.position());
+    }
 }
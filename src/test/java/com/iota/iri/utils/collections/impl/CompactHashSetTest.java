@@ -0,0 +1,51 @@
+package com.iota.iri.utils.collections.impl;
+
+import com.iota.iri.TransactionTestUtils;
+import com.iota.iri.model.Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class CompactHashSetTest {
+
+    @Test
+    public void testAdd() {
+        CompactHashSet compactHashSet = new CompactHashSet();
+        Hash hash = TransactionTestUtils.getTransactionHash();
+
+        Assert.assertTrue("can't add", compactHashSet.add(hash));
+        Assert.assertFalse("duplicate was added", compactHashSet.add(hash));
+        Assert.assertEquals("set should contain one element", 1, compactHashSet.size());
+    }
+
+    @Test
+    public void testGrowing() {
+        CompactHashSet compactHashSet = new CompactHashSet(1);
+        Set<Hash> hashes = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            Hash hash = TransactionTestUtils.getTransactionHash();
+            hashes.add(hash);
+            compactHashSet.add(hash);
+        }
+
+        Assert.assertEquals("sets should have the same size", hashes.size(), compactHashSet.size());
+        Assert.assertTrue("set should contain all added elements", compactHashSet.containsAll(hashes));
+        Assert.assertFalse("set should not contain other elements",
+                compactHashSet.contains(TransactionTestUtils.getTransactionHash()));
+        Assert.assertEquals("iterated elements should be the added elements", hashes, new HashSet<>(compactHashSet));
+    }
+
+    @Test
+    public void testClear() {
+        CompactHashSet compactHashSet = new CompactHashSet();
+        Hash hash = TransactionTestUtils.getTransactionHash();
+        compactHashSet.add(hash);
+
+        compactHashSet.clear();
+
+        Assert.assertTrue("set should be empty", compactHashSet.isEmpty());
+        Assert.assertFalse("set should not contain the removed element", compactHashSet.contains(hash));
+    }
+}
@@ -3,9 +3,15 @@ package com.iota.iri.utils.dag;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Before;
@@ -22,10 +28,16 @@ import com.iota.iri.controllers.TransactionViewModel;
 import com.iota.iri.model.Hash;
 import com.iota.iri.model.persistables.Approvee;
 import com.iota.iri.model.persistables.Transaction;
+import com.iota.iri.storage.Persistable;
 import com.iota.iri.storage.Tangle;
 
 public class DAGHelperTest {
     
+    /**
+     * Wider than the levels which are loaded on the calling thread and than a single batch of the traversal pool.
+     */
+    private static final int WIDE_LEVEL_SIZE = 300;
+
     private static final Hash A = TransactionTestUtils.getTransactionHash();
     private static final Hash B = TransactionTestUtils.getTransactionHash();
     private static final Hash C = TransactionTestUtils.getTransactionHash();
@@ -106,4 +118,143 @@ public class DAGHelperTest {
         assertArrayEquals("Last transaction should have TX1 its bytes", tx.getTransaction().bytes(), TX1.bytes());
     }
 
+    @Test
+    public void testVisitApprovees() throws Exception {
+        TangleMockUtils.mockTransaction(tangle, Hash.NULL_HASH, TX1);
+        TangleMockUtils.mockTransaction(tangle, A, TX2);
+        TangleMockUtils.mockTransaction(tangle, C, TX3);
+
+        List<Hash> visited = new LinkedList<>();
+        helper.visitApprovees(Arrays.asList(C, A), transaction -> visited.add(transaction.getHash()),
+                new HashSet<>());
+
+        assertEquals("every transaction should have been visited once", Arrays.asList(C, A, Hash.NULL_HASH),
+                visited);
+    }
+
+    @Test
+    public void testVisitApproversOfWideLevels() throws Exception {
+        Map<Hash, Transaction> transactions = new HashMap<>();
+        Map<Hash, Approvee> approvers = new HashMap<>();
+        mockTangle(transactions, approvers);
+
+        // every transaction of the second level approves two transactions of the first level, every transaction of the
+        // third level approves one transaction of the second level
+        Hash root = storeTransaction(transactions, Hash.NULL_HASH, Hash.NULL_HASH);
+        List<Hash> firstLevel = new ArrayList<>();
+        List<Hash> secondLevel = new ArrayList<>();
+        List<Hash> thirdLevel = new ArrayList<>();
+        for (int i = 0; i < WIDE_LEVEL_SIZE; i++) {
+            firstLevel.add(storeTransaction(transactions, root, root));
+        }
+        for (int i = 0; i < WIDE_LEVEL_SIZE; i++) {
+            secondLevel.add(storeTransaction(transactions, firstLevel.get(i),
+                    firstLevel.get((i + 1) % WIDE_LEVEL_SIZE)));
+            thirdLevel.add(storeTransaction(transactions, secondLevel.get(i), secondLevel.get(i)));
+        }
+        approvers.put(root, approvee(firstLevel));
+        for (int i = 0; i < WIDE_LEVEL_SIZE; i++) {
+            approvers.put(firstLevel.get(i), approvee(Arrays.asList(secondLevel.get(i),
+                    secondLevel.get((i + WIDE_LEVEL_SIZE - 1) % WIDE_LEVEL_SIZE))));
+            approvers.put(secondLevel.get(i), approvee(Collections.singletonList(thirdLevel.get(i))));
+        }
+
+        // the traversal stops at the odd transactions of the second level
+        Set<Hash> stoppedTransactions = new HashSet<>();
+        for (int i = 1; i < WIDE_LEVEL_SIZE; i += 2) {
+            stoppedTransactions.add(secondLevel.get(i));
+        }
+
+        List<Hash> visited = new ArrayList<>();
+        helper.visitApprovers(Collections.singletonList(root), transaction -> {
+            visited.add(transaction.getHash());
+            return !stoppedTransactions.contains(transaction.getHash());
+        }, new HashSet<>());
+
+        // the approvers of a level are visited in the order of their first reference by the previous level
+        List<Hash> expected = new ArrayList<>();
+        expected.add(root);
+        expected.addAll(firstLevel);
+        Set<Hash> expectedSecondLevel = new LinkedHashSet<>();
+        for (Hash transaction : firstLevel) {
+            expectedSecondLevel.addAll(approvers.get(transaction).set);
+        }
+        expected.addAll(expectedSecondLevel);
+        for (Hash transaction : expectedSecondLevel) {
+            if (!stoppedTransactions.contains(transaction)) {
+                expected.add(thirdLevel.get(secondLevel.indexOf(transaction)));
+            }
+        }
+        assertEquals("every transaction should have been visited once in breadth first order", expected, visited);
+    }
+
+    @Test
+    public void testVisitApproveesOfWideLevels() throws Exception {
+        Map<Hash, Transaction> transactions = new HashMap<>();
+        mockTangle(transactions, new HashMap<>());
+
+        // every starting transaction approves two transactions of the next level, which approve missing transactions
+        List<Hash> approvees = new ArrayList<>();
+        List<Hash> startingTransactions = new ArrayList<>();
+        for (int i = 0; i < WIDE_LEVEL_SIZE; i++) {
+            approvees.add(storeTransaction(transactions, Hash.NULL_HASH, Hash.NULL_HASH));
+        }
+        for (int i = 0; i < WIDE_LEVEL_SIZE; i++) {
+            startingTransactions.add(storeTransaction(transactions, approvees.get(i),
+                    approvees.get((i + 1) % WIDE_LEVEL_SIZE)));
+        }
+
+        // the traversal stops at half of the starting transactions, so a quarter of the approvees is not reached
+        Set<Hash> stoppedTransactions = new HashSet<>();
+        for (int i = 0; i < WIDE_LEVEL_SIZE; i++) {
+            if (i % 4 < 2) {
+                stoppedTransactions.add(startingTransactions.get(i));
+            }
+        }
+
+        List<Hash> visited = new ArrayList<>();
+        helper.visitApprovees(startingTransactions, transaction -> {
+            visited.add(transaction.getHash());
+            return !stoppedTransactions.contains(transaction.getHash());
+        }, new HashSet<>());
+
+        List<Hash> expected = new ArrayList<>(startingTransactions);
+        Set<Hash> expectedApprovees = new LinkedHashSet<>();
+        for (int i = 0; i < WIDE_LEVEL_SIZE; i++) {
+            if (!stoppedTransactions.contains(startingTransactions.get(i))) {
+                expectedApprovees.add(approvees.get((i + 1) % WIDE_LEVEL_SIZE));
+                expectedApprovees.add(approvees.get(i));
+            }
+        }
+        expected.addAll(expectedApprovees);
+        assertEquals("every transaction should have been visited once in breadth first order", expected, visited);
+        assertEquals("approvees of stopped transactions only should not be reached", WIDE_LEVEL_SIZE * 3 / 4,
+                expectedApprovees.size());
+    }
+
+    private void mockTangle(Map<Hash, Transaction> transactions, Map<Hash, Approvee> approvers) throws Exception {
+        Mockito.when(tangle.load(Mockito.eq(Transaction.class), Mockito.any()))
+                .thenAnswer(invocation -> transactions.get(invocation.<Hash>getArgument(1)));
+        Mockito.when(tangle.loadBatch(Mockito.eq(Transaction.class), Mockito.anyList())).thenAnswer(invocation -> {
+            List<Persistable> batch = new ArrayList<>();
+            for (Hash hash : invocation.<List<Hash>>getArgument(1)) {
+                batch.add(transactions.get(hash));
+            }
+            return batch;
+        });
+        Mockito.when(tangle.load(Mockito.eq(Approvee.class), Mockito.any()))
+                .thenAnswer(invocation -> approvers.get(invocation.<Hash>getArgument(1)));
+    }
+
+    private static Hash storeTransaction(Map<Hash, Transaction> transactions, Hash trunk, Hash branch) {
+        Hash hash = TransactionTestUtils.getTransactionHash();
+        transactions.put(hash, TransactionTestUtils.createTransactionWithTrunkAndBranch(trunk, branch));
+        return hash;
+    }
+
+    private static Approvee approvee(List<Hash> hashes) {
+        Approvee approvee = new Approvee();
+        approvee.set.addAll(hashes);
+        return approvee;
+    }
 }
@@ -233,4 +233,38 @@ public class CuckooFilterImplTest {
                     emptyCuckooFilter.getCapacity() < filterSize * 2.094d);
         }
     }
+
+    /**
+     * This method tests the image of the filter by:
+     *
+     *   1. filling a filter until items start to be kicked out into the victim slot
+     *   2. restoring a new filter from the image of the first one
+     *   3. checking that the restored filter contains the same items and reports the same size and capacity
+     */
+    @Test
+    public void testFimageRoundTrip() {
+        CuckooFilterImpl originalFilter = new CuckooFilterImpl(100);
+        int addedItems = 0;
+        while (originalFilter.add("ITEM" + addedItems)) {
+            addedItems++;
+        }
+
+        CuckooFilterImpl restoredFilter = new CuckooFilterImpl(originalFilter.toBytes());
+
+        Assert.assertEquals("the restored filter should have the same size", originalFilter.size(),
+                restoredFilter.size());
+        Assert.assertEquals("the restored filter should have the same capacity", originalFilter.getCapacity(),
+                restoredFilter.getCapacity());
+        for (int i = 0; i <= addedItems; i++) {
+            Assert.assertTrue("the restored filter should contain all added items",
+                    restoredFilter.contains("ITEM" + i));
+        }
+
+        try {
+            new CuckooFilterImpl(new byte[3]);
+            Assert.fail("a malformed image should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
 }